@@ -0,0 +1,164 @@
+package benchmark;
+
+import scheduler.*;
+import util.Date;
+import util.List;
+
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap taken per appointment by three representations of the
+ * same synthetic schedule. "per booking" is how the GUI used to store an
+ * appointment, with its own Date, Patient, Profile and name strings for
+ * every booking. "shared" keeps the first Patient of each profile and the
+ * first Date of each day, as ClinicScheduler now shares patients. "table"
+ * is the AppointmentTable of this package, a 12-byte-a-row columnar layout
+ * kept only to measure what such a layout would save; the scheduler does
+ * not store its appointments that way. Each representation is built on its
+ * own, and the retained heap is read after repeated full collections, so
+ * only live objects are counted.
+ * JMH has no allocation-retained measure, so this is a plain main; run it
+ * with a heap large enough for the per booking schedule, e.g. -Xmx2g.
+ * Usage: AppointmentMemory [appointments] [patients] [seed]
+ * @author Keshav Dave, Danny Watson
+ */
+public class AppointmentMemory {
+    // Constants
+    private static final int DEFAULT_APPOINTMENTS = 1_000_000;
+    private static final int DEFAULT_PATIENTS = 100_000;
+    private static final int DOCTORS = 200;
+    private static final int TECHNICIANS = 60;
+    private static final int DAYS = 126;
+    private static final int LOCATIONS = 6;
+    private static final int IMAGING_PERCENT = 20;
+    private static final int GC_ROUNDS = 5;
+
+    private static Object retained;
+
+    /**
+     * Draws the appointments of the schedule, sharing the patients, dates
+     * and providers of the synthetic schedule.
+     * @param schedule the synthetic schedule
+     * @param count the number of appointments
+     * @return the drawn appointments
+     */
+    private static Appointment[] draw(SyntheticSchedule schedule, int count) {
+        List<Technician> technicians = new List<>();
+        for (Provider provider : schedule.getProviders()) {
+            if (provider instanceof Technician technician) {
+                technicians.addLast(technician);
+            }
+        }
+        Appointment[] appointments = new Appointment[count];
+        for (int i = 0; i < count; i++) {
+            Date date = schedule.randomDate();
+            Timeslot timeslot = schedule.randomTimeslot();
+            Patient patient = schedule.randomPatient();
+            if (i % 100 < IMAGING_PERCENT) {
+                Technician technician = technicians.get(i % technicians.size());
+                appointments[i] = new Imaging(date, timeslot, patient, technician, schedule.randomRoom());
+            } else {
+                appointments[i] = new Appointment(date, timeslot, patient, schedule.randomDoctor());
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Copies an appointment the way a booking made from the form did, with
+     * its own date, patient, profile and name strings.
+     * @param appointment the appointment to copy
+     * @return the copy
+     */
+    private static Appointment perBooking(Appointment appointment) {
+        Date date = appointment.getDate();
+        Profile profile = appointment.getPatient().getProfile();
+        Date dob = profile.getDOB();
+        Patient patient = new Patient(new Profile(new String(profile.getfname()),
+                new String(profile.getlname()), new Date(dob.getMonth(), dob.getDay(), dob.getYear())));
+        Date copy = new Date(date.getMonth(), date.getDay(), date.getYear());
+        if (appointment instanceof Imaging imaging) {
+            return new Imaging(copy, appointment.getTimeslot(), patient, appointment.getProvider(),
+                    imaging.getRoom());
+        }
+        return new Appointment(copy, appointment.getTimeslot(), patient, appointment.getProvider());
+    }
+
+    /**
+     * Returns the heap in use after repeated full collections.
+     * @return the used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Builds a representation and prints the heap it retains.
+     * @param name the name of the representation
+     * @param count the number of appointments it holds
+     * @param build creates the representation
+     */
+    private static void measure(String name, int count, Supplier<Object> build) {
+        retained = null;
+        long before = usedHeap();
+        retained = build.get();
+        long after = usedHeap();
+        System.out.printf("%-12s %,14d bytes %8.1f bytes/appointment%n", name, after - before,
+                (double) (after - before) / count);
+        retained = null;
+    }
+
+    /**
+     * Prints the heap taken per appointment by each representation.
+     * @param args the optional number of appointments, patients and seed
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_APPOINTMENTS;
+        int patients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PATIENTS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        SyntheticSchedule schedule = new SyntheticSchedule(DOCTORS, TECHNICIANS, patients, DAYS,
+                LOCATIONS, 0, seed);
+        Appointment[] drawn = draw(schedule, count);
+        List<Provider> roster = schedule.getProviders();
+        System.out.printf("%,d appointments of %,d patients over %d days%n", count, patients, DAYS);
+
+        measure("per booking", count, () -> {
+            List<Appointment> list = new List<>();
+            list.ensureCapacity(count);
+            for (Appointment appointment : drawn) {
+                list.addLast(perBooking(appointment));
+            }
+            return list;
+        });
+        measure("shared", count, () -> {
+            List<Appointment> list = new List<>();
+            list.ensureCapacity(count);
+            HashMap<Profile, Person> sharedPatients = new HashMap<>();
+            HashMap<Integer, Date> sharedDates = new HashMap<>();
+            for (Appointment appointment : drawn) {
+                Appointment booked = perBooking(appointment);
+                Person patient = sharedPatients.computeIfAbsent(booked.getPatient().getProfile(),
+                        profile -> booked.getPatient());
+                Date date = sharedDates.computeIfAbsent(booked.getDate().toEpochDay(),
+                        day -> booked.getDate());
+                list.addLast(appointment instanceof Imaging imaging
+                        ? new Imaging(date, booked.getTimeslot(), patient, booked.getProvider(), imaging.getRoom())
+                        : new Appointment(date, booked.getTimeslot(), patient, booked.getProvider()));
+            }
+            return list;
+        });
+        measure("table", count, () -> {
+            AppointmentTable table = new AppointmentTable(roster);
+            table.ensureCapacity(count);
+            for (Appointment appointment : drawn) {
+                table.add(perBooking(appointment));
+            }
+            return table;
+        });
+    }
+}
@@ -0,0 +1,315 @@
+package benchmark;
+
+import scheduler.*;
+import util.Date;
+import util.List;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores appointments as columns of primitives instead of as objects, so
+ * AppointmentMemory can compare the retained heap of that layout with the
+ * appointment objects the scheduler keeps. The scheduler does not use it.
+ * Row i of the table is the epoch day, timeslot number, provider id,
+ * patient id and imaging room of one appointment, 12 bytes in all.
+ * Providers are ids into the roster the table was created with, and
+ * patient ids are the ids of a PatientRegistry, with one Patient per id
+ * shared by all of its rows.
+ * Appointments are only created as views when a row is read, from the
+ * shared patient, provider, timeslot and date objects. Removing a row
+ * moves the last row into its place, so rows are not kept in the order
+ * they were added.
+ * @author Keshav Dave, Danny Watson
+ */
+class AppointmentTable implements Iterable<Appointment> {
+    // Constants
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte OFFICE = 0;
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    // Variables
+    private final Provider[] roster;
+    private final HashMap<Person, Short> providerIds = new HashMap<>();
+    private final PatientRegistry registry = new PatientRegistry();
+    private final List<Patient> patients = new List<>();
+    private final HashMap<Integer, Date> dates = new HashMap<>();
+    private int[] days = new int[INITIAL_CAPACITY];
+    private byte[] timeslots = new byte[INITIAL_CAPACITY];
+    private short[] providers = new short[INITIAL_CAPACITY];
+    private int[] patientColumn = new int[INITIAL_CAPACITY];
+    private byte[] rooms = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Creates an empty table for the appointments of a roster
+     * @param roster the providers the appointments can be with
+     * @throws IllegalArgumentException if the roster has more providers
+     * than a short id can hold
+     */
+    public AppointmentTable(List<Provider> roster) {
+        if (roster.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("A table holds at most " + Short.MAX_VALUE + " providers.");
+        }
+        this.roster = new Provider[roster.size()];
+        for (int i = 0; i < this.roster.length; i++) {
+            this.roster[i] = roster.get(i);
+            this.providerIds.put(this.roster[i], (short) i);
+        }
+    }
+
+    /**
+     * Creates a table holding a copy of appointments
+     * @param appointments the appointments to copy
+     * @param roster the providers of the appointments
+     * @return the new table
+     */
+    public static AppointmentTable copyOf(Iterable<Appointment> appointments, List<Provider> roster) {
+        AppointmentTable table = new AppointmentTable(roster);
+        for (Appointment appointment : appointments) {
+            table.add(appointment);
+        }
+        return table;
+    }
+
+    /**
+     * Adds an appointment as a new row
+     * @param appointment the appointment to add
+     * @return the row of the appointment
+     * @throws IllegalArgumentException if the provider is not in the roster
+     */
+    public int add(Appointment appointment) {
+        Short provider = this.providerIds.get(appointment.getProvider());
+        if (provider == null) {
+            throw new IllegalArgumentException(appointment.getProvider() + " - provider doesn't exist.");
+        }
+        ensureCapacity(this.size + 1);
+        int row = this.size++;
+        this.days[row] = appointment.getDate().toEpochDay();
+        this.timeslots[row] = (byte) appointment.getTimeslot().getNumber();
+        this.providers[row] = provider;
+        this.patientColumn[row] = patientId(appointment.getPatient().getProfile());
+        this.rooms[row] = appointment instanceof Imaging imaging
+                ? (byte) (imaging.getRoom().ordinal() + 1) : OFFICE;
+        return row;
+    }
+
+    /**
+     * Removes a row, moving the last row into its place
+     * @param row the row to remove
+     */
+    public void remove(int row) {
+        checkRow(row);
+        int last = --this.size;
+        this.days[row] = this.days[last];
+        this.timeslots[row] = this.timeslots[last];
+        this.providers[row] = this.providers[last];
+        this.patientColumn[row] = this.patientColumn[last];
+        this.rooms[row] = this.rooms[last];
+    }
+
+    /**
+     * Finds the row of the appointment of a patient at a date and timeslot
+     * Only the day, timeslot and patient columns are scanned, without
+     * creating any appointments
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the row of the appointment, or -1 if there is none
+     */
+    public int indexOf(Profile profile, Date date, Timeslot timeslot) {
+        int patient = this.registry.idOf(profile);
+        if (patient == PatientRegistry.NONE) {
+            return -1;
+        }
+        int day = date.toEpochDay();
+        byte number = (byte) timeslot.getNumber();
+        for (int row = 0; row < this.size; row++) {
+            if (this.days[row] == day && this.timeslots[row] == number && this.patientColumn[row] == patient) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a view of a row as an appointment
+     * @param row the row to read
+     * @return an Appointment, or an Imaging for imaging rows, sharing the
+     * objects of the table
+     */
+    public Appointment get(int row) {
+        checkRow(row);
+        Date date = getDate(row);
+        Timeslot timeslot = getTimeslot(row);
+        Patient patient = this.patients.get(this.patientColumn[row]);
+        Provider provider = this.roster[this.providers[row]];
+        Radiology room = getRoom(row);
+        return room == null ? new Appointment(date, timeslot, patient, provider)
+                : new Imaging(date, timeslot, patient, provider, room);
+    }
+
+    /**
+     * Returns the epoch day of a row
+     * @param row the row to read
+     * @return the epoch day of the appointment
+     */
+    public int getEpochDay(int row) {
+        checkRow(row);
+        return this.days[row];
+    }
+
+    /**
+     * Returns the date of a row, shared with every row on that day
+     * @param row the row to read
+     * @return the date of the appointment
+     */
+    public Date getDate(int row) {
+        checkRow(row);
+        return this.dates.computeIfAbsent(this.days[row], Date::fromEpochDay);
+    }
+
+    /**
+     * Returns the timeslot of a row
+     * @param row the row to read
+     * @return the timeslot of the appointment
+     */
+    public Timeslot getTimeslot(int row) {
+        checkRow(row);
+        return Timeslot.getTimeslotByNumber(this.timeslots[row]);
+    }
+
+    /**
+     * Returns the provider of a row
+     * @param row the row to read
+     * @return the provider of the appointment
+     */
+    public Provider getProvider(int row) {
+        checkRow(row);
+        return this.roster[this.providers[row]];
+    }
+
+    /**
+     * Returns the patient of a row, shared with every row of that profile
+     * @param row the row to read
+     * @return the patient of the appointment
+     */
+    public Patient getPatient(int row) {
+        checkRow(row);
+        return this.patients.get(this.patientColumn[row]);
+    }
+
+    /**
+     * Returns the imaging room of a row
+     * @param row the row to read
+     * @return the room, or null for an office appointment
+     */
+    public Radiology getRoom(int row) {
+        checkRow(row);
+        byte room = this.rooms[row];
+        return room == OFFICE ? null : ROOMS[room - 1];
+    }
+
+    /**
+     * Returns the number of distinct patients the table has stored
+     * Patients are kept after their last row is removed, so they keep the
+     * same id
+     * @return the number of patients
+     */
+    public int getPatientCount() {
+        return this.patients.size();
+    }
+
+    /**
+     * Method to return the number of rows
+     * @return the number of appointments
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Method to check if the table is empty
+     * @return true if the table has no rows, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Grows the columns so they hold at least the given number of rows
+     * @param minCapacity the number of rows to make room for
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= this.days.length) {
+            return;
+        }
+        int capacity = Math.max(minCapacity, this.days.length + (this.days.length >> 1));
+        this.days = Arrays.copyOf(this.days, capacity);
+        this.timeslots = Arrays.copyOf(this.timeslots, capacity);
+        this.providers = Arrays.copyOf(this.providers, capacity);
+        this.patientColumn = Arrays.copyOf(this.patientColumn, capacity);
+        this.rooms = Arrays.copyOf(this.rooms, capacity);
+    }
+
+    /**
+     * Shrinks the columns to the number of rows
+     */
+    public void trimToSize() {
+        this.days = Arrays.copyOf(this.days, this.size);
+        this.timeslots = Arrays.copyOf(this.timeslots, this.size);
+        this.providers = Arrays.copyOf(this.providers, this.size);
+        this.patientColumn = Arrays.copyOf(this.patientColumn, this.size);
+        this.rooms = Arrays.copyOf(this.rooms, this.size);
+    }
+
+    /**
+     * Iterates over views of the rows, in row order
+     * Overrides iterator method from Iterable interface
+     */
+    @Override
+    public Iterator<Appointment> iterator() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return this.row < size;
+            }
+
+            @Override
+            public Appointment next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(this.row++);
+            }
+        };
+    }
+
+    /**
+     * Finds the id of a patient profile, storing the patient if it is new
+     * @param profile the profile of the patient
+     * @return the id of the patient
+     */
+    private int patientId(Profile profile) {
+        int id = this.registry.register(profile);
+        if (id == this.patients.size()) {
+            this.patients.addLast(new Patient(this.registry.getProfile(id)));
+        }
+        return id;
+    }
+
+    /**
+     * Checks that a row is in the table
+     * @param row the row to check
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    private void checkRow(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + this.size);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.*;
+import util.List;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the appointments of a synthetic schedule as imaging requests
+ * under each imaging assignment policy. Imaging appointments keep their
+ * room and office visits are given a random one, so the demand is heavy
+ * enough for the policies to differ. The metrics of every policy are
+ * printed once per trial next to the time a replay takes.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentBenchmark extends ScheduleState {
+    @Param({"ROUND_ROBIN", "LEAST_LOADED", "LOCATION_AFFINE", "EARLIEST_FREE_ROOM"})
+    public ImagingAssignment policy;
+
+    private ImagingReplay replay;
+    private final List<Imaging> requests = new List<>();
+    private AssignmentMetrics metrics;
+
+    /**
+     * Turns the appointments of the schedule into imaging requests
+     */
+    @Setup
+    public void recordRequests() {
+        this.replay = new ImagingReplay(schedule.getProviders());
+        for (Appointment appointment : schedule.shuffledAppointments()) {
+            Radiology room = appointment instanceof Imaging imaging ? imaging.getRoom()
+                    : schedule.randomRoom();
+            this.requests.addLast(new Imaging(appointment.getDate(), appointment.getTimeslot(),
+                    appointment.getPatient(), appointment.getProvider(), room));
+        }
+    }
+
+    @Benchmark
+    public AssignmentMetrics replay() {
+        this.metrics = this.replay.replay(policy, this.requests);
+        return this.metrics;
+    }
+
+    /**
+     * Prints the metrics of the last replay
+     */
+    @TearDown
+    public void printMetrics() {
+        System.out.println();
+        System.out.println(this.metrics);
+    }
+}
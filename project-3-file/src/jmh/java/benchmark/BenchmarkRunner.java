@@ -0,0 +1,25 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the clinic benchmarks headless with the GC profiler attached, so
+ * every result reports allocation rate next to throughput.
+ * An optional argument is a regular expression selecting benchmarks,
+ * for example "Sort" or "SchedulingBenchmark.providerAvailability".
+ * @author Keshav Dave, Danny Watson
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "benchmark\\..*")
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Djava.awt.headless=true")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,38 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.ClinicScheduler;
+import scheduler.Patient;
+import util.List;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work behind the billing statement and provider credit
+ * views for a whole schedule, both from the running billing ledger and by
+ * rebuilding the patients from the appointment list.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillingBenchmark extends ScheduleState {
+
+    @Benchmark
+    public List<Patient> patientStatements() {
+        return schedule.getScheduler().createPatientStatements();
+    }
+
+    @Benchmark
+    public List<Patient> createPatientList() {
+        return ClinicScheduler.createPatientList(
+                schedule.getAppointmentStore().getAppointments());
+    }
+
+    @Benchmark
+    public List<String> createProviderCredits() {
+        return schedule.getScheduler().createProviderCredits();
+    }
+}
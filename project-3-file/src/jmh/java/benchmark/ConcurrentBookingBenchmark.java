@@ -0,0 +1,115 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.*;
+import util.Date;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stress test of the striped ConcurrentScheduler with many front desks
+ * booking at once. Every benchmark thread is a desk booking random office
+ * and imaging appointments and cancelling its oldest booking once it holds
+ * DESK_BOOKINGS of them, so the schedule stays busy enough for conflicts.
+ * Run with -t 1, -t 2, -t 4 and so on to see throughput scale with the
+ * number of desks. After every trial the whole schedule is checked, and
+ * the benchmark fails if any doctor, technician, patient or radiology room
+ * was double-booked.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentBookingBenchmark {
+    // Constants
+    private static final int QUERIES = 1024;
+    private static final int DESK_BOOKINGS = 256;
+    private static final int IMAGING_PERCENT = 20;
+
+    @Param({"40"})
+    public int doctors;
+    @Param({"12"})
+    public int technicians;
+    @Param({"5000"})
+    public int patients;
+    @Param({"126"})
+    public int days;
+    @Param({"6"})
+    public int locations;
+    @Param({"42"})
+    public long seed;
+
+    private SyntheticSchedule schedule;
+    private ConcurrentScheduler scheduler;
+
+    /**
+     * Generates the providers and patients, and starts an empty schedule
+     */
+    @Setup
+    public void createScheduler() {
+        this.schedule = new SyntheticSchedule(doctors, technicians, patients, days, locations, 0, seed);
+        this.scheduler = new ConcurrentScheduler(this.schedule.getProviders());
+    }
+
+    /**
+     * Fails the trial if the schedule has a double booking
+     */
+    @TearDown
+    public void checkSchedule() {
+        ScheduleChecks.checkNoDoubleBooking(this.scheduler.getAppointments());
+    }
+
+    /**
+     * One front desk, with its own queries and its recent bookings
+     */
+    @State(Scope.Thread)
+    public static class Desk {
+        private final Date[] dates = new Date[QUERIES];
+        private final Timeslot[] timeslots = new Timeslot[QUERIES];
+        private final Profile[] profiles = new Profile[QUERIES];
+        private final String[] npis = new String[QUERIES];
+        private final Radiology[] rooms = new Radiology[QUERIES];
+        private final boolean[] imaging = new boolean[QUERIES];
+        private final Appointment[] booked = new Appointment[DESK_BOOKINGS];
+        private int next;
+        private int oldest;
+
+        /**
+         * Draws the requests cycled through by the desk
+         * @param state the shared benchmark state
+         */
+        @Setup
+        public void drawQueries(ConcurrentBookingBenchmark state) {
+            SyntheticSchedule schedule = state.schedule;
+            for (int i = 0; i < QUERIES; i++) {
+                dates[i] = schedule.randomDate();
+                timeslots[i] = schedule.randomTimeslot();
+                profiles[i] = schedule.randomPatient().getProfile();
+                npis[i] = schedule.randomDoctor().getNpi();
+                rooms[i] = schedule.randomRoom();
+                imaging[i] = i % 100 < IMAGING_PERCENT;
+            }
+        }
+    }
+
+    @Benchmark
+    public BookingResult bookAndCancel(Desk desk) {
+        int i = desk.next++ & (QUERIES - 1);
+        BookingResult result = desk.imaging[i]
+                ? scheduler.bookImaging(desk.profiles[i], desk.dates[i], desk.timeslots[i], desk.rooms[i])
+                : scheduler.bookOffice(desk.profiles[i], desk.dates[i], desk.timeslots[i], desk.npis[i]);
+        if (result.isSuccessful()) {
+            Appointment previous = desk.booked[desk.oldest];
+            desk.booked[desk.oldest] = result.getAppointment();
+            desk.oldest = (desk.oldest + 1) % DESK_BOOKINGS;
+            if (previous != null) {
+                scheduler.cancel(previous.getPatient().getProfile(), previous.getDate(),
+                        previous.getTimeslot());
+            }
+        }
+        return result;
+    }
+}
\ No newline at end of file
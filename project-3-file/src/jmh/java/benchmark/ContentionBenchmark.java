@@ -0,0 +1,111 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.*;
+import util.Date;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the striped-lock and compare-and-set scheduling cores in the
+ * worst case for locks: every desk competes for the morning timeslots of
+ * a few popular doctors, and for imaging on the same mornings. A desk
+ * cancels each booking it wins right away, so the contested cells keep
+ * changing hands. Run with -t 1, -t 4, -t 16 and so on; the schedule is
+ * checked for double bookings after every trial.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+    // Constants
+    private static final int QUERIES = 1024;
+    private static final int MORNING_TIMESLOTS = 4;
+    private static final int IMAGING_PERCENT = 20;
+
+    @Param({"STRIPED", "OPTIMISTIC"})
+    public String core;
+    @Param({"3"})
+    public int popularDoctors;
+    @Param({"2"})
+    public int busyDays;
+    @Param({"5000"})
+    public int patients;
+    @Param({"42"})
+    public long seed;
+
+    private SyntheticSchedule schedule;
+    private BookingCore scheduler;
+
+    /**
+     * Generates the providers and patients, and starts an empty schedule
+     * in the chosen core
+     */
+    @Setup
+    public void createScheduler() {
+        this.schedule = new SyntheticSchedule(40, 12, patients, busyDays, 6, 0, seed);
+        this.scheduler = "OPTIMISTIC".equals(core)
+                ? new OptimisticScheduler(this.schedule.getProviders())
+                : new ConcurrentScheduler(this.schedule.getProviders());
+    }
+
+    /**
+     * Fails the trial if the schedule has a double booking
+     */
+    @TearDown
+    public void checkSchedule() {
+        ScheduleChecks.checkNoDoubleBooking(this.scheduler.getAppointments());
+    }
+
+    /**
+     * One front desk and the contested requests it cycles through
+     */
+    @State(Scope.Thread)
+    public static class Desk {
+        private final Date[] dates = new Date[QUERIES];
+        private final Timeslot[] timeslots = new Timeslot[QUERIES];
+        private final Profile[] profiles = new Profile[QUERIES];
+        private final String[] npis = new String[QUERIES];
+        private final Radiology[] rooms = new Radiology[QUERIES];
+        private final boolean[] imaging = new boolean[QUERIES];
+        private int next;
+
+        /**
+         * Draws requests for the mornings of the busy days, with office
+         * visits going to the first few doctors
+         * @param state the shared benchmark state
+         */
+        @Setup
+        public void drawQueries(ContentionBenchmark state) {
+            SyntheticSchedule schedule = state.schedule;
+            Doctor[] popular = new Doctor[state.popularDoctors];
+            for (int i = 0; i < popular.length; i++) {
+                popular[i] = (Doctor) schedule.getProviders().get(i);
+            }
+            for (int i = 0; i < QUERIES; i++) {
+                dates[i] = schedule.randomDate();
+                timeslots[i] = Timeslot.getTimeslotByNumber(1 + i % MORNING_TIMESLOTS);
+                profiles[i] = schedule.randomPatient().getProfile();
+                npis[i] = popular[i % popular.length].getNpi();
+                rooms[i] = schedule.randomRoom();
+                imaging[i] = i % 100 < IMAGING_PERCENT;
+            }
+        }
+    }
+
+    @Benchmark
+    public BookingResult bookAndCancel(Desk desk) {
+        int i = desk.next++ & (QUERIES - 1);
+        BookingResult result = desk.imaging[i]
+                ? scheduler.bookImaging(desk.profiles[i], desk.dates[i], desk.timeslots[i], desk.rooms[i])
+                : scheduler.bookOffice(desk.profiles[i], desk.dates[i], desk.timeslots[i], desk.npis[i]);
+        if (result.isSuccessful()) {
+            scheduler.cancel(desk.profiles[i], desk.dates[i], desk.timeslots[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import util.Date;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the appointment date checks run on every keystroke of the date
+ * fields and on every validation, and date comparison, against the
+ * Calendar based checks and field by field comparison Date used before it
+ * carried its epoch day. Each operation runs on the next of a fixed set of
+ * dates around today, so both sides see the same mix of answers.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateBenchmark {
+    // Constants
+    private static final int DATES = 1024;
+    private static final int DAYS_AROUND_TODAY = 400;
+
+    @Param({"42"})
+    public long seed;
+
+    private final Date[] dates = new Date[DATES];
+    private final Date[] others = new Date[DATES];
+    private int next;
+
+    /**
+     * Draws dates within a little more than a year of today, and a second
+     * date for each to compare it with, often in the same month
+     */
+    @Setup
+    public void draw() {
+        Random random = new Random(this.seed);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < DATES; i++) {
+            LocalDate date = today.plusDays(random.nextInt(2 * DAYS_AROUND_TODAY) - DAYS_AROUND_TODAY);
+            LocalDate other = date.plusDays(random.nextInt(DAYS_AROUND_TODAY / 10));
+            this.dates[i] = new Date(date.getMonthValue(), date.getDayOfMonth(), date.getYear());
+            this.others[i] = new Date(other.getMonthValue(), other.getDayOfMonth(), other.getYear());
+        }
+    }
+
+    /**
+     * The checks of an appointment date, in the order the scheduler runs
+     * them.
+     * @return true if the next date can be booked
+     */
+    @Benchmark
+    public boolean appointmentDateChecks() {
+        Date date = this.dates[this.next++ & (DATES - 1)];
+        return date.isNotToday() && date.isAfterToday() && date.isNotWeekend() && date.withinSixMonths();
+    }
+
+    @Benchmark
+    public boolean appointmentDateChecksCalendar() {
+        Date date = this.dates[this.next++ & (DATES - 1)];
+        return CalendarChecks.isNotToday(date) && CalendarChecks.isAfterToday(date)
+                && CalendarChecks.isNotWeekend(date) && CalendarChecks.withinSixMonths(date);
+    }
+
+    @Benchmark
+    public boolean isNotWeekend() {
+        return this.dates[this.next++ & (DATES - 1)].isNotWeekend();
+    }
+
+    @Benchmark
+    public boolean isNotWeekendCalendar() {
+        return CalendarChecks.isNotWeekend(this.dates[this.next++ & (DATES - 1)]);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        int i = this.next++ & (DATES - 1);
+        return this.dates[i].compareTo(this.others[i]);
+    }
+
+    @Benchmark
+    public int compareToFields() {
+        int i = this.next++ & (DATES - 1);
+        return CalendarChecks.compareFields(this.dates[i], this.others[i]);
+    }
+
+    /**
+     * The checks Date made before it carried its epoch day, each creating
+     * one or two Calendars.
+     */
+    private static final class CalendarChecks {
+        /**
+         * Private constructor, the class only has static methods
+         */
+        private CalendarChecks() {
+        }
+
+        private static boolean isNotToday(Date date) {
+            Calendar calendar = Calendar.getInstance();
+            return date.getYear() != calendar.get(Calendar.YEAR)
+                    || date.getMonth() != calendar.get(Calendar.MONTH) + 1
+                    || date.getDay() != calendar.get(Calendar.DAY_OF_MONTH);
+        }
+
+        private static boolean isAfterToday(Date date) {
+            Calendar calendar = Calendar.getInstance();
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH) + 1;
+            int day = calendar.get(Calendar.DAY_OF_MONTH);
+            if (date.getYear() != year) {
+                return date.getYear() > year;
+            }
+            return date.getMonth() != month ? date.getMonth() > month : date.getDay() > day;
+        }
+
+        private static boolean withinSixMonths(Date date) {
+            Calendar calendar = Calendar.getInstance();
+            Calendar targetDate = Calendar.getInstance();
+            targetDate.set(date.getYear(), date.getMonth() - 1, date.getDay());
+            calendar.add(Calendar.MONTH, Date.MAX_VALIDITY_AMOUNT);
+            return targetDate.before(calendar);
+        }
+
+        private static boolean isNotWeekend(Date date) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.set(date.getYear(), date.getMonth() - 1, date.getDay());
+            int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
+            return dayOfWeek != Calendar.SATURDAY && dayOfWeek != Calendar.SUNDAY;
+        }
+
+        private static int compareFields(Date first, Date second) {
+            if (first.getYear() != second.getYear()) {
+                return Integer.compare(first.getYear(), second.getYear());
+            }
+            if (first.getMonth() != second.getMonth()) {
+                return Integer.compare(first.getMonth(), second.getMonth());
+            }
+            return Integer.compare(first.getDay(), second.getDay());
+        }
+    }
+}
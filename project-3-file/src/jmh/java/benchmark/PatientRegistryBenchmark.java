@@ -0,0 +1,111 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.PatientRegistry;
+import scheduler.Profile;
+import util.Date;
+import util.List;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the patient registry over a large number of registered
+ * patients: name prefix searches, which are a range of the name tree,
+ * against a scan of every profile, and the id lookup of a profile typed in
+ * a different case than it was registered with.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientRegistryBenchmark {
+    // Constants
+    private static final int QUERIES = 1024;
+    private static final int LIMIT = 20;
+    private static final int PREFIX_LENGTH = 3;
+    private static final String[] SYLLABLES = {"PA", "TEL", "LIM", "ZIM", "NES", "HAR", "PER", "KA",
+            "UR", "TAY", "LOR", "RA", "MESH", "CE", "VO", "JOHN", "SON", "JER", "RY", "LIN", "BROWN", "WAT"};
+    private static final String[] FIRST_NAMES = {"ANDREW", "RACHAEL", "MONICA", "JOHN", "TOM", "ERIC",
+            "BEN", "JUSTIN", "GARY", "FRANK", "CHARLES", "JENNY", "KESHAV", "DANNY", "PRIYA", "MARIA"};
+
+    @Param({"1000000"})
+    public int patients;
+    @Param({"42"})
+    public long seed;
+
+    private PatientRegistry registry;
+    private Profile[] profiles;
+    private final String[] lastNamePrefixes = new String[QUERIES];
+    private final String[] fullNamePrefixes = new String[QUERIES];
+    private final Profile[] lookups = new Profile[QUERIES];
+    private int next;
+
+    /**
+     * Registers the patients and draws the queries from their names
+     */
+    @Setup
+    public void register() {
+        Random random = new Random(this.seed);
+        this.registry = new PatientRegistry();
+        this.profiles = new Profile[this.patients];
+        LocalDate first = LocalDate.of(1940, 1, 1);
+        for (int i = 0; i < this.patients; i++) {
+            StringBuilder lastName = new StringBuilder();
+            int syllables = 2 + random.nextInt(2);
+            for (int s = 0; s < syllables; s++) {
+                lastName.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            LocalDate dob = first.plusDays(random.nextInt(30_000));
+            this.profiles[i] = new Profile(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    lastName.toString(), new Date(dob.getMonthValue(), dob.getDayOfMonth(), dob.getYear()));
+            this.registry.register(this.profiles[i]);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            Profile profile = this.profiles[random.nextInt(this.patients)];
+            this.lastNamePrefixes[i] = profile.getlname().substring(0, PREFIX_LENGTH).toLowerCase();
+            this.fullNamePrefixes[i] = profile.getlname().toLowerCase() + " "
+                    + profile.getfname().substring(0, 2).toLowerCase();
+            this.lookups[i] = new Profile(profile.getfname().toLowerCase(), profile.getlname().toLowerCase(),
+                    profile.getDOB());
+        }
+    }
+
+    @Benchmark
+    public List<Profile> searchLastNamePrefix() {
+        return this.registry.search(this.lastNamePrefixes[this.next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<Profile> searchFullNamePrefix() {
+        return this.registry.search(this.fullNamePrefixes[this.next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    /**
+     * The search the registry replaces: finding the first matches in name
+     * order means checking every profile. This only keeps the first
+     * matches it sees without ordering them, so it is a lower bound.
+     * @return the first matching profiles in registration order
+     */
+    @Benchmark
+    public List<Profile> scanLastNamePrefix() {
+        String prefix = this.lastNamePrefixes[this.next++ & (QUERIES - 1)];
+        List<Profile> results = new List<>();
+        for (Profile profile : this.profiles) {
+            if (profile.getlname().regionMatches(true, 0, prefix, 0, prefix.length())
+                    && results.size() < LIMIT) {
+                results.addLast(profile);
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public int idOf() {
+        return this.registry.idOf(this.lookups[this.next++ & (QUERIES - 1)]);
+    }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.Appointment;
+import scheduler.ReportEngine;
+import scheduler.RevenueReport;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the revenue report of a whole schedule built in one pass and on
+ * a fork/join pool of each size, from the same copy of the schedule. Run
+ * with larger schedules, such as -p appointments=200000, to see the
+ * parallel report scale with the threads of the pool. Before every trial
+ * both reports are built once, and the benchmark fails if the parallel
+ * report differs from the sequential one.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark extends ScheduleState {
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    private Appointment[] copy;
+    private int providers;
+    private ForkJoinPool pool;
+
+    /**
+     * Copies the schedule, starts the pool and checks that both reports
+     * are equal
+     */
+    @Setup
+    public void createPool() {
+        this.copy = schedule.getAppointmentStore().toArray();
+        this.providers = schedule.getProviders().size();
+        this.pool = new ForkJoinPool(parallelism);
+        RevenueReport expected = ReportEngine.sequential(this.copy, this.providers);
+        if (!ReportEngine.parallel(this.copy, this.providers, this.pool).equals(expected)) {
+            throw new IllegalStateException("The parallel report differs from the sequential report");
+        }
+    }
+
+    /**
+     * Stops the pool
+     */
+    @TearDown
+    public void shutdownPool() {
+        this.pool.shutdown();
+    }
+
+    @Benchmark
+    public RevenueReport sequential() {
+        return ReportEngine.sequential(this.copy, this.providers);
+    }
+
+    @Benchmark
+    public RevenueReport parallel() {
+        return ReportEngine.parallel(this.copy, this.providers, this.pool);
+    }
+}
@@ -0,0 +1,42 @@
+package benchmark;
+
+import scheduler.Appointment;
+import scheduler.Imaging;
+import scheduler.Provider;
+
+import java.util.HashSet;
+
+/**
+ * Checks run on the schedules left behind by the concurrent benchmarks.
+ * @author Keshav Dave, Danny Watson
+ */
+public final class ScheduleChecks {
+    /**
+     * Private constructor, the class only has static methods
+     */
+    private ScheduleChecks() {
+    }
+
+    /**
+     * Fails if any doctor, technician, patient or radiology room is booked
+     * twice at the same date and timeslot
+     * @param appointments the appointments of the schedule
+     * @throws IllegalStateException on the first double booking found
+     */
+    public static void checkNoDoubleBooking(Iterable<Appointment> appointments) {
+        HashSet<String> taken = new HashSet<>();
+        for (Appointment appointment : appointments) {
+            String slot = appointment.getDate().toEpochDay() + "@" + appointment.getTimeslot().getNumber();
+            String provider = appointment.getProvider().getProfile() + " " + slot;
+            String patient = appointment.getPatient().getProfile() + " " + slot;
+            if (!taken.add(provider) || !taken.add(patient)) {
+                throw new IllegalStateException("Double booking of " + appointment);
+            }
+            if (appointment instanceof Imaging imaging
+                    && !taken.add(((Provider) imaging.getProvider()).getLocation() + " "
+                    + imaging.getRoom() + " " + slot)) {
+                throw new IllegalStateException("Room double booked by " + appointment);
+            }
+        }
+    }
+}
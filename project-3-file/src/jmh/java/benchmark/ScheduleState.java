@@ -0,0 +1,41 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared JMH state holding one synthetic schedule per trial.
+ * The size of the schedule is configured through the parameters below,
+ * for example -p appointments=50000 -p patients=20000.
+ * @author Keshav Dave, Danny Watson
+ */
+@State(Scope.Benchmark)
+public class ScheduleState {
+    @Param({"40"})
+    public int doctors;
+    @Param({"12"})
+    public int technicians;
+    @Param({"5000"})
+    public int patients;
+    @Param({"126"})
+    public int days;
+    @Param({"6"})
+    public int locations;
+    @Param({"1000", "20000"})
+    public int appointments;
+    @Param({"42"})
+    public long seed;
+
+    protected SyntheticSchedule schedule;
+
+    /**
+     * Generates the schedule once per trial
+     */
+    @Setup
+    public void generateSchedule() {
+        this.schedule = new SyntheticSchedule(doctors, technicians, patients, days,
+                locations, appointments, seed);
+    }
+}
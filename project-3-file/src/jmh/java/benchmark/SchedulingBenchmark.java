@@ -0,0 +1,96 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.*;
+import util.Date;
+import util.List;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the availability checks run on every booking, the open slot
+ * searches, and a full book and cancel round trip through the ClinicScheduler.
+ * Queries are drawn ahead of time from the seeded schedule and cycled
+ * through, so the measured code does no random number generation.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingBenchmark extends ScheduleState {
+    // Constants
+    private static final int QUERIES = 1024;
+    private static final int SUGGESTED_SLOTS = 3;
+
+    // Variables
+    private final Date[] queryDates = new Date[QUERIES];
+    private final Timeslot[] queryTimeslots = new Timeslot[QUERIES];
+    private final Patient[] queryPatients = new Patient[QUERIES];
+    private final String[] queryNpis = new String[QUERIES];
+    private final Radiology[] queryRooms = new Radiology[QUERIES];
+    private int next;
+
+    /**
+     * Draws the queries cycled through by the benchmarks
+     */
+    @Setup
+    public void drawQueries() {
+        for (int i = 0; i < QUERIES; i++) {
+            queryDates[i] = schedule.randomDate();
+            queryTimeslots[i] = schedule.randomTimeslot();
+            queryPatients[i] = schedule.randomPatient();
+            queryNpis[i] = schedule.randomDoctor().getNpi();
+            queryRooms[i] = schedule.randomRoom();
+        }
+    }
+
+    @Benchmark
+    public boolean providerAvailability() {
+        int i = next++ & (QUERIES - 1);
+        return schedule.getAppointmentStore().isDoctorBooked(queryNpis[i], queryDates[i],
+                queryTimeslots[i]);
+    }
+
+    @Benchmark
+    public boolean checkAppointmentExists() {
+        int i = next++ & (QUERIES - 1);
+        return schedule.getAppointmentStore().hasPatientAppointment(queryPatients[i].getProfile(),
+                queryDates[i], queryTimeslots[i]);
+    }
+
+    @Benchmark
+    public Imaging findTechnicianAvailability() {
+        int i = next++ & (QUERIES - 1);
+        return schedule.getScheduler().findTechnician(queryDates[i], queryTimeslots[i],
+                queryPatients[i], queryRooms[i]);
+    }
+
+    @Benchmark
+    public List<SlotCandidate> findOfficeSlots() {
+        int i = next++ & (QUERIES - 1);
+        return schedule.getScheduler().findOfficeSlots(queryNpis[i], queryPatients[i].getProfile(),
+                queryDates[i], queryTimeslots[i], SUGGESTED_SLOTS);
+    }
+
+    @Benchmark
+    public List<SlotCandidate> findImagingSlots() {
+        int i = next++ & (QUERIES - 1);
+        return schedule.getScheduler().findImagingSlots(queryRooms[i], queryPatients[i].getProfile(),
+                queryDates[i], queryTimeslots[i], SUGGESTED_SLOTS);
+    }
+
+    @Benchmark
+    public BookingResult bookAndCancel() {
+        int i = next++ & (QUERIES - 1);
+        ClinicScheduler scheduler = schedule.getScheduler();
+        Profile profile = queryPatients[i].getProfile();
+        BookingResult result = scheduler.bookOffice(profile, queryDates[i], queryTimeslots[i],
+                queryNpis[i]);
+        if (result.isSuccessful()) {
+            return scheduler.cancel(profile, queryDates[i], queryTimeslots[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,206 @@
+package benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test client for a running ScheduleServer. A number of simulated
+ * front desks send requests at the same time, each waiting for its answer
+ * before sending the next one. Most requests book a random office visit
+ * or imaging service, and a desk cancels its booking again a quarter of
+ * the time so the schedule does not fill up. Every request is timed, and
+ * the throughput and the p50, p99 and maximum latency are printed.
+ * Usage: ServerLoadTest [url] [desks] [requests] [seed]
+ * @author Keshav Dave, Danny Watson
+ */
+public class ServerLoadTest {
+    // Constants
+    private static final String DEFAULT_URL = "http://localhost:8080";
+    private static final int DEFAULT_DESKS = 64;
+    private static final int DEFAULT_REQUESTS = 20_000;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int DAYS = 60;
+    private static final int TIMESLOTS = 12;
+    private static final int PATIENTS = 5_000;
+    private static final int IMAGING_PERCENT = 20;
+    private static final int CANCEL_PERCENT = 25;
+    private static final String[] ROOMS = {"XRAY", "ULTRASOUND", "CATSCAN"};
+    private static final Pattern NPI = Pattern.compile("\"npi\":\"([^\"]+)\"");
+    private static final Pattern BOOKED = Pattern.compile("\"status\":\"BOOKED\"");
+
+    private final URI base;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10)).build();
+    private final String[] npis;
+    private final LocalDate[] dates;
+
+    /**
+     * Reads the doctors of the server and picks the dates to book on
+     * @param base the address of the server
+     * @throws IOException if the server cannot be reached
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private ServerLoadTest(URI base) throws IOException, InterruptedException {
+        this.base = base;
+        String statements = this.client.send(HttpRequest.newBuilder(base.resolve("/statements")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        ArrayList<String> found = new ArrayList<>();
+        Matcher matcher = NPI.matcher(statements);
+        while (matcher.find()) {
+            found.add(matcher.group(1));
+        }
+        if (found.isEmpty()) {
+            throw new IOException("The server has no doctors to book with.");
+        }
+        this.npis = found.toArray(new String[0]);
+
+        ArrayList<LocalDate> weekdays = new ArrayList<>();
+        for (LocalDate day = LocalDate.now().plusDays(1); weekdays.size() < DAYS; day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                weekdays.add(day);
+            }
+        }
+        this.dates = weekdays.toArray(new LocalDate[0]);
+    }
+
+    /**
+     * Runs the requests of one desk
+     * @param requests the number of requests to send
+     * @param seed the seed of the desk
+     * @return the latency of every request in nanoseconds
+     * @throws Exception if a request fails
+     */
+    private long[] runDesk(int requests, long seed) throws Exception {
+        Random random = new Random(seed);
+        long[] latencies = new long[requests];
+        String booked = null;
+        for (int i = 0; i < requests; i++) {
+            String path;
+            String body;
+            if (booked != null && random.nextInt(100) < CANCEL_PERCENT) {
+                path = "/cancel";
+                body = booked;
+                booked = null;
+            } else {
+                path = "/book";
+                body = randomBooking(random);
+            }
+            HttpRequest request = HttpRequest.newBuilder(this.base.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies[i] = System.nanoTime() - start;
+            if (response.statusCode() >= 500) {
+                throw new IOException("Server error " + response.statusCode() + ": " + response.body());
+            }
+            if (path.equals("/book") && BOOKED.matcher(response.body()).find()) {
+                booked = body;
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Creates a random booking request
+     * @param random the generator of the desk
+     * @return the JSON body of the request
+     */
+    private String randomBooking(Random random) {
+        LocalDate day = this.dates[random.nextInt(this.dates.length)];
+        int patient = random.nextInt(PATIENTS);
+        LocalDate dob = LocalDate.of(1940, 1, 1).plusDays(patient);
+        StringBuilder body = new StringBuilder("{\"date\":\"")
+                .append(day.getMonthValue()).append('/').append(day.getDayOfMonth()).append('/')
+                .append(day.getYear()).append("\",\"timeslot\":").append(1 + random.nextInt(TIMESLOTS))
+                .append(",\"firstName\":\"Load\",\"lastName\":\"Patient").append(patient)
+                .append("\",\"dob\":\"").append(dob.getMonthValue()).append('/')
+                .append(dob.getDayOfMonth()).append('/').append(dob.getYear()).append('"');
+        if (random.nextInt(100) < IMAGING_PERCENT) {
+            body.append(",\"type\":\"imaging\",\"room\":\"").append(ROOMS[random.nextInt(ROOMS.length)]);
+        } else {
+            body.append(",\"type\":\"office\",\"npi\":\"").append(this.npis[random.nextInt(this.npis.length)]);
+        }
+        return body.append("\"}").toString();
+    }
+
+    /**
+     * Runs every desk at once and gathers the latencies
+     * @param desks the number of desks
+     * @param requests the total number of requests
+     * @param seed the seed of the first desk
+     * @return the latencies of all the requests, sorted
+     * @throws Exception if a request fails
+     */
+    private long[] run(int desks, int requests, long seed) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(desks);
+        try {
+            ArrayList<Future<long[]>> results = new ArrayList<>();
+            for (int desk = 0; desk < desks; desk++) {
+                int share = requests / desks + (desk < requests % desks ? 1 : 0);
+                long deskSeed = seed + desk;
+                results.add(pool.submit(() -> runDesk(share, deskSeed)));
+            }
+            long[] latencies = new long[requests];
+            int next = 0;
+            for (Future<long[]> result : results) {
+                long[] desk = result.get();
+                System.arraycopy(desk, 0, latencies, next, desk.length);
+                next += desk.length;
+            }
+            Arrays.sort(latencies);
+            return latencies;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Finds a percentile of sorted latencies
+     * @param sorted the sorted latencies
+     * @param percent the percentile
+     * @return the latency in milliseconds
+     */
+    private static double percentile(long[] sorted, double percent) {
+        int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * Warms the server up, then runs the timed requests and prints the
+     * throughput and latency.
+     * @param args the optional url, number of desks, number of requests and seed
+     * @throws Exception if the server cannot be reached or a request fails
+     */
+    public static void main(String[] args) throws Exception {
+        URI base = URI.create(args.length > 0 ? args[0] : DEFAULT_URL);
+        int desks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DESKS;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_REQUESTS;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        ServerLoadTest test = new ServerLoadTest(base);
+        test.run(desks, Math.max(WARMUP_REQUESTS, desks), seed);
+        long start = System.nanoTime();
+        long[] latencies = test.run(desks, requests, seed + desks);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d requests from %d desks in %.2f s%n", requests, desks, seconds);
+        System.out.printf("throughput: %.0f requests/s%n", requests / seconds);
+        System.out.printf("latency p50: %.2f ms, p99: %.2f ms, max: %.2f ms%n",
+                percentile(latencies, 50), percentile(latencies, 99), percentile(latencies, 100));
+    }
+}
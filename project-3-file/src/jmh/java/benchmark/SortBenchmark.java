@@ -0,0 +1,69 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.Appointment;
+import scheduler.Provider;
+import util.List;
+import util.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each sort of the Sort class on a freshly shuffled copy of the
+ * schedule, the way the PA, PP, PL and billing views sort the live list.
+ * @author Keshav Dave, Danny Watson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark extends ScheduleState {
+    // Variables
+    private List<Appointment> appointmentCopy;
+    private List<Provider> providerCopy;
+
+    /**
+     * Shuffles a new copy of the lists before every sort, since the sorts
+     * work in place
+     */
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        this.appointmentCopy = schedule.shuffledAppointments();
+        this.providerCopy = new List<>();
+        List<Provider> providers = schedule.getScheduler().getProviders();
+        for (int i = providers.size() - 1; i >= 0; i--) {
+            this.providerCopy.addLast(providers.get(i));
+        }
+    }
+
+    @Benchmark
+    public List<Appointment> sortByDate() {
+        Sort.sortByDate(appointmentCopy);
+        return appointmentCopy;
+    }
+
+    @Benchmark
+    public List<Appointment> sortByPatient() {
+        Sort.sortByPatient(appointmentCopy);
+        return appointmentCopy;
+    }
+
+    @Benchmark
+    public List<Appointment> sortByLocation() {
+        Sort.sortByLocation(appointmentCopy);
+        return appointmentCopy;
+    }
+
+    @Benchmark
+    public List<Appointment> sortByStatements() {
+        Sort.sortByStatements(appointmentCopy);
+        return appointmentCopy;
+    }
+
+    @Benchmark
+    public List<Provider> provider() {
+        Sort.provider(providerCopy);
+        return providerCopy;
+    }
+}
@@ -0,0 +1,216 @@
+package benchmark;
+
+import scheduler.*;
+import util.Date;
+import util.List;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Builds a reproducible synthetic clinic schedule for the benchmarks.
+ * Providers, patients and locations are generated from a seed, and
+ * appointments are booked through a ClinicScheduler on the weekdays
+ * following today, so every booking passes the same validation and
+ * conflict checks as the GUI. Nothing here touches the JavaFX toolkit.
+ * @author Keshav Dave, Danny Watson
+ */
+public class SyntheticSchedule {
+    // Constants
+    private static final int TIMESLOTS = 12;
+    private static final int TECHNICIAN_RATE = 100;
+    private static final int IMAGING_PERCENT = 20;
+    private static final int MAX_ATTEMPTS_PER_APPOINTMENT = 20;
+    private static final String[] FIRST_NAMES = {"ANDREW", "RACHAEL", "MONICA",
+            "JOHN", "TOM", "ERIC", "BEN", "JUSTIN", "GARY", "FRANK", "CHARLES", "JENNY"};
+    private static final String[] LAST_NAMES = {"PATEL", "LIM", "ZIMNES", "HARPER",
+            "KAUR", "TAYLOR", "RAMESH", "CERAVOLO", "JOHNSON", "JERRY", "LIN", "BROWN"};
+
+    // Variables
+    private final Random random;
+    private final ClinicScheduler scheduler = new ClinicScheduler();
+    private final List<Provider> providers = new List<>();
+    private final Doctor[] doctors;
+    private final Technician[] technicians;
+    private final Patient[] patients;
+    private final Date[] dates;
+
+    /**
+     * Generates a synthetic schedule
+     * @param doctorCount the number of doctors
+     * @param technicianCount the number of technicians
+     * @param patientCount the number of distinct patients
+     * @param dayCount the number of weekdays appointments are spread over,
+     *                 capped at the weekdays within six months of today
+     * @param locationCount the number of locations providers work at, 1 to 6
+     * @param appointmentCount the number of appointments to try to book
+     * @param seed the seed of the random generator
+     */
+    public SyntheticSchedule(int doctorCount, int technicianCount, int patientCount,
+                             int dayCount, int locationCount, int appointmentCount, long seed) {
+        this.random = new Random(seed);
+        Location[] locations = new Location[Math.min(Math.max(locationCount, 1),
+                Location.values().length)];
+        System.arraycopy(Location.values(), 0, locations, 0, locations.length);
+
+        this.doctors = new Doctor[doctorCount];
+        for (int i = 0; i < doctorCount; i++) {
+            this.doctors[i] = new Doctor(randomProfile(i), locations[i % locations.length],
+                    Specialty.values()[i % Specialty.values().length], String.valueOf(i + 1));
+            this.providers.addLast(this.doctors[i]);
+        }
+        this.technicians = new Technician[technicianCount];
+        for (int i = 0; i < technicianCount; i++) {
+            this.technicians[i] = new Technician(randomProfile(doctorCount + i),
+                    locations[i % locations.length], TECHNICIAN_RATE + i);
+            this.providers.addLast(this.technicians[i]);
+        }
+        this.scheduler.setProviders(this.providers);
+
+        this.patients = new Patient[patientCount];
+        for (int i = 0; i < patientCount; i++) {
+            this.patients[i] = new Patient(randomProfile(doctorCount + technicianCount + i));
+        }
+
+        List<Date> weekdays = new List<>();
+        LocalDate day = LocalDate.now().plusDays(1);
+        for (Date date = toDate(day); weekdays.size() < dayCount && date.withinSixMonths();
+             day = day.plusDays(1), date = toDate(day)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                weekdays.addLast(date);
+            }
+        }
+        this.dates = new Date[weekdays.size()];
+        for (int i = 0; i < this.dates.length; i++) {
+            this.dates[i] = weekdays.get(i);
+        }
+
+        for (int i = 0; i < appointmentCount; i++) {
+            bookRandomAppointment();
+        }
+    }
+
+    /**
+     * Tries to book one random appointment, retrying on conflicts
+     */
+    private void bookRandomAppointment() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS_PER_APPOINTMENT; attempt++) {
+            Profile profile = randomPatient().getProfile();
+            BookingResult result;
+            if (this.technicians.length > 0 && this.random.nextInt(100) < IMAGING_PERCENT) {
+                result = this.scheduler.bookImaging(profile, randomDate(), randomTimeslot(), randomRoom());
+            } else {
+                result = this.scheduler.bookOffice(profile, randomDate(), randomTimeslot(),
+                        randomDoctor().getNpi());
+            }
+            if (result.isSuccessful()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Converts a local date to a Date
+     * @param day the local date
+     * @return the same day as a Date
+     */
+    private static Date toDate(LocalDate day) {
+        return new Date(day.getMonthValue(), day.getDayOfMonth(), day.getYear());
+    }
+
+    /**
+     * Creates a profile with a name drawn from the seed and a unique date
+     * of birth, so every generated person is distinct
+     * @param index the index of the person
+     * @return the generated profile
+     */
+    private Profile randomProfile(int index) {
+        String firstName = FIRST_NAMES[this.random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[this.random.nextInt(LAST_NAMES.length)];
+        return new Profile(firstName, lastName, toDate(LocalDate.of(1940, 1, 1).plusDays(index)));
+    }
+
+    /**
+     * Picks a random generated date
+     * @return a weekday date of the schedule
+     */
+    public Date randomDate() {
+        return this.dates[this.random.nextInt(this.dates.length)];
+    }
+
+    /**
+     * Picks a random timeslot
+     * @return one of the twelve timeslots
+     */
+    public Timeslot randomTimeslot() {
+        return Timeslot.getTimeslotByNumber(1 + this.random.nextInt(TIMESLOTS));
+    }
+
+    /**
+     * Picks a random generated patient
+     * @return a patient of the schedule
+     */
+    public Patient randomPatient() {
+        return this.patients[this.random.nextInt(this.patients.length)];
+    }
+
+    /**
+     * Picks a random generated doctor
+     * @return a doctor of the schedule
+     */
+    public Doctor randomDoctor() {
+        return this.doctors[this.random.nextInt(this.doctors.length)];
+    }
+
+    /**
+     * Picks a random imaging service
+     * @return a radiology room type
+     */
+    public Radiology randomRoom() {
+        return Radiology.values()[this.random.nextInt(Radiology.values().length)];
+    }
+
+    /**
+     * Getter method for the scheduler holding the schedule
+     * @return the scheduler the appointments were booked through
+     */
+    public ClinicScheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Getter method for the generated providers
+     * @return the providers in the order they were generated
+     */
+    public List<Provider> getProviders() {
+        return this.providers;
+    }
+
+    /**
+     * Getter method for the booked appointments
+     * @return the store holding the generated appointments
+     */
+    public AppointmentStore getAppointmentStore() {
+        return this.scheduler.getAppointmentStore();
+    }
+
+    /**
+     * Copies the booked appointments into a new list in a shuffled order
+     * @return a new list holding every booked appointment
+     */
+    public List<Appointment> shuffledAppointments() {
+        List<Appointment> appointments = new List<>();
+        appointments.ensureCapacity(getAppointmentStore().size());
+        for (Appointment appointment : getAppointmentStore()) {
+            appointments.addLast(appointment);
+        }
+        for (int i = appointments.size() - 1; i > 0; i--) {
+            int j = this.random.nextInt(i + 1);
+            Appointment temp = appointments.get(i);
+            appointments.set(i, appointments.get(j));
+            appointments.set(j, temp);
+        }
+        return appointments;
+    }
+}
@@ -1,11 +1,13 @@
 module com.example.project3 {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.httpserver;
 
 
     opens project3scheduler to javafx.fxml;
     opens scheduler to javafx.base; // Allow reflection access to scheduler package
     exports project3scheduler;
+    exports scheduler;
     exports util;
     opens util to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package project3scheduler;
+
+import scheduler.*;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Live model of the appointment ListView. The view holds the appointments
+ * themselves rather than their text, and each cell formats its appointment
+ * only when it is shown, so only the visible rows are ever formatted.
+ * The model listens to the scheduler and applies each booking, cancellation
+ * and reschedule as a single insert or removal, keeping the current order
+ * and filter, so a change costs a binary search instead of redrawing the
+ * whole schedule.
+ * Sorting and filtering for a new order run on a ViewExecutor over a copy
+ * of the schedule. Until the sorted rows arrive the old rows stay live, and
+ * the changes made in the meantime are kept and replayed on the new rows.
+ * If the sort fails or cannot be queued, the old rows stay live and keep
+ * taking changes directly, and the reason is passed to an error handler.
+ * Changes must be made on the JavaFX thread, as they are when booking from
+ * the form or through the schedule server.
+ * @author Keshav Dave, Danny Watson
+ */
+public class AppointmentListModel implements ScheduleListener {
+    // Constants
+    public static final Predicate<Appointment> ALL = appointment -> true;
+    public static final Predicate<Appointment> OFFICE = appointment -> !(appointment instanceof Imaging);
+    public static final Predicate<Appointment> IMAGING = appointment -> appointment instanceof Imaging;
+    private static final String EMPTY = "Schedule calendar is empty.";
+
+    // Variables
+    private final AppointmentStore store;
+    private final ViewExecutor executor;
+    private final Consumer<String> errors;
+    private final ObservableList<Appointment> rows = FXCollections.observableArrayList();
+    private final Label placeholder = new Label(EMPTY);
+    private Comparator<Appointment> order;
+    private Predicate<Appointment> filter = ALL;
+    private ArrayList<Appointment> changes;
+
+    /**
+     * Creates the model of a ListView and shows the stored appointments in
+     * the order they were booked
+     * @param store    the appointment store of the scheduler
+     * @param view     the ListView to show the appointments in
+     * @param executor the executor that sorts the appointments
+     * @param errors   shows why a sort could not be shown, on the JavaFX
+     *                 thread
+     */
+    public AppointmentListModel(AppointmentStore store, ListView<Appointment> view, ViewExecutor executor,
+                                Consumer<String> errors) {
+        this.store = store;
+        this.executor = executor;
+        this.errors = errors;
+        view.setItems(this.rows);
+        view.setPlaceholder(this.placeholder);
+        view.setCellFactory(list -> new AppointmentCell());
+        show(null, ALL);
+    }
+
+    /**
+     * Shows the stored appointments that pass a filter, in an order
+     * The appointments are filtered and sorted in the background, replacing
+     * any sort still running, and appointments booked later are inserted in
+     * the same order
+     * @param order  the order of the appointments, or null for the order
+     *               they were booked in
+     * @param filter the appointments to show
+     */
+    public void show(Comparator<Appointment> order, Predicate<Appointment> filter) {
+        Appointment[] snapshot = ViewExecutor.snapshot(this.store);
+        this.changes = new ArrayList<>();
+        Task<ArrayList<Appointment>> task = new Task<>() {
+            @Override
+            protected ArrayList<Appointment> call() {
+                ArrayList<Appointment> shown = new ArrayList<>(snapshot.length);
+                for (Appointment appointment : snapshot) {
+                    if (filter.test(appointment)) {
+                        shown.add(appointment);
+                    }
+                }
+                if (order != null && !isCancelled()) {
+                    shown.sort(order);
+                }
+                return shown;
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (this.executor.isLatest(this, task)) {
+                apply(order, filter, task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            if (this.executor.isLatest(this, task)) {
+                this.changes = null;
+            }
+            this.errors.accept("Unable to sort the appointments: " + task.getException());
+        });
+        if (!this.executor.submit(this, task)) {
+            this.changes = null;
+            this.errors.accept("Unable to sort the appointments: the view executor is busy.");
+        }
+    }
+
+    /**
+     * Replaces the rows with the result of a sort, then replays the changes
+     * made to the schedule since the sort copied it
+     * @param order  the order of the rows
+     * @param filter the filter of the rows
+     * @param shown  the sorted appointments of the copy
+     */
+    private void apply(Comparator<Appointment> order, Predicate<Appointment> filter,
+                       ArrayList<Appointment> shown) {
+        this.order = order;
+        this.filter = filter;
+        this.rows.setAll(shown);
+        for (int i = 0; i < this.changes.size(); i += 2) {
+            remove(this.changes.get(i));
+            insert(this.changes.get(i + 1));
+        }
+        this.changes = null;
+        updatePlaceholder();
+    }
+
+    /**
+     * Inserts a booked appointment in order
+     * Overrides appointmentBooked method from ScheduleListener interface
+     */
+    @Override
+    public void appointmentBooked(Appointment appointment) {
+        insert(appointment);
+        record(null, appointment);
+        updatePlaceholder();
+    }
+
+    /**
+     * Removes a cancelled appointment
+     * Overrides appointmentCancelled method from ScheduleListener interface
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        remove(appointment);
+        record(appointment, null);
+        updatePlaceholder();
+    }
+
+    /**
+     * Replaces a rescheduled appointment, moving it to its new place
+     * Overrides appointmentRescheduled method from ScheduleListener interface
+     */
+    @Override
+    public void appointmentRescheduled(Appointment original, Appointment rescheduled) {
+        remove(original);
+        insert(rescheduled);
+        record(original, rescheduled);
+        updatePlaceholder();
+    }
+
+    /**
+     * Keeps a change for replaying once a running sort finishes
+     * @param removed the appointment removed, or null
+     * @param added   the appointment added, or null
+     */
+    private void record(Appointment removed, Appointment added) {
+        if (this.changes != null) {
+            this.changes.add(removed);
+            this.changes.add(added);
+        }
+    }
+
+    /**
+     * Inserts an appointment after every row that does not come after it,
+     * or at the end when there is no order
+     * @param appointment the appointment to insert, or null
+     */
+    private void insert(Appointment appointment) {
+        if (appointment == null || !this.filter.test(appointment)) {
+            return;
+        }
+        if (this.order == null) {
+            this.rows.add(appointment);
+            return;
+        }
+        int low = 0;
+        int high = this.rows.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.order.compare(this.rows.get(middle), appointment) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        this.rows.add(low, appointment);
+    }
+
+    /**
+     * Removes the row of an appointment
+     * The rows that compare equal to it are searched for the same object
+     * first, then the rows are searched for an equal appointment
+     * @param appointment the appointment to remove, or null
+     */
+    private void remove(Appointment appointment) {
+        if (appointment == null || !this.filter.test(appointment)) {
+            return;
+        }
+        if (this.order != null) {
+            int low = 0;
+            int high = this.rows.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.order.compare(this.rows.get(middle), appointment) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (int i = low; i < this.rows.size()
+                    && this.order.compare(this.rows.get(i), appointment) == 0; i++) {
+                if (this.rows.get(i) == appointment) {
+                    this.rows.remove(i);
+                    return;
+                }
+            }
+        }
+        this.rows.remove(appointment);
+    }
+
+    /**
+     * Shows the empty calendar message only when nothing is stored, so a
+     * filter that matches nothing shows an empty list
+     */
+    private void updatePlaceholder() {
+        this.placeholder.setText(this.store.isEmpty() ? EMPTY : null);
+    }
+
+    /**
+     * Cell that formats its appointment when it is shown
+     */
+    private static final class AppointmentCell extends ListCell<Appointment> {
+        /**
+         * Sets the text of the cell to the appointment it now shows
+         * Overrides updateItem method from Cell class
+         */
+        @Override
+        protected void updateItem(Appointment appointment, boolean empty) {
+            super.updateItem(appointment, empty);
+            setText(empty || appointment == null ? null : appointment.toString());
+        }
+    }
+}
@@ -5,10 +5,13 @@ import util.*;
 import javafx.scene.control.*;
 import javafx.scene.input.*;
 import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.*;
 import java.time.format.*;
-import java.util.Scanner;
-import java.util.StringTokenizer;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -22,10 +25,16 @@ import javafx.scene.control.cell.PropertyValueFactory;
  * and rescheduling appointments.
  * Should not crash under not instance
  * Please run the window on full screen and do not resize window.
- * When rescheduling an imaging appointment, it automatically converts it to an office appointment
+ * A rescheduled imaging appointment keeps its technician and its room
  * @author Danny Watson, Keshav Dave
  */
 public class ClinicManagerController {
+    // Constants
+    private static final String PROVIDER_FILE = "src/main/java/scheduler/providers.txt";
+    private static final String JOURNAL_DIRECTORY = "journal";
+    private static final String SERVER_PORT_PROPERTY = "clinic.server.port";
+    private static final int SUGGESTED_SLOTS = 3;
+
     // FXML variables
     @FXML
     private DatePicker appointmentDatePicker, dobPicker, originalAppointmentDate, rPatientBirthday;
@@ -43,7 +52,9 @@ public class ClinicManagerController {
     private Label dateErrorLabel, firstNameErrorLabel, lastNameErrorLabel, appointmentDateErrorLabel,
             originalAppointmentDateErrorLabel, rFirstNameErrorLabel, rLastNameErrorLabel, rDateErrorLabel;
     @FXML
-    private ListView<String> appointmentListView, statementListView;
+    private ListView<Appointment> appointmentListView;
+    @FXML
+    private ListView<StatementListModel.Statement> statementListView;
     @FXML
     private TableView<Location> tbl_location;
     @FXML
@@ -51,8 +62,12 @@ public class ClinicManagerController {
 
     // Variables
     private ToggleGroup toggleGroup;
-    private List<Provider> providerList = new List<>();
-    private List<Appointment> appointmentList = new List<>();
+    private final ClinicScheduler scheduler = new ClinicScheduler();
+    private AppointmentJournal journal;
+    private ScheduleServer server;
+    private final ViewExecutor views = new ViewExecutor();
+    private AppointmentListModel appointmentModel;
+    private StatementListModel statementModel;
     private boolean birthdayValid, rBirthdayValid;
     private boolean appointmentValid, rAppointmentValid;
 
@@ -75,8 +90,11 @@ public class ClinicManagerController {
         originalAppointmentDate.getEditor().setDisable(true);
         rPatientBirthday.getEditor().setDisable(true);
 
-        // Display appointments
-        showAppointments(appointmentList, appointmentListView);
+        // Load the providers once, recover the saved schedule, then display appointments
+        loadProviders();
+        openJournal();
+        showSchedule();
+        startServer();
 
         // Initialize toggle group first
         toggleGroup = toggleAppointmentType(officeVisitRadio, imagingServiceRadio);
@@ -85,6 +103,95 @@ public class ClinicManagerController {
         setupEventListeners();
     }
 
+    /**
+     * Adds an error to the output area, below the result it follows
+     * @param message the error to show
+     */
+    private void showError(String message) {
+        outputArea.appendText(message + "\n");
+    }
+
+    /**
+     * Loads the providers from the provider file into the scheduler.
+     */
+    private void loadProviders() {
+        try {
+            scheduler.loadProviders(new File(PROVIDER_FILE));
+        } catch (Exception e) {
+            outputArea.setText("Unable to load providers from " + PROVIDER_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recovers the saved schedule from the journal and keeps journaling
+     * every change made from now on
+     */
+    private void openJournal() {
+        try {
+            journal = AppointmentJournal.open(Path.of(JOURNAL_DIRECTORY), scheduler);
+        } catch (IOException e) {
+            outputArea.appendText("Unable to open the journal in " + JOURNAL_DIRECTORY + ": "
+                    + e.getMessage() + "\nChanges will not be saved.\n");
+        }
+    }
+
+    /**
+     * Shows the appointments and statements through live models that follow
+     * every change made to the schedule, so a booking, cancellation or
+     * reschedule updates only the rows it changes
+     * Work the models cannot finish in the background is reported in the
+     * output area
+     */
+    private void showSchedule() {
+        appointmentModel = new AppointmentListModel(scheduler.getAppointmentStore(), appointmentListView, views,
+                this::showError);
+        statementModel = new StatementListModel(scheduler, statementListView, views, this::showError);
+        scheduler.addListener(appointmentModel);
+        scheduler.addListener(statementModel);
+    }
+
+    /**
+     * Serves the schedule over HTTP when the clinic.server.port property is
+     * set, so other desks can book through the same scheduler
+     * Requests are run on the JavaFX thread, where the models of the views
+     * apply the changes they make
+     */
+    private void startServer() {
+        String port = System.getProperty(SERVER_PORT_PROPERTY);
+        if (port == null) {
+            return;
+        }
+        try {
+            server = ScheduleServer.start(scheduler, journal, Platform::runLater,
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(port)));
+        } catch (IOException | IllegalArgumentException e) {
+            outputArea.appendText("Unable to serve the schedule on port " + port + ": " + e.getMessage() + "\n");
+            return;
+        }
+        outputArea.appendText("Serving the schedule on http://localhost:" + server.getPort() + "\n");
+    }
+
+    /**
+     * Stops the server and the view tasks, then commits the journal and
+     * closes it when the application exits
+     */
+    public void shutdown() {
+        views.shutdown();
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Unable to save the journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
     /**
      * Sets up the location table with city, county, and zip columns.
      */
@@ -116,7 +223,7 @@ public class ClinicManagerController {
         rDateEditor.setOnKeyReleased(this::handleRBirthday);
 
         timeslotComboBox.setItems(createTimeslotList());
-        providerComboBox.setItems(createProviderSettings(providerList));
+        providerComboBox.setItems(createProviderSettings(scheduler.getProviders()));
         currentTimeslot.setItems(createTimeslotList());
         newTimeslot.setItems(createTimeslotList());
 
@@ -137,7 +244,7 @@ public class ClinicManagerController {
      */
     private void configureComboBoxes() {
         timeslotComboBox.setItems(createTimeslotList());
-        providerComboBox.setItems(createProviderSettings(providerList));
+        providerComboBox.setItems(createProviderSettings(scheduler.getProviders()));
         currentTimeslot.setItems(createTimeslotList());
         newTimeslot.setItems(createTimeslotList());
         toggleGroup = toggleAppointmentType(officeVisitRadio, imagingServiceRadio);
@@ -338,7 +445,7 @@ public class ClinicManagerController {
         } else if (officeVisitRadio == selectedRadioButton) {
             providerComboBox.setVisible(true);
             providerComboBox.setPromptText("Providers");
-            providerComboBox.setItems(createProviderSettings(providerList));
+            providerComboBox.setItems(createProviderSettings(scheduler.getProviders()));
         }
     }
 
@@ -404,7 +511,6 @@ public class ClinicManagerController {
         if (selectedRadioButton == imagingServiceRadio)
             tCommand(timeslot, appointmentDate, patientsProfile);
 
-        showAppointments(appointmentList, appointmentListView);
         clear();
     }
 
@@ -415,14 +521,14 @@ public class ClinicManagerController {
      * @param patientProfile  the profile of the patient
      */
     private void tCommand(Timeslot timeslot, Date aptDate, Profile patientProfile) {
-        Patient patient = new Patient(patientProfile);
-        checkAppointmentExists(patientProfile, aptDate, timeslot, appointmentList);
-        String imaging = providerComboBox.getValue();
-        Radiology radiology = Radiology.valueOf(imaging.toUpperCase());
-        Imaging appointment = findTechnicianAvailability(timeslot, aptDate, patient, radiology, appointmentList, providerList, outputArea);
-
-        outputArea.setText(appointment + " booked.");
-        appointmentList.add(appointment);
+        Radiology radiology = Radiology.valueOf(providerComboBox.getValue().toUpperCase());
+        BookingResult result = scheduler.bookImaging(patientProfile, aptDate, timeslot, radiology);
+        String message = result.getMessage();
+        if (result.getStatus() == BookingStatus.PROVIDER_UNAVAILABLE) {
+            message += nextAvailable(scheduler.findImagingSlots(radiology, patientProfile, aptDate, timeslot,
+                    SUGGESTED_SLOTS));
+        }
+        outputArea.setText(withSaveWarning(message));
     }
 
     /**
@@ -433,22 +539,13 @@ public class ClinicManagerController {
      */
     private void dCommand(Timeslot timeslot, Date aptDate, Profile patientProfile) {
         String npi = extractNpi(providerComboBox.getValue());
-        Doctor doctor = checkNpi(npi, providerList);
-        if (checkAppointmentExists(patientProfile, aptDate, timeslot, appointmentList)) {
-            outputArea.setText(patientProfile + " has an existing appointment at the same time slot.");
-            return;
-        }
-        if (providerAvailability(npi, timeslot, aptDate, appointmentList)) {
-            outputArea.setText(doctor + " is not available at " + timeslot);
-            return;
+        BookingResult result = scheduler.bookOffice(patientProfile, aptDate, timeslot, npi);
+        String message = result.getMessage();
+        if (result.getStatus() == BookingStatus.PROVIDER_UNAVAILABLE) {
+            message += nextAvailable(scheduler.findOfficeSlots(npi, patientProfile, aptDate, timeslot,
+                    SUGGESTED_SLOTS));
         }
-        Patient patient = new Patient(patientProfile);
-
-
-
-        Appointment appointment = new Appointment(aptDate, timeslot, patient, doctor);
-        outputArea.setText(appointment + " booked.");
-        appointmentList.add(appointment);
+        outputArea.setText(withSaveWarning(message));
     }
 
     /**
@@ -469,16 +566,8 @@ public class ClinicManagerController {
         Date birthday = new Date(date2.getMonthValue(), date2.getDayOfMonth(), date2.getYear());
 
         Profile patientProfile = new Profile(fName, lName, birthday);
-        Patient patient = new Patient(patientProfile);
-        Appointment appointment = foundAppointment(appointmentDate, timeslot, patient, appointmentList);
-        if (appointment != null) {
-            appointmentList.remove(appointment);
-            outputArea.setText(appointment.getDate() + " " + appointment.getTimeslot() + " " + patient.getProfile()
-                    + "- appointment has been cancelled.");
-        } else
-            outputArea.setText(appointmentDate + " " + timeslot + " " + patient + "- appointment does not exist.");
-
-        showAppointments(appointmentList, appointmentListView);
+        outputArea.setText(withSaveWarning(scheduler.cancel(patientProfile, appointmentDate, timeslot).getMessage()));
+
         clear();
     }
 
@@ -496,49 +585,28 @@ public class ClinicManagerController {
         LocalDate localDate2 = rPatientBirthday.getValue();
         Date birthday = new Date(localDate2.getMonthValue(), localDate2.getDayOfMonth(), localDate2.getYear());
         Profile patientProfile = new Profile(firstName, lastName, birthday);
-        Patient patient = new Patient(patientProfile);
+        Timeslot timeslotChange = Timeslot.findTimeslot(newTimeslot.getValue());
 
-        if (foundAppointment(aptDate, timeslot, patient, appointmentList) == null) {
-            outputArea.setText("appointment does not exist");
+        BookingResult result = scheduler.reschedule(patientProfile, aptDate, timeslot, timeslotChange);
+        outputArea.setText(withSaveWarning(result.getMessage()));
+        if (!result.isSuccessful()) {
             return;
         }
-        Appointment appointment = foundAppointment(aptDate, timeslot, patient, appointmentList);
-
-        String timeslotString2 = newTimeslot.getValue();
-        Timeslot timeslotChange = Timeslot.findTimeslot(timeslotString2);
-
-        Appointment appointmentChange = new Appointment(aptDate, timeslotChange, patient, appointment.getProvider());
+        rClear();
+    }
 
-        // Determine provider type and availability checks accordingly
-        if (appointment.getProvider() instanceof Doctor doctor) {
-            // Check if patient already has an appointment in the same slot
-            if (checkAppointmentExists(patientProfile, aptDate, timeslotChange, appointmentList)) {
-                outputArea.setText(patientProfile + " has an existing appointment at the same time slot.");
-                return;
-            }
-            // Check if the doctor is available
-            if (providerAvailability(doctor.getNpi(), timeslotChange, appointmentChange.getDate(), appointmentList)) {
-                outputArea.setText(doctor + " is not available at " + timeslotChange);
-                return;
-            }
-        } else if (appointment.getProvider() instanceof Technician technician) {
-            // Check for technician or imaging-specific availability
-            if (checkAppointmentExists(patientProfile, aptDate, timeslotChange, appointmentList)) {
-                outputArea.setText("Imaging appointment already exists for " + patientProfile + " at this timeslot.");
-                return;
-            }
-            if (technicianAvailability(timeslotChange, appointmentChange.getDate(), appointmentList)) {
-                outputArea.setText(technician + " is not available at " + timeslotChange);
-                return;
-            }
+    /**
+     * Adds a warning to the message of a command once the journal has
+     * stopped saving the schedule, so changes are not lost without notice
+     * @param message the message of the command
+     * @return the message, followed by the journal error if there is one
+     */
+    private String withSaveWarning(String message) {
+        IOException failure = journal == null ? null : journal.getFailure();
+        if (failure == null) {
+            return message;
         }
-
-        this.appointmentList.remove(appointment);
-        this.appointmentList.add(appointmentChange);
-        outputArea.setText("Rescheduled to " + appointmentChange);
-        showAppointments(appointmentList, appointmentListView);
-
-        rClear();
+        return message + "\nThe schedule is no longer being saved: " + failure;
     }
 
     /**
@@ -660,8 +728,7 @@ public class ClinicManagerController {
      */
     @FXML
     public void sortByAppointment() {
-        Sort.sortByDate(appointmentList);
-        showAppointments(appointmentList, appointmentListView);
+        appointmentModel.show(Sort.BY_DATE, AppointmentListModel.ALL);
     }
 
     /**
@@ -669,8 +736,7 @@ public class ClinicManagerController {
      */
     @FXML
     public void sortByPatient() {
-        Sort.sortByPatient(appointmentList);
-        showAppointments(appointmentList, appointmentListView);
+        appointmentModel.show(Sort.BY_PATIENT, AppointmentListModel.ALL);
     }
 
     /**
@@ -678,8 +744,7 @@ public class ClinicManagerController {
      */
     @FXML
     public void sortByLocation() {
-        Sort.sortByLocation(appointmentList);
-        showAppointments(appointmentList, appointmentListView);
+        appointmentModel.show(Sort.BY_LOCATION, AppointmentListModel.ALL);
     }
 
     /**
@@ -687,21 +752,7 @@ public class ClinicManagerController {
      */
     @FXML
     private void poCommand() {
-        ObservableList<String> observableAppointments = FXCollections.observableArrayList();
-
-        if (appointmentList.isEmpty()) {
-            observableAppointments.add("Schedule calendar is empty.");
-            appointmentListView.setItems(observableAppointments);
-            return;
-        }
-
-        Sort.sortByLocation(appointmentList);
-        for (Appointment appointment : appointmentList) {
-            if (!(appointment instanceof Imaging)) {
-                observableAppointments.add(appointment.toString());
-            }
-        }
-        appointmentListView.setItems(observableAppointments);
+        appointmentModel.show(Sort.BY_LOCATION, AppointmentListModel.OFFICE);
     }
 
     /**
@@ -709,22 +760,7 @@ public class ClinicManagerController {
      */
     @FXML
     private void piCommand() {
-        ObservableList<String> observableAppointments = FXCollections.observableArrayList();
-
-        if (appointmentList.isEmpty()) {
-            observableAppointments.add("Schedule calendar is empty.");
-            appointmentListView.setItems(observableAppointments);
-            return;
-        }
-
-        Sort.sortByLocation(appointmentList);
-        for (Appointment appointment : appointmentList) {
-            if (appointment instanceof Imaging) {
-                observableAppointments.add(appointment.toString());
-            }
-        }
-
-        appointmentListView.setItems(observableAppointments);
+        appointmentModel.show(Sort.BY_LOCATION, AppointmentListModel.IMAGING);
     }
 
     /**
@@ -732,19 +768,7 @@ public class ClinicManagerController {
      */
     @FXML
     private void viewPatientBillingStatements() {
-        ObservableList<String> observableAppointments = FXCollections.observableArrayList();
-        if (appointmentList.isEmpty()) {
-            observableAppointments.add("Schedule calendar is empty.");
-            statementListView.setItems(observableAppointments);
-            return;
-        }
-        Sort.sortByPatient(appointmentList);
-        List<Patient> patientList = createPatientList(appointmentList);
-        for (Patient patient : patientList) {
-            observableAppointments.add("(" + (patientList.indexOf(patient) + 1) + ") " + patient + " [due: $" + patient.charge() + ".00]");
-        }
-
-        statementListView.setItems(observableAppointments);
+        statementModel.showPatientStatements();
     }
 
     /**
@@ -752,24 +776,7 @@ public class ClinicManagerController {
      */
     @FXML
     public void printProviderCredits() {
-        ObservableList<String> observableAppointments = FXCollections.observableArrayList();
-        if (this.appointmentList.isEmpty()) {
-            observableAppointments.add("Schedule calendar is empty.");
-            statementListView.setItems(observableAppointments);
-            return;
-        }
-        Sort.provider(this.providerList);
-
-        for (Provider provider : this.providerList) {
-            int credit = 0;
-            for (Appointment appointment : this.appointmentList) {
-                if (appointment.getProvider().equals(provider)) {
-                    credit += provider.rate();
-                }
-            }
-            observableAppointments.add("(" + (providerList.indexOf(provider) + 1) + ") " + provider.getProfile() + " [credit amount: $" + credit + ".00]");
-        }
-        statementListView.setItems(observableAppointments);
+        statementModel.showProviderCredits();
     }
 
     /**
@@ -780,14 +787,8 @@ public class ClinicManagerController {
      * @return true if the date is valid, false otherwise
      */
     public static boolean checkBirthdayValidity(Date date, DatePicker datepicker, Label dateErrorLabel) {
-        String errorMessage;
-        if (!date.isNotToday() || date.isAfterToday()) {
-            errorMessage = "Patient dob: " + date + " is today or a date after today.";
-            setDateFieldInvalid(datepicker, dateErrorLabel, errorMessage);
-            return false;
-        }
-        if (!date.isValid()) {
-            errorMessage = "Patient dob: " + date + " is not a valid calendar date.";
+        String errorMessage = ClinicScheduler.checkBirthday(date);
+        if (errorMessage != null) {
             setDateFieldInvalid(datepicker, dateErrorLabel, errorMessage);
             return false;
         }
@@ -803,22 +804,13 @@ public class ClinicManagerController {
      * @return true if the appointment date is valid, false otherwise
      */
     public static boolean checkAppointmentDateValidity(Date date, DatePicker datepicker, Label dateErrorLabel) {
-        String errorMessage;
-
-        if (!date.isValid()) {
-            errorMessage = "Appointment Date: " + date + " is not a valid calendar date.";
-        } else if (!date.isNotToday() || !date.isAfterToday()) {
-            errorMessage = "Appointment Date: " + date + " is today or a date before today.";
-        } else if (!date.isNotWeekend()) {
-            errorMessage = "Appointment date: " + date + " is Saturday or Sunday.";
-        } else if (!date.withinSixMonths()) {
-            errorMessage = "Appointment date: " + date + " is not within six months.";
-        } else {
-            setDateFieldValid(datepicker, dateErrorLabel, "Appointment Date");
-            return true;
+        String errorMessage = ClinicScheduler.checkAppointmentDate(date);
+        if (errorMessage != null) {
+            setDateFieldInvalid(datepicker, dateErrorLabel, errorMessage);
+            return false;
         }
-        setDateFieldInvalid(datepicker, dateErrorLabel, errorMessage);
-        return false;
+        setDateFieldValid(datepicker, dateErrorLabel, "Appointment Date");
+        return true;
     }
 
     /**
@@ -876,13 +868,12 @@ public class ClinicManagerController {
     }
 
     /**
-     * Creates a list of provider names from the provider list.
+     * Creates a list of doctor names from the provider list.
      * @param providerList the list of providers
      * @return an ObservableList of provider strings
      */
     public static ObservableList<String> createProviderSettings(List<Provider> providerList) {
         ObservableList<String> providers = FXCollections.observableArrayList();
-        loadProviderList(providerList);
         for (Provider provider : providerList) {
             if (provider instanceof Doctor) {
                 String string = provider.getProfile().getfname() + " " + provider.getProfile().getlname() + "("
@@ -893,112 +884,6 @@ public class ClinicManagerController {
         return providers;
     }
 
-    /**
-     * Parses provider information from command line and adds it to the provider list.
-     * @param commandLine  the provider information string
-     * @param providerList the list to add providers to
-     */
-    private static void createProviderList(String commandLine, List<Provider> providerList) {
-        StringTokenizer tokenizer = new StringTokenizer(commandLine, " ");
-        String type = tokenizer.nextToken();
-        String firstName = tokenizer.nextToken();
-        String lastName = tokenizer.nextToken();
-        Date dob = stringToDate(tokenizer.nextToken());
-
-        Profile profile = new Profile(firstName, lastName, dob);
-        Location location = stringToLocation(tokenizer.nextToken());
-
-        if (type.equals("D")) {
-            Specialty specialty = stringToSpecialty(tokenizer.nextToken());
-            String id = tokenizer.nextToken();
-            Doctor doctor = new Doctor(profile, location, specialty, id);
-            providerList.add(doctor);
-        } else if (type.equals("T")) {
-            int ratePerVisit = Integer.parseInt(tokenizer.nextToken());
-            Technician technician = new Technician(profile, location, ratePerVisit);
-            providerList.add(technician);
-        }
-    }
-
-    /**
-     * Loads providers from a file into the provider list.
-     * @param providerList the list to add providers to
-     */
-    private static void loadProviderList(List<Provider> providerList) {
-        File file = new File("src/main/java/scheduler/providers.txt");
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                String providers = scanner.nextLine();
-                createProviderList(providers, providerList);
-            }
-            Technician first = createCircularList(providerList);
-            Sort.provider(providerList);
-        } catch (Exception e) {
-            // Handle exceptions
-
-        }
-    }
-
-    /**
-     * Converts a date string to a Date object.
-     * @param commandLineDate the date string in M/D/YYYY format
-     * @return the parsed Date object
-     */
-    private static Date stringToDate(String commandLineDate) {
-        StringTokenizer dateTokenizer = new StringTokenizer(commandLineDate, "/");
-        int month = Integer.parseInt(dateTokenizer.nextToken());
-        int day = Integer.parseInt(dateTokenizer.nextToken());
-        int year = Integer.parseInt(dateTokenizer.nextToken());
-        return new Date(month, day, year);
-    }
-
-    /**
-     * Converts a location string to a Location object.
-     * @param commandLineLocation the location string
-     * @return the corresponding Location object
-     */
-    private static Location stringToLocation(String commandLineLocation) {
-        return Location.valueOfLocation(commandLineLocation.toUpperCase());
-    }
-
-    /**
-     * Converts a specialty string to a Specialty object.
-     *
-     * @param commandLineSpecialty the specialty string
-     * @return the corresponding Specialty object
-     */
-    private static Specialty stringToSpecialty(String commandLineSpecialty) {
-        return Specialty.valueOfSpecialty(commandLineSpecialty.toUpperCase());
-    }
-
-    /**
-     * Creates a circular linked list of technicians in the provider list.
-     * @param providerList the list of providers
-     * @return the first Technician in the circular list
-     */
-    private static Technician createCircularList(List<Provider> providerList) {
-        Technician current = null;
-        Technician first = null;
-
-        for (int i = providerList.size() - 1; i >= 0; i--) {
-            if (providerList.get(i) instanceof Technician) {
-                if (current == null) {
-                    current = (Technician) providerList.get(i);
-                    first = current;
-                    current.setHead(first);
-                    continue;
-                }
-                current.setNext((Technician) providerList.get(i));
-                current.setHead(first);
-                current = (Technician) providerList.get(i);
-            }
-        }
-        if (current != null) {
-            current.setNext(first);
-        }
-        return first;
-    }
-
     /**
      * Sets up a toggle group for the appointment type radio buttons.
      * @param officeAppointment   the office visit radio button
@@ -1013,60 +898,19 @@ public class ClinicManagerController {
     }
 
     /**
-     * Checks if a provider with the given NPI is available at the specified
-     * timeslot and date.
-     * @param npi             the provider's NPI number
-     * @param timeslot        the timeslot to check
-     * @param date            the date to check
-     * @param appointmentList the list of existing appointments
-     * @return true if the provider is unavailable, false if available
+     * Formats the open slots suggested after a provider was not available.
+     * @param candidates the open slots found, earliest first
+     * @return the lines listing the slots, or an empty string if there are none
      */
-    public static boolean providerAvailability(String npi, Timeslot timeslot, Date date, List<Appointment> appointmentList) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment.getProvider() instanceof Doctor doctor && doctor.getNpi().equals(npi)
-                    && appointment.getDate().equals(date) && appointment.getTimeslot().equals(timeslot)) {
-                return true;
-            }
+    public static String nextAvailable(List<SlotCandidate> candidates) {
+        if (candidates.isEmpty()) {
+            return "";
         }
-        return false;
-    }
-
-    /**
-     * Checks if a technician with the given NPI is available at the specified
-     * timeslot and date.
-     * @param timeslot        the timeslot to check
-     * @param date            the date to check
-     * @param appointmentList the list of existing appointments
-     * @return true if the provider is unavailable, false if available
-     */
-    public static boolean technicianAvailability(Timeslot timeslot, Date date, List<Appointment> appointmentList) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment.getProvider() instanceof Technician technician
-                    && appointment.getDate().equals(date)
-                    && appointment.getTimeslot().equals(timeslot)) {
-                return true;
-            }
+        StringBuilder message = new StringBuilder("\nNext available:");
+        for (SlotCandidate candidate : candidates) {
+            message.append("\n").append(candidate);
         }
-        return false;
-    }
-
-    /**
-     * Checks if an appointment already exists for a given profile, date, and
-     * timeslot.
-     * @param profile         the profile to check
-     * @param date            the date to check
-     * @param timeslot        the timeslot to check
-     * @param appointmentList the list of existing appointments
-     * @return true if an appointment exists, false otherwise
-     */
-    public static boolean checkAppointmentExists(Profile profile, Date date, Timeslot timeslot, List<Appointment> appointmentList) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment.getPatient().getProfile().equals(profile) && appointment.getDate().equals(date)
-                    && appointment.getTimeslot().equals(timeslot)) {
-                return true;
-            }
-        }
-        return false;
+        return message.toString();
     }
 
     /**
@@ -1079,167 +923,4 @@ public class ClinicManagerController {
         int endIndex = formattedString.indexOf(')');
         return formattedString.substring(startIndex, endIndex);
     }
-
-    /**
-     * Finds a doctor in the provider list with the specified NPI.
-     * @param npi           the NPI to search for
-     * @param providerList  the list of providers
-     * @return the Doctor with the matching NPI, or null if not found
-     */
-    public static Doctor checkNpi(String npi, List<Provider> providerList) {
-        for (Provider provider : providerList) {
-            if (provider instanceof Doctor doctor && doctor.getNpi().equals(npi)) {
-                return doctor;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Finds an available technician for an imaging appointment.
-     * @param timeslot         the timeslot requested
-     * @param appointmentDate  the appointment date
-     * @param patient          the patient for the appointment
-     * @param room             the radiology room
-     * @param appointmentList  the list of existing appointments
-     * @param providerList     the list of providers
-     * @param outputText       the TextArea for displaying messages
-     * @return an Imaging appointment if technician and room are available, or null if not
-     */
-    public static Imaging findTechnicianAvailability(Timeslot timeslot, Date appointmentDate, Person patient, Radiology room,
-                                                     List<Appointment> appointmentList, List<Provider> providerList, TextArea outputText) {
-        Technician technicianList = null;
-        int counter = 0;
-        int size = 0;
-        for (Provider provider : providerList) {
-            if (provider instanceof Technician technician) {
-                technicianList = technician.getHead();
-                size = technicianList.getSize();
-                break;
-            }
-        }
-        while (technicianList != null && counter < size) {
-            boolean isAvailable = true;
-            for (Appointment appointment : appointmentList) {
-                if (appointment.getProvider().equals(technicianList)
-                        && appointment.getTimeslot().equals(timeslot)
-                        && appointment.getDate().equals(appointmentDate)) {
-                    isAvailable = false;
-                    break;
-                }
-            }
-            if (isAvailable && checkRoomAvailability(room, new Appointment(appointmentDate, timeslot, patient, technicianList), timeslot, appointmentDate, appointmentList)) {
-                setHead(technicianList.getNext(), providerList);
-                return new Imaging(appointmentDate, timeslot, patient, technicianList, room);
-            }
-            technicianList = technicianList.getNext();
-            counter++;
-        }
-        outputText.setText("Cannot find an available technician at all locations for " + room + " at " + timeslot);
-        return null;
-    }
-
-    /**
-     * Checks if the specified radiology room is available.
-     * @param room             the radiology room to check
-     * @param appointment      the appointment being scheduled
-     * @param timeslot         the timeslot for the appointment
-     * @param appointmentDate  the date for the appointment
-     * @param appointmentList  the list of existing appointments
-     * @return true if the room is available, false otherwise
-     */
-    private static boolean checkRoomAvailability(Radiology room, Appointment appointment, Timeslot timeslot, Date appointmentDate, List<Appointment> appointmentList) {
-        boolean roomAvailable = true;
-        for (Appointment allAppointments : appointmentList) {
-            Provider provider = (Provider) allAppointments.getProvider();
-            Provider currProvider = (Provider) appointment.getProvider();
-            if (appointmentDate.equals(allAppointments.getDate()) && timeslot.equals(allAppointments.getTimeslot()) && currProvider.getLocation().equals(provider.getLocation()))
-                if (allAppointments instanceof Imaging imagingApt) {
-                    if (imagingApt.getRoom().equals(room)) {
-                        roomAvailable = false;
-                        break;
-                    }
-                }
-
-        }
-
-        return roomAvailable;
-    }
-
-    /**
-     * Sets the head technician in the circular linked list.
-     * @param technician   the Technician to set as head
-     * @param providerList the list of providers
-     */
-    private static void setHead(Technician technician, List<Provider> providerList) {
-        for (Provider provider : providerList) {
-            if (provider instanceof Technician technician1) {
-                technician1.setHead(technician);
-            }
-        }
-    }
-
-    /**
-     * Finds an appointment in the list matching the date, timeslot, and patient.
-     * @param date            the appointment date
-     * @param timeslot        the timeslot of the appointment
-     * @param patient         the patient for the appointment
-     * @param appointmentList the list of existing appointments
-     * @return the found Appointment, or null if not found
-     */
-    public static Appointment foundAppointment(Date date, Timeslot timeslot, Person patient, List<Appointment> appointmentList) {
-        for (Appointment appointment : appointmentList) {
-            if (patient.equals(appointment.getPatient()) && appointment.getTimeslot().equals(timeslot) && appointment.getDate().equals(date)) {
-                return appointment;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Displays the list of appointments in the ListView.
-     * @param appointmentList     the list of appointments
-     * @param appointmentListView the ListView to display appointments
-     */
-    public static void showAppointments(List<Appointment> appointmentList, ListView<String> appointmentListView) {
-        ObservableList<String> observableAppointments = FXCollections.observableArrayList();
-
-        if (appointmentList.isEmpty()) {
-            observableAppointments.add("Schedule calendar is empty.");
-            appointmentListView.setItems(observableAppointments);
-            return;
-        }
-
-        for (Appointment appointment : appointmentList) {
-            observableAppointments.add(appointment.toString());
-        }
-        appointmentListView.setItems(observableAppointments);
-    }
-
-    /**
-     * Creates a list of unique patients from the appointment list.
-     * @param appointmentList the list of appointments
-     * @return a list of unique patients
-     */
-    public static List<Patient> createPatientList(List<Appointment> appointmentList) {
-        List<Patient> patientList = new List<>();
-        for (Appointment appointment : appointmentList) {
-            Profile appointmentProfile = appointment.getPatient().getProfile();
-            Patient existingPatient = null;
-            for (Patient patient : patientList) {
-                if (patient.getProfile().equals(appointmentProfile)) {
-                    existingPatient = patient;
-                    break;
-                }
-            }
-            if (existingPatient != null) {
-                existingPatient.addVisit(appointment);
-            } else {
-                Patient newPatient = new Patient(appointmentProfile);
-                newPatient.addVisit(appointment);
-                patientList.add(newPatient);
-            }
-        }
-        return patientList;
-    }
 }
\ No newline at end of file
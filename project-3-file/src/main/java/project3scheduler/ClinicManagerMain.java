@@ -14,15 +14,28 @@ import java.io.IOException;
  * @author Danny Watson, Keshav Dave
  */
 public class ClinicManagerMain extends Application {
+    private ClinicManagerController controller;
+
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(ClinicManagerMain.class.getResource("scheduler.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 320, 240);
+        controller = fxmlLoader.getController();
         stage.setTitle("Clinic Manager");
         stage.setScene(scene);
         stage.show();
     }
 
+    /**
+     * Saves the journal of the schedule before the application exits
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -0,0 +1,369 @@
+package project3scheduler;
+
+import scheduler.*;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+/**
+ * Live model of the statement ListView, showing either the billing
+ * statements of the patients or the credits of the providers. Each row is
+ * a person and an amount, and cells format their row and its number only
+ * when they are shown.
+ * The model listens to the scheduler and, after each change, updates only
+ * the rows of the patient and provider of the changed appointment: a
+ * patient row is found by binary search and replaced, inserted when the
+ * account is opened or removed when it is closed, and a provider row is
+ * found through a map and replaced.
+ * Billing statements and credits are totalled on a ViewExecutor from a copy
+ * of the schedule. Until the totals arrive the old rows stay live, and the
+ * changes made in the meantime are replayed on the new rows. If the totals
+ * fail or cannot be queued, the old rows stay live and the reason is passed
+ * to an error handler.
+ * Changes must be made on the JavaFX thread.
+ * @author Keshav Dave, Danny Watson
+ */
+public class StatementListModel implements ScheduleListener {
+    // Constants
+    private static final String EMPTY = "Schedule calendar is empty.";
+
+    /**
+     * The statements a model can show
+     */
+    private enum Mode { NONE, PATIENTS, PROVIDERS }
+
+    // Variables
+    private final ClinicScheduler scheduler;
+    private final ViewExecutor executor;
+    private final Consumer<String> errors;
+    private final ObservableList<Statement> rows = FXCollections.observableArrayList();
+    private final HashMap<Person, Integer> providerRows = new HashMap<>();
+    private final Label placeholder = new Label();
+    private Mode mode = Mode.NONE;
+    private ArrayList<Appointment> changes;
+
+    /**
+     * Creates the model of a ListView, showing nothing until a statement
+     * view is chosen
+     * @param scheduler the scheduler whose statements are shown
+     * @param view      the ListView to show the statements in
+     * @param executor  the executor that totals the statements
+     * @param errors    shows why totals could not be shown, on the JavaFX
+     *                  thread
+     */
+    public StatementListModel(ClinicScheduler scheduler, ListView<Statement> view, ViewExecutor executor,
+                              Consumer<String> errors) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.errors = errors;
+        view.setItems(this.rows);
+        view.setPlaceholder(this.placeholder);
+        view.setCellFactory(list -> new StatementCell());
+    }
+
+    /**
+     * Shows the billing statement of every patient, in patient order, once
+     * it has been totalled in the background
+     */
+    public void showPatientStatements() {
+        Appointment[] snapshot = ViewExecutor.snapshot(this.scheduler.getAppointmentStore());
+        submit(Mode.PATIENTS, new Task<>() {
+            @Override
+            protected ArrayList<Statement> call() {
+                return patientStatements(snapshot);
+            }
+        });
+    }
+
+    /**
+     * Shows the credit of every provider, in order of provider name, once
+     * it has been totalled in the background
+     */
+    public void showProviderCredits() {
+        Appointment[] snapshot = ViewExecutor.snapshot(this.scheduler.getAppointmentStore());
+        Provider[] roster = new Provider[this.scheduler.getProviders().size()];
+        for (int i = 0; i < roster.length; i++) {
+            roster[i] = this.scheduler.getProviders().get(i);
+        }
+        submit(Mode.PROVIDERS, new Task<>() {
+            @Override
+            protected ArrayList<Statement> call() {
+                return providerCredits(snapshot, roster);
+            }
+        });
+    }
+
+    /**
+     * Runs a task that totals the rows of a mode, replacing any task still
+     * running, and starts keeping the changes made until it finishes
+     * @param mode the statements the task totals
+     * @param task the task
+     */
+    private void submit(Mode mode, Task<ArrayList<Statement>> task) {
+        this.changes = new ArrayList<>();
+        task.setOnSucceeded(event -> {
+            if (this.executor.isLatest(this, task)) {
+                apply(mode, task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            if (this.executor.isLatest(this, task)) {
+                this.changes = null;
+            }
+            this.errors.accept("Unable to total the statements: " + task.getException());
+        });
+        if (!this.executor.submit(this, task)) {
+            this.changes = null;
+            this.errors.accept("Unable to total the statements: the view executor is busy.");
+        }
+    }
+
+    /**
+     * Replaces the rows with the result of a task, then replays the changes
+     * made to the schedule since the task copied it
+     * @param mode       the statements of the rows
+     * @param statements the rows totalled from the copy
+     */
+    private void apply(Mode mode, ArrayList<Statement> statements) {
+        this.mode = mode;
+        this.providerRows.clear();
+        if (mode == Mode.PROVIDERS) {
+            for (Provider provider : this.scheduler.getProviders()) {
+                this.providerRows.put(provider, this.providerRows.size());
+            }
+        }
+        this.rows.setAll(statements);
+        for (Appointment appointment : this.changes) {
+            update(appointment);
+        }
+        this.changes = null;
+        updatePlaceholder();
+    }
+
+    /**
+     * Totals the charges of every patient of a copy of the schedule
+     * @param snapshot the appointments
+     * @return the statement of every patient, in patient order
+     */
+    private static ArrayList<Statement> patientStatements(Appointment[] snapshot) {
+        HashMap<Profile, int[]> charges = new HashMap<>();
+        for (Appointment appointment : snapshot) {
+            charges.computeIfAbsent(appointment.getPatient().getProfile(), profile -> new int[1])[0]
+                    += ((Provider) appointment.getProvider()).rate();
+        }
+        ArrayList<Profile> profiles = new ArrayList<>(charges.keySet());
+        profiles.sort(null);
+        ArrayList<Statement> statements = new ArrayList<>(profiles.size());
+        for (Profile profile : profiles) {
+            statements.add(new Statement(new Person(profile), charges.get(profile)[0], false));
+        }
+        return statements;
+    }
+
+    /**
+     * Totals the credits of every provider of a copy of the schedule
+     * @param snapshot the appointments
+     * @param roster   the providers, in order of name
+     * @return the credit of every provider, or no rows if the copy is empty
+     */
+    private static ArrayList<Statement> providerCredits(Appointment[] snapshot, Provider[] roster) {
+        ArrayList<Statement> credits = new ArrayList<>(roster.length);
+        if (snapshot.length == 0) {
+            return credits;
+        }
+        HashMap<Person, int[]> visits = new HashMap<>();
+        for (Appointment appointment : snapshot) {
+            visits.computeIfAbsent(appointment.getProvider(), provider -> new int[1])[0]++;
+        }
+        for (Provider provider : roster) {
+            int[] count = visits.get(provider);
+            credits.add(new Statement(provider, count == null ? 0 : count[0] * provider.rate(), true));
+        }
+        return credits;
+    }
+
+    /**
+     * Updates the rows of the patient and provider of a booked appointment
+     * Overrides appointmentBooked method from ScheduleListener interface
+     */
+    @Override
+    public void appointmentBooked(Appointment appointment) {
+        update(appointment);
+        record(appointment);
+    }
+
+    /**
+     * Updates the rows of the patient and provider of a cancelled appointment
+     * Overrides appointmentCancelled method from ScheduleListener interface
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        update(appointment);
+        record(appointment);
+    }
+
+    /**
+     * Updates the rows of the patient and providers of a rescheduled
+     * appointment
+     * Overrides appointmentRescheduled method from ScheduleListener interface
+     */
+    @Override
+    public void appointmentRescheduled(Appointment original, Appointment rescheduled) {
+        update(original);
+        record(original);
+        if (rescheduled.getProvider() != original.getProvider()) {
+            update(rescheduled);
+            record(rescheduled);
+        }
+    }
+
+    /**
+     * Keeps a changed appointment for replaying once a running task
+     * finishes
+     * @param appointment the changed appointment
+     */
+    private void record(Appointment appointment) {
+        if (this.changes != null) {
+            this.changes.add(appointment);
+        }
+    }
+
+    /**
+     * Updates the row of the patient or provider of an appointment
+     * The provider credits are shown or hidden as a whole when the schedule
+     * becomes empty or stops being empty
+     * @param appointment the changed appointment
+     */
+    private void update(Appointment appointment) {
+        if (this.mode == Mode.PATIENTS) {
+            updatePatient(appointment.getPatient().getProfile());
+        } else if (this.mode == Mode.PROVIDERS) {
+            if (this.scheduler.getAppointmentStore().isEmpty() != this.rows.isEmpty()) {
+                fillProviderCredits();
+                updatePlaceholder();
+                return;
+            }
+            Integer row = this.providerRows.get(appointment.getProvider());
+            if (row != null) {
+                this.rows.set(row, new Statement(appointment.getProvider(),
+                        this.scheduler.getAppointmentStore().getCredit(appointment.getProvider()), true));
+            }
+        }
+        updatePlaceholder();
+    }
+
+    /**
+     * Shows the credits of all providers, or none once the schedule is
+     * empty, reading each credit from the appointment store
+     */
+    private void fillProviderCredits() {
+        ArrayList<Statement> credits = new ArrayList<>();
+        if (!this.scheduler.getAppointmentStore().isEmpty()) {
+            for (Provider provider : this.scheduler.getProviders()) {
+                credits.add(new Statement(provider, this.scheduler.getAppointmentStore().getCredit(provider), true));
+            }
+        }
+        this.rows.setAll(credits);
+    }
+
+    /**
+     * Replaces, inserts or removes the statement of a patient to match
+     * their account
+     * @param profile the profile of the patient
+     */
+    private void updatePatient(Profile profile) {
+        Patient account = this.scheduler.getAppointmentStore().getLedger().getAccount(profile);
+        int low = 0;
+        int high = this.rows.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = this.rows.get(middle).getPerson().getProfile().compareTo(profile);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else if (account == null) {
+                this.rows.remove(middle);
+                return;
+            } else {
+                this.rows.set(middle, new Statement(account, account.charge(), false));
+                return;
+            }
+        }
+        if (account != null) {
+            this.rows.add(low, new Statement(account, account.charge(), false));
+        }
+    }
+
+    /**
+     * Shows the empty calendar message only when nothing is stored
+     */
+    private void updatePlaceholder() {
+        this.placeholder.setText(this.scheduler.getAppointmentStore().isEmpty() ? EMPTY : null);
+    }
+
+    /**
+     * One row of the statements, the amount a patient owes or a provider
+     * is credited at the time the row was made
+     */
+    public static final class Statement {
+        // Variables
+        private final Person person;
+        private final int amount;
+        private final boolean credit;
+
+        /**
+         * Creates a row of the statements
+         * @param person the patient or provider
+         * @param amount the amount due or credited
+         * @param credit true for a provider credit, false for a patient statement
+         */
+        private Statement(Person person, int amount, boolean credit) {
+            this.person = person;
+            this.amount = amount;
+            this.credit = credit;
+        }
+
+        /**
+         * Getter method for the person of the row
+         * @return the patient or provider
+         */
+        public Person getPerson() {
+            return this.person;
+        }
+
+        /**
+         * Formats the row the way the statements are printed
+         * @param number the number of the row, starting from 1
+         * @return the text of the row
+         */
+        public String format(int number) {
+            if (this.credit) {
+                return "(" + number + ") " + this.person.getProfile() + " [credit amount: $" + this.amount + ".00]";
+            }
+            return "(" + number + ") " + this.person + " [due: $" + this.amount + ".00]";
+        }
+    }
+
+    /**
+     * Cell that formats its row and row number when it is shown
+     */
+    private static final class StatementCell extends ListCell<Statement> {
+        /**
+         * Sets the text of the cell to the row it now shows
+         * Overrides updateItem method from Cell class
+         */
+        @Override
+        protected void updateItem(Statement statement, boolean empty) {
+            super.updateItem(statement, empty);
+            setText(empty || statement == null ? null : statement.format(getIndex() + 1));
+        }
+    }
+}
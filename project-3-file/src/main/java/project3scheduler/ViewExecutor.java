@@ -0,0 +1,110 @@
+package project3scheduler;
+
+import javafx.concurrent.Task;
+import scheduler.Appointment;
+import scheduler.AppointmentStore;
+
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the sorting, billing and credit work of the views on a small pool
+ * of background threads, so the JavaFX thread is never blocked by it.
+ * Each view has at most one live task: submitting a new task for a view
+ * cancels the task it supersedes, and only the latest task of a view may
+ * show its result. Tasks read a copy of the schedule taken on the JavaFX
+ * thread when they were submitted, so a result never reflects a booking
+ * that was only partly applied, and the models replay the changes made
+ * while the task ran once it finishes.
+ * Every method must be called on the JavaFX thread.
+ * @author Keshav Dave, Danny Watson
+ */
+public class ViewExecutor {
+    // Constants
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 8;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    // Variables
+    private final ThreadPoolExecutor executor;
+    private final HashMap<Object, Task<?>> latest = new HashMap<>();
+
+    /**
+     * Creates the executor with daemon worker threads, so pending view work
+     * never keeps the application running
+     */
+    public ViewExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(WORKERS, WORKERS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "clinic-view-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs a task for a view, cancelling the task it supersedes
+     * A superseded task that has not started is taken off the queue, so
+     * the queue never holds more than one task per view
+     * If the queue is full or the executor has been shut down, the task is
+     * not run and the view has no live task, so the caller must keep its
+     * current rows live instead of waiting for a result
+     * @param view the view the task computes, such as its model
+     * @param task the task to run
+     * @return true if the task will run, false if it was rejected
+     */
+    public boolean submit(Object view, Task<?> task) {
+        Task<?> previous = this.latest.put(view, task);
+        if (previous != null) {
+            previous.cancel();
+            this.executor.remove(previous);
+        }
+        try {
+            this.executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            this.latest.remove(view);
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a task is still the latest one submitted for its view
+     * A task can finish just before it is superseded, so results are only
+     * shown when this is true
+     * @param view the view of the task
+     * @param task the finished task
+     * @return true if no task has been submitted for the view since
+     */
+    public boolean isLatest(Object view, Task<?> task) {
+        return this.latest.get(view) == task;
+    }
+
+    /**
+     * Copies the stored appointments for a task to read
+     * Appointments are never changed once created, so the copy is a
+     * consistent view of the schedule at the time it was taken
+     * @param store the appointment store
+     * @return the stored appointments
+     */
+    public static Appointment[] snapshot(AppointmentStore store) {
+        return store.toArray();
+    }
+
+    /**
+     * Cancels every task and stops the worker threads
+     */
+    public void shutdown() {
+        for (Task<?> task : this.latest.values()) {
+            task.cancel();
+        }
+        this.latest.clear();
+        this.executor.shutdownNow();
+    }
+}
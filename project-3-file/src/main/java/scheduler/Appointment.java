@@ -94,10 +94,23 @@ public class Appointment implements Comparable <Appointment> {
                 this.patient.equals(appointment.patient);
     }
 
+    /**
+     * Overridden hashCode method that agrees with equals
+     * Combines the hash codes of the date, timeslot and patient
+     * @return the hash code of the appointment
+     */
+    @Override
+    public int hashCode() {
+        int result = this.date.hashCode();
+        result = 31 * result + this.timeslot.hashCode();
+        return 31 * result + this.patient.hashCode();
+    }
+
     /**
      * Overridden compareTo method to compare an appointment to another
      * appointment and find out which is sooner
-     * Calls the compareTo method in Date class
+     * Calls the compareTo method in Date class, then breaks ties by
+     * timeslot and patient so that the ordering agrees with equals
      * @param appointment Appointment type to be compared to this
      * appointment
      * @return a negative integer, zero, or a positive integer as this Appointment
@@ -111,6 +124,9 @@ public class Appointment implements Comparable <Appointment> {
             return 1;
         if (this.date.compareTo(appointment.date) < 0)
             return -1;
-        return 0;
+        int timeslotComparison = this.timeslot.compareTo(appointment.timeslot);
+        if (timeslotComparison != 0)
+            return timeslotComparison;
+        return this.patient.compareTo(appointment.patient);
     }
 }
\ No newline at end of file
@@ -0,0 +1,587 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * This class keeps a durable, append-only journal of the changes made to
+ * the schedule of a ClinicScheduler, so the schedule survives a restart
+ * Every booking, cancel and reschedule is appended as a binary record of
+ * its length, its type and payload, and a CRC32 of both
+ * Records are gathered in memory and a background thread writes and
+ * forces them to disk every few milliseconds, so one fsync commits every
+ * record appended since the last one; sync() commits immediately and
+ * waits, and callers syncing at the same time share a single fsync
+ * The journal is split into numbered segment files, and after a number of
+ * records a compacted ScheduleSnapshot is written in the background and
+ * the segments it covers are deleted
+ * Snapshots are numbered by the first segment after them, since the
+ * loaded snapshot stays memory-mapped and cannot be replaced in place on
+ * every platform; older snapshots are deleted once they can be
+ * Opening a journal loads the snapshot and replays the segments after it,
+ * stopping a segment at the first torn or corrupt record
+ * Replayed appointments go straight into the store without validation, and
+ * the technician rotation is not part of the journal
+ * Once a record or snapshot cannot be written the journal stops saving,
+ * drops every later record instead of keeping it in memory, and reports
+ * the error through getFailure(), which callers should check after each
+ * change
+ * @author Keshav Dave, Danny Watson
+ */
+public class AppointmentJournal implements ScheduleListener, Closeable {
+    // Constants
+    public static final long COMMIT_INTERVAL_MILLIS = 5;
+    public static final int SNAPSHOT_INTERVAL = 100_000;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte BOOK = 1;
+    private static final byte CANCEL = 2;
+    private static final byte RESCHEDULE = 3;
+    private static final int RECORD_OVERHEAD = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    // Variables
+    private final Path directory;
+    private final ClinicScheduler scheduler;
+    private final int snapshotInterval;
+    private final Object commitLock = new Object();
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(this.pending);
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final CRC32 recordChecksum = new CRC32();
+    private final DataOutputStream recordOut = new DataOutputStream(
+            new CheckedOutputStream(this.record, this.recordChecksum));
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ScheduledExecutorService committer;
+    private final ExecutorService snapshotter;
+    private FileChannel channel;
+    private int segment;
+    private long appended;
+    private volatile long durable;
+    private volatile IOException failure;
+    private int recordsSinceSnapshot;
+    private int replayedRecords;
+    private int skippedRecords;
+    private long recoveryNanos;
+
+    /**
+     * Creates a journal over a directory; use open() to recover and start it
+     * @param directory the directory holding the journal files
+     * @param scheduler the scheduler whose schedule is journaled
+     * @param snapshotInterval the number of records between snapshots
+     */
+    private AppointmentJournal(Path directory, ClinicScheduler scheduler, int snapshotInterval) {
+        this.directory = directory;
+        this.scheduler = scheduler;
+        this.snapshotInterval = snapshotInterval;
+        this.committer = Executors.newSingleThreadScheduledExecutor(
+                runnable -> daemon(runnable, "journal-commit"));
+        this.snapshotter = Executors.newSingleThreadExecutor(
+                runnable -> daemon(runnable, "journal-snapshot"));
+    }
+
+    /**
+     * Opens the journal in a directory with the default intervals
+     * @param directory the directory holding the journal files
+     * @param scheduler the scheduler to recover into and journal
+     * @return the open journal
+     * @throws IOException if the journal cannot be recovered or opened
+     */
+    public static AppointmentJournal open(Path directory, ClinicScheduler scheduler)
+            throws IOException {
+        return open(directory, scheduler, COMMIT_INTERVAL_MILLIS, SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens the journal in a directory
+     * The snapshot and the journal segments after it are replayed into the
+     * scheduler, which must already have its providers, then a new segment
+     * is started and the journal is registered as a listener of the
+     * scheduler
+     * @param directory the directory holding the journal files
+     * @param scheduler the scheduler to recover into and journal
+     * @param commitIntervalMillis the time between background commits
+     * @param snapshotInterval the number of records between snapshots
+     * @return the open journal
+     * @throws IOException if the journal cannot be recovered or opened
+     */
+    public static AppointmentJournal open(Path directory, ClinicScheduler scheduler,
+                                          long commitIntervalMillis, int snapshotInterval)
+            throws IOException {
+        Files.createDirectories(directory);
+        AppointmentJournal journal = new AppointmentJournal(directory, scheduler,
+                snapshotInterval);
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.committer.shutdownNow();
+            journal.snapshotter.shutdownNow();
+            throw e;
+        }
+        journal.committer.scheduleWithFixedDelay(journal::backgroundCommit,
+                commitIntervalMillis, commitIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.addListener(journal);
+        return journal;
+    }
+
+    /**
+     * Appends a booking to the journal
+     * @param appointment the booked appointment
+     */
+    @Override
+    public void appointmentBooked(Appointment appointment) {
+        append(BOOK, null, appointment);
+    }
+
+    /**
+     * Appends a cancel to the journal
+     * @param appointment the cancelled appointment
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        append(CANCEL, appointment, null);
+    }
+
+    /**
+     * Appends a reschedule to the journal
+     * @param original the appointment before it was moved
+     * @param rescheduled the appointment that replaced it
+     */
+    @Override
+    public void appointmentRescheduled(Appointment original, Appointment rescheduled) {
+        append(RESCHEDULE, original, rescheduled);
+    }
+
+    /**
+     * Commits every record appended so far and waits until it is on disk
+     * @throws IOException if the records cannot be written
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            target = this.appended;
+        }
+        commit(target, false);
+    }
+
+    /**
+     * Starts a compacted snapshot of the current schedule
+     * The journal moves on to a new segment and the appointments are copied
+     * on the calling thread, which must be the thread that changes the
+     * schedule; the snapshot is then written in the background
+     * Nothing is done if a snapshot is already being written
+     * @throws IOException if the journal cannot move to a new segment
+     */
+    public void snapshot() throws IOException {
+        if (!this.snapshotRunning.compareAndSet(false, true)) {
+            return;
+        }
+        int baseSegment;
+        Provider[] roster;
+        Appointment[] appointments;
+        try {
+            baseSegment = commit(0, true);
+            List<Provider> providers = this.scheduler.getProviders();
+            roster = new Provider[providers.size()];
+            for (int i = 0; i < roster.length; i++) {
+                roster[i] = providers.get(i);
+            }
+            AppointmentStore store = this.scheduler.getAppointmentStore();
+            appointments = new Appointment[store.size()];
+            int index = 0;
+            for (Appointment appointment : store) {
+                appointments[index++] = appointment;
+            }
+        } catch (IOException | RuntimeException e) {
+            this.snapshotRunning.set(false);
+            throw e;
+        }
+        this.snapshotter.execute(() -> writeSnapshot(baseSegment, roster, appointments));
+    }
+
+    /**
+     * Commits every record, waits for a running snapshot and closes the files
+     * The journal stops listening to the scheduler, and the current segment
+     * is deleted if nothing was written to it
+     * @throws IOException if the records or the snapshot cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        this.scheduler.removeListener(this);
+        this.committer.shutdown();
+        this.snapshotter.shutdown();
+        try {
+            this.committer.awaitTermination(1, TimeUnit.MINUTES);
+            this.snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sync();
+        } finally {
+            synchronized (this.commitLock) {
+                boolean empty = this.channel.size() == 0;
+                this.channel.close();
+                if (empty) {
+                    Files.deleteIfExists(path(SEGMENT_PREFIX, this.segment, SEGMENT_SUFFIX));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the error that stopped the journal from saving the schedule
+     * Changes made after the error are not saved
+     * @return the write error, or null while the journal is saving
+     */
+    public IOException getFailure() {
+        return this.failure;
+    }
+
+    /**
+     * Returns the number of journal records replayed when the journal opened
+     * @return the number of replayed records
+     */
+    public int getReplayedRecords() {
+        return this.replayedRecords;
+    }
+
+    /**
+     * Returns the number of journal records that could not be applied when
+     * the journal opened, such as bookings with providers no longer listed
+     * @return the number of skipped records
+     */
+    public int getSkippedRecords() {
+        return this.skippedRecords;
+    }
+
+    /**
+     * Returns the time taken to load the snapshot and replay the journal
+     * @return the recovery time in nanoseconds
+     */
+    public long getRecoveryNanos() {
+        return this.recoveryNanos;
+    }
+
+    /**
+     * Encodes a record and adds it to the records waiting to be committed
+     * A snapshot is started once enough records have been appended
+     * Nothing is added once the journal has failed, since the record could
+     * never be written
+     * @param type the type of the record
+     * @param key the appointment the record changes, or null for a booking
+     * @param appointment the appointment the record stores, or null for a
+     * cancel
+     */
+    private void append(byte type, Appointment key, Appointment appointment) {
+        if (this.failure != null) {
+            return;
+        }
+        boolean snapshotDue;
+        synchronized (this) {
+            try {
+                this.record.reset();
+                this.recordChecksum.reset();
+                this.recordOut.writeByte(type);
+                if (key != null) {
+                    this.recordOut.writeInt(key.getDate().toEpochDay());
+                    this.recordOut.writeByte(key.getTimeslot().getNumber());
+                    JournalCodec.writeProfile(this.recordOut, key.getPatient().getProfile());
+                }
+                if (appointment != null) {
+                    JournalCodec.writeAppointment(this.recordOut, appointment);
+                }
+                this.pendingOut.writeInt(this.record.size());
+                this.record.writeTo(this.pendingOut);
+                this.pendingOut.writeInt((int) this.recordChecksum.getValue());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.appended++;
+            snapshotDue = ++this.recordsSinceSnapshot >= this.snapshotInterval;
+        }
+        if (snapshotDue) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        }
+    }
+
+    /**
+     * Writes the waiting records to the current segment and forces them to
+     * disk, unless another commit already made the target durable
+     * @param target the number of appended records that must be durable
+     * @param rotate true to close the segment and start the next one after
+     * the commit
+     * @return the number of the current segment after the commit
+     * @throws IOException if the records cannot be written
+     */
+    private int commit(long target, boolean rotate) throws IOException {
+        synchronized (this.commitLock) {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            if (this.durable >= target && !rotate) {
+                return this.segment;
+            }
+            byte[] bytes;
+            long committed;
+            synchronized (this) {
+                bytes = this.pending.toByteArray();
+                this.pending.reset();
+                committed = this.appended;
+                if (rotate) {
+                    this.recordsSinceSnapshot = 0;
+                }
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    this.channel.write(buffer);
+                }
+                this.channel.force(false);
+                this.durable = committed;
+                if (rotate) {
+                    this.channel.close();
+                    this.segment++;
+                    this.channel = openSegment(this.segment);
+                }
+            } catch (IOException e) {
+                this.failure = e;
+                throw e;
+            }
+            return this.segment;
+        }
+    }
+
+    /**
+     * Commits the waiting records on the background thread
+     */
+    private void backgroundCommit() {
+        long target;
+        synchronized (this) {
+            target = this.appended;
+        }
+        try {
+            commit(target, false);
+        } catch (IOException e) {
+            this.failure = e;
+        }
+    }
+
+    /**
+     * Writes a snapshot and deletes the segments and snapshots it replaces
+     * Runs on the snapshot thread
+     * @param baseSegment the first segment not covered by the snapshot
+     * @param roster the providers of the clinic
+     * @param appointments the appointments of the snapshot
+     */
+    private void writeSnapshot(int baseSegment, Provider[] roster, Appointment[] appointments) {
+        try {
+            ScheduleSnapshot.write(path(SNAPSHOT_PREFIX, baseSegment, SNAPSHOT_SUFFIX),
+                    baseSegment, roster, appointments);
+            deleteBefore(baseSegment);
+        } catch (IOException e) {
+            this.failure = e;
+        } finally {
+            this.snapshotRunning.set(false);
+        }
+    }
+
+    /**
+     * Loads the snapshot, replays the segments after it, deletes the
+     * segments it covers and opens a new segment
+     * @throws IOException if the journal cannot be read or opened
+     */
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        int[] snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        int baseSegment = 0;
+        if (snapshots.length > 0) {
+            baseSegment = ScheduleSnapshot.load(path(SNAPSHOT_PREFIX,
+                    snapshots[snapshots.length - 1], SNAPSHOT_SUFFIX), this.scheduler);
+        }
+        deleteBefore(baseSegment);
+        JournalCodec codec = new JournalCodec(this.scheduler);
+        int last = baseSegment - 1;
+        for (int number : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (number >= baseSegment) {
+                replay(path(SEGMENT_PREFIX, number, SEGMENT_SUFFIX), codec);
+                last = number;
+            }
+        }
+        this.recordsSinceSnapshot = this.replayedRecords;
+        this.segment = last + 1;
+        this.channel = openSegment(this.segment);
+        this.recoveryNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Replays the records of a segment into the store of the scheduler
+     * @param file the segment file
+     * @param codec the codec resolving the providers
+     * @throws IOException if the segment cannot be read
+     */
+    private void replay(Path file, JournalCodec codec) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 checksum = new CRC32();
+        AppointmentStore store = this.scheduler.getAppointmentStore();
+        while (buffer.remaining() >= RECORD_OVERHEAD) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length < 1 || length > MAX_RECORD_SIZE
+                    || length + Integer.BYTES > buffer.remaining()) {
+                return;
+            }
+            checksum.reset();
+            checksum.update(buffer.array(), start + Integer.BYTES, length);
+            if ((int) checksum.getValue() != buffer.getInt(start + Integer.BYTES + length)) {
+                return;
+            }
+            if (!apply(buffer, codec, store)) {
+                this.skippedRecords++;
+            }
+            this.replayedRecords++;
+            buffer.position(start + RECORD_OVERHEAD + length);
+        }
+    }
+
+    /**
+     * Applies one record to the store
+     * @param buffer the buffer positioned at the type of the record
+     * @param codec the codec resolving the providers
+     * @param store the store to change
+     * @return true if the record was applied, false if it could not be
+     * @throws IOException if the record is malformed
+     */
+    private static boolean apply(ByteBuffer buffer, JournalCodec codec, AppointmentStore store)
+            throws IOException {
+        byte type = buffer.get();
+        Appointment existing = null;
+        if (type == CANCEL || type == RESCHEDULE) {
+            Date date = Date.fromEpochDay(buffer.getInt());
+            Timeslot timeslot = JournalCodec.readTimeslot(buffer);
+            existing = store.find(new Patient(JournalCodec.readProfile(buffer)), date, timeslot);
+            if (existing == null) {
+                return false;
+            }
+            store.remove(existing);
+        } else if (type != BOOK) {
+            throw new IOException("Unknown journal record type " + type);
+        }
+        if (type == CANCEL) {
+            return true;
+        }
+        Appointment appointment = codec.readAppointment(buffer);
+        return appointment != null && store.add(appointment);
+    }
+
+    /**
+     * Deletes the segments and snapshots that a snapshot replaces
+     * A snapshot that cannot be deleted yet, such as one that is still
+     * mapped, is left for a later snapshot to delete
+     * @param baseSegment the first segment of the newest snapshot
+     * @throws IOException if a segment cannot be deleted
+     */
+    private void deleteBefore(int baseSegment) throws IOException {
+        for (int number : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (number < baseSegment) {
+                Files.deleteIfExists(path(SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+            }
+        }
+        for (int number : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (number < baseSegment) {
+                try {
+                    Files.deleteIfExists(path(SNAPSHOT_PREFIX, number, SNAPSHOT_SUFFIX));
+                } catch (IOException e) {
+                    // still mapped, deleted by a later snapshot
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the numbers of the journal files of one kind, in order
+     * @param prefix the prefix of the file names
+     * @param suffix the suffix of the file names
+     * @return the file numbers
+     * @throws IOException if the directory cannot be listed
+     */
+    private int[] list(String prefix, String suffix) throws IOException {
+        int[] numbers = new int[0];
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory,
+                prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    int number = Integer.parseInt(name.substring(prefix.length(),
+                            name.length() - suffix.length()));
+                    numbers = Arrays.copyOf(numbers, numbers.length + 1);
+                    numbers[numbers.length - 1] = number;
+                } catch (NumberFormatException e) {
+                    // not a file of this journal
+                }
+            }
+        }
+        Arrays.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * Returns the path of a numbered journal file
+     * @param prefix the prefix of the file name
+     * @param number the number of the file
+     * @param suffix the suffix of the file name
+     * @return the path of the file
+     */
+    private Path path(String prefix, int number, String suffix) {
+        return this.directory.resolve(String.format("%s%08d%s", prefix, number, suffix));
+    }
+
+    /**
+     * Opens a segment file for appending, creating it if needed
+     * @param number the segment number
+     * @return the channel of the segment
+     * @throws IOException if the segment cannot be opened
+     */
+    private FileChannel openSegment(int number) throws IOException {
+        return FileChannel.open(path(SEGMENT_PREFIX, number, SEGMENT_SUFFIX), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Creates a daemon thread, so an open journal does not keep the program
+     * running
+     * @param runnable the task of the thread
+     * @param name the name of the thread
+     * @return the thread
+     */
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,744 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * This class stores the booked appointments of the clinic
+ * The appointments are kept in indexes keyed by (Date, Timeslot) and
+ * (patient id, Date, Timeslot), alongside occupancy grids of the doctors,
+ * the technicians and the radiology rooms of every location, so the
+ * conflict checks done on every booking, cancel and reschedule are
+ * constant-time lookups instead of scans of the whole schedule
+ * The patient index keeps the order appointments were booked in, so it
+ * also serves as the list of appointments, and removing one is a hash
+ * removal rather than a search and shift of a list
+ * The grids also answer which timeslot of a day is the first one free
+ * The (Date, Timeslot) index is a tree ordered by date and then time, so
+ * the appointments of a day, a week or any range of dates are read in
+ * order without sorting or scanning the whole list
+ * Patient ids come from a PatientRegistry, so the patient index compares
+ * packed longs rather than names and dates
+ * A BillingLedger is kept up to date with the patient accounts and the
+ * provider credits
+ * Dates are assumed to be valid calendar dates
+ * getAppointments() returns a new list, which may be sorted by the Sort
+ * class without changing the store
+ * A MappedSchedule can be attached to an empty store; its records book the
+ * grids straight away, lookups of a patient search it by date and
+ * timeslot, and its appointments only join the indexes when the whole
+ * schedule is asked for
+ * @author Keshav Dave, Danny Watson
+ */
+public class AppointmentStore implements Iterable<Appointment> {
+    // Constants
+    private static final int DAY_SHIFT = 11; // 2^11 minutes cover a day
+    private static final long MINUTES_MASK = (1L << DAY_SHIFT) - 1;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int ANY_TECHNICIAN = 0;
+    private static final int TIMESLOT_BITS = 4;
+    private static final long SLOT_MASK = 0xFFFFFFFFL;
+
+    // Variables
+    private final TreeMap<Long, List<Appointment>> bySlot = new TreeMap<>();
+    private LinkedHashMap<Long, Appointment> byPatient = new LinkedHashMap<>();
+    private final PatientRegistry patients = new PatientRegistry();
+    private final HashMap<String, Integer> doctorIds = new HashMap<>();
+    private final HashMap<Person, Integer> technicianIds = new HashMap<>();
+    private final OccupancyGrid doctorGrid = new OccupancyGrid();
+    private final OccupancyGrid technicianGrid = new OccupancyGrid();
+    private final OccupancyGrid roomGrid = new OccupancyGrid();
+    private final BillingLedger ledger = new BillingLedger();
+    private MappedSchedule snapshot;
+
+    /**
+     * Adds an appointment to the store and all of its indexes
+     * An appointment is not added if the patient already has an appointment
+     * on the same date and timeslot, matching the duplicate check of List
+     * The patient is only registered once the appointment is known to be
+     * added, so a rejected duplicate leaves the patient registry unchanged
+     * @param appointment the appointment to add
+     * @return true if the appointment was added, false otherwise
+     */
+    public boolean add(Appointment appointment) {
+        long slot = slotKey(appointment.getDate(), appointment.getTimeslot());
+        Profile profile = appointment.getPatient().getProfile();
+        int id = this.patients.idOf(profile);
+        if (id != PatientRegistry.NONE && this.byPatient.containsKey(patientKey(id,
+                appointment.getDate(), appointment.getTimeslot())) || findInSnapshot(
+                profile, appointment.getDate(), appointment.getTimeslot()) >= 0) {
+            return false;
+        }
+        long patientKey = patientKey(this.patients.register(profile),
+                appointment.getDate(), appointment.getTimeslot());
+        index(appointment, slot, patientKey);
+        Radiology room = appointment instanceof Imaging imaging ? imaging.getRoom() : null;
+        book(appointment.getProvider(), room, appointment.getDate().toEpochDay(),
+                appointment.getTimeslot());
+        this.ledger.addCredit(appointment.getProvider(), 1);
+        return true;
+    }
+
+    /**
+     * Attaches a mapped snapshot to the store
+     * The grids and provider credits are booked from the records of the
+     * snapshot without creating their appointments; if the store already
+     * holds appointments, the appointments of the snapshot are added one by
+     * one instead
+     * @param mapped the snapshot, already resolved against the providers
+     */
+    public void attach(MappedSchedule mapped) {
+        if (this.snapshot != null || !this.byPatient.isEmpty()) {
+            absorb();
+            ensureCapacity(this.byPatient.size() + mapped.size());
+            for (int i = 0; i < mapped.getCount(); i++) {
+                if (!mapped.isRemoved(i)) {
+                    add(mapped.getAppointment(i));
+                }
+            }
+            return;
+        }
+        int[] visits = new int[mapped.getRosterSize()];
+        for (int i = 0; i < mapped.getCount(); i++) {
+            if (!mapped.isRemoved(i)) {
+                book(mapped.getProvider(i), mapped.getRoom(i), mapped.getEpochDay(i),
+                        mapped.getTimeslot(i));
+                visits[mapped.getProviderId(i)]++;
+            }
+        }
+        for (int id = 0; id < visits.length; id++) {
+            if (visits[id] > 0) {
+                this.ledger.addCredit(mapped.getRosterProvider(id), visits[id]);
+            }
+        }
+        if (mapped.size() > 0) {
+            this.snapshot = mapped;
+        }
+    }
+
+    /**
+     * Books the grid cells of an appointment
+     * @param provider the provider of the appointment
+     * @param room the radiology room, or null for an office appointment
+     * @param day the epoch day of the appointment
+     * @param timeslot the timeslot of the appointment
+     */
+    private void book(Person provider, Radiology room, int day, Timeslot timeslot) {
+        if (provider instanceof Doctor doctor) {
+            this.doctorGrid.book(doctorId(doctor.getNpi(), true), day, timeslot);
+        } else if (provider instanceof Technician) {
+            this.technicianGrid.book(technicianId(provider, true), day, timeslot);
+            this.technicianGrid.book(ANY_TECHNICIAN, day, timeslot);
+        }
+        if (room != null) {
+            this.roomGrid.book(roomId(((Provider) provider).getLocation(), room), day, timeslot);
+        }
+    }
+
+    /**
+     * Adds an appointment to the list and the patient and slot indexes
+     * @param appointment the appointment to add
+     * @param slot the packed date and timeslot of the appointment
+     * @param patientKey the packed patient id, date and timeslot
+     */
+    private void index(Appointment appointment, long slot, long patientKey) {
+        this.byPatient.put(patientKey, appointment);
+        this.bySlot.computeIfAbsent(slot, key -> new List<>()).addLast(appointment);
+        this.ledger.add(appointment);
+    }
+
+    /**
+     * Moves the appointments of the attached snapshot into the list and
+     * indexes, and detaches it
+     * Their grid cells and provider credits are already booked
+     */
+    private void absorb() {
+        MappedSchedule mapped = this.snapshot;
+        if (mapped == null) {
+            return;
+        }
+        this.snapshot = null;
+        ensureCapacity(this.byPatient.size() + mapped.size());
+        for (int i = 0; i < mapped.getCount(); i++) {
+            if (!mapped.isRemoved(i)) {
+                Appointment appointment = mapped.getAppointment(i);
+                long slot = slotKey(appointment.getDate(), appointment.getTimeslot());
+                index(appointment, slot, patientKey(this.patients.register(
+                        appointment.getPatient().getProfile()), appointment.getDate(),
+                        appointment.getTimeslot()));
+            }
+        }
+    }
+
+    /**
+     * Finds the live record of a patient in the attached snapshot
+     * @param profile the profile of the patient
+     * @param date the date of the appointment
+     * @param timeslot the timeslot of the appointment
+     * @return the index of the record, or -1 if there is none
+     */
+    private int findInSnapshot(Profile profile, Date date, Timeslot timeslot) {
+        if (this.snapshot == null) {
+            return MappedSchedule.NONE;
+        }
+        return this.snapshot.find(profile, date.toEpochDay(), timeslot);
+    }
+
+    /**
+     * Removes an appointment from the store and all of its indexes
+     * @param appointment the appointment to remove
+     * @return true if the appointment was removed, false if it was not stored
+     */
+    public boolean remove(Appointment appointment) {
+        long slot = slotKey(appointment.getDate(), appointment.getTimeslot());
+        Profile profile = appointment.getPatient().getProfile();
+        long patientKey = patientKey(this.patients.idOf(profile), appointment.getDate(),
+                appointment.getTimeslot());
+        Appointment stored = this.byPatient.get(patientKey);
+        if (stored == null) {
+            int index = findInSnapshot(profile, appointment.getDate(),
+                    appointment.getTimeslot());
+            if (index < 0) {
+                return false;
+            }
+            stored = this.snapshot.getAppointment(index);
+            this.snapshot.remove(index);
+            this.ledger.addCredit(stored.getProvider(), -1);
+            releaseSlot(stored, slotAppointments(slot, stored));
+            return true;
+        }
+        this.byPatient.remove(patientKey);
+        this.ledger.remove(stored);
+        this.ledger.addCredit(stored.getProvider(), -1);
+
+        List<Appointment> slotAppointments = this.bySlot.get(slot);
+        slotAppointments.remove(stored);
+        if (slotAppointments.isEmpty()) {
+            this.bySlot.remove(slot);
+        }
+        releaseSlot(stored, slotAppointments(slot, stored));
+        return true;
+    }
+
+    /**
+     * Finds the appointment of a patient at the given date and timeslot
+     * @param patient the patient of the appointment
+     * @param date the date of the appointment
+     * @param timeslot the timeslot of the appointment
+     * @return the stored Appointment, or null if there is none
+     */
+    public Appointment find(Person patient, Date date, Timeslot timeslot) {
+        Appointment appointment = find(patient.getProfile(), date, timeslot);
+        return appointment != null && patient.equals(appointment.getPatient()) ? appointment : null;
+    }
+
+    /**
+     * Finds the appointment of a profile at the given date and timeslot,
+     * without creating a patient to look it up
+     * @param profile the profile of the patient
+     * @param date the date of the appointment
+     * @param timeslot the timeslot of the appointment
+     * @return the stored Appointment, or null if there is none
+     */
+    public Appointment find(Profile profile, Date date, Timeslot timeslot) {
+        Appointment appointment = this.byPatient.get(patientKey(
+                this.patients.idOf(profile), date, timeslot));
+        if (appointment == null) {
+            int index = findInSnapshot(profile, date, timeslot);
+            if (index >= 0) {
+                appointment = this.snapshot.getAppointment(index);
+            }
+        }
+        if (appointment != null && profile.equals(appointment.getPatient().getProfile())
+                && date.equals(appointment.getDate())) {
+            return appointment;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the patient to book a new appointment of a profile under
+     * The patient of an appointment the profile already has is reused, so
+     * a patient with many appointments is stored once rather than once per
+     * appointment
+     * A new patient gets the canonical profile of the patient registry
+     * @param profile the profile of the patient
+     * @return the shared patient, or a new one if the profile has no
+     * stored appointments
+     */
+    public Patient patientFor(Profile profile) {
+        Person booked = this.ledger.findPatient(profile);
+        return booked instanceof Patient patient ? patient
+                : new Patient(this.patients.canonical(profile));
+    }
+
+    /**
+     * Checks if a patient has an appointment at the given date and timeslot
+     * @param profile the profile of the patient
+     * @param date the date to check
+     * @param timeslot the timeslot to check
+     * @return true if an appointment exists, false otherwise
+     */
+    public boolean hasPatientAppointment(Profile profile, Date date,
+                                         Timeslot timeslot) {
+        return this.byPatient.containsKey(patientKey(this.patients.idOf(profile), date, timeslot))
+                || findInSnapshot(profile, date, timeslot) >= 0;
+    }
+
+    /**
+     * Checks if the doctor with the given NPI is booked at the given date
+     * and timeslot
+     * @param npi the NPI of the doctor
+     * @param date the date to check
+     * @param timeslot the timeslot to check
+     * @return true if the doctor is booked, false otherwise
+     */
+    public boolean isDoctorBooked(String npi, Date date, Timeslot timeslot) {
+        int doctor = doctorId(npi, false);
+        return doctor >= 0
+                && this.doctorGrid.isBooked(doctor, date.toEpochDay(), timeslot);
+    }
+
+    /**
+     * Checks if the given technician is booked at the given date and timeslot
+     * @param technician the technician to check
+     * @param date the date to check
+     * @param timeslot the timeslot to check
+     * @return true if the technician is booked, false otherwise
+     */
+    public boolean isTechnicianBooked(Technician technician, Date date,
+                                      Timeslot timeslot) {
+        int id = technicianId(technician, false);
+        return id >= 0
+                && this.technicianGrid.isBooked(id, date.toEpochDay(), timeslot);
+    }
+
+    /**
+     * Checks if any technician is booked at the given date and timeslot
+     * @param date the date to check
+     * @param timeslot the timeslot to check
+     * @return true if a technician is booked, false otherwise
+     */
+    public boolean hasTechnicianAppointment(Date date, Timeslot timeslot) {
+        return this.technicianGrid.isBooked(ANY_TECHNICIAN, date.toEpochDay(),
+                timeslot);
+    }
+
+    /**
+     * Checks if the radiology room of a location is booked at the given date
+     * and timeslot
+     * @param location the location of the room
+     * @param room the radiology room
+     * @param date the date to check
+     * @param timeslot the timeslot to check
+     * @return true if the room is booked, false otherwise
+     */
+    public boolean isRoomBooked(Location location, Radiology room, Date date,
+                                Timeslot timeslot) {
+        return this.roomGrid.isBooked(roomId(location, room), date.toEpochDay(),
+                timeslot);
+    }
+
+    /**
+     * Finds the first timeslot the doctor with the given NPI is free on a date
+     * @param npi the NPI of the doctor
+     * @param date the date to check
+     * @param from the number of the first timeslot to consider (1 to 12)
+     * @return the first free timeslot numbered from or later, or null if
+     * the doctor is booked for the rest of the day
+     */
+    public Timeslot firstFreeDoctorTimeslot(String npi, Date date, int from) {
+        return this.doctorGrid.firstFreeTimeslot(doctorId(npi, false),
+                date.toEpochDay(), from);
+    }
+
+    /**
+     * Finds the first timeslot the given technician is free on a date
+     * @param technician the technician to check
+     * @param date the date to check
+     * @param from the number of the first timeslot to consider (1 to 12)
+     * @return the first free timeslot numbered from or later, or null if
+     * the technician is booked for the rest of the day
+     */
+    public Timeslot firstFreeTechnicianTimeslot(Technician technician, Date date,
+                                                int from) {
+        return this.technicianGrid.firstFreeTimeslot(
+                technicianId(technician, false), date.toEpochDay(), from);
+    }
+
+    /**
+     * Finds the first timeslot the radiology room of a location is free on
+     * a date
+     * @param location the location of the room
+     * @param room the radiology room
+     * @param date the date to check
+     * @param from the number of the first timeslot to consider (1 to 12)
+     * @return the first free timeslot numbered from or later, or null if
+     * the room is booked for the rest of the day
+     */
+    public Timeslot firstFreeRoomTimeslot(Location location, Radiology room,
+                                          Date date, int from) {
+        return this.roomGrid.firstFreeTimeslot(roomId(location, room),
+                date.toEpochDay(), from);
+    }
+
+    /**
+     * Returns the booked timeslots of the doctor with the given NPI on a day
+     * @param npi the NPI of the doctor
+     * @param epochDay the epoch day, as given by Date.toEpochDay()
+     * @return a mask with bit number - 1 set for every booked timeslot
+     */
+    public long getDoctorDayMask(String npi, int epochDay) {
+        return this.doctorGrid.getDayMask(doctorId(npi, false), epochDay);
+    }
+
+    /**
+     * Returns the booked timeslots of the given technician on a day
+     * @param technician the technician
+     * @param epochDay the epoch day, as given by Date.toEpochDay()
+     * @return a mask with bit number - 1 set for every booked timeslot
+     */
+    public long getTechnicianDayMask(Technician technician, int epochDay) {
+        return this.technicianGrid.getDayMask(technicianId(technician, false),
+                epochDay);
+    }
+
+    /**
+     * Returns the booked timeslots of the radiology room of a location on
+     * a day
+     * @param location the location of the room
+     * @param room the radiology room
+     * @param epochDay the epoch day, as given by Date.toEpochDay()
+     * @return a mask with bit number - 1 set for every booked timeslot
+     */
+    public long getRoomDayMask(Location location, Radiology room, int epochDay) {
+        return this.roomGrid.getDayMask(roomId(location, room), epochDay);
+    }
+
+    /**
+     * Makes sure the store can hold at least the given number of
+     * appointments without growing its patient index again
+     * Used before adding a known number of appointments, such as when a
+     * snapshot is loaded
+     * @param minCapacity the number of appointments the store should fit
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (this.byPatient.size() < minCapacity) {
+            LinkedHashMap<Long, Appointment> resized = new LinkedHashMap<>(
+                    (int) Math.min(Integer.MAX_VALUE, minCapacity * 4L / 3 + 1));
+            resized.putAll(this.byPatient);
+            this.byPatient = resized;
+        }
+    }
+
+    /**
+     * Getter method for the list of appointments
+     * The list is a new copy, so it may be sorted or changed without
+     * changing the store
+     * @return a new list of the stored appointments, in the order they were
+     * added
+     */
+    public List<Appointment> getAppointments() {
+        absorb();
+        List<Appointment> appointments = new List<>();
+        appointments.ensureCapacity(this.byPatient.size());
+        for (Appointment appointment : this.byPatient.values()) {
+            appointments.addLast(appointment);
+        }
+        return appointments;
+    }
+
+    /**
+     * Getter method for the billing ledger of the stored appointments
+     * @return the billing ledger
+     */
+    public BillingLedger getLedger() {
+        absorb();
+        return this.ledger;
+    }
+
+    /**
+     * Returns the credit of a provider, the total rate of its appointments
+     * Unlike getLedger(), this does not need the appointments of an
+     * attached snapshot to be created
+     * @param provider the provider
+     * @return the credit of the provider
+     */
+    public int getCredit(Person provider) {
+        return this.ledger.getCredit(provider);
+    }
+
+    /**
+     * Getter method for the registry of the patients of the store
+     * The patients of an attached snapshot are registered first
+     * @return the patient registry, holding every patient ever stored
+     */
+    public PatientRegistry getPatientRegistry() {
+        absorb();
+        return this.patients;
+    }
+
+    /**
+     * Returns the appointments from one date to another, in order of date
+     * and timeslot, and in the order they were booked within a timeslot
+     * The appointments are read from the slot index as they are iterated,
+     * so a range costs time in the number of its appointments rather than
+     * the size of the schedule; the store must not change while iterating
+     * The appointments of an attached snapshot join the index first
+     * @param from the first date, inclusive
+     * @param to the last date, inclusive
+     * @param filter the appointments to keep, or null to keep every one
+     * @return the appointments of the range
+     */
+    public Iterable<Appointment> between(Date from, Date to, Predicate<? super Appointment> filter) {
+        absorb();
+        if (from.toEpochDay() > to.toEpochDay()) {
+            return Collections.emptyList();
+        }
+        NavigableMap<Long, List<Appointment>> range = this.bySlot.subMap(
+                (long) from.toEpochDay() << DAY_SHIFT, true,
+                ((long) to.toEpochDay() << DAY_SHIFT) | MINUTES_MASK, true);
+        return () -> new RangeIterator(range.values().iterator(), filter);
+    }
+
+    /**
+     * Copies the stored appointments into an array
+     * Appointments are never changed once created, so the copy is a
+     * consistent view of the schedule that other threads can read while
+     * the store keeps changing
+     * @return the stored appointments, in the order they were added
+     */
+    public Appointment[] toArray() {
+        absorb();
+        return this.byPatient.values().toArray(new Appointment[0]);
+    }
+
+    /**
+     * Method to check if the store is empty
+     * @return true if no appointments are stored, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.byPatient.isEmpty() && this.snapshot == null;
+    }
+
+    /**
+     * Method to return the number of stored appointments
+     * @return the number of appointments
+     */
+    public int size() {
+        return this.byPatient.size() + (this.snapshot == null ? 0 : this.snapshot.size());
+    }
+
+    /**
+     * Iterator method to iterate over the stored appointments, in the
+     * order they were added
+     * Overrides iterator method from Iterable interface
+     */
+    @Override
+    public Iterator<Appointment> iterator() {
+        absorb();
+        return Collections.unmodifiableCollection(this.byPatient.values()).iterator();
+    }
+
+    /**
+     * Packs a patient id, date and timeslot into a patient index key
+     * @param patientId the registry id of the patient, or NONE for a
+     * patient that was never registered, who has no key in the index
+     * @param date the date to pack
+     * @param timeslot the timeslot to pack
+     * @return the key for the patient at the date and timeslot
+     */
+    private static long patientKey(int patientId, Date date, Timeslot timeslot) {
+        return ((long) patientId << Integer.SIZE)
+                | (((long) date.toEpochDay() << TIMESLOT_BITS | timeslot.getNumber()) & SLOT_MASK);
+    }
+
+    /**
+     * Packs a date and timeslot into a single key
+     * The epoch day is above the minutes since midnight, so keys sort by
+     * date and then by time
+     * @param date the date to pack
+     * @param timeslot the timeslot to pack
+     * @return the key for the date and timeslot
+     */
+    private static long slotKey(Date date, Timeslot timeslot) {
+        return ((long) date.toEpochDay() << DAY_SHIFT)
+                | (timeslot.getHour() * MINUTES_PER_HOUR + timeslot.getMinute());
+    }
+
+    /**
+     * Returns the appointments left at the date and timeslot of a removed
+     * appointment, from the slot index and the attached snapshot
+     * @param slot the packed date and timeslot
+     * @param removed the removed appointment
+     * @return the remaining appointments of the slot
+     */
+    private List<Appointment> slotAppointments(long slot, Appointment removed) {
+        List<Appointment> remaining = this.bySlot.get(slot);
+        if (this.snapshot == null) {
+            return remaining == null ? new List<>() : remaining;
+        }
+        List<Appointment> combined = this.snapshot.getSlotAppointments(
+                removed.getDate().toEpochDay(), removed.getTimeslot());
+        if (remaining != null) {
+            for (Appointment appointment : remaining) {
+                combined.addLast(appointment);
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Frees the grid cells of a removed appointment that no remaining
+     * appointment of the same date and timeslot still occupies
+     * @param removed the appointment that was removed
+     * @param remaining the appointments left at its date and timeslot
+     */
+    private void releaseSlot(Appointment removed, List<Appointment> remaining) {
+        int day = removed.getDate().toEpochDay();
+        Timeslot timeslot = removed.getTimeslot();
+        Person provider = removed.getProvider();
+        boolean providerBooked = false;
+        boolean technicianBooked = false;
+        boolean roomBooked = false;
+        for (Appointment appointment : remaining) {
+            Person other = appointment.getProvider();
+            providerBooked |= other.equals(provider);
+            technicianBooked |= other instanceof Technician;
+            roomBooked |= removed instanceof Imaging imaging
+                    && appointment instanceof Imaging otherImaging
+                    && imaging.getRoom() == otherImaging.getRoom()
+                    && ((Provider) provider).getLocation()
+                    == ((Provider) other).getLocation();
+        }
+        if (provider instanceof Doctor doctor && !providerBooked) {
+            this.doctorGrid.release(doctorId(doctor.getNpi(), false), day, timeslot);
+        } else if (provider instanceof Technician) {
+            if (!providerBooked) {
+                this.technicianGrid.release(technicianId(provider, false), day,
+                        timeslot);
+            }
+            if (!technicianBooked) {
+                this.technicianGrid.release(ANY_TECHNICIAN, day, timeslot);
+            }
+        }
+        if (removed instanceof Imaging imaging && !roomBooked) {
+            this.roomGrid.release(roomId(((Provider) provider).getLocation(),
+                    imaging.getRoom()), day, timeslot);
+        }
+    }
+
+    /**
+     * Returns the grid id of a doctor
+     * @param npi the NPI of the doctor
+     * @param create whether to assign an id to a doctor without one
+     * @return the id of the doctor, or -1 if it has none and create is false
+     */
+    private int doctorId(String npi, boolean create) {
+        Integer id = this.doctorIds.get(npi);
+        if (id == null) {
+            if (!create) {
+                return -1;
+            }
+            id = this.doctorIds.size();
+            this.doctorIds.put(npi, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the grid id of a technician
+     * Id 0 is the row of all technicians, so technicians start at 1
+     * @param technician the technician
+     * @param create whether to assign an id to a technician without one
+     * @return the id of the technician, or -1 if it has none and create is
+     * false
+     */
+    private int technicianId(Person technician, boolean create) {
+        Integer id = this.technicianIds.get(technician);
+        if (id == null) {
+            if (!create) {
+                return -1;
+            }
+            id = this.technicianIds.size() + 1;
+            this.technicianIds.put(technician, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the grid id of the radiology room of a location
+     * @param location the location of the room
+     * @param room the radiology room
+     * @return the id of the room
+     */
+    private static int roomId(Location location, Radiology room) {
+        return location.ordinal() * Radiology.values().length + room.ordinal();
+    }
+
+    /**
+     * Iterator over the appointments of a range of slots that pass a
+     * filter, reading one slot at a time
+     */
+    private static final class RangeIterator implements Iterator<Appointment> {
+        // Variables
+        private final Iterator<List<Appointment>> slots;
+        private final Predicate<? super Appointment> filter;
+        private Iterator<Appointment> slot = Collections.emptyIterator();
+        private Appointment next;
+
+        /**
+         * Creates an iterator over the slots of a range
+         * @param slots the appointments of each slot, in order
+         * @param filter the appointments to keep, or null to keep every one
+         */
+        private RangeIterator(Iterator<List<Appointment>> slots, Predicate<? super Appointment> filter) {
+            this.slots = slots;
+            this.filter = filter;
+            advance();
+        }
+
+        /**
+         * Finds the next appointment that passes the filter
+         */
+        private void advance() {
+            while (true) {
+                while (this.slot.hasNext()) {
+                    Appointment appointment = this.slot.next();
+                    if (this.filter == null || this.filter.test(appointment)) {
+                        this.next = appointment;
+                        return;
+                    }
+                }
+                if (!this.slots.hasNext()) {
+                    this.next = null;
+                    return;
+                }
+                this.slot = this.slots.next().iterator();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Appointment next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            Appointment appointment = this.next;
+            advance();
+            return appointment;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,255 @@
+package scheduler;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * This class summarizes how an imaging assignment policy handled a replay
+ * of imaging requests
+ * The wait of a request is the number of timeslots it was pushed back on
+ * its day before a technician and room were free, and a request with no
+ * free timeslot left that day goes unserved
+ * Room utilization is the share of the timeslots of the replayed days a
+ * room of a location was booked, and technician load spread is how far
+ * the number of appointments of each technician strays from the mean
+ * @author Keshav Dave, Danny Watson
+ */
+public class AssignmentMetrics {
+    // Constants
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    // Variables
+    private final ImagingAssignment policy;
+    private final Technician[] technicians;
+    private final HashMap<Person, Integer> technicianIndex = new HashMap<>();
+    private final int[] loads;
+    private final int[][] roomBookings = new int[Location.values().length][Radiology.values().length];
+    private final HashSet<Integer> days = new HashSet<>();
+    private int requests;
+    private int served;
+    private int rejected;
+    private long totalWait;
+    private int maxWait;
+    private long elapsedNanos;
+
+    /**
+     * Creates empty metrics for a policy
+     * @param policy the imaging assignment policy measured
+     * @param technicians the technicians of the clinic
+     */
+    AssignmentMetrics(ImagingAssignment policy, Technician[] technicians) {
+        this.policy = policy;
+        this.technicians = technicians;
+        this.loads = new int[technicians.length];
+        for (int i = 0; i < technicians.length; i++) {
+            this.technicianIndex.put(technicians[i], i);
+        }
+    }
+
+    /**
+     * Records a request that was booked
+     * @param appointment the booked imaging appointment
+     * @param wait the number of timeslots the request was pushed back
+     */
+    void recordServed(Imaging appointment, int wait) {
+        this.requests++;
+        this.served++;
+        this.totalWait += wait;
+        this.maxWait = Math.max(this.maxWait, wait);
+        this.days.add(appointment.getDate().toEpochDay());
+        Integer index = this.technicianIndex.get(appointment.getProvider());
+        if (index != null) {
+            this.loads[index]++;
+        }
+        Location location = ((Provider) appointment.getProvider()).getLocation();
+        this.roomBookings[location.ordinal()][appointment.getRoom().ordinal()]++;
+    }
+
+    /**
+     * Records a request with no free technician and room left on its day
+     */
+    void recordUnserved() {
+        this.requests++;
+    }
+
+    /**
+     * Records a request the scheduler refused for a reason other than
+     * availability, such as a date outside the booking window
+     */
+    void recordRejected() {
+        this.requests++;
+        this.rejected++;
+    }
+
+    /**
+     * Records the time the replay took
+     * @param elapsedNanos the duration of the replay in nanoseconds
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Getter method for the policy measured
+     * @return the imaging assignment policy
+     */
+    public ImagingAssignment getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Getter method for the number of requests replayed
+     * @return the number of requests
+     */
+    public int getRequests() {
+        return this.requests;
+    }
+
+    /**
+     * Getter method for the number of requests booked
+     * @return the number of served requests
+     */
+    public int getServed() {
+        return this.served;
+    }
+
+    /**
+     * Returns the number of requests left without a technician and room
+     * @return the number of unserved requests, not counting rejected ones
+     */
+    public int getUnserved() {
+        return this.requests - this.served - this.rejected;
+    }
+
+    /**
+     * Getter method for the number of requests refused as invalid
+     * @return the number of rejected requests
+     */
+    public int getRejected() {
+        return this.rejected;
+    }
+
+    /**
+     * Returns the mean wait of the served requests
+     * @return the mean number of timeslots a served request was pushed back
+     */
+    public double getAverageWait() {
+        return this.served == 0 ? 0 : (double) this.totalWait / this.served;
+    }
+
+    /**
+     * Getter method for the longest wait of a served request
+     * @return the most timeslots a served request was pushed back
+     */
+    public int getMaxWait() {
+        return this.maxWait;
+    }
+
+    /**
+     * Returns the utilization of a room over the replayed days
+     * @param location the location of the room
+     * @param room the radiology room
+     * @return the share of the timeslots of the replayed days the room was
+     * booked, from 0 to 1
+     */
+    public double getRoomUtilization(Location location, Radiology room) {
+        if (this.days.isEmpty()) {
+            return 0;
+        }
+        return (double) this.roomBookings[location.ordinal()][room.ordinal()]
+                / (this.days.size() * Timeslot.NUMBER_OF_TIMESLOTS);
+    }
+
+    /**
+     * Returns the number of appointments a technician was given
+     * @param technician the technician
+     * @return the number of appointments, 0 for an unknown technician
+     */
+    public int getLoad(Technician technician) {
+        Integer index = this.technicianIndex.get(technician);
+        return index == null ? 0 : this.loads[index];
+    }
+
+    /**
+     * Returns the spread of the technician loads as their coefficient of
+     * variation, the standard deviation divided by the mean
+     * @return the load spread, 0 when every technician has the same load
+     */
+    public double getLoadSpread() {
+        if (this.loads.length == 0 || this.served == 0) {
+            return 0;
+        }
+        double mean = (double) this.served / this.loads.length;
+        double squares = 0;
+        for (int load : this.loads) {
+            squares += (load - mean) * (load - mean);
+        }
+        return Math.sqrt(squares / this.loads.length) / mean;
+    }
+
+    /**
+     * Returns the smallest load of a technician
+     * @return the fewest appointments given to one technician
+     */
+    public int getMinLoad() {
+        int min = this.loads.length == 0 ? 0 : Integer.MAX_VALUE;
+        for (int load : this.loads) {
+            min = Math.min(min, load);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest load of a technician
+     * @return the most appointments given to one technician
+     */
+    public int getMaxLoad() {
+        int max = 0;
+        for (int load : this.loads) {
+            max = Math.max(max, load);
+        }
+        return max;
+    }
+
+    /**
+     * Getter method for the time the replay took
+     * @return the duration of the replay in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * toString override for AssignmentMetrics objects
+     * @return the request counts, waits, technician loads and the
+     * utilization of every room of a location with technicians
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(this.policy).append(": ").append(this.requests).append(" requests, ")
+                .append(this.served).append(" served, ").append(getUnserved()).append(" unserved");
+        if (this.rejected > 0) {
+            report.append(", ").append(this.rejected).append(" rejected");
+        }
+        report.append(String.format(", wait avg %.2f max %d slots", getAverageWait(), this.maxWait));
+        report.append(String.format(", technician load %d-%d (spread %.3f)", getMinLoad(),
+                getMaxLoad(), getLoadSpread()));
+        report.append(String.format(" in %.3f s", this.elapsedNanos / NANOS_PER_SECOND));
+        boolean[] staffed = new boolean[Location.values().length];
+        for (Technician technician : this.technicians) {
+            staffed[technician.getLocation().ordinal()] = true;
+        }
+        for (Location location : Location.values()) {
+            if (!staffed[location.ordinal()]) {
+                continue;
+            }
+            report.append(System.lineSeparator()).append("  ").append(location);
+            for (Radiology room : Radiology.values()) {
+                report.append(String.format(" %s %.1f%%", room,
+                        100 * getRoomUtilization(location, room)));
+            }
+        }
+        return report.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,391 @@
+package scheduler;
+import util.Date;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * This class replays a file of scheduling commands into a ClinicScheduler
+ * Each line is one comma separated command, in the format of the earlier
+ * command line versions of the scheduler
+ * D,9/30/2026,1,John,Doe,12/13/1989,120 books an office visit with a doctor
+ * T,9/30/2026,1,John,Doe,12/13/1989,xray books an imaging service
+ * C,9/30/2026,1,John,Doe,12/13/1989 cancels an appointment
+ * R,9/30/2026,1,John,Doe,12/13/1989,2 reschedules to another timeslot
+ * Timeslots are the numbers 1 to 12, and blank lines are skipped
+ * The file is streamed through one reusable character buffer and every line
+ * is split and parsed in place, so the only objects made per line are the
+ * ones the appointment itself needs
+ * Every command goes through the same validation as the GUI, and the result
+ * of each line is reported to a listener as soon as it is applied
+ * @author Keshav Dave, Danny Watson
+ */
+public class BatchImporter {
+    // Constants
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FIELDS = 7;
+    private static final int OFFICE_FIELDS = 7;
+    private static final int CANCEL_FIELDS = 6;
+    private static final int DATE = 1;
+    private static final int TIMESLOT = 2;
+    private static final int FIRST_NAME = 3;
+    private static final int LAST_NAME = 4;
+    private static final int DOB = 5;
+    private static final int LAST = 6;
+    private static final int DECIMAL = 10;
+
+    // Variables
+    private final ClinicScheduler scheduler;
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+
+    /**
+     * Receives the result of every command line as it is applied
+     */
+    public interface ResultListener {
+        /**
+         * Called after a command line has been applied
+         * @param lineNumber the line number of the command, starting at 1
+         * @param result the result of the command
+         */
+        void lineProcessed(int lineNumber, BookingResult result);
+    }
+
+    /**
+     * Constructor for the BatchImporter class
+     * @param scheduler the scheduler the commands are applied to
+     */
+    public BatchImporter(ClinicScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Imports a command file
+     * @param path the command file to read, in UTF-8
+     * @param listener receives the result of every line, or null
+     * @return the summary of the import
+     * @throws IOException if the file cannot be read
+     */
+    public BatchReport importFile(Path path, ResultListener listener) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path),
+                StandardCharsets.UTF_8)) {
+            return importFrom(reader, listener);
+        }
+    }
+
+    /**
+     * Imports commands from a reader until it is exhausted
+     * The reader is not closed
+     * @param reader the source of the command lines
+     * @param listener receives the result of every line, or null
+     * @return the summary of the import
+     * @throws IOException if the reader fails
+     */
+    public BatchReport importFrom(Reader reader, ResultListener listener) throws IOException {
+        BatchReport report = new BatchReport();
+        long start = System.nanoTime();
+        char[] buffer = new char[BUFFER_SIZE];
+        int length = 0;
+        int scanned = 0;
+        int lineNumber = 0;
+        int read;
+        while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            int lineStart = 0;
+            for (int i = scanned; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    processLine(buffer, lineStart, i, ++lineNumber, report, listener);
+                    lineStart = i + 1;
+                }
+            }
+            length -= lineStart;
+            System.arraycopy(buffer, lineStart, buffer, 0, length);
+            scanned = length;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        if (length > 0) {
+            processLine(buffer, 0, length, ++lineNumber, report, listener);
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * Parses and applies one command line
+     * @param line the buffer holding the line
+     * @param start the index of the first character of the line
+     * @param end the index after the last character of the line
+     * @param lineNumber the line number of the line
+     * @param report the report to record the result in
+     * @param listener receives the result of the line, or null
+     */
+    private void processLine(char[] line, int start, int end, int lineNumber,
+                             BatchReport report, ResultListener listener) {
+        report.countLine();
+        int fields = split(line, start, end);
+        if (fields == 0) {
+            return;
+        }
+        BookingResult result = apply(line, fields);
+        report.record(result);
+        if (listener != null) {
+            listener.lineProcessed(lineNumber, result);
+        }
+    }
+
+    /**
+     * Splits a line into comma separated fields without copying it
+     * The bounds of each field, trimmed of whitespace, are stored in
+     * fieldStart and fieldEnd
+     * @param line the buffer holding the line
+     * @param start the index of the first character of the line
+     * @param end the index after the last character of the line
+     * @return the number of fields, 0 for a blank line, or MAX_FIELDS + 1
+     * if the line has too many fields
+     */
+    private int split(char[] line, int start, int end) {
+        while (end > start && Character.isWhitespace(line[end - 1])) {
+            end--;
+        }
+        while (start < end && Character.isWhitespace(line[start])) {
+            start++;
+        }
+        if (start == end) {
+            return 0;
+        }
+        int fields = 0;
+        int fieldBegin = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || line[i] == ',') {
+                if (fields == MAX_FIELDS) {
+                    return MAX_FIELDS + 1;
+                }
+                int fieldFinish = i;
+                while (fieldBegin < fieldFinish && Character.isWhitespace(line[fieldBegin])) {
+                    fieldBegin++;
+                }
+                while (fieldFinish > fieldBegin && Character.isWhitespace(line[fieldFinish - 1])) {
+                    fieldFinish--;
+                }
+                this.fieldStart[fields] = fieldBegin;
+                this.fieldEnd[fields] = fieldFinish;
+                fields++;
+                fieldBegin = i + 1;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Applies a split command line to the scheduler
+     * @param line the buffer holding the line
+     * @param fields the number of fields of the line
+     * @return the result of the command
+     */
+    private BookingResult apply(char[] line, int fields) {
+        if (this.fieldEnd[0] - this.fieldStart[0] != 1) {
+            return invalidCommand(line, 0);
+        }
+        char command = line[this.fieldStart[0]];
+        int expected = switch (command) {
+            case 'D', 'T', 'R' -> OFFICE_FIELDS;
+            case 'C' -> CANCEL_FIELDS;
+            default -> -1;
+        };
+        if (expected == -1) {
+            return invalidCommand(line, 0);
+        }
+        if (fields != expected) {
+            return new BookingResult(BookingStatus.INVALID_COMMAND, "Missing data tokens.", null);
+        }
+
+        Date date = parseDate(line, DATE);
+        if (date == null) {
+            return new BookingResult(BookingStatus.INVALID_DATE, "Appointment date: "
+                    + field(line, DATE) + " is not a valid calendar date.", null);
+        }
+        Timeslot timeslot = parseTimeslot(line, TIMESLOT);
+        if (timeslot == null) {
+            return invalidTimeslot(line, TIMESLOT);
+        }
+        Date dob = parseDate(line, DOB);
+        if (dob == null) {
+            return new BookingResult(BookingStatus.INVALID_DATE, "Patient dob: "
+                    + field(line, DOB) + " is not a valid calendar date.", null);
+        }
+        Profile profile = new Profile(field(line, FIRST_NAME), field(line, LAST_NAME), dob);
+
+        switch (command) {
+            case 'D':
+                return this.scheduler.bookOffice(profile, date, timeslot, field(line, LAST));
+            case 'T':
+                Radiology room = parseRoom(line, LAST);
+                if (room == null) {
+                    return new BookingResult(BookingStatus.INVALID_PROVIDER,
+                            field(line, LAST) + " - imaging service not provided.", null);
+                }
+                return this.scheduler.bookImaging(profile, date, timeslot, room);
+            case 'C':
+                return this.scheduler.cancel(profile, date, timeslot);
+            default:
+                Timeslot newTimeslot = parseTimeslot(line, LAST);
+                if (newTimeslot == null) {
+                    return invalidTimeslot(line, LAST);
+                }
+                return this.scheduler.reschedule(profile, date, timeslot, newTimeslot);
+        }
+    }
+
+    /**
+     * Parses a M/D/YYYY date field
+     * @param line the buffer holding the line
+     * @param field the index of the field
+     * @return the parsed Date, or null if the field is not three numbers
+     * separated by slashes
+     */
+    private Date parseDate(char[] line, int field) {
+        int month = 0;
+        int day = 0;
+        int part = 0;
+        int value = 0;
+        boolean digits = false;
+        for (int i = this.fieldStart[field]; i < this.fieldEnd[field]; i++) {
+            char c = line[i];
+            if (c >= '0' && c <= '9') {
+                value = value * DECIMAL + (c - '0');
+                digits = true;
+                if (value > Short.MAX_VALUE) {
+                    return null;
+                }
+            } else if (c == '/' && digits && part < 2) {
+                if (part++ == 0) {
+                    month = value;
+                } else {
+                    day = value;
+                }
+                value = 0;
+                digits = false;
+            } else {
+                return null;
+            }
+        }
+        if (!digits || part != 2) {
+            return null;
+        }
+        return new Date(month, day, value);
+    }
+
+    /**
+     * Parses a timeslot number field
+     * @param line the buffer holding the line
+     * @param field the index of the field
+     * @return the Timeslot with that number, or null if the field is not a
+     * number from 1 to 12
+     */
+    private Timeslot parseTimeslot(char[] line, int field) {
+        int start = this.fieldStart[field];
+        int end = this.fieldEnd[field];
+        if (end == start || end - start > 2) {
+            return null;
+        }
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char c = line[i];
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            number = number * DECIMAL + (c - '0');
+        }
+        if (number < 1 || number > Timeslot.NUMBER_OF_TIMESLOTS) {
+            return null;
+        }
+        return Timeslot.getTimeslotByNumber(number);
+    }
+
+    /**
+     * Parses an imaging service field, ignoring case
+     * @param line the buffer holding the line
+     * @param field the index of the field
+     * @return the matching Radiology, or null if there is none
+     */
+    private Radiology parseRoom(char[] line, int field) {
+        int start = this.fieldStart[field];
+        int length = this.fieldEnd[field] - start;
+        for (Radiology room : Radiology.values()) {
+            String name = room.name();
+            if (name.length() == length) {
+                int i = 0;
+                while (i < length && Character.toUpperCase(line[start + i]) == name.charAt(i)) {
+                    i++;
+                }
+                if (i == length) {
+                    return room;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies a field into a String
+     * @param line the buffer holding the line
+     * @param field the index of the field
+     * @return the text of the field
+     */
+    private String field(char[] line, int field) {
+        return new String(line, this.fieldStart[field], this.fieldEnd[field] - this.fieldStart[field]);
+    }
+
+    /**
+     * Creates the result of a line with an unknown command
+     * @param line the buffer holding the line
+     * @param field the index of the command field
+     * @return the rejected result
+     */
+    private BookingResult invalidCommand(char[] line, int field) {
+        return new BookingResult(BookingStatus.INVALID_COMMAND,
+                field(line, field) + " - Invalid command!", null);
+    }
+
+    /**
+     * Creates the result of a line with an invalid timeslot
+     * @param line the buffer holding the line
+     * @param field the index of the timeslot field
+     * @return the rejected result
+     */
+    private BookingResult invalidTimeslot(char[] line, int field) {
+        return new BookingResult(BookingStatus.INVALID_TIMESLOT,
+                field(line, field) + " is not a valid time slot.", null);
+    }
+
+    /**
+     * Replays a command file from the command line
+     * Prints every rejected line with its line number, then the summary
+     * Usage: BatchImporter providers.txt commands.txt
+     * @param args the provider file and the command file
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: BatchImporter <provider file> <command file>");
+            return;
+        }
+        ClinicScheduler scheduler = new ClinicScheduler();
+        scheduler.loadProviders(new File(args[0]));
+        BatchReport report = new BatchImporter(scheduler).importFile(Path.of(args[1]),
+                (lineNumber, result) -> {
+                    if (!result.isSuccessful()) {
+                        System.out.println("Line " + lineNumber + ": " + result.getMessage());
+                    }
+                });
+        System.out.println(report);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package scheduler;
+
+/**
+ * This class summarizes a batch import of command lines
+ * It counts the lines read and the outcome of every command by status,
+ * and measures the throughput of the import
+ * @author Keshav Dave, Danny Watson
+ */
+public class BatchReport {
+    // Constants
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    // Variables
+    private final int[] statusCounts = new int[BookingStatus.values().length];
+    private int lines;
+    private int commands;
+    private long elapsedNanos;
+
+    /**
+     * Records the result of one command line
+     * @param result the result of the command
+     */
+    void record(BookingResult result) {
+        this.commands++;
+        this.statusCounts[result.getStatus().ordinal()]++;
+    }
+
+    /**
+     * Records that a line was read, including blank lines
+     */
+    void countLine() {
+        this.lines++;
+    }
+
+    /**
+     * Records the time the import took
+     * @param elapsedNanos the duration of the import in nanoseconds
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Getter method for the number of lines read
+     * @return the number of lines, including blank lines
+     */
+    public int getLines() {
+        return this.lines;
+    }
+
+    /**
+     * Getter method for the number of commands run
+     * @return the number of non-blank lines
+     */
+    public int getCommands() {
+        return this.commands;
+    }
+
+    /**
+     * Returns the number of commands that ended with the given status
+     * @param status the status to count
+     * @return the number of commands with that status
+     */
+    public int getCount(BookingStatus status) {
+        return this.statusCounts[status.ordinal()];
+    }
+
+    /**
+     * Returns the number of commands that changed the schedule
+     * @return the number of successful commands
+     */
+    public int getSuccessful() {
+        int successful = 0;
+        for (BookingStatus status : BookingStatus.values()) {
+            if (status.isSuccessful()) {
+                successful += this.statusCounts[status.ordinal()];
+            }
+        }
+        return successful;
+    }
+
+    /**
+     * Getter method for the time the import took
+     * @return the duration of the import in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * Returns the throughput of the import
+     * @return the number of lines processed per second
+     */
+    public double getLinesPerSecond() {
+        if (this.elapsedNanos == 0) {
+            return 0;
+        }
+        return this.lines * NANOS_PER_SECOND / this.elapsedNanos;
+    }
+
+    /**
+     * toString override for BatchReport objects
+     * @return the line counts, the count of every status that occurred and
+     * the throughput
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(this.lines).append(" lines, ").append(this.commands).append(" commands, ")
+                .append(getSuccessful()).append(" successful");
+        for (BookingStatus status : BookingStatus.values()) {
+            if (this.statusCounts[status.ordinal()] > 0) {
+                report.append(", ").append(status).append(": ")
+                        .append(this.statusCounts[status.ordinal()]);
+            }
+        }
+        report.append(String.format(" in %.3f s (%.0f lines/s)",
+                this.elapsedNanos / NANOS_PER_SECOND, getLinesPerSecond()));
+        return report.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package scheduler;
+import util.List;
+
+import java.util.HashMap;
+import java.util.TreeMap;
+
+/**
+ * This class keeps the billing account of every patient with a stored
+ * appointment and the credit of every provider, updated as appointments
+ * are added to and removed from the AppointmentStore
+ * Each account is a Patient whose visits are the appointments of that
+ * patient and whose charge is their running total
+ * Accounts are found by profile through a hash map and are also kept in a
+ * tree ordered by profile, so the statements come out in patient order
+ * without sorting the appointments or rebuilding the patients
+ * Provider credits are running totals of the rates of their appointments,
+ * so a credit report only has to look up each provider once
+ * The store feeds the ledger directly rather than through a
+ * ScheduleListener, so appointments recovered from a journal are billed too
+ * @author Keshav Dave, Danny Watson
+ */
+public class BillingLedger {
+    // Variables
+    private final HashMap<Profile, Patient> accounts = new HashMap<>();
+    private final TreeMap<Profile, Patient> ordered = new TreeMap<>();
+    private final HashMap<Person, Integer> credits = new HashMap<>();
+
+    /**
+     * Adds an appointment to the account of its patient, opening the
+     * account if the patient has none
+     * @param appointment the added appointment
+     */
+    void add(Appointment appointment) {
+        Profile profile = appointment.getPatient().getProfile();
+        Patient account = this.accounts.get(profile);
+        if (account == null) {
+            account = new Patient(profile);
+            this.accounts.put(profile, account);
+            this.ordered.put(profile, account);
+        }
+        account.addVisit(appointment);
+    }
+
+    /**
+     * Removes an appointment from the account of its patient, closing the
+     * account once it has no visits left
+     * @param appointment the removed appointment
+     */
+    void remove(Appointment appointment) {
+        Profile profile = appointment.getPatient().getProfile();
+        Patient account = this.accounts.get(profile);
+        if (account != null && account.removeVisit(appointment) && account.getVisit() == null) {
+            this.accounts.remove(profile);
+            this.ordered.remove(profile);
+        }
+    }
+
+    /**
+     * Finds the patient the appointments of a profile are booked under
+     * @param profile the profile of the patient
+     * @return the patient of the first visit of the account, or null if
+     * the profile has no account
+     */
+    Person findPatient(Profile profile) {
+        Patient account = this.accounts.get(profile);
+        return account == null ? null : account.getVisit().getAppointment().getPatient();
+    }
+
+    /**
+     * Adds the rate of a number of appointments to the credit of a provider
+     * @param provider the provider of the appointments
+     * @param visits the number of appointments, negative when they are
+     * removed
+     */
+    void addCredit(Person provider, int visits) {
+        int credit = this.credits.getOrDefault(provider, 0) + visits * ((Provider) provider).rate();
+        if (credit == 0) {
+            this.credits.remove(provider);
+        } else {
+            this.credits.put(provider, credit);
+        }
+    }
+
+    /**
+     * Returns the credit of a provider
+     * @param provider the provider
+     * @return the total rate of the stored appointments of the provider
+     */
+    public int getCredit(Person provider) {
+        return this.credits.getOrDefault(provider, 0);
+    }
+
+    /**
+     * Returns the account of a patient
+     * @param profile the profile of the patient
+     * @return the account, or null if the patient has no appointments
+     */
+    public Patient getAccount(Profile profile) {
+        return this.accounts.get(profile);
+    }
+
+    /**
+     * Returns the accounts of all patients in patient order
+     * @return the list of accounts
+     */
+    public List<Patient> getStatements() {
+        List<Patient> statements = new List<>();
+        statements.ensureCapacity(this.ordered.size());
+        for (Patient account : this.ordered.values()) {
+            statements.addLast(account);
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the number of patients with an account
+     * @return the number of accounts
+     */
+    public int size() {
+        return this.accounts.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+/**
+ * This interface is a thread-safe scheduling core shared by several front
+ * desks, answering every request with the same rules and messages as
+ * ClinicScheduler
+ * Implementations differ in how they keep concurrent bookings apart
+ * @author Keshav Dave, Danny Watson
+ */
+public interface BookingCore {
+    /**
+     * Books an office appointment with a doctor
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param npi the NPI of the doctor
+     * @return the result of the booking
+     */
+    BookingResult bookOffice(Profile profile, Date date, Timeslot timeslot, String npi);
+
+    /**
+     * Books an imaging appointment with the next available technician
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the result of the booking
+     */
+    BookingResult bookImaging(Profile profile, Date date, Timeslot timeslot, Radiology room);
+
+    /**
+     * Cancels an existing appointment
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the result of the cancellation
+     */
+    BookingResult cancel(Profile profile, Date date, Timeslot timeslot);
+
+    /**
+     * Reschedules an existing appointment to another timeslot on the same
+     * date with the same provider
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the current timeslot of the appointment
+     * @param newTimeslot the timeslot to move the appointment to
+     * @return the result of the reschedule
+     */
+    BookingResult reschedule(Profile profile, Date date, Timeslot timeslot, Timeslot newTimeslot);
+
+    /**
+     * Finds the appointment of a patient at the given date and timeslot
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the booked Appointment, or null if there is none
+     */
+    Appointment findAppointment(Profile profile, Date date, Timeslot timeslot);
+
+    /**
+     * Returns every booked appointment
+     * @return a new list of the appointments
+     */
+    List<Appointment> getAppointments();
+
+    /**
+     * Returns the number of booked appointments
+     * @return the number of appointments
+     */
+    int size();
+}
\ No newline at end of file
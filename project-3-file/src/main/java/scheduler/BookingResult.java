@@ -0,0 +1,69 @@
+package scheduler;
+
+/**
+ * This class represents the result of a book, cancel or reschedule request
+ * made to the ClinicScheduler
+ * It holds the status of the request, the message shown to the user, and
+ * the appointment that was booked, cancelled or rescheduled to, which is
+ * null when the request was rejected
+ * @author Keshav Dave, Danny Watson
+ */
+public class BookingResult {
+    // Variables
+    private final BookingStatus status;
+    private final String message;
+    private final Appointment appointment;
+
+    /**
+     * Constructor for the BookingResult class
+     * @param status the outcome of the request
+     * @param message the message describing the outcome
+     * @param appointment the appointment affected, or null if none was
+     */
+    public BookingResult(BookingStatus status, String message, Appointment appointment) {
+        this.status = status;
+        this.message = message;
+        this.appointment = appointment;
+    }
+
+    /**
+     * Getter method for the status
+     * @return the outcome of the request
+     */
+    public BookingStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Getter method for the message
+     * @return the message describing the outcome
+     */
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Getter method for the appointment
+     * @return the appointment affected, or null if the request was rejected
+     */
+    public Appointment getAppointment() {
+        return this.appointment;
+    }
+
+    /**
+     * Checks whether the request changed the schedule
+     * @return true if the request was successful, false otherwise
+     */
+    public boolean isSuccessful() {
+        return this.status.isSuccessful();
+    }
+
+    /**
+     * toString override for BookingResult objects
+     * @return the message describing the outcome
+     */
+    @Override
+    public String toString() {
+        return this.message;
+    }
+}
\ No newline at end of file
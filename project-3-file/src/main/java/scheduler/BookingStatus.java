@@ -0,0 +1,21 @@
+package scheduler;
+
+/**
+ * This enum represents the outcome of a request made to the ClinicScheduler
+ * The first three values are successful outcomes, the rest explain why a
+ * request was rejected
+ * @author Keshav Dave, Danny Watson
+ */
+public enum BookingStatus {
+    BOOKED, CANCELLED, RESCHEDULED, INVALID_DATE, INVALID_TIMESLOT,
+    INVALID_PROVIDER, PATIENT_CONFLICT, PROVIDER_UNAVAILABLE, NOT_FOUND,
+    INVALID_COMMAND;
+
+    /**
+     * Checks whether the status is a successful outcome
+     * @return true if the request changed the schedule, false otherwise
+     */
+    public boolean isSuccessful() {
+        return this == BOOKED || this == CANCELLED || this == RESCHEDULED;
+    }
+}
\ No newline at end of file
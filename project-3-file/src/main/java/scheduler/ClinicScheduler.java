@@ -0,0 +1,723 @@
+package scheduler;
+import util.Date;
+import util.List;
+import util.Sort;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.HashMap;
+import java.util.Scanner;
+import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * This class is the scheduling engine of the clinic, with no user interface
+ * It owns the providers and the booked appointments, and books, cancels and
+ * reschedules appointments with the same rules and messages as the GUI
+ * Every request returns a BookingResult instead of writing to a text area,
+ * so the engine can be driven by the GUI, batch jobs or load tests alike
+ * Imaging appointments are assigned to a technician whose room at their
+ * location is free by the ImagingAssignment policy of the scheduler, by
+ * default the next available technician in the TechnicianRotation
+ * A rescheduled imaging appointment keeps its technician and its room,
+ * which must also be free at the new timeslot
+ * Open slots can be searched for, walking the weekdays of the booking
+ * window through the day masks of the occupancy grids
+ * Every successful change is reported to the registered ScheduleListeners
+ * @author Keshav Dave, Danny Watson
+ */
+public class ClinicScheduler {
+    // Variables
+    private final List<Provider> providers = new List<>();
+    private final HashMap<String, Doctor> doctors = new HashMap<>();
+    private final List<Technician> technicians = new List<>();
+    private Technician[] turns = new Technician[0];
+    private ImagingAssignment imagingAssignment = ImagingAssignment.ROUND_ROBIN;
+    private ImagingAssignmentStrategy assignment = this.imagingAssignment.create(this.turns);
+    private final AppointmentStore appointmentStore = new AppointmentStore();
+    private final List<ScheduleListener> listeners = new List<>();
+
+    /**
+     * Loads the providers from a provider file, replacing the current ones
+     * Each line is a D or T provider, for example
+     * D ANDREW PATEL 1/21/1989 BRIDGEWATER FAMILY 01
+     * T JOHN JERRY 9/12/1968 PRINCETON 120
+     * @param file the provider file to read
+     * @throws FileNotFoundException if the file cannot be opened
+     */
+    public void loadProviders(File file) throws FileNotFoundException {
+        List<Provider> loaded = new List<>();
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine().trim();
+                if (!line.isEmpty()) {
+                    loaded.add(parseProvider(line));
+                }
+            }
+        }
+        setProviders(loaded);
+    }
+
+    /**
+     * Replaces the providers of the clinic
+     * The technicians are put in a rotation in reverse order of the given
+     * list, starting from the last technician, and the providers are then
+     * sorted by name
+     * @param providerList the providers to use, in the order they were read
+     */
+    public void setProviders(List<Provider> providerList) {
+        this.providers.removeIf(provider -> true);
+        this.doctors.clear();
+        this.technicians.removeIf(technician -> true);
+        for (Provider provider : providerList) {
+            this.providers.addLast(provider);
+        }
+        this.turns = TechnicianRotation.turns(this.providers);
+        this.assignment = this.imagingAssignment.create(this.turns);
+        Sort.provider(this.providers);
+        for (Provider provider : this.providers) {
+            if (provider instanceof Doctor doctor) {
+                this.doctors.put(doctor.getNpi(), doctor);
+            } else if (provider instanceof Technician technician) {
+                this.technicians.addLast(technician);
+            }
+        }
+    }
+
+    /**
+     * Changes the policy imaging appointments are assigned by
+     * The new policy starts from the first turn of the technicians
+     * @param imagingAssignment the policy to use
+     */
+    public void setImagingAssignment(ImagingAssignment imagingAssignment) {
+        this.imagingAssignment = imagingAssignment;
+        this.assignment = imagingAssignment.create(this.turns);
+    }
+
+    /**
+     * Getter method for the policy imaging appointments are assigned by
+     * @return the imaging assignment policy
+     */
+    public ImagingAssignment getImagingAssignment() {
+        return this.imagingAssignment;
+    }
+
+    /**
+     * Registers a listener to be told about every change to the schedule
+     * @param listener the listener to add
+     */
+    public void addListener(ScheduleListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Stops telling a listener about changes to the schedule
+     * @param listener the listener to remove
+     */
+    public void removeListener(ScheduleListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Books an office appointment with a doctor
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param npi the NPI of the doctor
+     * @return the result of the booking
+     */
+    public BookingResult bookOffice(Profile profile, Date date, Timeslot timeslot, String npi) {
+        BookingResult invalid = validateRequest(profile, date, timeslot);
+        if (invalid != null) {
+            return invalid;
+        }
+        Doctor doctor = findDoctor(npi);
+        if (doctor == null) {
+            return new BookingResult(BookingStatus.INVALID_PROVIDER,
+                    npi + " - provider doesn't exist.", null);
+        }
+        if (this.appointmentStore.hasPatientAppointment(profile, date, timeslot)) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT,
+                    profile + " has an existing appointment at the same time slot.", null);
+        }
+        if (this.appointmentStore.isDoctorBooked(npi, date, timeslot)) {
+            return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                    doctor + " is not available at " + timeslot, null);
+        }
+        Appointment appointment = new Appointment(date, timeslot,
+                this.appointmentStore.patientFor(profile), doctor);
+        this.appointmentStore.add(appointment);
+        for (ScheduleListener listener : this.listeners) {
+            listener.appointmentBooked(appointment);
+        }
+        return new BookingResult(BookingStatus.BOOKED, appointment + " booked.", appointment);
+    }
+
+    /**
+     * Books an imaging appointment with the next available technician
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the result of the booking
+     */
+    public BookingResult bookImaging(Profile profile, Date date, Timeslot timeslot, Radiology room) {
+        BookingResult invalid = validateRequest(profile, date, timeslot);
+        if (invalid != null) {
+            return invalid;
+        }
+        if (room == null) {
+            return new BookingResult(BookingStatus.INVALID_PROVIDER,
+                    "imaging service not provided.", null);
+        }
+        if (this.appointmentStore.hasPatientAppointment(profile, date, timeslot)) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT,
+                    profile + " has an existing appointment at the same time slot.", null);
+        }
+        Technician technician = this.assignment.assign(this.appointmentStore, profile,
+                date, timeslot, room);
+        if (technician == null) {
+            return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                    "Cannot find an available technician at all locations for " + room
+                            + " at " + timeslot, null);
+        }
+        Imaging appointment = new Imaging(date, timeslot,
+                this.appointmentStore.patientFor(profile), technician, room);
+        this.appointmentStore.add(appointment);
+        for (ScheduleListener listener : this.listeners) {
+            listener.appointmentBooked(appointment);
+        }
+        return new BookingResult(BookingStatus.BOOKED, appointment + " booked.", appointment);
+    }
+
+    /**
+     * Cancels an existing appointment
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the result of the cancellation
+     */
+    public BookingResult cancel(Profile profile, Date date, Timeslot timeslot) {
+        Appointment appointment = this.appointmentStore.find(profile, date, timeslot);
+        if (appointment == null) {
+            return new BookingResult(BookingStatus.NOT_FOUND, date + " " + timeslot + " "
+                    + profile + "- appointment does not exist.", null);
+        }
+        this.appointmentStore.remove(appointment);
+        for (ScheduleListener listener : this.listeners) {
+            listener.appointmentCancelled(appointment);
+        }
+        return new BookingResult(BookingStatus.CANCELLED, appointment.getDate() + " "
+                + appointment.getTimeslot() + " " + profile
+                + "- appointment has been cancelled.", appointment);
+    }
+
+    /**
+     * Reschedules an existing appointment to another timeslot on the same
+     * date with the same provider
+     * An imaging appointment keeps its room, which must also be free at
+     * the new timeslot
+     * The moved appointment is booked under the shared patient of the
+     * profile, like a new booking
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the current timeslot of the appointment
+     * @param newTimeslot the timeslot to move the appointment to
+     * @return the result of the reschedule
+     */
+    public BookingResult reschedule(Profile profile, Date date, Timeslot timeslot,
+                                    Timeslot newTimeslot) {
+        Appointment appointment = this.appointmentStore.find(profile, date, timeslot);
+        if (appointment == null) {
+            return new BookingResult(BookingStatus.NOT_FOUND, "appointment does not exist", null);
+        }
+        if (newTimeslot == null) {
+            return new BookingResult(BookingStatus.INVALID_TIMESLOT, "Invalid timeslot.", null);
+        }
+
+        if (appointment.getProvider() instanceof Doctor doctor) {
+            if (this.appointmentStore.hasPatientAppointment(profile, date, newTimeslot)) {
+                return new BookingResult(BookingStatus.PATIENT_CONFLICT, profile
+                        + " has an existing appointment at the same time slot.", null);
+            }
+            if (this.appointmentStore.isDoctorBooked(doctor.getNpi(), date, newTimeslot)) {
+                return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                        doctor + " is not available at " + newTimeslot, null);
+            }
+        } else if (appointment.getProvider() instanceof Technician technician) {
+            if (this.appointmentStore.hasPatientAppointment(profile, date, newTimeslot)) {
+                return new BookingResult(BookingStatus.PATIENT_CONFLICT, "Imaging appointment already exists for "
+                        + profile + " at this timeslot.", null);
+            }
+            if (this.appointmentStore.hasTechnicianAppointment(date, newTimeslot)) {
+                return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                        technician + " is not available at " + newTimeslot, null);
+            }
+            if (appointment instanceof Imaging imaging && this.appointmentStore.isRoomBooked(
+                    technician.getLocation(), imaging.getRoom(), date, newTimeslot)) {
+                return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                        imaging.getRoom() + " is not available at " + newTimeslot, null);
+            }
+        }
+
+        Appointment rescheduled = moved(appointment, newTimeslot,
+                this.appointmentStore.patientFor(profile));
+        this.appointmentStore.remove(appointment);
+        this.appointmentStore.add(rescheduled);
+        for (ScheduleListener listener : this.listeners) {
+            listener.appointmentRescheduled(appointment, rescheduled);
+        }
+        return new BookingResult(BookingStatus.RESCHEDULED, "Rescheduled to " + rescheduled, rescheduled);
+    }
+
+    /**
+     * Finds the appointment of a patient at the given date and timeslot
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the stored Appointment, or null if there is none
+     */
+    public Appointment findAppointment(Profile profile, Date date, Timeslot timeslot) {
+        return this.appointmentStore.find(profile, date, timeslot);
+    }
+
+    /**
+     * Finds the doctor with the given NPI
+     * @param npi the NPI to search for
+     * @return the Doctor with the matching NPI, or null if not found
+     */
+    public Doctor findDoctor(String npi) {
+        return npi == null ? null : this.doctors.get(npi);
+    }
+
+    /**
+     * Finds a technician who is free at the given date and timeslot and
+     * whose location has the room free, chosen by the imaging assignment
+     * policy
+     * With the default policy the rotation moves past the chosen
+     * technician, so the next search starts with the following technician
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param patient the patient of the appointment
+     * @param room the imaging service requested
+     * @return an Imaging appointment with the technician, or null if none is free
+     */
+    public Imaging findTechnician(Date date, Timeslot timeslot, Person patient, Radiology room) {
+        Technician technician = this.assignment.assign(this.appointmentStore, patient.getProfile(),
+                date, timeslot, room);
+        if (technician == null) {
+            return null;
+        }
+        return new Imaging(date, timeslot, patient, technician, room);
+    }
+
+    /**
+     * Finds the earliest open slots of a doctor, starting at a date and
+     * timeslot and ending at the end of the six month booking window
+     * Weekends, days before tomorrow, and slots the patient is already
+     * booked at are skipped
+     * @param npi the NPI of the doctor
+     * @param profile the profile of the patient, or null to ignore the
+     *                patient's own appointments
+     * @param date the first date to search
+     * @param timeslot the first timeslot to search on that date, or null
+     *                 for the whole day
+     * @param limit the maximum number of slots to return
+     * @return up to limit open slots in order of date and timeslot, empty
+     * if the doctor does not exist
+     */
+    public List<SlotCandidate> findOfficeSlots(String npi, Profile profile, Date date,
+                                               Timeslot timeslot, int limit) {
+        List<SlotCandidate> candidates = new List<>();
+        Doctor doctor = findDoctor(npi);
+        if (doctor == null) {
+            return candidates;
+        }
+        int startDay = date.toEpochDay();
+        int[] window = bookingWindow();
+        for (int day = Math.max(startDay, window[0]); day < window[1]
+                && candidates.size() < limit; day++) {
+            if (Date.isWeekend(day)) {
+                continue;
+            }
+            long free = ~this.appointmentStore.getDoctorDayMask(npi, day)
+                    & startMask(day, startDay, timeslot);
+            addCandidates(candidates, limit, day, free, profile, doctor, null);
+        }
+        return candidates;
+    }
+
+    /**
+     * Finds the earliest open slots for an imaging service, starting at a
+     * date and timeslot and ending at the end of the six month booking window
+     * A slot is open when a technician is free and the room of the service
+     * at the technician's location is free; the technician of each slot is
+     * the first free one in the order of the assignment policy
+     * Weekends, days before tomorrow, and slots the patient is already
+     * booked at are skipped
+     * @param room the imaging service
+     * @param profile the profile of the patient, or null to ignore the
+     *                patient's own appointments
+     * @param date the first date to search
+     * @param timeslot the first timeslot to search on that date, or null
+     *                 for the whole day
+     * @param limit the maximum number of slots to return
+     * @return up to limit open slots in order of date and timeslot
+     */
+    public List<SlotCandidate> findImagingSlots(Radiology room, Profile profile, Date date,
+                                                Timeslot timeslot, int limit) {
+        List<SlotCandidate> candidates = new List<>();
+        if (this.technicians.isEmpty()) {
+            return candidates;
+        }
+        Technician[] rotation = this.assignment.order();
+        long[] free = new long[rotation.length];
+        int startDay = date.toEpochDay();
+        int[] window = bookingWindow();
+        for (int day = Math.max(startDay, window[0]); day < window[1]
+                && candidates.size() < limit; day++) {
+            if (Date.isWeekend(day)) {
+                continue;
+            }
+            long dayMask = startMask(day, startDay, timeslot);
+            long anyFree = 0;
+            for (int i = 0; i < rotation.length; i++) {
+                free[i] = ~(this.appointmentStore.getTechnicianDayMask(rotation[i], day)
+                        | this.appointmentStore.getRoomDayMask(rotation[i].getLocation(), room, day))
+                        & dayMask;
+                anyFree |= free[i];
+            }
+            while (anyFree != 0 && candidates.size() < limit) {
+                long slot = Long.lowestOneBit(anyFree);
+                anyFree &= ~slot;
+                int next = 0;
+                while ((free[next] & slot) == 0) {
+                    next++;
+                }
+                addCandidates(candidates, limit, day, slot, profile, rotation[next], room);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the billing statement of every patient with an appointment
+     * The statements come from the billing ledger of the store, which is
+     * kept up to date as appointments change, in order of patient profile
+     * @return a list of patients with their visits
+     */
+    public List<Patient> createPatientStatements() {
+        return this.appointmentStore.getLedger().getStatements();
+    }
+
+    /**
+     * Creates the credit line of every provider
+     * The provider list is kept sorted by name and the credits are kept
+     * up to date by the appointment store, so this only looks up the credit
+     * of each provider
+     * @return a list of provider credit strings, in order of provider name
+     */
+    public List<String> createProviderCredits() {
+        List<String> credits = new List<>();
+        credits.ensureCapacity(this.providers.size());
+        int index = 1;
+        for (Provider provider : this.providers) {
+            int credit = this.appointmentStore.getCredit(provider);
+            credits.addLast("(" + index++ + ") " + provider.getProfile()
+                    + " [credit amount: $" + credit + ".00]");
+        }
+        return credits;
+    }
+
+    /**
+     * Creates the revenue report of the whole schedule
+     * The schedule is copied on the calling thread and the report is built
+     * from the copy on the common fork/join pool
+     * @return the revenue and volume of the appointments by location,
+     * specialty, room and timeslot
+     */
+    public RevenueReport createRevenueReport() {
+        return ReportEngine.parallel(this.appointmentStore.toArray(), this.providers.size(),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a list of unique patients from the appointment list
+     * Patients are in order of their first appointment in the list and are
+     * found through a hash map, so the list is built in one pass
+     * @param appointmentList the list of appointments
+     * @return a list of unique patients
+     */
+    public static List<Patient> createPatientList(List<Appointment> appointmentList) {
+        List<Patient> patientList = new List<>();
+        HashMap<Profile, Patient> patients = new HashMap<>();
+        for (Appointment appointment : appointmentList) {
+            Profile appointmentProfile = appointment.getPatient().getProfile();
+            Patient existingPatient = patients.get(appointmentProfile);
+            if (existingPatient != null) {
+                existingPatient.addVisit(appointment);
+            } else {
+                Patient newPatient = new Patient(appointmentProfile);
+                newPatient.addVisit(appointment);
+                patientList.addLast(newPatient);
+                patients.put(appointmentProfile, newPatient);
+            }
+        }
+        return patientList;
+    }
+
+    /**
+     * Checks if the appointment date can be booked
+     * @param date the appointment date
+     * @return the reason the date is invalid, or null if it is valid
+     */
+    public static String checkAppointmentDate(Date date) {
+        if (!date.isValid()) {
+            return "Appointment Date: " + date + " is not a valid calendar date.";
+        }
+        if (!date.isNotToday() || !date.isAfterToday()) {
+            return "Appointment Date: " + date + " is today or a date before today.";
+        }
+        if (!date.isNotWeekend()) {
+            return "Appointment date: " + date + " is Saturday or Sunday.";
+        }
+        if (!date.withinSixMonths()) {
+            return "Appointment date: " + date + " is not within six months.";
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the patient's date of birth is valid
+     * @param date the patient's date of birth
+     * @return the reason the date is invalid, or null if it is valid
+     */
+    public static String checkBirthday(Date date) {
+        if (!date.isNotToday() || date.isAfterToday()) {
+            return "Patient dob: " + date + " is today or a date after today.";
+        }
+        if (!date.isValid()) {
+            return "Patient dob: " + date + " is not a valid calendar date.";
+        }
+        return null;
+    }
+
+    /**
+     * Getter method for the providers
+     * @return the providers sorted by name
+     */
+    public List<Provider> getProviders() {
+        return this.providers;
+    }
+
+    /**
+     * Getter method for the booked appointments
+     * @return the store holding the appointments
+     */
+    public AppointmentStore getAppointmentStore() {
+        return this.appointmentStore;
+    }
+
+    /**
+     * Getter method for the list of appointments
+     * The list is a new copy, so it may be sorted without changing the
+     * schedule
+     * @return a new list of the booked appointments
+     */
+    public List<Appointment> getAppointments() {
+        return this.appointmentStore.getAppointments();
+    }
+
+    /**
+     * Returns the appointments from one date to another, in order of date
+     * and timeslot, read from the date index as they are iterated
+     * @param from the first date, inclusive
+     * @param to the last date, inclusive
+     * @param filter the appointments to keep, such as atLocation(location),
+     *               or null to keep every one
+     * @return the appointments of the range
+     */
+    public Iterable<Appointment> getAppointments(Date from, Date to, Predicate<? super Appointment> filter) {
+        return this.appointmentStore.between(from, to, filter);
+    }
+
+    /**
+     * Returns the calendar of a day, in order of timeslot
+     * @param date the day
+     * @param filter the appointments to keep, or null to keep every one
+     * @return the appointments of the day
+     */
+    public Iterable<Appointment> getDay(Date date, Predicate<? super Appointment> filter) {
+        return this.appointmentStore.between(date, date, filter);
+    }
+
+    /**
+     * Returns the calendar of the week of a date, Monday to Sunday, in
+     * order of date and timeslot
+     * @param date any day of the week
+     * @param filter the appointments to keep, or null to keep every one
+     * @return the appointments of the week
+     */
+    public Iterable<Appointment> getWeek(Date date, Predicate<? super Appointment> filter) {
+        int monday = date.toEpochDay() - Date.dayOfWeek(date.toEpochDay());
+        return this.appointmentStore.between(Date.fromEpochDay(monday),
+                Date.fromEpochDay(monday + Date.DAYS_IN_WEEK - 1), filter);
+    }
+
+    /**
+     * Creates a calendar filter for the appointments at a location
+     * @param location the location of the provider
+     * @return a filter keeping the appointments of providers at the location
+     */
+    public static Predicate<Appointment> atLocation(Location location) {
+        return appointment -> ((Provider) appointment.getProvider()).getLocation() == location;
+    }
+
+    /**
+     * Creates a calendar filter for the appointments of a provider
+     * @param provider the provider
+     * @return a filter keeping the appointments of the provider
+     */
+    public static Predicate<Appointment> withProvider(Person provider) {
+        return appointment -> appointment.getProvider().equals(provider);
+    }
+
+    /**
+     * Finds the patients that have been booked whose name starts with a
+     * prefix, such as "pat" or "patel jo"
+     * @param prefix a last name prefix, or a last name and a first name
+     *               prefix
+     * @param limit the most patients to return
+     * @return the matching profiles, in order of last name, first name and
+     * date of birth
+     */
+    public List<Profile> searchPatients(String prefix, int limit) {
+        return this.appointmentStore.getPatientRegistry().search(prefix, limit);
+    }
+
+    /**
+     * Adds a candidate for every slot of a mask, in order of timeslot, until
+     * the list holds limit candidates
+     * @param candidates the list to add to
+     * @param limit the maximum size of the list
+     * @param day the epoch day of the slots
+     * @param free the mask of open timeslots
+     * @param profile the profile of the patient, or null
+     * @param provider the provider of the slots
+     * @param room the radiology room of the slots, or null
+     */
+    private void addCandidates(List<SlotCandidate> candidates, int limit, int day, long free,
+                               Profile profile, Provider provider, Radiology room) {
+        Date date = null;
+        while (free != 0 && candidates.size() < limit) {
+            Timeslot timeslot = Timeslot.getTimeslotByNumber(Long.numberOfTrailingZeros(free) + 1);
+            free &= free - 1;
+            if (date == null) {
+                date = Date.fromEpochDay(day);
+            }
+            if (profile == null || !this.appointmentStore.hasPatientAppointment(profile, date, timeslot)) {
+                candidates.addLast(new SlotCandidate(date, timeslot, provider, room));
+            }
+        }
+    }
+
+    /**
+     * Returns the timeslots of a day a search may consider
+     * @param day the epoch day
+     * @param startDay the epoch day the search starts at
+     * @param timeslot the timeslot the search starts at, or null
+     * @return the mask of every timeslot, or on the start day only the
+     * timeslots from the starting one on
+     */
+    private static long startMask(int day, int startDay, Timeslot timeslot) {
+        if (day != startDay || timeslot == null) {
+            return OccupancyGrid.FULL_DAY;
+        }
+        return OccupancyGrid.FULL_DAY & (OccupancyGrid.FULL_DAY << (timeslot.getNumber() - 1));
+    }
+
+    /**
+     * Returns the days appointments can be booked on, which are the days
+     * after today and before the same day six months from today, the window
+     * used by checkAppointmentDate, read from the today cached by Date
+     * @return the first bookable epoch day and the epoch day after the last
+     */
+    private static int[] bookingWindow() {
+        return new int[]{Date.today().toEpochDay() + 1, Date.sixMonthsEpochDay()};
+    }
+
+    /**
+     * Creates the appointment an appointment becomes when it is moved to
+     * another timeslot of its date, keeping its provider and, for imaging,
+     * its room
+     * @param appointment the appointment to move
+     * @param newTimeslot the timeslot to move it to
+     * @param patient the patient of the moved appointment
+     * @return the moved appointment
+     */
+    static Appointment moved(Appointment appointment, Timeslot newTimeslot, Person patient) {
+        if (appointment instanceof Imaging imaging) {
+            return new Imaging(imaging.getDate(), newTimeslot, patient, imaging.getProvider(), imaging.getRoom());
+        }
+        return new Appointment(appointment.getDate(), newTimeslot, patient, appointment.getProvider());
+    }
+
+    /**
+     * Checks the parts of a booking request shared by every appointment type
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the rejected result, or null if the request is valid
+     */
+    static BookingResult validateRequest(Profile profile, Date date, Timeslot timeslot) {
+        String error = checkAppointmentDate(date);
+        if (error == null) {
+            error = checkBirthday(profile.getDOB());
+        }
+        if (error != null) {
+            return new BookingResult(BookingStatus.INVALID_DATE, error, null);
+        }
+        if (timeslot == null) {
+            return new BookingResult(BookingStatus.INVALID_TIMESLOT, "Invalid timeslot.", null);
+        }
+        return null;
+    }
+
+    /**
+     * Parses a provider from a line of the provider file
+     * @param line the provider line
+     * @return the Doctor or Technician on the line
+     * @throws IllegalArgumentException if the provider type is unknown
+     */
+    private static Provider parseProvider(String line) {
+        StringTokenizer tokenizer = new StringTokenizer(line, " ");
+        String type = tokenizer.nextToken();
+        String firstName = tokenizer.nextToken();
+        String lastName = tokenizer.nextToken();
+        Profile profile = new Profile(firstName, lastName, parseDate(tokenizer.nextToken()));
+        Location location = Location.valueOfLocation(tokenizer.nextToken().toUpperCase());
+
+        if (type.equals("D")) {
+            Specialty specialty = Specialty.valueOfSpecialty(tokenizer.nextToken().toUpperCase());
+            return new Doctor(profile, location, specialty, tokenizer.nextToken());
+        }
+        if (type.equals("T")) {
+            return new Technician(profile, location, Integer.parseInt(tokenizer.nextToken()));
+        }
+        throw new IllegalArgumentException(type + " - invalid provider type.");
+    }
+
+    /**
+     * Converts a date string to a Date object
+     * @param date the date string in M/D/YYYY format
+     * @return the parsed Date object
+     */
+    private static Date parseDate(String date) {
+        StringTokenizer dateTokenizer = new StringTokenizer(date, "/");
+        int month = Integer.parseInt(dateTokenizer.nextToken());
+        int day = Integer.parseInt(dateTokenizer.nextToken());
+        int year = Integer.parseInt(dateTokenizer.nextToken());
+        return new Date(month, day, year);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,419 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class is a thread-safe scheduling core for several front desks
+ * booking against one shared schedule at the same time
+ * The schedule is split into lock stripes by date and location, each a
+ * lock and an AppointmentStore holding the appointments of its dates and
+ * locations, so bookings on different days or at different locations
+ * proceed in parallel
+ * Every doctor and radiology room works at one location, so checking and
+ * booking them under the lock of their date and location cannot
+ * double-book them; an imaging booking holds the locks of every location
+ * with technicians on its date while the technician is chosen, and the
+ * turn of the technicians is shared by all dates
+ * Patients can book at any location, so the timeslot of a patient is
+ * reserved first in a concurrent map shared by all stripes
+ * Locks are always taken in order of stripe, so bookings never deadlock
+ * Requests are validated and answered with the same rules and messages as
+ * ClinicScheduler
+ * @author Keshav Dave, Danny Watson
+ */
+public class ConcurrentScheduler implements BookingCore {
+    // Constants
+    private static final int STRIPES_PER_PROCESSOR = 16;
+    private static final int HASH_MULTIPLIER = 31;
+
+    // Variables
+    private final Stripe[] stripes;
+    private final HashMap<String, Doctor> doctors = new HashMap<>();
+    private final Location[] imagingLocations;
+    private final TechnicianRotation rotation;
+    private final ConcurrentHashMap<PatientSlot, Appointment> patients = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for the ConcurrentScheduler class, with a number of
+     * stripes suited to the processors of the machine
+     * @param providers the providers of the clinic, in the order they were
+     *                  read
+     */
+    public ConcurrentScheduler(List<Provider> providers) {
+        this(providers, STRIPES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for the ConcurrentScheduler class
+     * @param providers the providers of the clinic, in the order they were
+     *                  read
+     * @param stripes the number of lock stripes, rounded up to a power of two
+     */
+    public ConcurrentScheduler(List<Provider> providers, int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        boolean[] staffed = new boolean[Location.values().length];
+        for (Provider provider : providers) {
+            if (provider instanceof Doctor doctor) {
+                this.doctors.put(doctor.getNpi(), doctor);
+            } else if (provider instanceof Technician technician) {
+                staffed[technician.getLocation().ordinal()] = true;
+            }
+        }
+        List<Location> locations = new List<>();
+        for (Location location : Location.values()) {
+            if (staffed[location.ordinal()]) {
+                locations.addLast(location);
+            }
+        }
+        this.imagingLocations = new Location[locations.size()];
+        for (int i = 0; i < this.imagingLocations.length; i++) {
+            this.imagingLocations[i] = locations.get(i);
+        }
+        this.rotation = new TechnicianRotation(TechnicianRotation.turns(providers));
+    }
+
+    /**
+     * Books an office appointment with a doctor
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param npi the NPI of the doctor
+     * @return the result of the booking
+     */
+    @Override
+    public BookingResult bookOffice(Profile profile, Date date, Timeslot timeslot, String npi) {
+        BookingResult invalid = ClinicScheduler.validateRequest(profile, date, timeslot);
+        if (invalid != null) {
+            return invalid;
+        }
+        Doctor doctor = npi == null ? null : this.doctors.get(npi);
+        if (doctor == null) {
+            return new BookingResult(BookingStatus.INVALID_PROVIDER,
+                    npi + " - provider doesn't exist.", null);
+        }
+        Appointment appointment = new Appointment(date, timeslot, new Patient(profile), doctor);
+        PatientSlot key = new PatientSlot(profile, date.toEpochDay(), timeslot);
+        if (this.patients.putIfAbsent(key, appointment) != null) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT,
+                    profile + " has an existing appointment at the same time slot.", null);
+        }
+        Stripe stripe = stripe(date.toEpochDay(), doctor.getLocation());
+        stripe.lock.lock();
+        try {
+            if (stripe.store.isDoctorBooked(npi, date, timeslot)) {
+                this.patients.remove(key, appointment);
+                return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                        doctor + " is not available at " + timeslot, null);
+            }
+            stripe.store.add(appointment);
+        } finally {
+            stripe.lock.unlock();
+        }
+        return new BookingResult(BookingStatus.BOOKED, appointment + " booked.", appointment);
+    }
+
+    /**
+     * Books an imaging appointment with the next available technician
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the result of the booking
+     */
+    @Override
+    public BookingResult bookImaging(Profile profile, Date date, Timeslot timeslot, Radiology room) {
+        BookingResult invalid = ClinicScheduler.validateRequest(profile, date, timeslot);
+        if (invalid != null) {
+            return invalid;
+        }
+        if (room == null) {
+            return new BookingResult(BookingStatus.INVALID_PROVIDER,
+                    "imaging service not provided.", null);
+        }
+        Patient patient = new Patient(profile);
+        Appointment reservation = new Appointment(date, timeslot, patient, null);
+        PatientSlot key = new PatientSlot(profile, date.toEpochDay(), timeslot);
+        if (this.patients.putIfAbsent(key, reservation) != null) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT,
+                    profile + " has an existing appointment at the same time slot.", null);
+        }
+        int day = date.toEpochDay();
+        AppointmentStore[] stores = new AppointmentStore[Location.values().length];
+        Stripe[] locked = lockImaging(day, stores);
+        Imaging appointment;
+        try {
+            Technician technician;
+            synchronized (this.rotation) {
+                technician = this.rotation.assign(stores, day, OccupancyGrid.bit(timeslot), room);
+            }
+            if (technician == null) {
+                this.patients.remove(key, reservation);
+                return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                        "Cannot find an available technician at all locations for " + room
+                                + " at " + timeslot, null);
+            }
+            appointment = new Imaging(date, timeslot, patient, technician, room);
+            stores[technician.getLocation().ordinal()].add(appointment);
+            this.patients.replace(key, reservation, appointment);
+        } finally {
+            unlock(locked);
+        }
+        return new BookingResult(BookingStatus.BOOKED, appointment + " booked.", appointment);
+    }
+
+    /**
+     * Cancels an existing appointment
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the result of the cancellation
+     */
+    @Override
+    public BookingResult cancel(Profile profile, Date date, Timeslot timeslot) {
+        Patient patient = new Patient(profile);
+        PatientSlot key = new PatientSlot(profile, date.toEpochDay(), timeslot);
+        Appointment appointment;
+        while ((appointment = this.patients.get(key)) != null
+                && appointment.getProvider() != null) {
+            Stripe stripe = stripe(key.day, ((Provider) appointment.getProvider()).getLocation());
+            stripe.lock.lock();
+            try {
+                if (stripe.store.find(patient, date, timeslot) == appointment) {
+                    stripe.store.remove(appointment);
+                    this.patients.remove(key, appointment);
+                    return new BookingResult(BookingStatus.CANCELLED, appointment.getDate() + " "
+                            + appointment.getTimeslot() + " " + profile
+                            + "- appointment has been cancelled.", appointment);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            if (this.patients.get(key) == appointment) {
+                break;
+            }
+        }
+        return new BookingResult(BookingStatus.NOT_FOUND, date + " " + timeslot + " "
+                + patient + "- appointment does not exist.", null);
+    }
+
+    /**
+     * Reschedules an existing appointment to another timeslot on the same
+     * date with the same provider
+     * An imaging appointment keeps its technician and room, and the room
+     * must be free at the new timeslot, as in ClinicScheduler
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the current timeslot of the appointment
+     * @param newTimeslot the timeslot to move the appointment to
+     * @return the result of the reschedule
+     */
+    @Override
+    public BookingResult reschedule(Profile profile, Date date, Timeslot timeslot,
+                                    Timeslot newTimeslot) {
+        Patient patient = new Patient(profile);
+        int day = date.toEpochDay();
+        PatientSlot key = new PatientSlot(profile, day, timeslot);
+        Appointment appointment = this.patients.get(key);
+        if (appointment == null || appointment.getProvider() == null) {
+            return new BookingResult(BookingStatus.NOT_FOUND, "appointment does not exist", null);
+        }
+        if (newTimeslot == null) {
+            return new BookingResult(BookingStatus.INVALID_TIMESLOT, "Invalid timeslot.", null);
+        }
+        Provider provider = (Provider) appointment.getProvider();
+        Appointment rescheduled = ClinicScheduler.moved(appointment, newTimeslot, patient);
+        PatientSlot newKey = new PatientSlot(profile, day, newTimeslot);
+        if (this.patients.putIfAbsent(newKey, rescheduled) != null) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT, provider instanceof Doctor
+                    ? profile + " has an existing appointment at the same time slot."
+                    : "Imaging appointment already exists for " + profile + " at this timeslot.",
+                    null);
+        }
+        AppointmentStore[] stores = new AppointmentStore[Location.values().length];
+        Stripe[] locked;
+        if (provider instanceof Doctor) {
+            Stripe stripe = stripe(day, provider.getLocation());
+            stripe.lock.lock();
+            stores[provider.getLocation().ordinal()] = stripe.store;
+            locked = new Stripe[] {stripe};
+        } else {
+            locked = lockImaging(day, stores);
+        }
+        try {
+            AppointmentStore store = stores[provider.getLocation().ordinal()];
+            if (store.find(patient, date, timeslot) != appointment) {
+                this.patients.remove(newKey, rescheduled);
+                return new BookingResult(BookingStatus.NOT_FOUND, "appointment does not exist", null);
+            }
+            if (isBooked(provider, stores, date, newTimeslot) || appointment instanceof Imaging imaging
+                    && store.isRoomBooked(provider.getLocation(), imaging.getRoom(), date, newTimeslot)) {
+                this.patients.remove(newKey, rescheduled);
+                return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                        provider + " is not available at " + newTimeslot, null);
+            }
+            store.remove(appointment);
+            store.add(rescheduled);
+            this.patients.remove(key, appointment);
+        } finally {
+            unlock(locked);
+        }
+        return new BookingResult(BookingStatus.RESCHEDULED, "Rescheduled to " + rescheduled, rescheduled);
+    }
+
+    /**
+     * Finds the appointment of a patient at the given date and timeslot
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the booked Appointment, or null if there is none
+     */
+    @Override
+    public Appointment findAppointment(Profile profile, Date date, Timeslot timeslot) {
+        Appointment appointment = this.patients.get(new PatientSlot(profile, date.toEpochDay(), timeslot));
+        return appointment == null || appointment.getProvider() == null ? null : appointment;
+    }
+
+    /**
+     * Returns every booked appointment
+     * Each stripe is copied under its lock, so the list may mix moments
+     * while bookings are running
+     * @return a new list of the appointments, grouped by stripe
+     */
+    @Override
+    public List<Appointment> getAppointments() {
+        List<Appointment> appointments = new List<>();
+        for (Stripe stripe : this.stripes) {
+            stripe.lock.lock();
+            try {
+                appointments.ensureCapacity(appointments.size() + stripe.store.size());
+                for (Appointment appointment : stripe.store) {
+                    appointments.addLast(appointment);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Returns the number of booked appointments
+     * @return the number of appointments
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.store.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Getter method for the number of lock stripes
+     * @return the number of stripes
+     */
+    public int getStripes() {
+        return this.stripes.length;
+    }
+
+    /**
+     * Checks if a provider is booked at a date and timeslot
+     * A technician counts as booked when any technician is, as in
+     * ClinicScheduler, so every location of the date must be locked
+     * @param provider the provider
+     * @param stores the locked store of each location, indexed by ordinal
+     * @param date the date to check
+     * @param timeslot the timeslot to check
+     * @return true if the provider is booked, false otherwise
+     */
+    private boolean isBooked(Provider provider, AppointmentStore[] stores, Date date,
+                             Timeslot timeslot) {
+        if (provider instanceof Doctor doctor) {
+            return stores[doctor.getLocation().ordinal()].isDoctorBooked(doctor.getNpi(), date, timeslot);
+        }
+        for (Location location : this.imagingLocations) {
+            if (stores[location.ordinal()].hasTechnicianAppointment(date, timeslot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Locks the stripes of every location with technicians on a day, in
+     * order of stripe
+     * @param day the epoch day
+     * @param stores receives the store of each locked location, indexed by
+     *               location ordinal
+     * @return the locked stripes, to be passed to unlock
+     */
+    private Stripe[] lockImaging(int day, AppointmentStore[] stores) {
+        int[] indexes = new int[this.imagingLocations.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = stripeIndex(day, this.imagingLocations[i]);
+            stores[this.imagingLocations[i].ordinal()] = this.stripes[indexes[i]].store;
+        }
+        Arrays.sort(indexes);
+        Stripe[] locked = new Stripe[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            locked[i] = this.stripes[indexes[i]];
+            locked[i].lock.lock();
+        }
+        return locked;
+    }
+
+    /**
+     * Unlocks stripes in the reverse order they were locked
+     * @param locked the locked stripes
+     */
+    private static void unlock(Stripe[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) {
+            locked[i].lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the stripe of a date and location
+     * @param day the epoch day
+     * @param location the location
+     * @return the stripe holding the appointments of that day and location
+     */
+    private Stripe stripe(int day, Location location) {
+        return this.stripes[stripeIndex(day, location)];
+    }
+
+    /**
+     * Returns the index of the stripe of a date and location
+     * @param day the epoch day
+     * @param location the location
+     * @return the index of the stripe
+     */
+    private int stripeIndex(int day, Location location) {
+        int hash = day * HASH_MULTIPLIER + location.ordinal();
+        hash ^= hash >>> 16;
+        return hash & (this.stripes.length - 1);
+    }
+
+    /**
+     * A lock and the appointments of the dates and locations it guards
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AppointmentStore store = new AppointmentStore();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package scheduler;
+import util.Date;
+
+/**
+ * This class assigns an imaging appointment to the free technician whose
+ * room has been free the longest that day, spreading bookings across the
+ * rooms of every location instead of filling the first one in turn
+ * A room has been free since just after its last booked timeslot before
+ * the requested one, or since the start of the day, and ties go to the
+ * technician whose turn comes first
+ * @author Keshav Dave, Danny Watson
+ */
+final class EarliestFreeRoomAssignment implements ImagingAssignmentStrategy {
+    // Variables
+    private final TechnicianRotation rotation;
+    private final int[] free;
+
+    /**
+     * Creates the strategy for a number of technicians
+     * @param technicians the technicians, in order of their turns
+     */
+    EarliestFreeRoomAssignment(Technician[] technicians) {
+        this.rotation = new TechnicianRotation(technicians);
+        this.free = new int[technicians.length];
+    }
+
+    /**
+     * Assigns the free technician whose room became free earliest
+     * @param store the store holding the booked appointments
+     * @param patient the profile of the patient, not used by this strategy
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the technician, or null if none is free
+     */
+    @Override
+    public Technician assign(AppointmentStore store, Profile patient, Date date,
+                             Timeslot timeslot, Radiology room) {
+        int day = date.toEpochDay();
+        long slot = OccupancyGrid.bit(timeslot);
+        int count = this.rotation.free(store, day, slot, room, this.free);
+        if (count == 0) {
+            return null;
+        }
+        int chosen = -1;
+        int earliest = Integer.MAX_VALUE;
+        for (int i = 0; i < count && earliest > 0; i++) {
+            Technician technician = this.rotation.get(this.free[i]);
+            long before = store.getRoomDayMask(technician.getLocation(), room, day) & (slot - 1);
+            int freeSince = Long.SIZE - Long.numberOfLeadingZeros(before);
+            if (freeSince < earliest) {
+                earliest = freeSince;
+                chosen = this.free[i];
+            }
+        }
+        this.rotation.advance(chosen);
+        return this.rotation.get(chosen);
+    }
+
+    /**
+     * Returns the technicians in order of their turns
+     * @return a new array of the technicians
+     */
+    @Override
+    public Technician[] order() {
+        return this.rotation.order();
+    }
+}
\ No newline at end of file
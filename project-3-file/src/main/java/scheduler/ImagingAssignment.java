@@ -0,0 +1,56 @@
+package scheduler;
+
+/**
+ * This class represents the policies for assigning imaging appointments to
+ * technicians, each creating an ImagingAssignmentStrategy for the
+ * technicians of a clinic
+ * Every policy only picks technicians who are free with their room free,
+ * and breaks ties by the turns of a TechnicianRotation
+ * @author Keshav Dave, Danny Watson
+ */
+public enum ImagingAssignment {
+    /**
+     * The next free technician in turn, the policy of the original scheduler
+     */
+    ROUND_ROBIN {
+        @Override
+        public ImagingAssignmentStrategy create(Technician[] technicians) {
+            return new TechnicianRotation(technicians);
+        }
+    },
+    /**
+     * The free technician with the fewest appointments on the day
+     */
+    LEAST_LOADED {
+        @Override
+        public ImagingAssignmentStrategy create(Technician[] technicians) {
+            return new LeastLoadedAssignment(technicians);
+        }
+    },
+    /**
+     * A free technician at the location the patient was last sent to
+     */
+    LOCATION_AFFINE {
+        @Override
+        public ImagingAssignmentStrategy create(Technician[] technicians) {
+            return new LocationAffineAssignment(technicians);
+        }
+    },
+    /**
+     * The free technician whose room has been free the longest that day
+     */
+    EARLIEST_FREE_ROOM {
+        @Override
+        public ImagingAssignmentStrategy create(Technician[] technicians) {
+            return new EarliestFreeRoomAssignment(technicians);
+        }
+    };
+
+    /**
+     * Creates the strategy of this policy
+     * @param technicians the technicians of the clinic, in order of their
+     *                    turns
+     * @return a new strategy
+     */
+    public abstract ImagingAssignmentStrategy create(Technician[] technicians);
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package scheduler;
+import util.Date;
+
+/**
+ * This interface is a policy for choosing the technician of an imaging
+ * appointment
+ * A strategy is given the technicians of the clinic when it is created by
+ * its ImagingAssignment, and picks one of those who is free at the
+ * requested date and timeslot and whose location has the room free
+ * Strategies may keep state between assignments, such as whose turn it is
+ * @author Keshav Dave, Danny Watson
+ */
+public interface ImagingAssignmentStrategy {
+    /**
+     * Chooses the technician of an imaging appointment
+     * @param store the store holding the booked appointments
+     * @param patient the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the technician, or null if none is free
+     */
+    Technician assign(AppointmentStore store, Profile patient, Date date, Timeslot timeslot,
+                      Radiology room);
+
+    /**
+     * Returns the technicians in the order the strategy tries them when
+     * nothing else sets them apart, used to name the technician of an
+     * open slot
+     * @return a new array of the technicians
+     */
+    Technician[] order();
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package scheduler;
+import util.List;
+
+/**
+ * This class replays imaging requests through each imaging assignment
+ * policy, so the policies can be compared on the same demand
+ * Every replay books into a new ClinicScheduler with the same providers,
+ * through the same validation as the GUI
+ * A request whose timeslot has no free technician and room is retried at
+ * each later timeslot of its day, and the number of timeslots it was
+ * pushed back is its wait
+ * @author Keshav Dave, Danny Watson
+ */
+public class ImagingReplay {
+    // Variables
+    private final List<Provider> providers;
+
+    /**
+     * Constructor for the ImagingReplay class
+     * @param providers the providers of the clinic, in the order they were
+     *                  read
+     */
+    public ImagingReplay(List<Provider> providers) {
+        this.providers = providers;
+    }
+
+    /**
+     * Replays imaging requests under a policy
+     * Only the date, timeslot, patient and room of a request are used,
+     * its technician is assigned again by the policy
+     * @param policy the imaging assignment policy to use
+     * @param requests the requests, in the order they were made
+     * @return the metrics of the replay
+     */
+    public AssignmentMetrics replay(ImagingAssignment policy, List<Imaging> requests) {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        scheduler.setProviders(this.providers);
+        scheduler.setImagingAssignment(policy);
+        AssignmentMetrics metrics = new AssignmentMetrics(policy,
+                TechnicianRotation.turns(this.providers));
+        long start = System.nanoTime();
+        for (Imaging request : requests) {
+            replay(scheduler, request, metrics);
+        }
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }
+
+    /**
+     * Books one request at its timeslot or the first later timeslot of its
+     * day with a free technician and room
+     * @param scheduler the scheduler to book into
+     * @param request the imaging request
+     * @param metrics the metrics to record the outcome in
+     */
+    private static void replay(ClinicScheduler scheduler, Imaging request,
+                               AssignmentMetrics metrics) {
+        Profile profile = request.getPatient().getProfile();
+        int number = request.getTimeslot().getNumber();
+        for (int wait = 0; number + wait <= Timeslot.NUMBER_OF_TIMESLOTS; wait++) {
+            BookingResult result = scheduler.bookImaging(profile, request.getDate(),
+                    Timeslot.getTimeslotByNumber(number + wait), request.getRoom());
+            if (result.isSuccessful()) {
+                metrics.recordServed((Imaging) result.getAppointment(), wait);
+                return;
+            }
+            if (result.getStatus() != BookingStatus.PROVIDER_UNAVAILABLE
+                    && result.getStatus() != BookingStatus.PATIENT_CONFLICT) {
+                metrics.recordRejected();
+                return;
+            }
+        }
+        metrics.recordUnserved();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package scheduler;
+import util.Date;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * This class writes and reads the binary form of appointments used by the
+ * journal and snapshot files
+ * Dates are epoch days, timeslots are their numbers and strings are an
+ * unsigned short length followed by UTF-8 bytes
+ * A doctor is written as its npi and a technician as its profile, and both
+ * are resolved against the providers of a ClinicScheduler when read back
+ * Values are written through a DataOutput and read from a ByteBuffer, so
+ * whole files can be read in one go and decoded without copying
+ * @author Keshav Dave, Danny Watson
+ */
+final class JournalCodec {
+    // Constants
+    static final byte DOCTOR = 0;
+    static final byte TECHNICIAN = 1;
+    static final byte NO_ROOM = -1;
+
+    // Variables
+    private final ClinicScheduler scheduler;
+    private final HashMap<Profile, Technician> technicians = new HashMap<>();
+
+    /**
+     * Creates a codec that resolves providers against a scheduler
+     * @param scheduler the scheduler holding the providers
+     */
+    JournalCodec(ClinicScheduler scheduler) {
+        this.scheduler = scheduler;
+        for (Provider provider : scheduler.getProviders()) {
+            if (provider instanceof Technician technician) {
+                this.technicians.put(technician.getProfile(), technician);
+            }
+        }
+    }
+
+    /**
+     * Writes a string
+     * @param out the output to write to
+     * @param value the string to write
+     * @throws IOException if the string cannot be written
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Character.MAX_VALUE) {
+            throw new IOException("String too long to journal: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string
+     * @param buffer the buffer to read from
+     * @return the string
+     */
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getChar();
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a profile as its names and the epoch day of its date of birth
+     * @param out the output to write to
+     * @param profile the profile to write
+     * @throws IOException if the profile cannot be written
+     */
+    static void writeProfile(DataOutput out, Profile profile) throws IOException {
+        writeString(out, profile.getfname());
+        writeString(out, profile.getlname());
+        out.writeInt(profile.getDOB().toEpochDay());
+    }
+
+    /**
+     * Reads a profile
+     * @param buffer the buffer to read from
+     * @return the profile
+     */
+    static Profile readProfile(ByteBuffer buffer) {
+        String fname = readString(buffer);
+        String lname = readString(buffer);
+        return new Profile(fname, lname, Date.fromEpochDay(buffer.getInt()));
+    }
+
+    /**
+     * Writes a provider, a doctor as its npi and a technician as its profile
+     * @param out the output to write to
+     * @param provider the provider to write
+     * @throws IOException if the provider cannot be written
+     */
+    static void writeProvider(DataOutput out, Person provider) throws IOException {
+        if (provider instanceof Doctor doctor) {
+            out.writeByte(DOCTOR);
+            writeString(out, doctor.getNpi());
+        } else {
+            out.writeByte(TECHNICIAN);
+            writeProfile(out, provider.getProfile());
+        }
+    }
+
+    /**
+     * Reads a provider and finds it among the providers of the scheduler
+     * @param buffer the buffer to read from
+     * @return the provider, or null if the scheduler has no such provider
+     * @throws IOException if the provider kind is unknown
+     */
+    Person readProvider(ByteBuffer buffer) throws IOException {
+        byte kind = buffer.get();
+        if (kind == DOCTOR) {
+            return this.scheduler.findDoctor(readString(buffer));
+        }
+        if (kind == TECHNICIAN) {
+            return findTechnician(readProfile(buffer));
+        }
+        throw new IOException("Unknown provider kind " + kind);
+    }
+
+    /**
+     * Finds a technician of the scheduler by profile
+     * @param profile the profile of the technician
+     * @return the technician, or null if the scheduler has no such technician
+     */
+    Technician findTechnician(Profile profile) {
+        return this.technicians.get(profile);
+    }
+
+    /**
+     * Writes an appointment
+     * The room is written as NO_ROOM unless the appointment is an Imaging
+     * @param out the output to write to
+     * @param appointment the appointment to write
+     * @throws IOException if the appointment cannot be written
+     */
+    static void writeAppointment(DataOutput out, Appointment appointment) throws IOException {
+        out.writeInt(appointment.getDate().toEpochDay());
+        out.writeByte(appointment.getTimeslot().getNumber());
+        writeProfile(out, appointment.getPatient().getProfile());
+        writeProvider(out, appointment.getProvider());
+        out.writeByte(room(appointment));
+    }
+
+    /**
+     * Reads an appointment
+     * @param buffer the buffer to read from
+     * @return the appointment, or null if its provider is no longer known
+     * @throws IOException if the appointment is malformed
+     */
+    Appointment readAppointment(ByteBuffer buffer) throws IOException {
+        Date date = Date.fromEpochDay(buffer.getInt());
+        Timeslot timeslot = readTimeslot(buffer);
+        Patient patient = new Patient(readProfile(buffer));
+        Person provider = readProvider(buffer);
+        byte room = buffer.get();
+        if (provider == null) {
+            return null;
+        }
+        return create(date, timeslot, patient, provider, room);
+    }
+
+    /**
+     * Reads a timeslot number
+     * @param buffer the buffer to read from
+     * @return the timeslot
+     * @throws IOException if the number is not a timeslot
+     */
+    static Timeslot readTimeslot(ByteBuffer buffer) throws IOException {
+        Timeslot timeslot = Timeslot.getTimeslotByNumber(buffer.get());
+        if (timeslot == null) {
+            throw new IOException("Unknown timeslot number");
+        }
+        return timeslot;
+    }
+
+    /**
+     * Returns the room of an appointment
+     * @param appointment the appointment
+     * @return the ordinal of the room, or NO_ROOM if it is not an Imaging
+     */
+    static byte room(Appointment appointment) {
+        if (appointment instanceof Imaging imaging) {
+            return (byte) imaging.getRoom().ordinal();
+        }
+        return NO_ROOM;
+    }
+
+    /**
+     * Creates an appointment, making it an Imaging if it has a room
+     * @param date the date of the appointment
+     * @param timeslot the timeslot of the appointment
+     * @param patient the patient of the appointment
+     * @param provider the provider of the appointment
+     * @param room the ordinal of the room, or NO_ROOM
+     * @return the appointment
+     * @throws IOException if the room is unknown
+     */
+    static Appointment create(Date date, Timeslot timeslot, Person patient, Person provider,
+                              byte room) throws IOException {
+        if (room == NO_ROOM) {
+            return new Appointment(date, timeslot, patient, provider);
+        }
+        Radiology[] rooms = Radiology.values();
+        if (room < 0 || room >= rooms.length) {
+            throw new IOException("Unknown room " + room);
+        }
+        return new Imaging(date, timeslot, patient, provider, rooms[room]);
+    }
+}
\ No newline at end of file
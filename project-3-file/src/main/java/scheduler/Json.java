@@ -0,0 +1,214 @@
+package scheduler;
+
+import java.util.HashMap;
+
+/**
+ * This class reads and writes the small JSON documents of the
+ * ScheduleServer
+ * Requests are flat objects whose values are strings, numbers, booleans
+ * or null, so only that subset is parsed, and every value is kept as its
+ * text
+ * @author Keshav Dave, Danny Watson
+ */
+final class Json {
+    // Constants
+    private static final int HEX = 16;
+    private static final int UNICODE_DIGITS = 4;
+    private static final char FIRST_PRINTABLE = ' ';
+
+    // Variables
+    private final String text;
+    private int index;
+
+    /**
+     * Creates a parser over a document
+     * @param text the JSON text
+     */
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a flat JSON object
+     * Null values are left out of the map
+     * @param text the JSON text
+     * @return the fields of the object, by name
+     * @throws IllegalArgumentException if the text is not a flat object
+     */
+    static HashMap<String, String> parseObject(String text) {
+        Json parser = new Json(text);
+        HashMap<String, String> fields = new HashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String name = parser.readString();
+                parser.expect(':');
+                String value = parser.readValue();
+                if (value != null) {
+                    fields.put(name, value);
+                }
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.skipWhitespace();
+        if (parser.index != text.length()) {
+            throw parser.error("Unexpected text after the object");
+        }
+        return fields;
+    }
+
+    /**
+     * Appends a string as a quoted JSON string
+     * @param out the builder to append to
+     * @param value the string, or null for a JSON null
+     * @return the builder
+     */
+    static StringBuilder appendString(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < FIRST_PRINTABLE) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Reads a string, number, boolean or null value
+     * @return the text of the value, or null for a JSON null
+     */
+    private String readValue() {
+        skipWhitespace();
+        if (this.index < this.text.length() && this.text.charAt(this.index) == '"') {
+            return readString();
+        }
+        int start = this.index;
+        while (this.index < this.text.length() && isLiteral(this.text.charAt(this.index))) {
+            this.index++;
+        }
+        String literal = this.text.substring(start, this.index);
+        if (literal.isEmpty()) {
+            throw error("Expected a string, number, boolean or null");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    /**
+     * Checks whether a character can be part of a number or keyword
+     * @param c the character
+     * @return true if it is a letter, digit, sign, point or exponent
+     */
+    private static boolean isLiteral(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.';
+    }
+
+    /**
+     * Reads a quoted string, resolving its escapes
+     * @return the string without quotes
+     */
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (this.index < this.text.length()) {
+            char c = this.text.charAt(this.index++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (this.index >= this.text.length()) {
+                break;
+            }
+            char escape = this.text.charAt(this.index++);
+            switch (escape) {
+                case '"', '\\', '/' -> value.append(escape);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> value.append(readUnicode());
+                default -> throw error("Invalid escape \\" + escape);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * Reads the four hex digits of a unicode escape
+     * @return the escaped character
+     */
+    private char readUnicode() {
+        if (this.index + UNICODE_DIGITS > this.text.length()) {
+            throw error("Invalid unicode escape");
+        }
+        int code = 0;
+        for (int i = 0; i < UNICODE_DIGITS; i++) {
+            int digit = Character.digit(this.text.charAt(this.index++), HEX);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            code = code * HEX + digit;
+        }
+        return (char) code;
+    }
+
+    /**
+     * Skips whitespace and the expected character
+     * @param c the character that must come next
+     */
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    /**
+     * Skips whitespace and the given character if it comes next
+     * @param c the character to look for
+     * @return true if the character was skipped, false otherwise
+     */
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (this.index < this.text.length() && this.text.charAt(this.index) == c) {
+            this.index++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves past spaces, tabs and line breaks
+     */
+    private void skipWhitespace() {
+        while (this.index < this.text.length() && Character.isWhitespace(this.text.charAt(this.index))) {
+            this.index++;
+        }
+    }
+
+    /**
+     * Creates the exception for malformed JSON
+     * @param message what was wrong
+     * @return the exception, with the position in the text
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + this.index + ".");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package scheduler;
+import util.Date;
+
+/**
+ * This class assigns an imaging appointment to the free technician with
+ * the fewest appointments on its day, so busy technicians are spared
+ * while others sit idle
+ * The load of a technician is the number of booked timeslots in its day
+ * mask, and ties go to the technician whose turn comes first
+ * @author Keshav Dave, Danny Watson
+ */
+final class LeastLoadedAssignment implements ImagingAssignmentStrategy {
+    // Variables
+    private final TechnicianRotation rotation;
+    private final int[] free;
+
+    /**
+     * Creates the strategy for a number of technicians
+     * @param technicians the technicians, in order of their turns
+     */
+    LeastLoadedAssignment(Technician[] technicians) {
+        this.rotation = new TechnicianRotation(technicians);
+        this.free = new int[technicians.length];
+    }
+
+    /**
+     * Assigns the free technician with the fewest appointments on the day
+     * @param store the store holding the booked appointments
+     * @param patient the profile of the patient, not used by this strategy
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the technician, or null if none is free
+     */
+    @Override
+    public Technician assign(AppointmentStore store, Profile patient, Date date,
+                             Timeslot timeslot, Radiology room) {
+        int day = date.toEpochDay();
+        int count = this.rotation.free(store, day, OccupancyGrid.bit(timeslot), room, this.free);
+        if (count == 0) {
+            return null;
+        }
+        int chosen = this.free[0];
+        int least = Long.bitCount(store.getTechnicianDayMask(this.rotation.get(chosen), day));
+        for (int i = 1; i < count && least > 0; i++) {
+            int load = Long.bitCount(store.getTechnicianDayMask(this.rotation.get(this.free[i]), day));
+            if (load < least) {
+                least = load;
+                chosen = this.free[i];
+            }
+        }
+        this.rotation.advance(chosen);
+        return this.rotation.get(chosen);
+    }
+
+    /**
+     * Returns the technicians in order of their turns
+     * @return a new array of the technicians
+     */
+    @Override
+    public Technician[] order() {
+        return this.rotation.order();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package scheduler;
+import util.Date;
+
+import java.util.HashMap;
+
+/**
+ * This class assigns an imaging appointment to a free technician at the
+ * location the patient was last sent to, so patients keep going to the
+ * same clinic
+ * A patient seen for the first time, or whose location has no free
+ * technician and room, gets the next free technician in turn, and that
+ * location becomes the patient's
+ * @author Keshav Dave, Danny Watson
+ */
+final class LocationAffineAssignment implements ImagingAssignmentStrategy {
+    // Variables
+    private final TechnicianRotation rotation;
+    private final int[] free;
+    private final HashMap<Profile, Location> lastLocation = new HashMap<>();
+
+    /**
+     * Creates the strategy for a number of technicians
+     * @param technicians the technicians, in order of their turns
+     */
+    LocationAffineAssignment(Technician[] technicians) {
+        this.rotation = new TechnicianRotation(technicians);
+        this.free = new int[technicians.length];
+    }
+
+    /**
+     * Assigns a free technician at the last location of the patient, or
+     * the next free technician in turn
+     * @param store the store holding the booked appointments
+     * @param patient the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the technician, or null if none is free
+     */
+    @Override
+    public Technician assign(AppointmentStore store, Profile patient, Date date,
+                             Timeslot timeslot, Radiology room) {
+        int count = this.rotation.free(store, date.toEpochDay(), OccupancyGrid.bit(timeslot),
+                room, this.free);
+        if (count == 0) {
+            return null;
+        }
+        int chosen = this.free[0];
+        Location preferred = this.lastLocation.get(patient);
+        if (preferred != null) {
+            for (int i = 0; i < count; i++) {
+                if (this.rotation.get(this.free[i]).getLocation() == preferred) {
+                    chosen = this.free[i];
+                    break;
+                }
+            }
+        }
+        Technician technician = this.rotation.get(chosen);
+        this.lastLocation.put(patient, technician.getLocation());
+        this.rotation.advance(chosen);
+        return technician;
+    }
+
+    /**
+     * Returns the technicians in order of their turns
+     * @return a new array of the technicians
+     */
+    @Override
+    public Technician[] order() {
+        return this.rotation.order();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,441 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * This class gives random access to a schedule snapshot file through a
+ * read-only memory map, without reading the appointments into objects
+ * The file is a header, a provider roster, a profile table, the
+ * appointment records and a heap of strings, followed by a CRC32
+ * Every roster entry, profile and appointment has a fixed width, so the
+ * fields of appointment i are read straight from the map at
+ * records + i * RECORD_SIZE; strings are offsets into the heap
+ * Appointment records are sorted by epoch day and timeslot, so the records
+ * of one timeslot are found with a binary search
+ * Profiles, patients and appointments are only decoded when asked for, and
+ * are then cached so the same objects are returned again
+ * Records can be marked as removed, for appointments cancelled or moved
+ * after the snapshot was loaded
+ * @author Keshav Dave, Danny Watson
+ */
+public class MappedSchedule {
+    // Constants
+    static final int MAGIC = 0x434C4E53;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 48;
+    static final int ROSTER_SIZE = 23;
+    static final int PROFILE_SIZE = 12;
+    static final int RECORD_SIZE = 14;
+    static final int CHECKSUM_SIZE = Integer.BYTES;
+    static final int NONE = -1;
+    static final int ROSTER_LOCATION = 1;
+    static final int ROSTER_SPECIALTY = 2;
+    static final int ROSTER_RATE = 3;
+    static final int ROSTER_FNAME = 7;
+    static final int ROSTER_LNAME = 11;
+    static final int ROSTER_DOB = 15;
+    static final int ROSTER_NPI = 19;
+    private static final int TIMESLOT_OFFSET = 4;
+    private static final int PROFILE_OFFSET = 5;
+    private static final int PROVIDER_OFFSET = 9;
+    private static final int ROOM_OFFSET = 13;
+    private static final int LNAME_OFFSET = 4;
+    private static final int DOB_OFFSET = 8;
+    private static final int KEY_SHIFT = 4;
+
+    // Variables
+    private final ByteBuffer buffer;
+    private final int baseSegment;
+    private final int rosterSize;
+    private final int profileCount;
+    private final int count;
+    private final int roster;
+    private final int profiles;
+    private final int records;
+    private final int strings;
+    private final Profile[] profileCache;
+    private final Patient[] patientCache;
+    private final BitSet removed;
+    private Person[] providers;
+    private Appointment[] appointmentCache;
+    private int live;
+
+    /**
+     * Reads the header of a mapped snapshot
+     * @param buffer the mapped file, without its checksum
+     * @throws IOException if the header is not valid
+     */
+    private MappedSchedule(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a schedule snapshot");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(Integer.BYTES));
+        }
+        this.baseSegment = buffer.getInt(2 * Integer.BYTES);
+        this.rosterSize = buffer.getInt(3 * Integer.BYTES);
+        this.profileCount = buffer.getInt(4 * Integer.BYTES);
+        this.count = buffer.getInt(5 * Integer.BYTES);
+        this.roster = buffer.getInt(6 * Integer.BYTES);
+        this.profiles = buffer.getInt(7 * Integer.BYTES);
+        this.records = buffer.getInt(8 * Integer.BYTES);
+        this.strings = buffer.getInt(9 * Integer.BYTES);
+        if (this.roster != HEADER_SIZE
+                || this.profiles != this.roster + this.rosterSize * ROSTER_SIZE
+                || this.records != this.profiles + this.profileCount * PROFILE_SIZE
+                || this.strings != this.records + this.count * RECORD_SIZE
+                || this.strings > buffer.limit()) {
+            throw new IOException("Snapshot tables do not match its header");
+        }
+        this.profileCache = new Profile[this.profileCount];
+        this.patientCache = new Patient[this.profileCount];
+        this.removed = new BitSet(this.count);
+        this.live = this.count;
+    }
+
+    /**
+     * Maps a snapshot file and checks its checksum
+     * @param file the snapshot file
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be mapped or is corrupt
+     */
+    public static MappedSchedule open(Path file) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE + CHECKSUM_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " has an invalid size");
+            }
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int end = map.limit() - CHECKSUM_SIZE;
+        CRC32 checksum = new CRC32();
+        checksum.update(map.duplicate().limit(end));
+        if ((int) checksum.getValue() != map.getInt(end)) {
+            throw new IOException("Snapshot " + file + " is corrupt");
+        }
+        return new MappedSchedule(map.duplicate().limit(end));
+    }
+
+    /**
+     * Finds the providers of the roster among the providers of a scheduler
+     * Records whose provider the scheduler does not have are marked removed
+     * @param scheduler the scheduler holding the providers
+     */
+    public void resolve(ClinicScheduler scheduler) {
+        JournalCodec codec = new JournalCodec(scheduler);
+        this.providers = new Person[this.rosterSize];
+        for (int id = 0; id < this.rosterSize; id++) {
+            int entry = this.roster + id * ROSTER_SIZE;
+            if (this.buffer.get(entry) == JournalCodec.DOCTOR) {
+                this.providers[id] = scheduler.findDoctor(
+                        string(this.buffer.getInt(entry + ROSTER_NPI)));
+            } else {
+                this.providers[id] = codec.findTechnician(rosterProfile(entry));
+            }
+        }
+        for (int i = 0; i < this.count; i++) {
+            if (this.providers[getProviderId(i)] == null) {
+                remove(i);
+            }
+        }
+    }
+
+    /**
+     * Creates the providers stored in the roster of the snapshot
+     * @return new providers, in roster order
+     */
+    public List<Provider> getRoster() {
+        List<Provider> list = new List<>();
+        Location[] locations = Location.values();
+        Specialty[] specialties = Specialty.values();
+        for (int id = 0; id < this.rosterSize; id++) {
+            int entry = this.roster + id * ROSTER_SIZE;
+            Profile profile = rosterProfile(entry);
+            Location location = locations[this.buffer.get(entry + ROSTER_LOCATION)];
+            if (this.buffer.get(entry) == JournalCodec.DOCTOR) {
+                list.addLast(new Doctor(profile, location,
+                        specialties[this.buffer.get(entry + ROSTER_SPECIALTY)],
+                        string(this.buffer.getInt(entry + ROSTER_NPI))));
+            } else {
+                list.addLast(new Technician(profile, location,
+                        this.buffer.getInt(entry + ROSTER_RATE)));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of providers in the roster
+     * @return the size of the roster
+     */
+    public int getRosterSize() {
+        return this.rosterSize;
+    }
+
+    /**
+     * Returns a provider of the roster, as resolved against the scheduler
+     * @param providerId the index of the provider in the roster
+     * @return the provider, or null if the scheduler does not have it
+     */
+    public Person getRosterProvider(int providerId) {
+        return this.providers[providerId];
+    }
+
+    /**
+     * Returns the number of the first journal segment not part of the
+     * snapshot
+     * @return the base segment number
+     */
+    public int getBaseSegment() {
+        return this.baseSegment;
+    }
+
+    /**
+     * Returns the number of appointment records in the file
+     * @return the number of records, including removed ones
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the number of records that have not been removed
+     * @return the number of live appointments
+     */
+    public int size() {
+        return this.live;
+    }
+
+    /**
+     * Checks if a record has been removed
+     * @param index the index of the record
+     * @return true if the record is removed, false otherwise
+     */
+    public boolean isRemoved(int index) {
+        return this.removed.get(index);
+    }
+
+    /**
+     * Returns the epoch day of a record
+     * @param index the index of the record
+     * @return the epoch day of the appointment
+     */
+    public int getEpochDay(int index) {
+        return this.buffer.getInt(this.records + index * RECORD_SIZE);
+    }
+
+    /**
+     * Returns the timeslot of a record
+     * @param index the index of the record
+     * @return the timeslot of the appointment
+     */
+    public Timeslot getTimeslot(int index) {
+        return Timeslot.getTimeslotByNumber(this.buffer.get(
+                this.records + index * RECORD_SIZE + TIMESLOT_OFFSET));
+    }
+
+    /**
+     * Returns the profile id of a record
+     * @param index the index of the record
+     * @return the index of the patient in the profile table
+     */
+    public int getProfileId(int index) {
+        return this.buffer.getInt(this.records + index * RECORD_SIZE + PROFILE_OFFSET);
+    }
+
+    /**
+     * Returns the provider id of a record
+     * @param index the index of the record
+     * @return the index of the provider in the roster
+     */
+    public int getProviderId(int index) {
+        return this.buffer.getInt(this.records + index * RECORD_SIZE + PROVIDER_OFFSET);
+    }
+
+    /**
+     * Returns the radiology room of a record
+     * @param index the index of the record
+     * @return the room, or null if the appointment is not an Imaging
+     */
+    public Radiology getRoom(int index) {
+        byte room = this.buffer.get(this.records + index * RECORD_SIZE + ROOM_OFFSET);
+        return room == JournalCodec.NO_ROOM ? null : Radiology.values()[room];
+    }
+
+    /**
+     * Returns the provider of a record, as resolved against the scheduler
+     * @param index the index of the record
+     * @return the provider of the appointment
+     */
+    public Person getProvider(int index) {
+        return this.providers[getProviderId(index)];
+    }
+
+    /**
+     * Returns a profile of the profile table, decoding it on first use
+     * @param profileId the index of the profile
+     * @return the profile
+     */
+    public Profile getProfile(int profileId) {
+        Profile profile = this.profileCache[profileId];
+        if (profile == null) {
+            int entry = this.profiles + profileId * PROFILE_SIZE;
+            profile = new Profile(string(this.buffer.getInt(entry)),
+                    string(this.buffer.getInt(entry + LNAME_OFFSET)),
+                    Date.fromEpochDay(this.buffer.getInt(entry + DOB_OFFSET)));
+            this.profileCache[profileId] = profile;
+        }
+        return profile;
+    }
+
+    /**
+     * Returns the appointment of a record, creating it on first use
+     * Appointments of the same patient share one Patient
+     * @param index the index of the record
+     * @return the appointment
+     */
+    public Appointment getAppointment(int index) {
+        if (this.appointmentCache == null) {
+            this.appointmentCache = new Appointment[this.count];
+        }
+        Appointment appointment = this.appointmentCache[index];
+        if (appointment == null) {
+            int profileId = getProfileId(index);
+            Patient patient = this.patientCache[profileId];
+            if (patient == null) {
+                patient = new Patient(getProfile(profileId));
+                this.patientCache[profileId] = patient;
+            }
+            Date date = Date.fromEpochDay(getEpochDay(index));
+            Radiology room = getRoom(index);
+            if (room == null) {
+                appointment = new Appointment(date, getTimeslot(index), patient, getProvider(index));
+            } else {
+                appointment = new Imaging(date, getTimeslot(index), patient, getProvider(index), room);
+            }
+            this.appointmentCache[index] = appointment;
+        }
+        return appointment;
+    }
+
+    /**
+     * Finds the live record of a patient at a day and timeslot
+     * @param profile the profile of the patient
+     * @param day the epoch day
+     * @param timeslot the timeslot
+     * @return the index of the record, or -1 if there is none
+     */
+    int find(Profile profile, int day, Timeslot timeslot) {
+        int key = key(day, timeslot.getNumber());
+        for (int i = firstRecord(key); i < this.count && recordKey(i) == key; i++) {
+            if (!this.removed.get(i) && getProfile(getProfileId(i)).equals(profile)) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the live appointments at a day and timeslot
+     * @param day the epoch day
+     * @param timeslot the timeslot
+     * @return the appointments of the timeslot
+     */
+    List<Appointment> getSlotAppointments(int day, Timeslot timeslot) {
+        List<Appointment> list = new List<>();
+        int key = key(day, timeslot.getNumber());
+        for (int i = firstRecord(key); i < this.count && recordKey(i) == key; i++) {
+            if (!this.removed.get(i)) {
+                list.addLast(getAppointment(i));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Marks a record as removed
+     * @param index the index of the record
+     */
+    void remove(int index) {
+        if (!this.removed.get(index)) {
+            this.removed.set(index);
+            this.live--;
+            if (this.appointmentCache != null) {
+                this.appointmentCache[index] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the profile of a roster entry
+     * @param entry the offset of the roster entry
+     * @return the profile of the provider
+     */
+    private Profile rosterProfile(int entry) {
+        return new Profile(string(this.buffer.getInt(entry + ROSTER_FNAME)),
+                string(this.buffer.getInt(entry + ROSTER_LNAME)),
+                Date.fromEpochDay(this.buffer.getInt(entry + ROSTER_DOB)));
+    }
+
+    /**
+     * Finds the first record at or after a day and timeslot key
+     * @param key the key of the day and timeslot
+     * @return the index of the first record with a key not less than it
+     */
+    private int firstRecord(int key) {
+        int low = 0;
+        int high = this.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (recordKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the day and timeslot key of a record
+     * @param index the index of the record
+     * @return the key of the record
+     */
+    private int recordKey(int index) {
+        int record = this.records + index * RECORD_SIZE;
+        return key(this.buffer.getInt(record), this.buffer.get(record + TIMESLOT_OFFSET));
+    }
+
+    /**
+     * Packs an epoch day and timeslot number into a key ordered by both
+     * @param day the epoch day
+     * @param timeslot the timeslot number
+     * @return the key
+     */
+    static int key(int day, int timeslot) {
+        return (day << KEY_SHIFT) | timeslot;
+    }
+
+    /**
+     * Decodes a string of the heap
+     * @param offset the offset of the string in the heap
+     * @return the string
+     */
+    private String string(int offset) {
+        int start = this.strings + offset;
+        byte[] bytes = new byte[this.buffer.getChar(start)];
+        this.buffer.get(start + Character.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
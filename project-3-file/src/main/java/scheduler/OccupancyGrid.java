@@ -0,0 +1,179 @@
+package scheduler;
+import util.Date;
+
+import java.util.Arrays;
+
+/**
+ * This class records which timeslots of which days are booked for a set of
+ * owners, such as doctors, technicians or radiology rooms
+ * Each owner is a small int id and each day is an epoch day; the twelve
+ * timeslots of one owner on one day are the low twelve bits of a long, so
+ * checking or changing a slot is a single array access and finding the
+ * first free slot of a day is a single bit operation
+ * The rows cover only the range of days that has been booked, starting at
+ * the first booked day, and grow when a day outside the range is booked
+ * Days before today cannot be booked, so when the rows grow past their end
+ * the days before today are dropped first, and a grid kept for a long
+ * session only covers about the booking window
+ * A day that has been dropped reads as free
+ * @author Keshav Dave, Danny Watson
+ */
+public class OccupancyGrid {
+    // Constants
+    public static final long FULL_DAY = (1L << Timeslot.NUMBER_OF_TIMESLOTS) - 1;
+    private static final int INITIAL_DAYS = 192;
+    private static final long[] EMPTY_ROW = new long[0];
+
+    // Variables
+    private long[][] rows = new long[0][];
+    private int firstDay;
+    private int days;
+
+    /**
+     * Checks if a timeslot of an owner is booked on a day
+     * @param owner the id of the owner
+     * @param day the epoch day
+     * @param timeslot the timeslot to check
+     * @return true if the timeslot is booked, false otherwise
+     */
+    public boolean isBooked(int owner, int day, Timeslot timeslot) {
+        return (getDayMask(owner, day) & bit(timeslot)) != 0;
+    }
+
+    /**
+     * Returns the booked timeslots of an owner on a day
+     * @param owner the id of the owner
+     * @param day the epoch day
+     * @return a mask with bit number - 1 set for every booked timeslot
+     */
+    public long getDayMask(int owner, int day) {
+        if (owner < 0 || owner >= this.rows.length) {
+            return 0;
+        }
+        int index = day - this.firstDay;
+        long[] row = this.rows[owner];
+        if (row == null || index < 0 || index >= row.length) {
+            return 0;
+        }
+        return row[index];
+    }
+
+    /**
+     * Marks a timeslot of an owner as booked on a day
+     * @param owner the id of the owner
+     * @param day the epoch day
+     * @param timeslot the timeslot to book
+     */
+    public void book(int owner, int day, Timeslot timeslot) {
+        long[] row = row(owner, day);
+        row[day - this.firstDay] |= bit(timeslot);
+    }
+
+    /**
+     * Marks a timeslot of an owner as free on a day
+     * @param owner the id of the owner
+     * @param day the epoch day
+     * @param timeslot the timeslot to free
+     */
+    public void release(int owner, int day, Timeslot timeslot) {
+        int index = day - this.firstDay;
+        if (owner >= 0 && owner < this.rows.length && this.rows[owner] != null && index >= 0
+                && index < this.rows[owner].length) {
+            this.rows[owner][index] &= ~bit(timeslot);
+        }
+    }
+
+    /**
+     * Finds the first free timeslot of an owner on a day
+     * @param owner the id of the owner
+     * @param day the epoch day
+     * @param from the number of the first timeslot to consider (1 to 12)
+     * @return the first free timeslot numbered from or later, or null if
+     * they are all booked
+     */
+    public Timeslot firstFreeTimeslot(int owner, int day, int from) {
+        long free = ~getDayMask(owner, day) & FULL_DAY & (FULL_DAY << (Math.max(from, 1) - 1));
+        if (free == 0) {
+            return null;
+        }
+        return Timeslot.getTimeslotByNumber(Long.numberOfTrailingZeros(free) + 1);
+    }
+
+    /**
+     * Returns the bit of a timeslot in a day mask
+     * @param timeslot the timeslot
+     * @return the mask with only the bit of the timeslot set
+     */
+    public static long bit(Timeslot timeslot) {
+        return 1L << (timeslot.getNumber() - 1);
+    }
+
+    /**
+     * Returns the row of an owner, growing the grid so it holds the day
+     * @param owner the id of the owner
+     * @param day the epoch day
+     * @return the row of the owner, covering the day
+     */
+    private long[] row(int owner, int day) {
+        if (this.days == 0) {
+            this.firstDay = day;
+            this.days = INITIAL_DAYS;
+        } else if (day < this.firstDay) {
+            shift(this.firstDay - day + this.days / 2);
+        } else if (day - this.firstDay >= this.days) {
+            int keep = Math.min(day, Date.today().toEpochDay());
+            if (keep > this.firstDay) {
+                trim(keep - this.firstDay);
+            }
+            if (day - this.firstDay >= this.days) {
+                this.days = Math.max(this.days * 2, day - this.firstDay + 1);
+            }
+        }
+        if (owner >= this.rows.length) {
+            this.rows = Arrays.copyOf(this.rows, Math.max(owner + 1, this.rows.length * 2));
+        }
+        long[] row = this.rows[owner];
+        if (row == null) {
+            row = EMPTY_ROW;
+        }
+        if (row.length < this.days) {
+            row = Arrays.copyOf(row, this.days);
+            this.rows[owner] = row;
+        }
+        return row;
+    }
+
+    /**
+     * Moves the first day of the grid later, dropping the days before it
+     * from every row
+     * @param pastDays the number of days to drop
+     */
+    private void trim(int pastDays) {
+        this.firstDay += pastDays;
+        this.days = Math.max(this.days - pastDays, 0);
+        for (int owner = 0; owner < this.rows.length; owner++) {
+            long[] row = this.rows[owner];
+            if (row != null) {
+                this.rows[owner] = row.length <= pastDays ? EMPTY_ROW
+                        : Arrays.copyOfRange(row, pastDays, row.length);
+            }
+        }
+    }
+
+    /**
+     * Moves the first day of the grid earlier, moving every row with it
+     * @param extraDays the number of days to add before the first day
+     */
+    private void shift(int extraDays) {
+        this.firstDay -= extraDays;
+        this.days += extraDays;
+        for (int owner = 0; owner < this.rows.length; owner++) {
+            long[] row = this.rows[owner];
+            if (row != null) {
+                long[] shifted = new long[this.days];
+                System.arraycopy(row, 0, shifted, extraDays, row.length);
+                this.rows[owner] = shifted;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,412 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a lock-free scheduling core for front desks competing for
+ * the same providers and timeslots
+ * Every doctor, technician and radiology room of a location has a mask of
+ * its booked timeslots for each day, and a booking claims its cell by
+ * setting the bit of its timeslot with a compare-and-set, so the desk that
+ * sets the bit first wins and the others see the provider as unavailable
+ * without ever waiting on a lock
+ * An imaging booking claims the cell of a technician and then the cell of
+ * the room at the technician's location, and gives the technician back if
+ * the room is taken before trying the next technician in turn
+ * Each day also counts the technicians booked or being booked at every
+ * timeslot; a technician reschedule claims the count of its new timeslot
+ * with one compare-and-set from zero, so two reschedules can never both
+ * find the timeslot free of technicians, the rule the striped core
+ * enforces under its lock
+ * The timeslot of the patient is reserved in a concurrent map before any
+ * cell is claimed, and the appointment replaces the reservation once its
+ * cells are held, so a cancel only ever releases cells that were claimed
+ * The turn of the technicians moves past each assigned technician, so
+ * assignment is round robin up to the order in which racing desks finish
+ * Requests are validated and answered with the same rules and messages as
+ * ClinicScheduler
+ * @author Keshav Dave, Danny Watson
+ */
+public class OptimisticScheduler implements BookingCore {
+    // Variables
+    private final HashMap<String, Doctor> doctors = new HashMap<>();
+    private final HashMap<String, Integer> doctorIds = new HashMap<>();
+    private final Technician[] technicians;
+    private final int technicianBase;
+    private final int roomBase;
+    private final int countBase;
+    private final int cellsPerDay;
+    private final ConcurrentHashMap<Integer, AtomicLongArray> days = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PatientSlot, Appointment> patients = new ConcurrentHashMap<>();
+    private final AtomicInteger turn = new AtomicInteger();
+
+    /**
+     * Constructor for the OptimisticScheduler class
+     * @param providers the providers of the clinic, in the order they were
+     *                  read
+     */
+    public OptimisticScheduler(List<Provider> providers) {
+        for (Provider provider : providers) {
+            if (provider instanceof Doctor doctor && !this.doctors.containsKey(doctor.getNpi())) {
+                this.doctorIds.put(doctor.getNpi(), this.doctors.size());
+                this.doctors.put(doctor.getNpi(), doctor);
+            }
+        }
+        this.technicians = TechnicianRotation.turns(providers);
+        this.technicianBase = this.doctors.size();
+        this.roomBase = this.technicianBase + this.technicians.length;
+        this.countBase = this.roomBase + Location.values().length * Radiology.values().length;
+        this.cellsPerDay = this.countBase + Timeslot.NUMBER_OF_TIMESLOTS;
+    }
+
+    /**
+     * Books an office appointment with a doctor
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param npi the NPI of the doctor
+     * @return the result of the booking
+     */
+    @Override
+    public BookingResult bookOffice(Profile profile, Date date, Timeslot timeslot, String npi) {
+        BookingResult invalid = ClinicScheduler.validateRequest(profile, date, timeslot);
+        if (invalid != null) {
+            return invalid;
+        }
+        Doctor doctor = npi == null ? null : this.doctors.get(npi);
+        if (doctor == null) {
+            return new BookingResult(BookingStatus.INVALID_PROVIDER,
+                    npi + " - provider doesn't exist.", null);
+        }
+        Patient patient = new Patient(profile);
+        PatientSlot key = new PatientSlot(profile, date.toEpochDay(), timeslot);
+        Appointment reservation = new Appointment(date, timeslot, patient, null);
+        if (this.patients.putIfAbsent(key, reservation) != null) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT,
+                    profile + " has an existing appointment at the same time slot.", null);
+        }
+        AtomicLongArray cells = cells(key.day);
+        if (!claim(cells, this.doctorIds.get(npi), OccupancyGrid.bit(timeslot))) {
+            this.patients.remove(key, reservation);
+            return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                    doctor + " is not available at " + timeslot, null);
+        }
+        Appointment appointment = new Appointment(date, timeslot, patient, doctor);
+        this.patients.replace(key, reservation, appointment);
+        return new BookingResult(BookingStatus.BOOKED, appointment + " booked.", appointment);
+    }
+
+    /**
+     * Books an imaging appointment with the next technician whose cell and
+     * room cell can both be claimed
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the result of the booking
+     */
+    @Override
+    public BookingResult bookImaging(Profile profile, Date date, Timeslot timeslot, Radiology room) {
+        BookingResult invalid = ClinicScheduler.validateRequest(profile, date, timeslot);
+        if (invalid != null) {
+            return invalid;
+        }
+        if (room == null) {
+            return new BookingResult(BookingStatus.INVALID_PROVIDER,
+                    "imaging service not provided.", null);
+        }
+        Patient patient = new Patient(profile);
+        PatientSlot key = new PatientSlot(profile, date.toEpochDay(), timeslot);
+        Appointment reservation = new Appointment(date, timeslot, patient, null);
+        if (this.patients.putIfAbsent(key, reservation) != null) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT,
+                    profile + " has an existing appointment at the same time slot.", null);
+        }
+        AtomicLongArray cells = cells(key.day);
+        long slot = OccupancyGrid.bit(timeslot);
+        cells.getAndIncrement(countCell(timeslot));
+        int roomsTaken = 0;
+        int start = this.turn.get();
+        for (int step = 0; step < this.technicians.length; step++) {
+            int index = (start + step) % this.technicians.length;
+            Technician technician = this.technicians[index];
+            int location = 1 << technician.getLocation().ordinal();
+            if ((roomsTaken & location) != 0 || !claim(cells, this.technicianBase + index, slot)) {
+                continue;
+            }
+            if (!claim(cells, roomCell(technician.getLocation(), room), slot)) {
+                release(cells, this.technicianBase + index, slot);
+                roomsTaken |= location;
+                continue;
+            }
+            this.turn.compareAndSet(start, (index + 1) % this.technicians.length);
+            Imaging appointment = new Imaging(date, timeslot, patient, technician, room);
+            this.patients.replace(key, reservation, appointment);
+            return new BookingResult(BookingStatus.BOOKED, appointment + " booked.", appointment);
+        }
+        cells.getAndDecrement(countCell(timeslot));
+        this.patients.remove(key, reservation);
+        return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                "Cannot find an available technician at all locations for " + room
+                        + " at " + timeslot, null);
+    }
+
+    /**
+     * Cancels an existing appointment, releasing its cells
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the result of the cancellation
+     */
+    @Override
+    public BookingResult cancel(Profile profile, Date date, Timeslot timeslot) {
+        PatientSlot key = new PatientSlot(profile, date.toEpochDay(), timeslot);
+        Appointment appointment = this.patients.get(key);
+        if (appointment == null || appointment.getProvider() == null
+                || !this.patients.remove(key, appointment)) {
+            return new BookingResult(BookingStatus.NOT_FOUND, date + " " + timeslot + " "
+                    + new Patient(profile) + "- appointment does not exist.", null);
+        }
+        releaseCells(appointment);
+        return new BookingResult(BookingStatus.CANCELLED, appointment.getDate() + " "
+                + appointment.getTimeslot() + " " + profile
+                + "- appointment has been cancelled.", appointment);
+    }
+
+    /**
+     * Reschedules an existing appointment to another timeslot on the same
+     * date with the same provider
+     * The cells of the new timeslot are claimed before the old appointment
+     * is given up, and released again if the old one was cancelled first
+     * An imaging appointment keeps its technician and room, and claims the
+     * cell of the room at the new timeslot too, as in ClinicScheduler
+     * A technician is only moved to a timeslot no technician holds, which
+     * is checked and claimed at once on the technician count of the slot
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the current timeslot of the appointment
+     * @param newTimeslot the timeslot to move the appointment to
+     * @return the result of the reschedule
+     */
+    @Override
+    public BookingResult reschedule(Profile profile, Date date, Timeslot timeslot,
+                                    Timeslot newTimeslot) {
+        Patient patient = new Patient(profile);
+        PatientSlot key = new PatientSlot(profile, date.toEpochDay(), timeslot);
+        Appointment appointment = this.patients.get(key);
+        if (appointment == null || appointment.getProvider() == null) {
+            return new BookingResult(BookingStatus.NOT_FOUND, "appointment does not exist", null);
+        }
+        if (newTimeslot == null) {
+            return new BookingResult(BookingStatus.INVALID_TIMESLOT, "Invalid timeslot.", null);
+        }
+        Person provider = appointment.getProvider();
+        PatientSlot newKey = new PatientSlot(profile, key.day, newTimeslot);
+        Appointment reservation = new Appointment(date, newTimeslot, patient, null);
+        if (this.patients.putIfAbsent(newKey, reservation) != null) {
+            return new BookingResult(BookingStatus.PATIENT_CONFLICT, provider instanceof Doctor
+                    ? profile + " has an existing appointment at the same time slot."
+                    : "Imaging appointment already exists for " + profile + " at this timeslot.",
+                    null);
+        }
+        AtomicLongArray cells = cells(key.day);
+        long slot = OccupancyGrid.bit(newTimeslot);
+        int cell = providerCell(provider);
+        boolean technician = provider instanceof Technician;
+        if (technician && !cells.compareAndSet(countCell(newTimeslot), 0, 1)) {
+            this.patients.remove(newKey, reservation);
+            return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                    provider + " is not available at " + newTimeslot, null);
+        }
+        if (!claim(cells, cell, slot)) {
+            if (technician) {
+                cells.getAndDecrement(countCell(newTimeslot));
+            }
+            this.patients.remove(newKey, reservation);
+            return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                    provider + " is not available at " + newTimeslot, null);
+        }
+        int roomCell = -1;
+        if (appointment instanceof Imaging imaging) {
+            roomCell = roomCell(((Provider) provider).getLocation(), imaging.getRoom());
+            if (!claim(cells, roomCell, slot)) {
+                releaseProvider(cells, provider, newTimeslot);
+                this.patients.remove(newKey, reservation);
+                return new BookingResult(BookingStatus.PROVIDER_UNAVAILABLE,
+                        imaging.getRoom() + " is not available at " + newTimeslot, null);
+            }
+        }
+        if (!this.patients.remove(key, appointment)) {
+            releaseProvider(cells, provider, newTimeslot);
+            if (roomCell >= 0) {
+                release(cells, roomCell, slot);
+            }
+            this.patients.remove(newKey, reservation);
+            return new BookingResult(BookingStatus.NOT_FOUND, "appointment does not exist", null);
+        }
+        Appointment rescheduled = ClinicScheduler.moved(appointment, newTimeslot, patient);
+        this.patients.replace(newKey, reservation, rescheduled);
+        releaseCells(appointment);
+        return new BookingResult(BookingStatus.RESCHEDULED, "Rescheduled to " + rescheduled, rescheduled);
+    }
+
+    /**
+     * Finds the appointment of a patient at the given date and timeslot
+     * @param profile the profile of the patient
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @return the booked Appointment, or null if there is none
+     */
+    @Override
+    public Appointment findAppointment(Profile profile, Date date, Timeslot timeslot) {
+        Appointment appointment = this.patients.get(new PatientSlot(profile, date.toEpochDay(), timeslot));
+        return appointment == null || appointment.getProvider() == null ? null : appointment;
+    }
+
+    /**
+     * Returns every booked appointment
+     * The list is read while bookings may be running, so it holds each
+     * appointment that was booked for the whole read and may hold others
+     * @return a new list of the appointments
+     */
+    @Override
+    public List<Appointment> getAppointments() {
+        List<Appointment> appointments = new List<>();
+        for (Appointment appointment : this.patients.values()) {
+            if (appointment.getProvider() != null) {
+                appointments.addLast(appointment);
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Returns the number of booked appointments
+     * @return the number of appointments
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Appointment appointment : this.patients.values()) {
+            if (appointment.getProvider() != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the cells of a day, creating them on first use
+     * @param day the epoch day
+     * @return the timeslot mask of every cell on the day
+     */
+    private AtomicLongArray cells(int day) {
+        AtomicLongArray cells = this.days.get(day);
+        if (cells == null) {
+            cells = this.days.computeIfAbsent(day, key -> new AtomicLongArray(this.cellsPerDay));
+        }
+        return cells;
+    }
+
+    /**
+     * Claims the timeslot of a cell
+     * @param cells the cells of the day
+     * @param cell the index of the cell
+     * @param slot the bit of the timeslot
+     * @return true if the timeslot was claimed, false if it was taken
+     */
+    private static boolean claim(AtomicLongArray cells, int cell, long slot) {
+        long mask;
+        do {
+            mask = cells.get(cell);
+            if ((mask & slot) != 0) {
+                return false;
+            }
+        } while (!cells.compareAndSet(cell, mask, mask | slot));
+        return true;
+    }
+
+    /**
+     * Releases the timeslot of a cell
+     * @param cells the cells of the day
+     * @param cell the index of the cell
+     * @param slot the bit of the timeslot
+     */
+    private static void release(AtomicLongArray cells, int cell, long slot) {
+        long mask;
+        do {
+            mask = cells.get(cell);
+        } while (!cells.compareAndSet(cell, mask, mask & ~slot));
+    }
+
+    /**
+     * Releases the cells of a cancelled or moved appointment
+     * @param appointment the appointment
+     */
+    private void releaseCells(Appointment appointment) {
+        AtomicLongArray cells = cells(appointment.getDate().toEpochDay());
+        long slot = OccupancyGrid.bit(appointment.getTimeslot());
+        releaseProvider(cells, appointment.getProvider(), appointment.getTimeslot());
+        if (appointment instanceof Imaging imaging) {
+            release(cells, roomCell(((Provider) imaging.getProvider()).getLocation(), imaging.getRoom()),
+                    slot);
+        }
+    }
+
+    /**
+     * Releases the cell of a provider at a timeslot, and the technician
+     * count of the timeslot after it for a technician, so the count never
+     * falls below the technician cells that hold the timeslot
+     * @param cells the cells of the day
+     * @param provider the doctor or technician
+     * @param timeslot the timeslot
+     */
+    private void releaseProvider(AtomicLongArray cells, Person provider, Timeslot timeslot) {
+        release(cells, providerCell(provider), OccupancyGrid.bit(timeslot));
+        if (provider instanceof Technician) {
+            cells.getAndDecrement(countCell(timeslot));
+        }
+    }
+
+    /**
+     * Returns the cell counting the technicians booked or being booked at a
+     * timeslot
+     * @param timeslot the timeslot
+     * @return the index of the cell
+     */
+    private int countCell(Timeslot timeslot) {
+        return this.countBase + timeslot.getNumber() - 1;
+    }
+
+    /**
+     * Returns the cell of a provider
+     * @param provider the doctor or technician
+     * @return the index of the cell
+     */
+    private int providerCell(Person provider) {
+        if (provider instanceof Doctor doctor) {
+            return this.doctorIds.get(doctor.getNpi());
+        }
+        for (int index = 0; index < this.technicians.length; index++) {
+            if (this.technicians[index] == provider) {
+                return this.technicianBase + index;
+            }
+        }
+        throw new IllegalArgumentException("Unknown provider " + provider);
+    }
+
+    /**
+     * Returns the cell of the radiology room of a location
+     * @param location the location of the room
+     * @param room the radiology room
+     * @return the index of the cell
+     */
+    private int roomCell(Location location, Radiology room) {
+        return this.roomBase + location.ordinal() * Radiology.values().length + room.ordinal();
+    }
+}
\ No newline at end of file
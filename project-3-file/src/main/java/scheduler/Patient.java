@@ -7,13 +7,16 @@ package scheduler;
  * and comparing patients based on the total charge for their visits
  * The patient has a profile that contains personal details, and each visit
  * contains information about an appointment and the provider's specialty
- * The visits are stored as a linked list, and charges are calculated by
- * traversing the list of visits
+ * The visits are stored as a linked list with a pointer to its last visit,
+ * and the total charge is kept up to date as visits are added and removed,
+ * so neither adding a visit nor reading the charge traverses the list
  * @author Keshav Dave, Daniel Watson
  */
 public class Patient extends Person {
     // Variables
     private Visit visit;
+    private Visit lastVisit;
+    private int totalCharge;
 
     /**
      * Constructor for the Patient class
@@ -25,31 +28,19 @@ public class Patient extends Person {
     }
 
     /**
-     * Calculates the total charge for all visits associated with the patient
-     * Traverses the linked list of visits and sums up the charges based on
-     * the provider's specialty
+     * Returns the total charge for all visits associated with the patient
+     * The total is the sum of the rates of the providers of the visits,
+     * kept up to date by addVisit and removeVisit
      * @return the total charge for all visits
      */
     public int charge() {
-        int totalCharge = 0;
-        Visit currentVisit = this.visit;
-
-        // Traverse the linked list of visits
-        while (currentVisit != null) {
-            // summations charge
-            totalCharge += ((Provider) currentVisit.getAppointment().getProvider()).rate();
-
-            // Move to the next visit in the list
-            currentVisit = currentVisit.getNext();
-        }
-
-        return totalCharge;
+        return this.totalCharge;
     }
 
     /**
      * Adds a new visit (appointment) to the patient's list of visits
      * If there are no visits, the new visit is set as the first visit
-     * Otherwise, the new visit is added at the end of the linked list
+     * Otherwise, the new visit is added after the last visit
      * @param appointment the appointment to be added as a visit*/
     public void addVisit(Appointment appointment) {
         Visit newVisit = new Visit(appointment);
@@ -58,12 +49,47 @@ public class Patient extends Person {
             visit = newVisit;
         }
         else {
-            Visit curr = visit;
-            while (curr.getNext() != null) {
-                curr = curr.getNext();
-            }
-            curr.setNext(newVisit); // Add the new visit at the end
+            lastVisit.setNext(newVisit); // Add the new visit at the end
         }
+        lastVisit = newVisit;
+        totalCharge += rate(appointment);
+    }
+
+    /**
+     * Removes the first visit for an appointment from the list of visits
+     * @param appointment the appointment of the visit to remove
+     * @return true if a visit was removed, false if there was none
+     */
+    public boolean removeVisit(Appointment appointment) {
+        Visit previous = null;
+        Visit curr = visit;
+        while (curr != null && !curr.getAppointment().equals(appointment)) {
+            previous = curr;
+            curr = curr.getNext();
+        }
+        if (curr == null) {
+            return false;
+        }
+        if (previous == null) {
+            visit = curr.getNext();
+        }
+        else {
+            previous.setNext(curr.getNext());
+        }
+        if (curr == lastVisit) {
+            lastVisit = previous;
+        }
+        totalCharge -= rate(curr.getAppointment());
+        return true;
+    }
+
+    /**
+     * Returns the charge of one visit, the rate of its provider
+     * @param appointment the appointment of the visit
+     * @return the charge of the visit
+     */
+    private static int rate(Appointment appointment) {
+        return ((Provider) appointment.getProvider()).rate();
     }
 
     /**
@@ -95,10 +121,21 @@ public class Patient extends Person {
         if (this == patient) {
             return true;
         }
-        if ( getClass() != patient.getClass()) {
+        if (patient == null || getClass() != patient.getClass()) {
             return false;
         }
         Patient other = (Patient) patient;
         return this.profile.equals(other.profile);
     }
+
+    /**
+     * Returns a hash code for the patient that agrees with equals
+     * Visits are not part of equality, so only the profile is hashed
+     * Overridden method
+     * @return the hash code of the patient
+     */
+    @Override
+    public int hashCode() {
+        return this.profile.hashCode();
+    }
 }
\ No newline at end of file
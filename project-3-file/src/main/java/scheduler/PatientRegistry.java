@@ -0,0 +1,184 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class gives every patient profile a stable integer id the first
+ * time it is seen, and keeps one canonical Profile per id
+ * Profiles are matched the way Profile.equals matches them, names ignoring
+ * case and the same date of birth, so indexes keyed by the id compare one
+ * int instead of two names and a date
+ * Ids are never reused, so a patient keeps the same id after their last
+ * appointment is cancelled
+ * Profiles are also kept in a tree ordered by upper case last name, first
+ * name and date of birth, so a name prefix search is a range of the tree
+ * and takes time in the number of results rather than the number of
+ * patients
+ * @author Keshav Dave, Danny Watson
+ */
+public class PatientRegistry {
+    // Constants
+    public static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final char SEPARATOR = '\u0000';
+    private static final char LAST_CHAR = Character.MAX_VALUE;
+    private static final int YEAR_DIGITS = 4;
+    private static final int MONTH_DIGITS = 2;
+    private static final int DAY_DIGITS = 2;
+    private static final int DECIMAL = 10;
+
+    // Variables
+    private final HashMap<Profile, Integer> ids = new HashMap<>();
+    private final TreeMap<String, Integer> byName = new TreeMap<>();
+    private Profile[] profiles = new Profile[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Finds the id of a profile, registering the profile if it is new
+     * @param profile the profile of the patient
+     * @return the id of the patient
+     */
+    public int register(Profile profile) {
+        Integer id = this.ids.get(profile);
+        if (id != null) {
+            return id;
+        }
+        if (this.size == this.profiles.length) {
+            this.profiles = Arrays.copyOf(this.profiles, this.size + (this.size >> 1));
+        }
+        int newId = this.size++;
+        this.profiles[newId] = profile;
+        this.ids.put(profile, newId);
+        this.byName.put(nameKey(profile, newId), newId);
+        return newId;
+    }
+
+    /**
+     * Finds the id of a profile without registering it
+     * @param profile the profile of the patient
+     * @return the id of the patient, or NONE if the profile is not registered
+     */
+    public int idOf(Profile profile) {
+        Integer id = this.ids.get(profile);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * Returns the canonical profile of an id
+     * @param id the id of the patient
+     * @return the first profile registered with that id
+     * @throws IndexOutOfBoundsException if no patient has the id
+     */
+    public Profile getProfile(int id) {
+        if (id < 0 || id >= this.size) {
+            throw new IndexOutOfBoundsException("Patient id " + id + " of " + this.size);
+        }
+        return this.profiles[id];
+    }
+
+    /**
+     * Registers a profile and returns its canonical instance, so equal
+     * profiles share one object and its strings
+     * @param profile the profile of the patient
+     * @return the canonical profile
+     */
+    public Profile canonical(Profile profile) {
+        int id = register(profile);
+        return this.profiles[id];
+    }
+
+    /**
+     * Finds the patients whose name starts with a prefix, in order of last
+     * name, first name and date of birth
+     * The prefix is a last name prefix, or a whole last name followed by
+     * whitespace and a first name prefix, ignoring case
+     * @param prefix the name prefix, such as "pat" or "patel jo"
+     * @param limit the most results to return
+     * @return the canonical profiles of the matching patients
+     */
+    public List<Profile> search(String prefix, int limit) {
+        String trimmed = prefix.trim();
+        List<Profile> results = new List<>();
+        if (trimmed.isEmpty() || limit <= 0) {
+            return results;
+        }
+        StringBuilder key = new StringBuilder(trimmed.length());
+        for (String part : trimmed.split("\\s+")) {
+            if (key.length() > 0) {
+                key.append(SEPARATOR);
+            }
+            appendUpperCase(key, part);
+        }
+        String from = key.toString();
+        for (Map.Entry<String, Integer> entry
+                : this.byName.subMap(from, true, from + LAST_CHAR, false).entrySet()) {
+            results.addLast(this.profiles[entry.getValue()]);
+            if (results.size() == limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Method to return the number of registered patients
+     * @return the number of ids given out
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Creates the key of a profile in the name tree
+     * The id at the end keeps profiles that fold to the same key apart
+     * @param profile the profile
+     * @param id the id of the profile
+     * @return the last name, first name, date of birth and id of the
+     * profile, in a form that sorts in that order
+     */
+    private static String nameKey(Profile profile, int id) {
+        StringBuilder key = new StringBuilder(profile.getlname().length()
+                + profile.getfname().length() + 2 * YEAR_DIGITS + 4);
+        appendUpperCase(key, profile.getlname());
+        key.append(SEPARATOR);
+        appendUpperCase(key, profile.getfname());
+        key.append(SEPARATOR);
+        Date dob = profile.getDOB();
+        appendDigits(key, dob.getYear(), YEAR_DIGITS);
+        appendDigits(key, dob.getMonth(), MONTH_DIGITS);
+        appendDigits(key, dob.getDay(), DAY_DIGITS);
+        return key.append(SEPARATOR).append(id).toString();
+    }
+
+    /**
+     * Appends a name in upper case, folding each character the way
+     * String.equalsIgnoreCase folds it
+     * @param key the builder to append to
+     * @param name the name
+     */
+    private static void appendUpperCase(StringBuilder key, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            key.append(Character.toUpperCase(name.charAt(i)));
+        }
+    }
+
+    /**
+     * Appends a number padded with leading zeros
+     * @param key the builder to append to
+     * @param value the non-negative number
+     * @param width the number of digits
+     */
+    private static void appendDigits(StringBuilder key, int value, int width) {
+        int start = key.length();
+        key.setLength(start + width);
+        for (int i = start + width - 1; i >= start; i--) {
+            key.setCharAt(i, (char) ('0' + value % DECIMAL));
+            value /= DECIMAL;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package scheduler;
+
+/**
+ * This class is the reservation key of a patient at a date and timeslot,
+ * used by the concurrent scheduling cores to keep a patient from being
+ * booked twice at the same time
+ * @author Keshav Dave, Danny Watson
+ */
+final class PatientSlot {
+    // Constants
+    private static final int HASH_MULTIPLIER = 31;
+
+    // Variables
+    final Profile profile;
+    final int day;
+    final int timeslot;
+
+    /**
+     * Constructor for the PatientSlot class
+     * @param profile the profile of the patient
+     * @param day the epoch day of the appointment
+     * @param timeslot the timeslot of the appointment
+     */
+    PatientSlot(Profile profile, int day, Timeslot timeslot) {
+        this.profile = profile;
+        this.day = day;
+        this.timeslot = timeslot.getNumber();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof PatientSlot key)) {
+            return false;
+        }
+        return this.day == key.day && this.timeslot == key.timeslot
+                && this.profile.equals(key.profile);
+    }
+
+    @Override
+    public int hashCode() {
+        return (HASH_MULTIPLIER * this.profile.hashCode() + this.day) * HASH_MULTIPLIER
+                + this.timeslot;
+    }
+}
\ No newline at end of file
@@ -49,13 +49,23 @@ public class Person implements Comparable<Person>{
         if (this == obj) {
             return true;
         }
-        if ( getClass() != obj.getClass()) {
+        if (obj == null || getClass() != obj.getClass()) {
             return false;
         }
         Person person = (Person) obj;
         return this.profile.equals(person.getProfile());
     }
 
+    /**
+     * Returns a hash code for the person that agrees with equals
+     * Overridden method
+     * @return the hash code of the profile of this person
+     */
+    @Override
+    public int hashCode() {
+        return this.profile.hashCode();
+    }
+
     /**
      * Compares this Person to another person based on their profile
      * comparison
@@ -9,10 +9,14 @@ import util.Date;
  * @author Keshav Dave, Daniel Watson
  */
 public class Profile implements Comparable <Profile> {
+    // Constants
+    private static final int HASH_MULTIPLIER = 31;
+
     // Variables
-    private String fname;
-    private String lname;
-    private Date   dob;
+    private final String fname;
+    private final String lname;
+    private final Date   dob;
+    private int hash; // cached hash code, 0 until first computed
 
     /**
      * Constructor for the Profile class
@@ -74,6 +78,7 @@ public class Profile implements Comparable <Profile> {
      * Compares this profile to another profile for ordering
      * The comparison is done based on last name, first name, and date of
      * birth in that order
+     * Names are compared ignoring case so the ordering agrees with equals
      * Overridden method
      * @param profile the profile to compare to
      * @return a negative integer, zero, or a positive integer as this
@@ -81,24 +86,49 @@ public class Profile implements Comparable <Profile> {
      */
     @Override
     public int compareTo(Profile profile) {
-        if (this.lname.compareTo(profile.lname) == 0) {
-            if ((this.fname.compareTo(profile.fname)) == 0) {
-                return (this.dob.compareTo(profile.dob));
-            }
-            if ((this.fname.compareTo(profile.fname)) > 0){
-                return 1;
-            }
-            if ((this.fname.compareTo(profile.fname)) < 0){
-                return -1;
-            }
+        int lastNameComparison = this.lname.compareToIgnoreCase(profile.lname);
+        if (lastNameComparison != 0) {
+            return lastNameComparison > 0 ? 1 : -1;
+        }
+        int firstNameComparison = this.fname.compareToIgnoreCase(profile.fname);
+        if (firstNameComparison != 0) {
+            return firstNameComparison > 0 ? 1 : -1;
         }
-        if (this.lname.compareTo(profile.lname) > 0) {
-            return 1;
+        return this.dob.compareTo(profile.dob);
+    }
+
+    /**
+     * Returns a hash code for the profile that agrees with equals
+     * Names are hashed ignoring case, the same way equals compares them
+     * The hash code is computed once and cached since profiles are immutable
+     * Overridden method
+     * @return the hash code of the profile
+     */
+    @Override
+    public int hashCode() {
+        int result = this.hash;
+        if (result == 0) {
+            result = ignoreCaseHash(this.fname);
+            result = HASH_MULTIPLIER * result + ignoreCaseHash(this.lname);
+            result = HASH_MULTIPLIER * result + this.dob.hashCode();
+            this.hash = result;
         }
-        if (this.lname.compareTo(profile.lname) < 0) {
-            return -1;
+        return result;
+    }
+
+    /**
+     * Computes a hash code for a string that ignores case
+     * Each character is folded the same way String.equalsIgnoreCase folds it
+     * @param string the string to hash
+     * @return the hash code of the string
+     */
+    private static int ignoreCaseHash(String string) {
+        int result = 0;
+        for (int i = 0; i < string.length(); i++) {
+            result = HASH_MULTIPLIER * result + Character.toLowerCase(
+                    Character.toUpperCase(string.charAt(i)));
         }
-        return 0;
+        return result;
     }
 
     /**
@@ -0,0 +1,101 @@
+package scheduler;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class builds the revenue report of a copy of the schedule
+ * The parallel report splits the appointments in halves on a fork/join
+ * pool until a part is small enough to record in one pass, then merges
+ * the reports of the parts, so it scales with the threads of the pool
+ * The sequential report records every appointment in one pass and is the
+ * reference the parallel report must equal
+ * Appointments are never changed once created, so the copy can be read by
+ * many threads while the scheduler keeps booking
+ * @author Keshav Dave, Danny Watson
+ */
+public final class ReportEngine {
+    // Constants
+    private static final int THRESHOLD = 1 << 12;
+
+    /**
+     * Private constructor, the class only has static methods
+     */
+    private ReportEngine() {
+    }
+
+    /**
+     * Builds the report of appointments in one pass on the calling thread
+     * @param appointments the appointments
+     * @param providers the number of providers of the clinic
+     * @return the report of the appointments
+     */
+    public static RevenueReport sequential(Appointment[] appointments, int providers) {
+        RevenueReport report = new RevenueReport(providers);
+        for (Appointment appointment : appointments) {
+            report.record(appointment);
+        }
+        return report;
+    }
+
+    /**
+     * Builds the report of appointments on a fork/join pool
+     * @param appointments the appointments, not changed while the report runs
+     * @param providers the number of providers of the clinic
+     * @param pool the pool to run on
+     * @return the report of the appointments, equal to the sequential one
+     */
+    public static RevenueReport parallel(Appointment[] appointments, int providers, ForkJoinPool pool) {
+        return pool.invoke(new ReportTask(appointments, 0, appointments.length, providers));
+    }
+
+    /**
+     * Task building the report of a range of the appointments
+     */
+    private static final class ReportTask extends RecursiveTask<RevenueReport> {
+        // Constants
+        private static final long serialVersionUID = 1L;
+
+        // Variables
+        private final Appointment[] appointments;
+        private final int from;
+        private final int to;
+        private final int providers;
+
+        /**
+         * Creates the task of a range
+         * @param appointments the appointments
+         * @param from the first index of the range, inclusive
+         * @param to the last index of the range, exclusive
+         * @param providers the number of providers of the clinic
+         */
+        private ReportTask(Appointment[] appointments, int from, int to, int providers) {
+            this.appointments = appointments;
+            this.from = from;
+            this.to = to;
+            this.providers = providers;
+        }
+
+        /**
+         * Records a small range, or forks the first half of a larger one
+         * and merges the two halves
+         * Overrides compute method from RecursiveTask class
+         */
+        @Override
+        protected RevenueReport compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                RevenueReport report = new RevenueReport(this.providers);
+                for (int i = this.from; i < this.to; i++) {
+                    report.record(this.appointments[i]);
+                }
+                return report;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            ReportTask first = new ReportTask(this.appointments, this.from, middle, this.providers);
+            first.fork();
+            RevenueReport report = new ReportTask(this.appointments, middle, this.to, this.providers).compute();
+            report.merge(first.join());
+            return report;
+        }
+    }
+}
\ No newline at end of file
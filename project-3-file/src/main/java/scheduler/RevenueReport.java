@@ -0,0 +1,278 @@
+package scheduler;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * This class breaks the revenue and volume of a set of appointments down
+ * by location, by the specialty of the doctor of an office visit and by
+ * the room of an imaging service, and counts the bookings of every
+ * timeslot
+ * The revenue of an appointment is the rate of its provider, and the
+ * utilization of a timeslot is the share of the providers booked at that
+ * timeslot on the days with appointments
+ * Reports of two parts of the appointments merge into the report of the
+ * whole, and every total is a whole number, so a report built from parts
+ * in any order is equal to one built in a single pass
+ * @author Keshav Dave, Danny Watson
+ */
+public class RevenueReport {
+    // Variables
+    private final int providers;
+    private final int[] locationCounts = new int[Location.values().length];
+    private final long[] locationRevenue = new long[Location.values().length];
+    private final int[] specialtyCounts = new int[Specialty.values().length];
+    private final long[] specialtyRevenue = new long[Specialty.values().length];
+    private final int[] roomCounts = new int[Radiology.values().length];
+    private final long[] roomRevenue = new long[Radiology.values().length];
+    private final int[] timeslotCounts = new int[Timeslot.NUMBER_OF_TIMESLOTS];
+    private final HashSet<Integer> days = new HashSet<>();
+
+    /**
+     * Creates an empty report
+     * @param providers the number of providers of the clinic
+     */
+    RevenueReport(int providers) {
+        this.providers = providers;
+    }
+
+    /**
+     * Records one appointment
+     * @param appointment the appointment
+     */
+    void record(Appointment appointment) {
+        Provider provider = (Provider) appointment.getProvider();
+        int rate = provider.rate();
+        this.locationCounts[provider.getLocation().ordinal()]++;
+        this.locationRevenue[provider.getLocation().ordinal()] += rate;
+        if (appointment instanceof Imaging imaging) {
+            this.roomCounts[imaging.getRoom().ordinal()]++;
+            this.roomRevenue[imaging.getRoom().ordinal()] += rate;
+        } else if (provider instanceof Doctor doctor) {
+            this.specialtyCounts[doctor.getSpecialty().ordinal()]++;
+            this.specialtyRevenue[doctor.getSpecialty().ordinal()] += rate;
+        }
+        int number = appointment.getTimeslot().getNumber();
+        if (number > 0) {
+            this.timeslotCounts[number - 1]++;
+        }
+        this.days.add(appointment.getDate().toEpochDay());
+    }
+
+    /**
+     * Adds the appointments of another report to this one
+     * @param other the report of other appointments of the same clinic
+     */
+    void merge(RevenueReport other) {
+        add(this.locationCounts, other.locationCounts);
+        add(this.locationRevenue, other.locationRevenue);
+        add(this.specialtyCounts, other.specialtyCounts);
+        add(this.specialtyRevenue, other.specialtyRevenue);
+        add(this.roomCounts, other.roomCounts);
+        add(this.roomRevenue, other.roomRevenue);
+        add(this.timeslotCounts, other.timeslotCounts);
+        this.days.addAll(other.days);
+    }
+
+    /**
+     * Returns the number of appointments of the report
+     * @return the number of appointments
+     */
+    public int getCount() {
+        int count = 0;
+        for (int locationCount : this.locationCounts) {
+            count += locationCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the revenue of the appointments of the report
+     * @return the total rate of the providers of the appointments
+     */
+    public long getRevenue() {
+        long revenue = 0;
+        for (long amount : this.locationRevenue) {
+            revenue += amount;
+        }
+        return revenue;
+    }
+
+    /**
+     * Returns the number of appointments at a location
+     * @param location the location of the providers
+     * @return the number of office visits and imaging services
+     */
+    public int getCount(Location location) {
+        return this.locationCounts[location.ordinal()];
+    }
+
+    /**
+     * Returns the revenue of the appointments at a location
+     * @param location the location of the providers
+     * @return the total rate of the providers of the appointments
+     */
+    public long getRevenue(Location location) {
+        return this.locationRevenue[location.ordinal()];
+    }
+
+    /**
+     * Returns the number of office visits with doctors of a specialty
+     * @param specialty the specialty of the doctors
+     * @return the number of office visits
+     */
+    public int getCount(Specialty specialty) {
+        return this.specialtyCounts[specialty.ordinal()];
+    }
+
+    /**
+     * Returns the revenue of the office visits with doctors of a specialty
+     * @param specialty the specialty of the doctors
+     * @return the total charge of the office visits
+     */
+    public long getRevenue(Specialty specialty) {
+        return this.specialtyRevenue[specialty.ordinal()];
+    }
+
+    /**
+     * Returns the number of imaging services in a room
+     * @param room the radiology room
+     * @return the number of imaging services
+     */
+    public int getCount(Radiology room) {
+        return this.roomCounts[room.ordinal()];
+    }
+
+    /**
+     * Returns the revenue of the imaging services in a room
+     * @param room the radiology room
+     * @return the total rate of the technicians of the imaging services
+     */
+    public long getRevenue(Radiology room) {
+        return this.roomRevenue[room.ordinal()];
+    }
+
+    /**
+     * Returns the number of appointments at a timeslot
+     * @param timeslot one of the numbered timeslots
+     * @return the number of appointments at the timeslot on any day
+     */
+    public int getCount(Timeslot timeslot) {
+        return this.timeslotCounts[timeslot.getNumber() - 1];
+    }
+
+    /**
+     * Returns the utilization of a timeslot over the days with appointments
+     * @param timeslot one of the numbered timeslots
+     * @return the share of the providers booked at the timeslot, from 0 to 1
+     */
+    public double getUtilization(Timeslot timeslot) {
+        if (this.days.isEmpty() || this.providers == 0) {
+            return 0;
+        }
+        return (double) getCount(timeslot) / ((long) this.days.size() * this.providers);
+    }
+
+    /**
+     * Getter method for the number of days with appointments
+     * @return the number of days
+     */
+    public int getDays() {
+        return this.days.size();
+    }
+
+    /**
+     * equals override for RevenueReport objects
+     * @param obj the object to compare with
+     * @return true if both reports have the same totals, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RevenueReport other)) {
+            return false;
+        }
+        return this.providers == other.providers
+                && Arrays.equals(this.locationCounts, other.locationCounts)
+                && Arrays.equals(this.locationRevenue, other.locationRevenue)
+                && Arrays.equals(this.specialtyCounts, other.specialtyCounts)
+                && Arrays.equals(this.specialtyRevenue, other.specialtyRevenue)
+                && Arrays.equals(this.roomCounts, other.roomCounts)
+                && Arrays.equals(this.roomRevenue, other.roomRevenue)
+                && Arrays.equals(this.timeslotCounts, other.timeslotCounts)
+                && this.days.equals(other.days);
+    }
+
+    /**
+     * hashCode override for RevenueReport objects
+     * @return a hash of the totals by location
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.locationCounts) + Arrays.hashCode(this.locationRevenue);
+    }
+
+    /**
+     * toString override for RevenueReport objects
+     * @return the totals, then one line for every location, specialty,
+     * room and timeslot
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(getCount()).append(" appointments on ").append(getDays())
+                .append(" days, revenue $").append(getRevenue()).append(".00");
+        for (Location location : Location.values()) {
+            appendLine(report, location.name(), getCount(location), getRevenue(location));
+        }
+        for (Specialty specialty : Specialty.values()) {
+            appendLine(report, specialty.toString(), getCount(specialty), getRevenue(specialty));
+        }
+        for (Radiology room : Radiology.values()) {
+            appendLine(report, room.name(), getCount(room), getRevenue(room));
+        }
+        for (int number = 1; number <= Timeslot.NUMBER_OF_TIMESLOTS; number++) {
+            Timeslot timeslot = Timeslot.getTimeslotByNumber(number);
+            report.append(System.lineSeparator()).append("  ").append(timeslot)
+                    .append(": ").append(getCount(timeslot))
+                    .append(String.format(" (%.1f%%)", 100 * getUtilization(timeslot)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Appends the line of one group of appointments
+     * @param report the report to append to
+     * @param group the name of the group
+     * @param count the number of appointments of the group
+     * @param revenue the revenue of the group
+     */
+    private static void appendLine(StringBuilder report, String group, int count, long revenue) {
+        report.append(System.lineSeparator()).append("  ").append(group).append(": ")
+                .append(count).append(" [$").append(revenue).append(".00]");
+    }
+
+    /**
+     * Adds counts to counts of the same groups
+     * @param counts the counts to add to
+     * @param more the counts to add
+     */
+    private static void add(int[] counts, int[] more) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += more[i];
+        }
+    }
+
+    /**
+     * Adds amounts to amounts of the same groups
+     * @param amounts the amounts to add to
+     * @param more the amounts to add
+     */
+    private static void add(long[] amounts, long[] more) {
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] += more[i];
+        }
+    }
+}
\ No newline at end of file
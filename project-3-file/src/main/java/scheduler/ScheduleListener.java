@@ -0,0 +1,29 @@
+package scheduler;
+
+/**
+ * This interface is implemented by classes that follow the changes made to
+ * the schedule of a ClinicScheduler, such as the journal that persists it
+ * The methods are called after the change has been made, on the thread
+ * that made it
+ * @author Keshav Dave, Danny Watson
+ */
+public interface ScheduleListener {
+    /**
+     * Called after an appointment has been booked
+     * @param appointment the booked appointment
+     */
+    void appointmentBooked(Appointment appointment);
+
+    /**
+     * Called after an appointment has been cancelled
+     * @param appointment the cancelled appointment
+     */
+    void appointmentCancelled(Appointment appointment);
+
+    /**
+     * Called after an appointment has been moved to another timeslot
+     * @param original the appointment before it was moved
+     * @param rescheduled the appointment that replaced it
+     */
+    void appointmentRescheduled(Appointment original, Appointment rescheduled);
+}
\ No newline at end of file
@@ -0,0 +1,814 @@
+package scheduler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import util.Date;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class serves the requests of a ClinicScheduler over HTTP on the
+ * JDK's built in server, with JSON bodies
+ * POST /book books an office visit or imaging service
+ * POST /cancel cancels an appointment
+ * POST /reschedule moves an appointment to another timeslot
+ * GET /appointments lists the booked appointments, or with from and to
+ * dates, or a week date, the appointments of those days in order, kept to
+ * a location or the doctor of an npi if given, such as
+ * /appointments?week=9/30/2026&location=edison; location and npi only
+ * filter a range, and an npi with no doctor is a bad request
+ * GET /statements lists the patient statements and provider credits
+ * GET /report breaks the revenue and volume of the schedule down by
+ * location, specialty, room and timeslot, built off the scheduler thread
+ * GET /patients?prefix=patel%20jo&limit=20 searches the booked patients
+ * by name
+ * A booking looks like {"type":"office","date":"9/30/2026","timeslot":1,
+ * "firstName":"John","lastName":"Doe","dob":"12/13/1989","npi":"120"},
+ * imaging uses "room" instead of "npi", cancel leaves both out and
+ * reschedule adds "newTimeslot"
+ * Every answer has the status and message the GUI would show, and once the
+ * journal has stopped saving the schedule the answer to a change also
+ * carries "saved":false and the reason
+ * Each request is handled on its own virtual thread when the runtime has
+ * them, and on a fixed pool of threads otherwise
+ * The scheduler is not thread safe, so every call to it is handed to the
+ * one thread that owns it, such as the JavaFX application thread, and the
+ * request thread waits for the answer
+ * A call the scheduler thread has not started within a few seconds is
+ * withdrawn and answered with 503, so it is never applied; a call that has
+ * started is always waited for, so a change is never reported as failed
+ * after it was made
+ * Replies are small, so run with -Dsun.net.httpserver.nodelay=true to send
+ * them without waiting on Nagle's algorithm; main() sets it by default
+ * @author Keshav Dave, Danny Watson
+ */
+public class ScheduleServer implements Closeable {
+    // Constants
+    public static final int DEFAULT_PORT = 8080;
+    private static final String DEFAULT_PROVIDER_FILE = "src/main/java/scheduler/providers.txt";
+    private static final int PLATFORM_THREADS = 64;
+    private static final int BACKLOG = 1024;
+    private static final int MAX_BODY_BYTES = 1 << 12;
+    private static final long CALL_TIMEOUT_SECONDS = 10;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 1000;
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int CONFLICT = 409;
+    private static final int INTERNAL_ERROR = 500;
+    private static final int UNAVAILABLE = 503;
+
+    // Variables
+    private final ClinicScheduler scheduler;
+    private final AppointmentJournal journal;
+    private final Executor scheduleThread;
+    private final HttpServer server;
+    private final ExecutorService requestThreads;
+    private final boolean virtualThreads;
+
+    /**
+     * Creates a server, without starting it
+     * @param scheduler the scheduler to serve
+     * @param journal the journal saving the schedule, or null
+     * @param scheduleThread runs the calls to the scheduler on the thread
+     *                       that owns it
+     * @param address the address to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    private ScheduleServer(ClinicScheduler scheduler, AppointmentJournal journal, Executor scheduleThread,
+                           InetSocketAddress address) throws IOException {
+        this.scheduler = scheduler;
+        this.journal = journal;
+        this.scheduleThread = scheduleThread;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.requestThreads = virtual != null ? virtual : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        this.server = HttpServer.create(address, BACKLOG);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(this.requestThreads);
+    }
+
+    /**
+     * Starts serving a scheduler
+     * @param scheduler the scheduler to serve
+     * @param journal the journal saving the schedule, checked after every
+     *                change, or null if the schedule is not saved
+     * @param scheduleThread runs the calls to the scheduler on the thread
+     *                       that owns it, such as Platform::runLater
+     * @param address the address to listen on, port 0 picks a free port
+     * @return the running server
+     * @throws IOException if the address cannot be bound
+     */
+    public static ScheduleServer start(ClinicScheduler scheduler, AppointmentJournal journal,
+                                       Executor scheduleThread, InetSocketAddress address)
+            throws IOException {
+        ScheduleServer server = new ScheduleServer(scheduler, journal, scheduleThread, address);
+        server.server.start();
+        return server;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task
+     * Looked up by reflection, since virtual threads are only final from
+     * Java 21 and the project builds on 17
+     * @return the executor, or null if the runtime has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Answers one request and closes the exchange
+     * @param exchange the request and its response
+     */
+    private void handle(HttpExchange exchange) {
+        try {
+            Reply reply;
+            try {
+                reply = route(exchange);
+            } catch (IllegalArgumentException e) {
+                reply = error(BAD_REQUEST, e.getMessage());
+            } catch (TimeoutException e) {
+                reply = error(UNAVAILABLE, "The scheduler did not answer in time, the request was not applied.");
+            } catch (Exception e) {
+                reply = error(INTERNAL_ERROR, "The request could not be completed.");
+            }
+            send(exchange, reply);
+        } catch (IOException e) {
+            // The client went away, nothing left to answer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sends a request to the operation of its path
+     * @param exchange the request
+     * @return the reply to send
+     * @throws Exception if the body cannot be read or the scheduler fails
+     */
+    private Reply route(HttpExchange exchange) throws Exception {
+        String path = exchange.getRequestURI().getPath();
+        switch (path) {
+            case "/appointments":
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    return error(METHOD_NOT_ALLOWED, "Use GET for " + path + ".");
+                }
+                HashMap<String, String> range = parseQuery(exchange.getRequestURI().getRawQuery());
+                boolean ranged = range.containsKey("from") || range.containsKey("to") || range.containsKey("week");
+                return new Reply(OK, ranged ? calendar(range) : call(this::appointments));
+            case "/statements":
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    return error(METHOD_NOT_ALLOWED, "Use GET for " + path + ".");
+                }
+                return new Reply(OK, call(this::statements));
+            case "/report":
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    return error(METHOD_NOT_ALLOWED, "Use GET for " + path + ".");
+                }
+                return new Reply(OK, report());
+            case "/patients":
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    return error(METHOD_NOT_ALLOWED, "Use GET for " + path + ".");
+                }
+                HashMap<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                String prefix = require(query, "prefix");
+                int limit = query.containsKey("limit") ? parseLimit(query.get("limit")) : DEFAULT_SEARCH_LIMIT;
+                return new Reply(OK, call(() -> patients(prefix, limit)));
+            case "/book", "/cancel", "/reschedule":
+                if (!exchange.getRequestMethod().equals("POST")) {
+                    return error(METHOD_NOT_ALLOWED, "Use POST for " + path + ".");
+                }
+                HashMap<String, String> fields = Json.parseObject(readBody(exchange));
+                return result(call(request(path, fields)));
+            default:
+                return error(NOT_FOUND, path + " - Invalid command!");
+        }
+    }
+
+    /**
+     * Validates a booking, cancel or reschedule request the way the batch
+     * importer validates a line, and returns the call to make
+     * @param path the path of the operation
+     * @param fields the fields of the request
+     * @return the call to run on the scheduler thread
+     */
+    private Supplier<BookingResult> request(String path, HashMap<String, String> fields) {
+        Date date = parseDate(require(fields, "date"));
+        if (date == null) {
+            return rejected(BookingStatus.INVALID_DATE, "Appointment date: "
+                    + fields.get("date") + " is not a valid calendar date.");
+        }
+        Timeslot timeslot = parseTimeslot(require(fields, "timeslot"));
+        if (timeslot == null) {
+            return rejected(BookingStatus.INVALID_TIMESLOT, fields.get("timeslot") + " is not a valid time slot.");
+        }
+        Date dob = parseDate(require(fields, "dob"));
+        if (dob == null) {
+            return rejected(BookingStatus.INVALID_DATE, "Patient dob: "
+                    + fields.get("dob") + " is not a valid calendar date.");
+        }
+        Profile profile = new Profile(require(fields, "firstName"), require(fields, "lastName"), dob);
+
+        if (path.equals("/cancel")) {
+            return () -> this.scheduler.cancel(profile, date, timeslot);
+        }
+        if (path.equals("/reschedule")) {
+            Timeslot newTimeslot = parseTimeslot(require(fields, "newTimeslot"));
+            if (newTimeslot == null) {
+                return rejected(BookingStatus.INVALID_TIMESLOT,
+                        fields.get("newTimeslot") + " is not a valid time slot.");
+            }
+            return () -> this.scheduler.reschedule(profile, date, timeslot, newTimeslot);
+        }
+        String type = require(fields, "type");
+        if (type.equalsIgnoreCase("office")) {
+            String npi = require(fields, "npi");
+            return () -> this.scheduler.bookOffice(profile, date, timeslot, npi);
+        }
+        if (type.equalsIgnoreCase("imaging")) {
+            Radiology room = parseRoom(require(fields, "room"));
+            if (room == null) {
+                return rejected(BookingStatus.INVALID_PROVIDER,
+                        fields.get("room") + " - imaging service not provided.");
+            }
+            return () -> this.scheduler.bookImaging(profile, date, timeslot, room);
+        }
+        return rejected(BookingStatus.INVALID_COMMAND, type + " - Invalid command!");
+    }
+
+    /**
+     * Runs a call on the thread owning the scheduler and waits for it
+     * If the scheduler thread has not started the call in time, the call is
+     * withdrawn so it never runs; once started, it is waited for to the end
+     * @param call the call to run
+     * @param <T> the type of the answer
+     * @return the answer of the call
+     * @throws TimeoutException if the call was withdrawn before it started
+     * @throws InterruptedException if the request thread is interrupted
+     * before the call started, which withdraws it too
+     * @throws ExecutionException if the call fails
+     */
+    private <T> T call(Supplier<T> call) throws TimeoutException, InterruptedException, ExecutionException {
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture<T> answer = new CompletableFuture<>();
+        this.scheduleThread.execute(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                answer.complete(call.get());
+            } catch (Throwable e) {
+                answer.completeExceptionally(e);
+            }
+        });
+        try {
+            return answer.get(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (started.compareAndSet(false, true)) {
+                throw e;
+            }
+            T value = answer.join();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Lists the booked appointments, run on the scheduler thread
+     * @return a JSON array of the appointments
+     */
+    private String appointments() {
+        StringBuilder out = new StringBuilder("[");
+        for (Appointment appointment : this.scheduler.getAppointmentStore()) {
+            if (out.length() > 1) {
+                out.append(',');
+            }
+            appendAppointment(out, appointment);
+        }
+        return out.append(']').toString();
+    }
+
+    /**
+     * Lists the appointments of a range of days, kept to a location or
+     * doctor if the query names one
+     * @param query the from, to, week, location and npi parameters
+     * @return a JSON array of the appointments, in order of date and
+     * timeslot
+     * @throws IllegalArgumentException if a date or location is not valid,
+     * or no doctor has the npi
+     * @throws Exception if the scheduler does not answer
+     */
+    private String calendar(HashMap<String, String> query) throws Exception {
+        String week = query.get("week");
+        Date from = parseRangeDate(week != null ? week : query.getOrDefault("from", query.get("to")));
+        Date to = week != null ? from : parseRangeDate(query.getOrDefault("to", query.get("from")));
+        Location location = query.containsKey("location") ? parseLocation(query.get("location")) : null;
+        String npi = query.get("npi");
+        String listed = call(() -> {
+            Predicate<Appointment> filter = location == null ? null : ClinicScheduler.atLocation(location);
+            if (npi != null) {
+                Doctor doctor = this.scheduler.findDoctor(npi);
+                if (doctor == null) {
+                    return null;
+                }
+                Predicate<Appointment> withDoctor = ClinicScheduler.withProvider(doctor);
+                filter = filter == null ? withDoctor : filter.and(withDoctor);
+            }
+            StringBuilder out = new StringBuilder("[");
+            for (Appointment appointment : week != null ? this.scheduler.getWeek(from, filter)
+                    : this.scheduler.getAppointments(from, to, filter)) {
+                if (out.length() > 1) {
+                    out.append(',');
+                }
+                appendAppointment(out, appointment);
+            }
+            return out.append(']').toString();
+        });
+        if (listed == null) {
+            throw new IllegalArgumentException(npi + " - provider doesn't exist.");
+        }
+        return listed;
+    }
+
+    /**
+     * Searches the booked patients by name, run on the scheduler thread
+     * @param prefix the name prefix
+     * @param limit the most patients to list
+     * @return a JSON array of the matching patients
+     */
+    private String patients(String prefix, int limit) {
+        StringBuilder out = new StringBuilder("[");
+        for (Profile profile : this.scheduler.searchPatients(prefix, limit)) {
+            out.append(out.length() > 1 ? ",{\"firstName\":" : "{\"firstName\":");
+            Json.appendString(out, profile.getfname());
+            out.append(",\"lastName\":");
+            Json.appendString(out, profile.getlname());
+            out.append(",\"dob\":");
+            Json.appendString(out, profile.getDOB().toString());
+            out.append('}');
+        }
+        return out.append(']').toString();
+    }
+
+    /**
+     * Lists the patient statements and provider credits, run on the
+     * scheduler thread
+     * @return a JSON object with the patients and the providers
+     */
+    private String statements() {
+        StringBuilder out = new StringBuilder("{\"patients\":[");
+        boolean first = true;
+        for (Patient patient : this.scheduler.createPatientStatements()) {
+            out.append(first ? "{\"patient\":" : ",{\"patient\":");
+            Json.appendString(out, patient.getProfile().toString());
+            out.append(",\"due\":").append(patient.charge()).append('}');
+            first = false;
+        }
+        out.append("],\"providers\":[");
+        first = true;
+        for (Provider provider : this.scheduler.getProviders()) {
+            out.append(first ? "{\"provider\":" : ",{\"provider\":");
+            Json.appendString(out, provider.getProfile().toString());
+            out.append(",\"location\":");
+            Json.appendString(out, provider.getLocation().name());
+            if (provider instanceof Doctor) {
+                out.append(",\"npi\":");
+                Json.appendString(out, ((Doctor) provider).getNpi());
+            }
+            out.append(",\"credit\":").append(this.scheduler.getAppointmentStore().getCredit(provider)).append('}');
+            first = false;
+        }
+        return out.append("]}").toString();
+    }
+
+    /**
+     * Builds the revenue report of the schedule
+     * Only the copy of the schedule and the number of providers are taken
+     * on the scheduler thread, in one call so they agree, and the report is
+     * built from them on the common fork/join pool
+     * @return a JSON object of the totals and their breakdowns
+     * @throws Exception if the scheduler does not answer
+     */
+    private String report() throws Exception {
+        Supplier<RevenueReport> build = call(() -> {
+            Appointment[] copy = this.scheduler.getAppointmentStore().toArray();
+            int providers = this.scheduler.getProviders().size();
+            return () -> ReportEngine.parallel(copy, providers, ForkJoinPool.commonPool());
+        });
+        RevenueReport report = build.get();
+        StringBuilder out = new StringBuilder("{\"count\":").append(report.getCount());
+        out.append(",\"revenue\":").append(report.getRevenue());
+        out.append(",\"days\":").append(report.getDays()).append(",\"locations\":[");
+        for (Location location : Location.values()) {
+            appendGroup(out, location.ordinal(), "location", location.name(),
+                    report.getCount(location), report.getRevenue(location));
+        }
+        out.append("],\"specialties\":[");
+        for (Specialty specialty : Specialty.values()) {
+            appendGroup(out, specialty.ordinal(), "specialty", specialty.toString(),
+                    report.getCount(specialty), report.getRevenue(specialty));
+        }
+        out.append("],\"rooms\":[");
+        for (Radiology room : Radiology.values()) {
+            appendGroup(out, room.ordinal(), "room", room.name(),
+                    report.getCount(room), report.getRevenue(room));
+        }
+        out.append("],\"timeslots\":[");
+        for (int number = 1; number <= Timeslot.NUMBER_OF_TIMESLOTS; number++) {
+            Timeslot timeslot = Timeslot.getTimeslotByNumber(number);
+            out.append(number == 1 ? "{\"timeslot\":" : ",{\"timeslot\":").append(number);
+            out.append(",\"time\":");
+            Json.appendString(out, timeslot.toString());
+            out.append(",\"count\":").append(report.getCount(timeslot));
+            out.append(",\"utilization\":").append(report.getUtilization(timeslot)).append('}');
+        }
+        return out.append("]}").toString();
+    }
+
+    /**
+     * Appends the totals of one group of the report as a JSON object
+     * @param out the builder to append to
+     * @param index the position of the group in its list
+     * @param key the name of the group field
+     * @param group the name of the group
+     * @param count the number of appointments of the group
+     * @param revenue the revenue of the group
+     */
+    private static void appendGroup(StringBuilder out, int index, String key, String group,
+                                    int count, long revenue) {
+        out.append(index == 0 ? "{\"" : ",{\"").append(key).append("\":");
+        Json.appendString(out, group);
+        out.append(",\"count\":").append(count).append(",\"revenue\":").append(revenue).append('}');
+    }
+
+    /**
+     * Appends an appointment as a JSON object
+     * @param out the builder to append to
+     * @param appointment the appointment
+     */
+    private static void appendAppointment(StringBuilder out, Appointment appointment) {
+        out.append("{\"date\":");
+        Json.appendString(out, appointment.getDate().toString());
+        out.append(",\"timeslot\":").append(appointment.getTimeslot().getNumber());
+        out.append(",\"time\":");
+        Json.appendString(out, appointment.getTimeslot().toString());
+        out.append(",\"patient\":");
+        Json.appendString(out, appointment.getPatient().getProfile().toString());
+        out.append(",\"provider\":");
+        Json.appendString(out, appointment.getProvider().getProfile().toString());
+        if (appointment.getProvider() instanceof Doctor) {
+            out.append(",\"npi\":");
+            Json.appendString(out, ((Doctor) appointment.getProvider()).getNpi());
+        }
+        if (appointment instanceof Imaging) {
+            out.append(",\"room\":");
+            Json.appendString(out, ((Imaging) appointment).getRoom().name());
+        }
+        out.append(",\"text\":");
+        Json.appendString(out, appointment.toString());
+        out.append('}');
+    }
+
+    /**
+     * Creates the reply to a booking, cancel or reschedule
+     * The journal is checked after the change, so a change the journal can
+     * no longer save is reported as such
+     * @param result the result of the request
+     * @return the reply, with the HTTP status of the outcome
+     */
+    private Reply result(BookingResult result) {
+        int code = switch (result.getStatus()) {
+            case BOOKED -> CREATED;
+            case CANCELLED, RESCHEDULED -> OK;
+            case NOT_FOUND -> NOT_FOUND;
+            case PATIENT_CONFLICT, PROVIDER_UNAVAILABLE -> CONFLICT;
+            default -> BAD_REQUEST;
+        };
+        StringBuilder out = new StringBuilder("{\"status\":");
+        Json.appendString(out, result.getStatus().name());
+        out.append(",\"successful\":").append(result.isSuccessful());
+        out.append(",\"message\":");
+        Json.appendString(out, result.getMessage());
+        if (result.getAppointment() != null) {
+            out.append(",\"appointment\":");
+            appendAppointment(out, result.getAppointment());
+        }
+        IOException failure = this.journal == null ? null : this.journal.getFailure();
+        if (failure != null) {
+            out.append(",\"saved\":false,\"warning\":");
+            Json.appendString(out, "The schedule is no longer being saved: " + failure);
+        }
+        return new Reply(code, out.append('}').toString());
+    }
+
+    /**
+     * Creates the reply to a request that could not be handled
+     * @param code the HTTP status
+     * @param message the reason
+     * @return the reply
+     */
+    private static Reply error(int code, String message) {
+        StringBuilder out = new StringBuilder("{\"status\":\"ERROR\",\"successful\":false,\"message\":");
+        Json.appendString(out, message);
+        return new Reply(code, out.append('}').toString());
+    }
+
+    /**
+     * Creates a call that rejects a request without touching the schedule
+     * @param status the reason for the rejection
+     * @param message the message to show
+     * @return the call
+     */
+    private static Supplier<BookingResult> rejected(BookingStatus status, String message) {
+        BookingResult result = new BookingResult(status, message, null);
+        return () -> result;
+    }
+
+    /**
+     * Reads the body of a request
+     * @param exchange the request
+     * @return the body as text
+     * @throws IOException if the body cannot be read
+     * @throws IllegalArgumentException if the body is too large
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("The request body is larger than "
+                        + MAX_BODY_BYTES + " bytes.");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Sends a reply as JSON
+     * @param exchange the request being answered
+     * @param reply the reply
+     * @throws IOException if the reply cannot be sent
+     */
+    private static void send(HttpExchange exchange, Reply reply) throws IOException {
+        byte[] body = reply.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(reply.code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Parses the parameters of a query string
+     * @param rawQuery the encoded query, or null if there is none
+     * @return the decoded parameters, by name
+     */
+    private static HashMap<String, String> parseQuery(String rawQuery) {
+        HashMap<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Parses the result limit of a search
+     * @param text the limit text
+     * @return the limit
+     * @throws IllegalArgumentException if it is not a number from 1 to
+     * MAX_SEARCH_LIMIT
+     */
+    private static int parseLimit(String text) {
+        try {
+            int limit = Integer.parseInt(text);
+            if (limit >= 1 && limit <= MAX_SEARCH_LIMIT) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below with the out of range limits
+        }
+        throw new IllegalArgumentException(text + " is not a limit from 1 to " + MAX_SEARCH_LIMIT + ".");
+    }
+
+    /**
+     * Gets a required field of a request
+     * @param fields the fields of the request
+     * @param name the name of the field
+     * @return the value of the field
+     * @throws IllegalArgumentException if the field is missing
+     */
+    private static String require(HashMap<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing data tokens: " + name + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Parses a M/D/YYYY date
+     * @param text the date text
+     * @return the parsed Date, or null if it is not three numbers separated
+     * by slashes
+     */
+    private static Date parseDate(String text) {
+        String[] parts = text.split("/", -1);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Date(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a date of a calendar range
+     * @param text the date text, or null if it was not given
+     * @return the parsed Date
+     * @throws IllegalArgumentException if there is no date or it is not a
+     * valid calendar date
+     */
+    private static Date parseRangeDate(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Missing data tokens: from.");
+        }
+        Date date = parseDate(text);
+        if (date == null || !date.isValid()) {
+            throw new IllegalArgumentException(text + " is not a valid calendar date.");
+        }
+        return date;
+    }
+
+    /**
+     * Parses a location, ignoring case
+     * @param text the location text
+     * @return the matching Location
+     * @throws IllegalArgumentException if there is none
+     */
+    private static Location parseLocation(String text) {
+        for (Location location : Location.values()) {
+            if (location.name().equalsIgnoreCase(text)) {
+                return location;
+            }
+        }
+        throw new IllegalArgumentException(text + " - invalid location.");
+    }
+
+    /**
+     * Parses a timeslot number
+     * @param text the timeslot text
+     * @return the Timeslot with that number, or null if it is not a number
+     * from 1 to 12
+     */
+    private static Timeslot parseTimeslot(String text) {
+        try {
+            int number = Integer.parseInt(text);
+            if (number < 1 || number > Timeslot.NUMBER_OF_TIMESLOTS) {
+                return null;
+            }
+            return Timeslot.getTimeslotByNumber(number);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses an imaging service, ignoring case
+     * @param text the service text
+     * @return the matching Radiology, or null if there is none
+     */
+    private static Radiology parseRoom(String text) {
+        for (Radiology room : Radiology.values()) {
+            if (room.name().equalsIgnoreCase(text)) {
+                return room;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Getter method for the port the server listens on
+     * @return the bound port
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Checks whether requests run on virtual threads
+     * @return true for virtual threads, false for the fixed thread pool
+     */
+    public boolean usesVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    /**
+     * Stops accepting requests, lets the open ones finish and stops the
+     * request threads
+     */
+    @Override
+    public void close() {
+        this.server.stop(STOP_DELAY_SECONDS);
+        this.requestThreads.shutdown();
+    }
+
+    /**
+     * The status and JSON body of a response
+     */
+    private static final class Reply {
+        private final int code;
+        private final String body;
+
+        /**
+         * Creates a reply
+         * @param code the HTTP status
+         * @param body the JSON body
+         */
+        private Reply(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Serves a scheduler without the GUI, on localhost
+     * The scheduler is owned by one background thread, and with a journal
+     * directory the schedule is recovered on start and saved on exit
+     * Usage: ScheduleServer [port] [provider file] [journal directory]
+     * @param args the optional port, provider file and journal directory
+     * @throws IOException if the providers, the journal or the port cannot
+     * be opened
+     */
+    public static void main(String[] args) throws IOException {
+        // Replies are small and sent as soon as they are ready, so Nagle's
+        // algorithm would only hold them back until the client's delayed ACK;
+        // the property is read once, when the server classes are loaded
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        File providers = new File(args.length > 1 ? args[1] : DEFAULT_PROVIDER_FILE);
+        ClinicScheduler scheduler = new ClinicScheduler();
+        scheduler.loadProviders(providers);
+        AppointmentJournal journal = args.length > 2
+                ? AppointmentJournal.open(Path.of(args[2]), scheduler) : null;
+
+        ExecutorService scheduleThread = Executors.newSingleThreadExecutor();
+        ScheduleServer server = start(scheduler, journal, scheduleThread,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            scheduleThread.shutdown();
+            try {
+                scheduleThread.awaitTermination(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (InterruptedException | IOException e) {
+                System.err.println("Unable to save the journal: " + e.getMessage());
+            }
+        }));
+        System.out.println("Serving the schedule on http://localhost:" + server.getPort()
+                + (server.usesVirtualThreads() ? " with virtual threads" : " with a thread pool"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,227 @@
+package scheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * This class writes and loads compacted snapshots of a schedule
+ * A snapshot holds every stored appointment, the provider roster and the
+ * number of the first journal segment that is not part of it, so recovery
+ * loads the snapshot and replays only the segments from that number on
+ * The file uses the fixed-width layout read by MappedSchedule: roster
+ * entries, profiles and 14 byte appointment records of epoch day, timeslot
+ * number, profile id, provider id and room, with names kept once each in a
+ * string heap
+ * Loading maps the file and attaches it to the AppointmentStore, so the
+ * appointments are only created when something asks for them
+ * The file is written to a temporary file that is moved into place once
+ * it is on disk
+ * @author Keshav Dave, Danny Watson
+ */
+public final class ScheduleSnapshot {
+    // Constants
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int HEADER_RESERVED = 2;
+
+    /**
+     * Private constructor, the class only has static methods
+     */
+    private ScheduleSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of a roster and appointments
+     * The appointment array is sorted by date and timeslot in place
+     * Providers of appointments missing from the roster are added to it
+     * @param file the snapshot file
+     * @param baseSegment the number of the first journal segment not part
+     * of the snapshot
+     * @param roster the providers of the clinic
+     * @param appointments the appointments to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(Path file, int baseSegment, Provider[] roster,
+                             Appointment[] appointments) throws IOException {
+        Arrays.sort(appointments, Comparator.comparingInt(appointment -> MappedSchedule.key(
+                appointment.getDate().toEpochDay(), appointment.getTimeslot().getNumber())));
+        StringHeap heap = new StringHeap();
+        HashMap<Person, Integer> providerIds = new HashMap<>();
+        Provider[] providers = Arrays.copyOf(roster, roster.length + appointments.length);
+        for (int id = 0; id < roster.length; id++) {
+            providerIds.putIfAbsent(roster[id], id);
+        }
+        HashMap<String, Integer> profileIds = new HashMap<>();
+        Profile[] profiles = new Profile[appointments.length];
+        int[] providerIndex = new int[appointments.length];
+        int[] profileIndex = new int[appointments.length];
+        int providerCount = roster.length;
+        for (int i = 0; i < appointments.length; i++) {
+            Person provider = appointments[i].getProvider();
+            Integer id = providerIds.get(provider);
+            if (id == null) {
+                id = providerCount++;
+                providerIds.put(provider, id);
+                providers[id] = (Provider) provider;
+            }
+            providerIndex[i] = id;
+            Profile profile = appointments[i].getPatient().getProfile();
+            String spelling = profile.getfname() + '\n' + profile.getlname() + '\n'
+                    + profile.getDOB().toEpochDay();
+            id = profileIds.get(spelling);
+            if (id == null) {
+                id = profileIds.size();
+                profileIds.put(spelling, id);
+                profiles[id] = profile;
+            }
+            profileIndex[i] = id;
+        }
+        int profileCount = profileIds.size();
+
+        int rosterOffset = MappedSchedule.HEADER_SIZE;
+        int profileOffset = rosterOffset + providerCount * MappedSchedule.ROSTER_SIZE;
+        int recordOffset = profileOffset + profileCount * MappedSchedule.PROFILE_SIZE;
+        long stringOffset = recordOffset + (long) appointments.length * MappedSchedule.RECORD_SIZE;
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 checksum = new CRC32();
+        try (FileOutputStream stream = new FileOutputStream(temporary.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(stream, checksum), BUFFER_SIZE));
+            out.writeInt(MappedSchedule.MAGIC);
+            out.writeInt(MappedSchedule.VERSION);
+            out.writeInt(baseSegment);
+            out.writeInt(providerCount);
+            out.writeInt(profileCount);
+            out.writeInt(appointments.length);
+            out.writeInt(rosterOffset);
+            out.writeInt(profileOffset);
+            out.writeInt(recordOffset);
+            out.writeInt((int) stringOffset);
+            for (int i = 0; i < HEADER_RESERVED; i++) {
+                out.writeInt(0);
+            }
+            for (int id = 0; id < providerCount; id++) {
+                writeProvider(out, providers[id], heap);
+            }
+            for (int id = 0; id < profileCount; id++) {
+                out.writeInt(heap.offset(profiles[id].getfname()));
+                out.writeInt(heap.offset(profiles[id].getlname()));
+                out.writeInt(profiles[id].getDOB().toEpochDay());
+            }
+            for (int i = 0; i < appointments.length; i++) {
+                Appointment appointment = appointments[i];
+                out.writeInt(appointment.getDate().toEpochDay());
+                out.writeByte(appointment.getTimeslot().getNumber());
+                out.writeInt(profileIndex[i]);
+                out.writeInt(providerIndex[i]);
+                out.writeByte(JournalCodec.room(appointment));
+            }
+            if (stringOffset + heap.size() + MappedSchedule.CHECKSUM_SIZE > Integer.MAX_VALUE) {
+                throw new IOException("Schedule is too large for one snapshot");
+            }
+            heap.writeTo(out);
+            out.flush();
+            new DataOutputStream(stream).writeInt((int) checksum.getValue());
+            stream.getFD().sync();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot into the store of a scheduler
+     * The snapshot is mapped and attached to the store without creating
+     * its appointments, and appointments whose provider the scheduler does
+     * not have are dropped
+     * A scheduler without providers is given the roster of the snapshot
+     * @param file the snapshot file
+     * @param scheduler the scheduler to load into
+     * @return the number of the first journal segment not part of the
+     * snapshot
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    public static int load(Path file, ClinicScheduler scheduler) throws IOException {
+        MappedSchedule snapshot = MappedSchedule.open(file);
+        if (scheduler.getProviders().isEmpty()) {
+            scheduler.setProviders(snapshot.getRoster());
+        }
+        snapshot.resolve(scheduler);
+        scheduler.getAppointmentStore().attach(snapshot);
+        return snapshot.getBaseSegment();
+    }
+
+    /**
+     * Writes a roster entry
+     * @param out the output to write to
+     * @param provider the provider to write
+     * @param heap the string heap of the snapshot
+     * @throws IOException if the entry cannot be written
+     */
+    private static void writeProvider(DataOutputStream out, Provider provider, StringHeap heap)
+            throws IOException {
+        Profile profile = provider.getProfile();
+        out.writeByte(provider instanceof Doctor ? JournalCodec.DOCTOR : JournalCodec.TECHNICIAN);
+        out.writeByte(provider.getLocation().ordinal());
+        out.writeByte(provider instanceof Doctor doctor ? doctor.getSpecialty().ordinal()
+                : MappedSchedule.NONE);
+        out.writeInt(provider.rate());
+        out.writeInt(heap.offset(profile.getfname()));
+        out.writeInt(heap.offset(profile.getlname()));
+        out.writeInt(profile.getDOB().toEpochDay());
+        out.writeInt(provider instanceof Doctor doctor ? heap.offset(doctor.getNpi())
+                : MappedSchedule.NONE);
+    }
+
+    /**
+     * The strings of a snapshot, each kept once as an unsigned short
+     * length followed by its UTF-8 bytes
+     */
+    private static final class StringHeap {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(this.bytes);
+        private final HashMap<String, Integer> offsets = new HashMap<>();
+
+        /**
+         * Returns the offset of a string, adding it to the heap if needed
+         * @param value the string
+         * @return the offset of the string in the heap
+         * @throws IOException if the string is too long
+         */
+        int offset(String value) throws IOException {
+            Integer offset = this.offsets.get(value);
+            if (offset == null) {
+                offset = this.bytes.size();
+                JournalCodec.writeString(this.out, value);
+                this.offsets.put(value, offset);
+            }
+            return offset;
+        }
+
+        /**
+         * Returns the size of the heap
+         * @return the number of bytes in the heap
+         */
+        int size() {
+            return this.bytes.size();
+        }
+
+        /**
+         * Writes the heap
+         * @param target the output to write to
+         * @throws IOException if the heap cannot be written
+         */
+        void writeTo(DataOutputStream target) throws IOException {
+            this.bytes.writeTo(target);
+        }
+    }
+}
\ No newline at end of file
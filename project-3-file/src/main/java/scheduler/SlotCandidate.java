@@ -0,0 +1,73 @@
+package scheduler;
+import util.Date;
+
+/**
+ * This class represents an open slot found by a search of the schedule
+ * It is the date, timeslot and provider an appointment could be booked
+ * with, and the radiology room for imaging slots
+ * @author Keshav Dave, Danny Watson
+ */
+public class SlotCandidate {
+    // Variables
+    private final Date date;
+    private final Timeslot timeslot;
+    private final Provider provider;
+    private final Radiology room;
+
+    /**
+     * Constructor for the SlotCandidate class
+     * @param date the date of the open slot
+     * @param timeslot the timeslot of the open slot
+     * @param provider the provider who is free at the slot
+     * @param room the free radiology room, or null for an office visit
+     */
+    public SlotCandidate(Date date, Timeslot timeslot, Provider provider, Radiology room) {
+        this.date = date;
+        this.timeslot = timeslot;
+        this.provider = provider;
+        this.room = room;
+    }
+
+    /**
+     * Getter method for the date
+     * @return the date of the open slot
+     */
+    public Date getDate() {
+        return this.date;
+    }
+
+    /**
+     * Getter method for the timeslot
+     * @return the timeslot of the open slot
+     */
+    public Timeslot getTimeslot() {
+        return this.timeslot;
+    }
+
+    /**
+     * Getter method for the provider
+     * @return the provider who is free at the slot
+     */
+    public Provider getProvider() {
+        return this.provider;
+    }
+
+    /**
+     * Getter method for the room
+     * @return the free radiology room, or null for an office visit
+     */
+    public Radiology getRoom() {
+        return this.room;
+    }
+
+    /**
+     * toString override for SlotCandidate objects
+     * @return the date, timeslot and provider, and the room if there is one
+     */
+    @Override
+    public String toString() {
+        String slot = this.date + " " + this.timeslot + " " + this.provider.getProfile()
+                + ", " + this.provider.getLocation().name();
+        return this.room == null ? slot : slot + " [" + this.room + "]";
+    }
+}
\ No newline at end of file
@@ -5,14 +5,12 @@ package scheduler;
  * It represents a technician who has a fixed rate per visit
  * It does not calculate charges based on specialty as doctors do
  * Instead, the rate is predetermined and fixed per visit
- * This class also supports the creation of the circular linked list of
- * Technicians
+ * Technicians take imaging appointments in turn through the
+ * TechnicianRotation of the scheduler
  * @author Keshav Dave, Danny Watson
  */
 public class Technician extends Provider {
     private final int ratePerVisit;
-    private Technician next;
-    private Technician head;
 
     /**
      * Constructor for the Technician class
@@ -24,8 +22,6 @@ public class Technician extends Provider {
     public Technician(Profile profile, Location location, int ratePerVisit) {
         super(profile, location);
         this.ratePerVisit = ratePerVisit;
-        this.next = null;
-        this.head = null;
     }
 
     /**
@@ -37,60 +33,6 @@ public class Technician extends Provider {
         return this.ratePerVisit;
     }
 
-    /**
-     * Getter for the next Technician in the circular list
-     * @return the next Technician
-     */
-    public Technician getNext() {
-        return next;
-    }
-
-    /**
-     * Setter for the next Technician in the circular list
-     * @param next the next Technician
-     */
-    public void setNext(Technician next) {
-        this.next = next;
-    }
-
-    /**
-     * Getter for the head of the circular list
-     * @return the head Technician
-     */
-    public Technician getHead() {
-        return this.head;
-    }
-
-    /**
-     * Setter for the head of the circular list
-     * @param head the head Technician
-     */
-    public void setHead(Technician head) {
-        this.head = head;
-    }
-
-    /**
-     * Method to calculate the size of the circular linked list of Technicians
-     * @return the size (number of technicians) in the circular list
-     */
-    public int getSize() {
-        if (this.head == null) {
-            return 0;
-        }
-
-        Technician current = this.head;
-        int size = 1;
-
-        do {
-            size++;
-            current = current.getNext();
-        } while (current != head);
-
-        return size;
-    }
-
-
-
     /**
      * toString override for Technician objects
      * @return String representation of Technician
@@ -0,0 +1,210 @@
+package scheduler;
+import util.Date;
+import util.List;
+
+/**
+ * This class assigns imaging appointments to technicians in turn
+ * The technicians form a ring, kept as an array with one shared cursor at
+ * the technician whose turn is next
+ * The ring of a provider list is in reverse order of the list, so the last
+ * technician read takes the first turn
+ * An assignment walks the ring from the cursor to the first technician
+ * who is free and whose location has the room free, and moves the cursor
+ * past that technician, so the next assignment starts with the following one
+ * Technicians are checked through the day masks of the occupancy grids,
+ * and the room of each location is checked at most once per assignment
+ * The other strategies use a rotation to list the free technicians in
+ * turn and to break their ties
+ * @author Keshav Dave, Danny Watson
+ */
+public final class TechnicianRotation implements ImagingAssignmentStrategy {
+    // Variables
+    private final Technician[] ring;
+    private final int[] locations;
+    private int cursor;
+
+    /**
+     * Creates the rotation of a number of technicians
+     * @param technicians the technicians, in order of their turns
+     */
+    TechnicianRotation(Technician[] technicians) {
+        this.ring = technicians.clone();
+        this.locations = new int[this.ring.length];
+        for (int index = 0; index < this.ring.length; index++) {
+            this.locations[index] = this.ring[index].getLocation().ordinal();
+        }
+    }
+
+    /**
+     * Returns the technicians of a provider list in order of their turns
+     * @param providers the providers, in the order they were read
+     * @return the technicians, the last one read first
+     */
+    static Technician[] turns(List<Provider> providers) {
+        int size = 0;
+        for (Provider provider : providers) {
+            if (provider instanceof Technician) {
+                size++;
+            }
+        }
+        Technician[] turns = new Technician[size];
+        int index = 0;
+        for (int i = providers.size() - 1; i >= 0; i--) {
+            if (providers.get(i) instanceof Technician technician) {
+                turns[index++] = technician;
+            }
+        }
+        return turns;
+    }
+
+    /**
+     * Assigns the next technician who is free at the given date and
+     * timeslot and whose location has the room free
+     * The cursor moves past the assigned technician
+     * @param store the store holding the booked appointments
+     * @param patient the profile of the patient, not used by the rotation
+     * @param date the appointment date
+     * @param timeslot the appointment timeslot
+     * @param room the imaging service requested
+     * @return the technician, or null if none is free
+     */
+    @Override
+    public Technician assign(AppointmentStore store, Profile patient, Date date,
+                             Timeslot timeslot, Radiology room) {
+        return assign(store, null, date.toEpochDay(), OccupancyGrid.bit(timeslot), room);
+    }
+
+    /**
+     * Assigns the next technician who is free at a day and timeslot and
+     * whose location has the room free, when the bookings of each location
+     * are kept in a separate store
+     * The cursor moves past the assigned technician
+     * @param stores the store holding the bookings of each location,
+     *               indexed by location ordinal
+     * @param day the epoch day
+     * @param slot the bit of the timeslot in a day mask
+     * @param room the imaging service requested
+     * @return the technician, or null if none is free
+     */
+    Technician assign(AppointmentStore[] stores, int day, long slot, Radiology room) {
+        return assign(null, stores, day, slot, room);
+    }
+
+    /**
+     * Assigns the next free technician from either one store or a store
+     * per location
+     * @param shared the store holding every booking, or null
+     * @param stores the store of each location when shared is null
+     * @param day the epoch day
+     * @param slot the bit of the timeslot in a day mask
+     * @param room the imaging service requested
+     * @return the technician, or null if none is free
+     */
+    private Technician assign(AppointmentStore shared, AppointmentStore[] stores, int day,
+                              long slot, Radiology room) {
+        int roomsChecked = 0;
+        int roomsFree = 0;
+        int index = this.cursor;
+        for (int step = 0; step < this.ring.length; step++) {
+            Technician technician = this.ring[index];
+            AppointmentStore store = shared != null ? shared : stores[this.locations[index]];
+            if ((store.getTechnicianDayMask(technician, day) & slot) == 0) {
+                int location = 1 << this.locations[index];
+                if ((roomsChecked & location) == 0) {
+                    roomsChecked |= location;
+                    if ((store.getRoomDayMask(technician.getLocation(), room, day) & slot) == 0) {
+                        roomsFree |= location;
+                    }
+                }
+                if ((roomsFree & location) != 0) {
+                    advance(index);
+                    return technician;
+                }
+            }
+            index = index + 1 == this.ring.length ? 0 : index + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Lists the technicians who are free at a day and timeslot and whose
+     * location has the room free, in order of their turns
+     * @param store the store holding the booked appointments
+     * @param day the epoch day
+     * @param slot the bit of the timeslot in a day mask
+     * @param room the imaging service requested
+     * @param free the array receiving the ring indexes of the free
+     *             technicians, at least as long as the ring
+     * @return the number of free technicians
+     */
+    int free(AppointmentStore store, int day, long slot, Radiology room, int[] free) {
+        int roomsChecked = 0;
+        int roomsFree = 0;
+        int count = 0;
+        int index = this.cursor;
+        for (int step = 0; step < this.ring.length; step++) {
+            Technician technician = this.ring[index];
+            if ((store.getTechnicianDayMask(technician, day) & slot) == 0) {
+                int location = 1 << this.locations[index];
+                if ((roomsChecked & location) == 0) {
+                    roomsChecked |= location;
+                    if ((store.getRoomDayMask(technician.getLocation(), room, day) & slot) == 0) {
+                        roomsFree |= location;
+                    }
+                }
+                if ((roomsFree & location) != 0) {
+                    free[count++] = index;
+                }
+            }
+            index = index + 1 == this.ring.length ? 0 : index + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a technician of the ring
+     * @param index the ring index of the technician
+     * @return the technician
+     */
+    Technician get(int index) {
+        return this.ring[index];
+    }
+
+    /**
+     * Moves the cursor past a technician, giving the turn to the next one
+     * @param index the ring index of the technician
+     */
+    void advance(int index) {
+        this.cursor = index + 1 == this.ring.length ? 0 : index + 1;
+    }
+
+    /**
+     * Returns the technicians in the order of their turns, starting with
+     * the technician whose turn is next
+     * @return a new array of the technicians
+     */
+    @Override
+    public Technician[] order() {
+        Technician[] order = new Technician[this.ring.length];
+        int tail = this.ring.length - this.cursor;
+        System.arraycopy(this.ring, this.cursor, order, 0, tail);
+        System.arraycopy(this.ring, 0, order, tail, this.cursor);
+        return order;
+    }
+
+    /**
+     * Returns the technician whose turn is next
+     * @return the technician, or null if there are no technicians
+     */
+    public Technician getNext() {
+        return this.ring.length == 0 ? null : this.ring[this.cursor];
+    }
+
+    /**
+     * Returns the number of technicians in the rotation
+     * @return the number of technicians
+     */
+    public int size() {
+        return this.ring.length;
+    }
+}
\ No newline at end of file
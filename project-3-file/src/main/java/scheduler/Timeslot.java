@@ -9,6 +9,7 @@ package scheduler;
  */
 public class Timeslot implements Comparable<Timeslot>{
     // Constants
+    public static final int NUMBER_OF_TIMESLOTS = 12;
     private static final int SLOT_ONE = 1;
     private static final int SLOT_TWO = 2;
     private static final int SLOT_THREE = 3;
@@ -22,22 +23,24 @@ public class Timeslot implements Comparable<Timeslot>{
     private static final int SLOT_ELEVEN = 11;
     private static final int SLOT_TWELVE = 12;
     private static final int NOONTIME = 12;
+    private static final int MINUTES_PER_HOUR = 60;
 
     //Variables
-    private static Timeslot tslot1 = new Timeslot(9, 0);
-    private static Timeslot tslot2 = new Timeslot(9, 30);
-    private static Timeslot tslot3 = new Timeslot(10,0);
-    private static Timeslot tslot4 = new Timeslot(10,30);
-    private static Timeslot tslot5 = new Timeslot(11,0);
-    private static Timeslot tslot6 = new Timeslot (11, 30);
-    private static Timeslot tslot7 = new Timeslot(14, 0);
-    private static Timeslot tslot8 = new Timeslot(14,30);
-    private static Timeslot tslot9 = new Timeslot(15,0);
-    private static Timeslot tslot10 = new Timeslot(15,30);
-    private static Timeslot tslot11 = new Timeslot(16,0);
-    private static Timeslot tslot12 = new Timeslot(16, 30);
-    private int hour;
-    private int minute;
+    private static Timeslot tslot1 = new Timeslot(SLOT_ONE, 9, 0);
+    private static Timeslot tslot2 = new Timeslot(SLOT_TWO, 9, 30);
+    private static Timeslot tslot3 = new Timeslot(SLOT_THREE, 10, 0);
+    private static Timeslot tslot4 = new Timeslot(SLOT_FOUR, 10, 30);
+    private static Timeslot tslot5 = new Timeslot(SLOT_FIVE, 11, 0);
+    private static Timeslot tslot6 = new Timeslot(SLOT_SIX, 11, 30);
+    private static Timeslot tslot7 = new Timeslot(SLOT_SEVEN, 14, 0);
+    private static Timeslot tslot8 = new Timeslot(SLOT_EIGHT, 14, 30);
+    private static Timeslot tslot9 = new Timeslot(SLOT_NINE, 15, 0);
+    private static Timeslot tslot10 = new Timeslot(SLOT_TEN, 15, 30);
+    private static Timeslot tslot11 = new Timeslot(SLOT_ELEVEN, 16, 0);
+    private static Timeslot tslot12 = new Timeslot(SLOT_TWELVE, 16, 30);
+    private final int number;
+    private final int hour;
+    private final int minute;
 
     /**
      * Constructor for Timeslot
@@ -45,10 +48,47 @@ public class Timeslot implements Comparable<Timeslot>{
      * @param minute the minute for the timeslot
      */
     Timeslot(int hour, int minute) {
+        this(0, hour, minute);
+    }
+
+    /**
+     * Constructor for one of the twelve numbered timeslots
+     * @param number the number of the timeslot (1 to 12)
+     * @param hour the hour for the timeslot (in 24-hour format)
+     * @param minute the minute for the timeslot
+     */
+    private Timeslot(int number, int hour, int minute) {
+        this.number = number;
         this.hour = hour;
         this.minute = minute;
     }
 
+    /**
+     * Getter method for the number of the timeslot
+     * The number is the position of the timeslot in the day, so it can be
+     * used as a bit or array index without searching the timeslots
+     * @return the number of the timeslot (1 to 12)
+     */
+    public int getNumber() {
+        return this.number;
+    }
+
+    /**
+     * Getter method for the hour of the timeslot
+     * @return the hour in 24-hour format
+     */
+    public int getHour() {
+        return this.hour;
+    }
+
+    /**
+     * Getter method for the minute of the timeslot
+     * @return the minute of the hour
+     */
+    public int getMinute() {
+        return this.minute;
+    }
+
     /**
      * Returns the string representation of the timeslot in the format hh:mm AM/PM
      * @return formatted timeslot string
@@ -151,6 +191,19 @@ public class Timeslot implements Comparable<Timeslot>{
      */
     @Override
     public boolean equals(Object timeslot) {
+        if (!(timeslot instanceof Timeslot)) {
+            return false;
+        }
         return this.compareTo((Timeslot) timeslot) == 0;
     }
+
+    /**
+     * Returns a hash code for the timeslot that agrees with equals
+     * The hash code is the number of minutes since midnight
+     * @return the hash code of the timeslot
+     */
+    @Override
+    public int hashCode() {
+        return this.hour * MINUTES_PER_HOUR + this.minute;
+    }
 }
\ No newline at end of file
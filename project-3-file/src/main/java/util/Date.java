@@ -1,4 +1,7 @@
 package util;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Calendar;
 
 /**
@@ -6,6 +9,11 @@ import java.util.Calendar;
  * comparison, and formatting. It includes utility methods for checking
  * leap years, determining if a date is valid, checking if a date is within
  * six months from today, and comparing dates
+ * The epoch day of the date is computed once when it is created, so the
+ * day of the week, the checks against today and comparisons are integer
+ * arithmetic on it, and no Calendar is created
+ * Today and the last day within six months of it are cached, and worked
+ * out again once the clock passes midnight
  * @author Keshav Dave, Danny Watson
  */
 public class Date implements Comparable<Date> {
@@ -28,6 +36,9 @@ public class Date implements Comparable<Date> {
     public static final int DAYS_IN_OCTOBER = 31;
     public static final int DAYS_IN_NOVEMBER = 30;
     public static final int DAYS_IN_DECEMBER = 31;
+    public static final int DAYS_IN_YEAR = 365;
+    public static final int DAYS_IN_WEEK = 7;
+    public static final int WEEKDAYS = 5;
     public static final int[] DAYS_IN_MONTH = {
             DAYS_IN_JANUARY,
             DAYS_IN_FEBRUARY,
@@ -42,11 +53,19 @@ public class Date implements Comparable<Date> {
             DAYS_IN_NOVEMBER,
             DAYS_IN_DECEMBER
     };
+    private static final int DAYS_PER_FIVE_MONTHS = 153; // March to July
+    private static final int DAYS_PER_ERA = 146097; // 400 years
+    private static final int EPOCH_DAY_OFFSET = 719468; // 3/1/0000 to 1/1/1970
+    private static final int DAYS_PER_FOUR_YEARS = 1460;
+    private static final int DAYS_PER_CENTURY = 36524;
+    private static final int THURSDAY_TO_MONDAY = 3; // 1/1/1970 was a Thursday
 
     // Variables
-    private int year;
-    private int month;
-    private int day;
+    private static volatile Today today = new Today(System.currentTimeMillis());
+    private final int year;
+    private final int month;
+    private final int day;
+    private final int epochDay;
 
     /**
      * Constructs a Date object with the given month, day, and year
@@ -58,6 +77,21 @@ public class Date implements Comparable<Date> {
         this.year = year;
         this.month = month;
         this.day = day;
+        this.epochDay = epochDay(month, day, year);
+    }
+
+    /**
+     * Constructs a Date whose epoch day is already known
+     * @param month The month of the date
+     * @param day The day of the date
+     * @param year The year of the date
+     * @param epochDay The epoch day of the date
+     */
+    private Date(int month, int day, int year, int epochDay) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.epochDay = epochDay;
     }
 
     /**
@@ -80,16 +114,7 @@ public class Date implements Comparable<Date> {
      * @return true if the date is not today, false otherwise
      */
     public boolean isNotToday() {
-        Calendar calendar = Calendar.getInstance();
-        int year = calendar.get(Calendar.YEAR);
-        int month = calendar.get(Calendar.MONTH) + 1;
-        int day = calendar.get(Calendar.DAY_OF_MONTH);
-
-        if (this.year != year)
-            return true;
-        if (this.month != month)
-            return true;
-        return this.day != day;
+        return this.epochDay != current().epochDay;
     }
 
     /**
@@ -97,32 +122,17 @@ public class Date implements Comparable<Date> {
      * @return true if the date is after today, false otherwise
      */
     public boolean isAfterToday() {
-        Calendar calendar = Calendar.getInstance();
-        int year = calendar.get(Calendar.YEAR);
-        int month = calendar.get(Calendar.MONTH) + 1;
-        int day = calendar.get(Calendar.DAY_OF_MONTH);
-
-        if (this.year > year)
-            return true;
-        if (this.month > month && this.year == year)
-            return true;
-        if (this.month == month && this.year == year)
-            return this.day > day;
-
-        return false;
+        return this.epochDay > current().epochDay;
     }
 
     /**
      * Checks whether the date is within six months from today
-     * @return true if the date is within six months, false otherwise
+     * The limit is today's day of the month six months on, or the last day
+     * of that month if it is shorter, as Calendar adds months
+     * @return true if the date is before the limit, false otherwise
      */
     public boolean withinSixMonths() {
-        Calendar calendar = Calendar.getInstance();
-        Calendar targetDate = Calendar.getInstance();
-        targetDate.set(this.year, this.month - 1, this.day);
-        calendar.add(Calendar.MONTH, MAX_VALIDITY_AMOUNT);
-
-        return targetDate.before(calendar);
+        return this.epochDay < current().sixMonthsEpochDay;
     }
 
     /**
@@ -130,22 +140,71 @@ public class Date implements Comparable<Date> {
      * @return true if the date is not a Saturday or Sunday, false otherwise
      */
     public boolean isNotWeekend() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(this.year, this.month - 1, this.day);
-        int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
+        return !isWeekend(this.epochDay);
+    }
 
-        return dayOfWeek != Calendar.SATURDAY && dayOfWeek != Calendar.SUNDAY;
+    /**
+     * Returns today's date, as cached until midnight
+     * @return the date of today
+     */
+    public static Date today() {
+        return current().date;
+    }
+
+    /**
+     * Returns the first epoch day that is not within six months from today,
+     * the limit withinSixMonths checks against, as cached until midnight
+     * @return the epoch day after the last day within six months
+     */
+    public static int sixMonthsEpochDay() {
+        return current().sixMonthsEpochDay;
+    }
+
+    /**
+     * Returns the cached day, working it out again once the clock has left
+     * it, at midnight or when the clock is set back
+     * @return today
+     */
+    private static Today current() {
+        Today current = today;
+        long now = System.currentTimeMillis();
+        if (now >= current.endsAt || now < current.startsAt) {
+            current = new Today(now);
+            today = current;
+        }
+        return current;
     }
 
+    /**
+     * Returns the number of days in a month
+     * @param month the month, from 1 to 12
+     * @param year the year of the month
+     * @return the number of days in the month of that year
+     */
+    public static int daysInMonth(int month, int year) {
+        if (month == Calendar.FEBRUARY + 1 && isLeapYear(year)) {
+            return DAYS_IN_LEAP_FEBRUARY;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
 
     /**
      * Determines if the current year is a leap year
      * @return true if the year is a leap year, false otherwise
      */
     public boolean isLeapYear() {
-        if (this.year % QUADRENNIAL == 0) {
-            if (this.year % CENTENNIAL == 0) {
-                return this.year % QUATERCENTENNIAL == 0;
+        return isLeapYear(this.year);
+    }
+
+    /**
+     * Determines if a year is a leap year
+     * @param year the year to check
+     * @return true if the year is a leap year, false otherwise
+     */
+    public static boolean isLeapYear(int year) {
+        if (year % QUADRENNIAL == 0) {
+            if (year % CENTENNIAL == 0) {
+                return year % QUATERCENTENNIAL == 0;
             }
             return true;
         }
@@ -160,6 +219,92 @@ public class Date implements Comparable<Date> {
         return year;
     }
 
+    /**
+     * simple getter method
+     * @return The month of date
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * simple getter method
+     * @return The day of date
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Returns the number of days from 1/1/1970 to this date
+     * Computed once when the date is created
+     * @return the epoch day of the date, negative for dates before 1970
+     */
+    public int toEpochDay() {
+        return this.epochDay;
+    }
+
+    /**
+     * Computes the number of days from 1/1/1970 to a date
+     * Computed with integer arithmetic from the year, month and day, so no
+     * Calendar is created; days past the end of a month run on into the
+     * next month, as they do in a lenient Calendar
+     * @param month the month of the date
+     * @param day the day of the date
+     * @param year the year of the date
+     * @return the epoch day of the date, negative for dates before 1970
+     */
+    private static int epochDay(int month, int day, int year) {
+        int shiftedYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(shiftedYear, QUATERCENTENNIAL);
+        int yearOfEra = shiftedYear - era * QUATERCENTENNIAL;
+        int dayOfYear = (DAYS_PER_FIVE_MONTHS * ((month + 9) % MAX_MONTHS) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * DAYS_IN_YEAR + yearOfEra / QUADRENNIAL
+                - yearOfEra / CENTENNIAL + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - EPOCH_DAY_OFFSET;
+    }
+
+    /**
+     * Creates the date that is the given number of days from 1/1/1970
+     * The inverse of toEpochDay
+     * @param epochDay the epoch day of the date
+     * @return the date of that day
+     */
+    public static Date fromEpochDay(int epochDay) {
+        int shiftedDay = epochDay + EPOCH_DAY_OFFSET;
+        int era = Math.floorDiv(shiftedDay, DAYS_PER_ERA);
+        int dayOfEra = shiftedDay - era * DAYS_PER_ERA;
+        int yearOfEra = (dayOfEra - dayOfEra / DAYS_PER_FOUR_YEARS + dayOfEra / DAYS_PER_CENTURY
+                - dayOfEra / (DAYS_PER_ERA - 1)) / DAYS_IN_YEAR;
+        int dayOfYear = dayOfEra - (DAYS_IN_YEAR * yearOfEra + yearOfEra / QUADRENNIAL
+                - yearOfEra / CENTENNIAL);
+        int shiftedMonth = (5 * dayOfYear + 2) / DAYS_PER_FIVE_MONTHS;
+        int day = dayOfYear - (DAYS_PER_FIVE_MONTHS * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * QUATERCENTENNIAL + (month <= 2 ? 1 : 0);
+        return new Date(month, day, year, epochDay);
+    }
+
+    /**
+     * Checks whether an epoch day falls on a Saturday or Sunday
+     * Agrees with isNotWeekend, without creating a Calendar
+     * @param epochDay the epoch day to check
+     * @return true if the day is a Saturday or Sunday, false otherwise
+     */
+    public static boolean isWeekend(int epochDay) {
+        return dayOfWeek(epochDay) >= WEEKDAYS;
+    }
+
+    /**
+     * Returns the day of the week of an epoch day
+     * @param epochDay the epoch day
+     * @return 0 for Monday through 6 for Sunday
+     */
+    public static int dayOfWeek(int epochDay) {
+        // Monday is 0 after shifting from Thursday
+        return Math.floorMod(epochDay + THURSDAY_TO_MONDAY, DAYS_IN_WEEK);
+    }
+
     /**
      * Returns the string representation of the date in the format MM/DD/YYYY
      * @return The formatted string of the date
@@ -171,20 +316,18 @@ public class Date implements Comparable<Date> {
 
     /**
      * Compares the current date with another date
+     * Valid dates compare by epoch day alone; the day is only compared to
+     * keep invalid dates such as 2/30 apart from the day they run on to
      * @param date The other date to compare
      * @return -1, 0, or 1 depending on whether the current date is before,
      * equal to, or after the other date
      */
     @Override
     public int compareTo(Date date) {
-        if (this.year != date.year) {
-            return Integer.compare(this.year, date.year);
-        } else if (this.month != date.month) {
-            return Integer.compare(this.month, date.month);
-        } else if (this.day != date.day) {
-            return Integer.compare(this.day, date.day);
+        if (this.epochDay != date.epochDay) {
+            return Integer.compare(this.epochDay, date.epochDay);
         }
-        return 0;
+        return Integer.compare(this.day, date.day);
     }
 
     /**
@@ -202,7 +345,46 @@ public class Date implements Comparable<Date> {
         }
         Date compareDate = (Date) date;
 
-        return this.year == compareDate.year && this.month ==
-                compareDate.month && this.day == compareDate.day;
+        return this.epochDay == compareDate.epochDay && this.day == compareDate.day;
+    }
+
+    /**
+     * Returns a hash code for the date that agrees with equals and compareTo
+     * @return the epoch day of the date
+     */
+    @Override
+    public int hashCode() {
+        return this.epochDay;
+    }
+
+    /**
+     * Today's date and the instants it starts and ends at, in the default
+     * time zone
+     */
+    private static final class Today {
+        // Variables
+        private final Date date;
+        private final int epochDay;
+        private final int sixMonthsEpochDay;
+        private final long startsAt;
+        private final long endsAt;
+
+        /**
+         * Finds the day an instant falls on
+         * @param now the instant, in milliseconds since 1/1/1970 UTC
+         */
+        private Today(long now) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate local = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+            this.date = new Date(local.getMonthValue(), local.getDayOfMonth(), local.getYear());
+            this.epochDay = this.date.epochDay;
+            this.startsAt = local.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.endsAt = local.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            int months = this.date.month - 1 + MAX_VALIDITY_AMOUNT;
+            int year = this.date.year + months / MAX_MONTHS;
+            int month = months % MAX_MONTHS + 1;
+            int day = Math.min(this.date.day, daysInMonth(month, year));
+            this.sixMonthsEpochDay = epochDay(month, day, year);
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package util;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 /**
  * This class represents a list of appointments. It provides methods for
@@ -12,6 +14,9 @@ import java.util.NoSuchElementException;
  * @author Keshav Dave, Daniel Watson
  */
 public class List<E> implements Iterable<E> {
+    // Constants
+    private static final int DEFAULT_CAPACITY = 4;
+
     // Variables
     private E[] objects;
     private int size;
@@ -23,7 +28,7 @@ public class List<E> implements Iterable<E> {
      */
     @SuppressWarnings("unchecked")
     public List() {
-        this.objects = (E[]) new Object[4];
+        this.objects = (E[]) new Object[DEFAULT_CAPACITY];
         this.size = 0;
     }
 
@@ -43,16 +48,49 @@ public class List<E> implements Iterable<E> {
 
     /**
      * Private method to grow the array when it's full
+     * The capacity grows by half each time, so adding n objects copies
+     * O(n) elements in total
+     */
+    private void grow() {
+        this.ensureCapacity(this.objects.length + 1);
+    }
+
+    /**
+     * Private method to replace the backing array with one of the given
+     * length, keeping the objects in the list
      * SuppressWarnings("unchecked") tag makes it so we can cast (E[]) to the
      * object array without error
+     * @param capacity the length of the new array
      */
-    private void grow() {
+    private void resize(int capacity) {
         @SuppressWarnings("unchecked")
-        E[] newObjects = (E[]) new Object[objects.length + 4];
+        E[] newObjects = (E[]) new Object[capacity];
         System.arraycopy(objects, 0, newObjects, 0, size);
         objects = newObjects;
     }
 
+    /**
+     * Method to make sure the list can hold at least the given number of
+     * objects without growing again
+     * @param minCapacity the number of objects the list should fit
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= this.objects.length) {
+            return;
+        }
+        int capacity = this.objects.length + (this.objects.length >> 1);
+        this.resize(Math.max(Math.max(capacity, minCapacity), DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Method to shrink the backing array to the size of the list
+     */
+    public void trimToSize() {
+        if (this.objects.length > Math.max(this.size, DEFAULT_CAPACITY)) {
+            this.resize(Math.max(this.size, DEFAULT_CAPACITY));
+        }
+    }
+
     /**
      * Method to check if the list contains an object
      * @param obj the object to check
@@ -82,25 +120,111 @@ public class List<E> implements Iterable<E> {
         this.size++; // Increase the size
     }
 
+    /**
+     * Method to add an object to the end of the list without checking if
+     * it is already present
+     * Only use this when the caller already guarantees the object is not in
+     * the list, since it skips the linear duplicate check of add
+     * @param obj the object to add
+     */
+    public void addLast(E obj) {
+        if (this.size == this.objects.length) {
+            this.grow();
+        }
+        this.objects[this.size++] = obj;
+    }
+
+    /**
+     * Method to add every object of another list that is not already present
+     * Duplicates are found with a hash set, so the objects must have a
+     * hashCode that agrees with equals; the cost is linear in both lists
+     * @param other the objects to add
+     */
+    public void addAll(List<? extends E> other) {
+        this.ensureCapacity(this.size + other.size);
+        HashSet<Object> present = new HashSet<>(2 * (this.size + other.size));
+        for (int i = 0; i < this.size; i++) {
+            present.add(this.objects[i]);
+        }
+        for (int i = 0; i < other.size; i++) {
+            E obj = other.objects[i];
+            if (present.add(obj)) {
+                this.objects[this.size++] = obj;
+            }
+        }
+    }
+
     /**
      * Method to remove an object from the list
      * Shifts the remaining elements after removal
      * @param obj the object to remove
+     * @return true if the object was removed, false if it was not found
      */
-    public void remove(E obj){
-        if(!this.contains(obj))
-            return;
-        int indexOfRemoved = indexOf(obj);
-        if(indexOfRemoved == this.size-1){
-            this.objects[indexOfRemoved] = null;
-            this.size--;
-            return;
+    public boolean remove(E obj){
+        int indexOfRemoved = find(obj);
+        if (indexOfRemoved == -1)
+            return false;
+        this.removeAt(indexOfRemoved);
+        return true;
+    }
+
+    /**
+     * Method to remove the object at a specific index
+     * Shifts the remaining elements after removal with one array copy
+     * @param index the index of the object to remove
+     * @return the removed object
+     */
+    public E removeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
         }
-        for(int i = indexOfRemoved; i < this.size-1; i++){
-            this.objects[i] = this.objects[i+1];
+        E removed = this.objects[index];
+        System.arraycopy(this.objects, index + 1, this.objects, index,
+                this.size - index - 1);
+        this.objects[--this.size] = null;
+        return removed;
+    }
+
+    /**
+     * Method to remove every object that matches a condition
+     * The remaining objects keep their order and are compacted in one pass
+     * @param filter the condition for objects to remove
+     * @return true if any object was removed, false otherwise
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        int kept = 0;
+        for (int i = 0; i < this.size; i++) {
+            E obj = this.objects[i];
+            if (!filter.test(obj)) {
+                this.objects[kept++] = obj;
+            }
         }
-        this.objects[this.size - 1] = null;
-        this.size--;
+        if (kept == this.size) {
+            return false;
+        }
+        for (int i = kept; i < this.size; i++) {
+            this.objects[i] = null;
+        }
+        this.size = kept;
+        return true;
+    }
+
+    /**
+     * Method to remove every object that is in another list
+     * The other list is put in a hash set, so the objects must have a
+     * hashCode that agrees with equals; the cost is linear in both lists
+     * @param other the objects to remove
+     * @return true if any object was removed, false otherwise
+     */
+    public boolean removeAll(List<?> other) {
+        if (other.isEmpty()) {
+            return false;
+        }
+        HashSet<Object> removed = new HashSet<>(2 * other.size);
+        for (int i = 0; i < other.size; i++) {
+            removed.add(other.objects[i]);
+        }
+        return this.removeIf(removed::contains);
     }
 
     /**
@@ -153,18 +277,23 @@ public class List<E> implements Iterable<E> {
         this.objects[index] = obj;
     }
 
+    /**
+     * Package-private accessor for the backing array so the Sort class can
+     * sort the list in place without copying it
+     * Only the first size() slots of the array hold elements
+     * @return the backing array of the list
+     */
+    E[] elements() {
+        return this.objects;
+    }
+
     /**
      * Method to return the index of an object in the list
      * @param obj the object to find
      * @return the index of the object, or -1 if not found
      */
     public int indexOf(E obj){
-        for (int i = 0; i < this.size; i++) {
-            if (this.objects[i].equals(obj)) {
-                return i; // Return the index if the element matches
-            }
-        }
-        return -1;
+        return find(obj);
     }
 
     /**
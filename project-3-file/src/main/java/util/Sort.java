@@ -1,11 +1,17 @@
 package util;
 import scheduler.*;
+
+import java.util.Comparator;
+
 /**
  * The Sort class provides utility methods for sorting various types of lists.
  * This class contains only static methods, so it does not need to be instantiated.
  * The methods in this class sort lists of appointments and providers. For appointments,
  * sorting can be done by different keys (such as patient name, date, or time).
  * The sorting is done in-place, meaning that the provided list is directly modified.
+ * Every ordering is a reusable Comparator constant, and all of them are applied
+ * by one stable merge sort that works directly on the backing array of the List,
+ * so a sort costs O(n log n) and an already sorted list costs O(n)
  * Usage:
  * - Sort a list of appointments by a given key (e.g., by patient name or date).
  * - Sort a list of providers based on their name or other attributes.
@@ -15,6 +21,93 @@ import scheduler.*;
  * @author Keshav Dave, Daniel Watson
  */
 public class Sort {
+    // Constants
+    private static final int RUN_LENGTH = 32;
+
+    /**
+     * Orders providers by last name, then by first name, ignoring case
+     */
+    public static final Comparator<Provider> BY_PROVIDER_NAME = (first, second) -> {
+        int lastNameComparison = first.getProfile().getlname()
+                .compareToIgnoreCase(second.getProfile().getlname());
+        if (lastNameComparison != 0) {
+            return lastNameComparison;
+        }
+        return first.getProfile().getfname()
+                .compareToIgnoreCase(second.getProfile().getfname());
+    };
+
+    /**
+     * Orders appointments by date and timeslot, then by provider last name
+     * 'A' key for PA command
+     */
+    public static final Comparator<Appointment> BY_DATE = (first, second) -> {
+        int dateComparison = first.getDate().compareTo(second.getDate());
+        if (dateComparison != 0) {
+            return dateComparison;
+        }
+        int timeslotComparison = first.getTimeslot().compareTo(second.getTimeslot());
+        if (timeslotComparison != 0) {
+            return timeslotComparison;
+        }
+        return first.getProvider().getProfile().getlname()
+                .compareTo(second.getProvider().getProfile().getlname());
+    };
+
+    /**
+     * Orders appointments by patient profile, then by date and timeslot
+     * 'P' key for PP command
+     */
+    public static final Comparator<Appointment> BY_PATIENT = (first, second) -> {
+        int patientComparison = first.getPatient().compareTo(second.getPatient());
+        if (patientComparison != 0) {
+            return patientComparison;
+        }
+        int dateComparison = first.getDate().compareTo(second.getDate());
+        if (dateComparison != 0) {
+            return dateComparison;
+        }
+        return first.getTimeslot().compareTo(second.getTimeslot());
+    };
+
+    /**
+     * Orders appointments by county ignoring case, then by date and timeslot
+     * 'L' key for PL command
+     */
+    public static final Comparator<Appointment> BY_LOCATION = (first, second) -> {
+        int countyComparison = ((Provider) first.getProvider()).getLocation().getCounty()
+                .compareToIgnoreCase(((Provider) second.getProvider()).getLocation().getCounty());
+        if (countyComparison != 0) {
+            return countyComparison;
+        }
+        int dateComparison = first.getDate().compareTo(second.getDate());
+        if (dateComparison != 0) {
+            return dateComparison;
+        }
+        return first.getTimeslot().compareTo(second.getTimeslot());
+    };
+
+    /**
+     * Orders appointments by patient last name, then first name ignoring
+     * case, then by the year of the appointment
+     * 'S' key for PS command
+     */
+    public static final Comparator<Appointment> BY_STATEMENT = (first, second) -> {
+        Profile firstProfile = first.getPatient().getProfile();
+        Profile secondProfile = second.getPatient().getProfile();
+        int lastNameComparison = firstProfile.getlname()
+                .compareToIgnoreCase(secondProfile.getlname());
+        if (lastNameComparison != 0) {
+            return lastNameComparison;
+        }
+        int firstNameComparison = firstProfile.getfname()
+                .compareToIgnoreCase(secondProfile.getfname());
+        if (firstNameComparison != 0) {
+            return firstNameComparison;
+        }
+        return Integer.compare(first.getDate().getYear(), second.getDate().getYear());
+    };
+
     /**
      *  Method to sort appointments by a certain key
      *  Call this method when dealing with the PA PP or PL methods
@@ -24,67 +117,40 @@ public class Sort {
      * 'S' key for PS command
      * 'O' and 'I' commands expect a list of imaging and office appointments,
      * and they will sort it correctly by the location logic
-     * The appointments are sorted by bubble sort
-     * WARNING: Lines must exceed the 78 column count limit in this method
+     * Unknown keys leave the list unchanged
      * @param appointments list of Appointments
      * @param key char key to choose which way to sort appointments
      */
     public static void appointment(List<Appointment> appointments, char key) {
-        switch (key) {
-            case 'A' -> sortByDate(appointments);
-            case 'P' -> sortByPatient(appointments);
-            case 'L', 'O', 'I' -> sortByLocation(appointments);
-            case 'S' -> sortByStatements(appointments);
+        Comparator<Appointment> comparator = comparator(key);
+        if (comparator != null) {
+            sort(appointments, comparator);
         }
     }
 
+    /**
+     * Method to get the reusable comparator for an appointment sort key
+     * @param key char key of the ordering, as used by appointment()
+     * @return the comparator for the key, or null if the key is unknown
+     */
+    public static Comparator<Appointment> comparator(char key) {
+        return switch (key) {
+            case 'A' -> BY_DATE;
+            case 'P' -> BY_PATIENT;
+            case 'L', 'O', 'I' -> BY_LOCATION;
+            case 'S' -> BY_STATEMENT;
+            default -> null;
+        };
+    }
+
     /**
      * Method to sort providers by provider profile
      * Call this method when dealing with the PC command or when
      * needing to sort a Provider list
-     * The appointments are sorted by bubble sort
-     * WARNING: Lines must exceed the 78 column count limit in this method
      * @param providers list of Providers
      */
     public static void provider(List<Provider> providers) {
-        int size = providers.size();
-
-        if (size == 0) {
-            return;
-        }
-
-        for (int i = 0; i < size - 1; i++) {
-            boolean swapped = false;
-            for (int j = 0; j < size - 1 - i; j++) {
-                // Compare by last name first
-                int lastNameComparison = providers.get(j).getProfile().getlname()
-                        .compareToIgnoreCase(providers.get(j + 1).getProfile().getlname());
-
-                if (lastNameComparison > 0) {
-                    Provider temp = providers.get(j);
-                    providers.set(j, providers.get(j + 1));
-                    providers.set(j + 1, temp);
-                    swapped = true; // A swap was made
-                }
-                // If last names are the same, compare by first name
-                else if (lastNameComparison == 0) {
-                    int firstNameComparison = providers.get(j).getProfile().getfname()
-                            .compareToIgnoreCase(providers.get(j + 1).getProfile().getfname());
-
-                    if (firstNameComparison > 0) {
-                        Provider temp = providers.get(j);
-                        providers.set(j, providers.get(j + 1));
-                        providers.set(j + 1, temp);
-                        swapped = true;
-                    }
-                }
-            }
-
-            // If no swaps were made during the inner loop, the list is already sorted
-            if (!swapped) {
-                break;
-            }
-        }
+        sort(providers, BY_PROVIDER_NAME);
     }
 
     /**
@@ -94,44 +160,7 @@ public class Sort {
      * @param appointments list of Appointments
      */
     public static void sortByDate(List<Appointment> appointments) {
-        int size = appointments.size();
-
-        // If list is empty do nothing
-        if (size == 0) {
-            return;
-        }
-
-        for (int i = 0; i < size - 1; i++) {
-            for (int j = i + 1; j < size; j++) {
-                // Compare by date
-                if (appointments.get(j).getDate().compareTo(appointments.get(i).getDate()) < 0) {
-                    // Swap appointments[i] and appointments[j] if they are out of order
-                    Appointment temp = appointments.get(j);
-                    appointments.set(j, appointments.get(i));
-                    appointments.set(i, temp);
-                }
-
-                // If dates are the same, compare by timeslot
-                else if (appointments.get(j).getDate().compareTo(appointments.get(i).getDate()) == 0) {
-                    if (appointments.get(j).getTimeslot().compareTo(appointments.get(i).getTimeslot()) < 0) {
-                        // Swap appointments[i] and appointments[j] if timeslots are out of order
-                        Appointment temp = appointments.get(j);
-                        appointments.set(j, appointments.get(i));
-                        appointments.set(i, temp);
-                    }
-
-                    // If timeslots are the same, compare by provider's last name
-                    else if (appointments.get(j).getTimeslot().compareTo(appointments.get(i).getTimeslot()) == 0) {
-                        if ((((Provider) appointments.get(j).getProvider()).getProfile().getlname().compareTo(((Provider) appointments.get(i).getProvider()).getProfile().getlname()) < 0)) {
-                            // Swap appointments[i] and appointments[j] if provider names are out of order
-                            Appointment temp = appointments.get(j);
-                            appointments.set(j, appointments.get(i));
-                            appointments.set(i, temp);
-                        }
-                    }
-                }
-            }
-        }
+        sort(appointments, BY_DATE);
     }
 
     /**
@@ -141,44 +170,7 @@ public class Sort {
      * @param appointments list of Appointments
      */
     public static void sortByPatient(List<Appointment> appointments) {
-        int size = appointments.size();
-
-        // If list is empty do nothing
-        if (size == 0) {
-            return;
-        }
-
-        for (int i = 0; i < size - 1; i++) {
-            for (int j = i + 1; j < size; j++) {
-                // Compare by patient
-                if (appointments.get(j).getPatient().compareTo(appointments.get(i).getPatient()) < 0) {
-                    // Swap appointments[i] and appointments[j] if they are out of order
-                    Appointment temp = appointments.get(j);
-                    appointments.set(j, appointments.get(i));
-                    appointments.set(i, temp);
-                }
-
-                // if patients are the same, sort by date
-                else if (((Provider) appointments.get(j).getProvider()).getLocation().compareTo(((Provider) appointments.get(i).getProvider()).getLocation()) == 0) {
-                    if (appointments.get(j).getDate().compareTo(appointments.get(i).getDate()) < 0) {
-                        // Swap appointments[i] and appointments[j] if they are out of order
-                        Appointment temp = appointments.get(j);
-                        appointments.set(j, appointments.get(i));
-                        appointments.set(i, temp);
-                    }
-
-                    // if dates are the same, sort by timeslot
-                    else if (appointments.get(j).getDate().compareTo(appointments.get(i).getDate()) == 0) {
-                        if (appointments.get(j).getTimeslot().compareTo(appointments.get(i).getTimeslot()) < 0) {
-                            // Swap appointments[i] and appointments[j] if they are out of order
-                            Appointment temp = appointments.get(j);
-                            appointments.set(j, appointments.get(i));
-                            appointments.set(i, temp);
-                        }
-                    }
-                }
-            }
-        }
+        sort(appointments, BY_PATIENT);
     }
 
     /**
@@ -188,46 +180,7 @@ public class Sort {
      * @param appointments list of Appointments
      */
     public static void sortByLocation(List<Appointment> appointments) {
-        int size = appointments.size();
-
-        if (size == 0) {
-            return;
-        }
-
-        // Sort by county (alphabetically, ignoring case), then date, then timeslot
-        for (int i = 0; i < size - 1; i++) {
-            for (int j = i + 1; j < size; j++) {
-                // Compare by county (case-insensitive)
-                int countyComparison = ((Provider) appointments.get(j).getProvider()).getLocation().getCounty()
-                        .compareToIgnoreCase(((Provider) appointments.get(i).getProvider()).getLocation().getCounty());
-
-                if (countyComparison < 0) {
-                    // Swap appointments if out of order by county
-                    Appointment temp = appointments.get(j);
-                    appointments.set(j, appointments.get(i));
-                    appointments.set(i, temp);
-                }
-                // If counties are the same, compare by date
-                else if (countyComparison == 0) {
-                    int dateComparison = appointments.get(j).getDate().compareTo(appointments.get(i).getDate());
-                    if (dateComparison < 0) {
-                        // Swap appointments if out of order by date
-                        Appointment temp = appointments.get(j);
-                        appointments.set(j, appointments.get(i));
-                        appointments.set(i, temp);
-                    }
-                    // If dates are the same, compare by timeslot
-                    else if (dateComparison == 0) {
-                        if (appointments.get(j).getTimeslot().compareTo(appointments.get(i).getTimeslot()) < 0) {
-                            // Swap appointments if out of order by timeslot
-                            Appointment temp = appointments.get(j);
-                            appointments.set(j, appointments.get(i));
-                            appointments.set(i, temp);
-                        }
-                    }
-                }
-            }
-        }
+        sort(appointments, BY_LOCATION);
     }
 
     /**
@@ -237,47 +190,91 @@ public class Sort {
      * @param appointments list of Appointments
      */
     public static void sortByStatements(List<Appointment> appointments) {
-        int size = appointments.size();
+        sort(appointments, BY_STATEMENT);
+    }
 
-        if (size == 0) {
+    /**
+     * Method to sort any list in place with a stable merge sort
+     * Runs of RUN_LENGTH elements are insertion sorted first, then merged
+     * bottom-up; merges of runs that are already in order are skipped, so
+     * sorting an already sorted list is linear
+     * @param list the list to sort
+     * @param comparator the ordering to sort by
+     * @param <E> the type of elements in the list
+     */
+    public static <E> void sort(List<E> list, Comparator<? super E> comparator) {
+        int size = list.size();
+        if (size < 2) {
+            return;
+        }
+        E[] elements = list.elements();
+        for (int start = 0; start < size; start += RUN_LENGTH) {
+            insertionSort(elements, start, Math.min(start + RUN_LENGTH, size), comparator);
+        }
+        if (size <= RUN_LENGTH) {
             return;
         }
 
-        for (int i = 0; i < size - 1; i++) {
-            for (int j = i + 1; j < size; j++) {
-                Patient patient1 = (Patient) appointments.get(i).getPatient();
-                Patient patient2 = (Patient) appointments.get(j).getPatient();
-
-                // Compare by patient's last name
-                int lastNameComparison = patient1.getProfile().getlname()
-                        .compareToIgnoreCase(patient2.getProfile().getlname());
-
-                if (lastNameComparison > 0) {
-                    Appointment temp = appointments.get(j);
-                    appointments.set(j, appointments.get(i));
-                    appointments.set(i, temp);
+        @SuppressWarnings("unchecked")
+        E[] buffer = (E[]) new Object[size];
+        for (int width = RUN_LENGTH; width < size; width *= 2) {
+            for (int start = 0; start < size - width; start += 2 * width) {
+                int middle = start + width;
+                int end = Math.min(start + 2 * width, size);
+                if (comparator.compare(elements[middle - 1], elements[middle]) > 0) {
+                    merge(elements, buffer, start, middle, end, comparator);
                 }
-                // If last names are the same, compare by first name
-                else if (lastNameComparison == 0) {
-                    int firstNameComparison = patient1.getProfile().getfname()
-                            .compareToIgnoreCase(patient2.getProfile().getfname());
+            }
+        }
+    }
 
-                    if (firstNameComparison > 0) {
-                        Appointment temp = appointments.get(j);
-                        appointments.set(j, appointments.get(i));
-                        appointments.set(i, temp);
-                    }
-                    // If both first and last names are the same, compare by year
-                    else if (firstNameComparison == 0) {
-                        if (appointments.get(j).getDate().getYear() < appointments.get(i).getDate().getYear()) {
-                            // Swap appointments if out of order by date
-                            Appointment temp = appointments.get(j);
-                            appointments.set(j, appointments.get(i));
-                            appointments.set(i, temp);
-                        }
-                    }
-                }
+    /**
+     * Sorts a range of an array with insertion sort, which is stable
+     * @param elements the array to sort
+     * @param start the first index of the range, inclusive
+     * @param end the last index of the range, exclusive
+     * @param comparator the ordering to sort by
+     * @param <E> the type of elements in the array
+     */
+    private static <E> void insertionSort(E[] elements, int start, int end,
+                                          Comparator<? super E> comparator) {
+        for (int i = start + 1; i < end; i++) {
+            E current = elements[i];
+            int j = i - 1;
+            while (j >= start && comparator.compare(elements[j], current) > 0) {
+                elements[j + 1] = elements[j];
+                j--;
+            }
+            elements[j + 1] = current;
+        }
+    }
+
+    /**
+     * Merges two adjacent sorted ranges of an array, keeping equal elements
+     * in their original order
+     * The left range is copied into the buffer and merged back in place
+     * @param elements the array holding both ranges
+     * @param buffer scratch space at least as long as the left range
+     * @param start the first index of the left range
+     * @param middle the first index of the right range
+     * @param end the index after the right range
+     * @param comparator the ordering to sort by
+     * @param <E> the type of elements in the array
+     */
+    private static <E> void merge(E[] elements, E[] buffer, int start, int middle,
+                                  int end, Comparator<? super E> comparator) {
+        int leftLength = middle - start;
+        System.arraycopy(elements, start, buffer, 0, leftLength);
+        int left = 0;
+        int right = middle;
+        int destination = start;
+        while (left < leftLength && right < end) {
+            if (comparator.compare(elements[right], buffer[left]) < 0) {
+                elements[destination++] = elements[right++];
+            } else {
+                elements[destination++] = buffer[left++];
             }
         }
+        System.arraycopy(buffer, left, elements, destination, leftLength - left);
     }
 }
\ No newline at end of file
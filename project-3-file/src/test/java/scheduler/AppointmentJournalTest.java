@@ -0,0 +1,238 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.Date;
+import util.List;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a schedule written to the journal is recovered when the
+ * journal is opened again, that a torn or corrupt last record is dropped
+ * without losing the records before it, that recovery reads every segment
+ * and the snapshot before them, and that a journal that failed to write
+ * stops saving changes
+ * @author Keshav Dave, Danny Watson
+ */
+class AppointmentJournalTest {
+    private static final Profile[] PATIENTS = {
+            new Profile("John", "Doe", new Date(12, 13, 1989)),
+            new Profile("Jane", "Roe", new Date(1, 2, 1990)),
+            new Profile("Ann", "Lee", new Date(3, 4, 1975)),
+            new Profile("Bob", "Ray", new Date(6, 7, 2001))
+    };
+    private static final String FIRST_SEGMENT = "journal-00000000.log";
+    private static final String SECOND_SEGMENT = "journal-00000001.log";
+    private static final String FIRST_SNAPSHOT = "snapshot-00000001.bin";
+    private static final long COMMIT_INTERVAL_MILLIS = 1;
+    private static final int NO_SNAPSHOTS = Integer.MAX_VALUE;
+    private static final Duration FAILURE_TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A technician for the imaging appointments of the tests
+     * @return the providers
+     */
+    private static List<Provider> providers() {
+        List<Provider> providers = new List<>();
+        providers.addLast(new Technician(new Profile("Cat", "Kim", new Date(5, 6, 1980)), Location.EDISON, 120));
+        return providers;
+    }
+
+    private static ClinicScheduler scheduler() {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        scheduler.setProviders(providers());
+        return scheduler;
+    }
+
+    private AppointmentJournal open(ClinicScheduler scheduler) throws IOException {
+        return AppointmentJournal.open(this.directory, scheduler, COMMIT_INTERVAL_MILLIS, NO_SNAPSHOTS);
+    }
+
+    /**
+     * Books an imaging appointment for a patient at the timeslot after the
+     * index of the patient
+     * @param scheduler the scheduler to book with
+     * @param date the appointment date
+     * @param patient the index of the patient
+     */
+    private static void book(ClinicScheduler scheduler, Date date, int patient) {
+        Timeslot timeslot = Timeslot.getTimeslotByNumber(patient + 1);
+        assertTrue(scheduler.bookImaging(PATIENTS[patient], date, timeslot, Radiology.XRAY).isSuccessful());
+    }
+
+    private static boolean isBooked(ClinicScheduler scheduler, Date date, int patient) {
+        return scheduler.findAppointment(PATIENTS[patient], date, Timeslot.getTimeslotByNumber(patient + 1)) != null;
+    }
+
+    /**
+     * Books the first patients in one session of the journal and closes it
+     * @param date the appointment date
+     * @param count the number of patients to book
+     * @throws IOException if the journal cannot be opened or written
+     */
+    private void journalBookings(Date date, int count) throws IOException {
+        ClinicScheduler scheduler = scheduler();
+        try (AppointmentJournal journal = open(scheduler)) {
+            for (int patient = 0; patient < count; patient++) {
+                book(scheduler, date, patient);
+            }
+        }
+    }
+
+    private void truncate(String segment, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.directory.resolve(segment), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - bytes);
+        }
+    }
+
+    @Test
+    void reopeningRecoversBookingsCancelsAndReschedules() throws IOException {
+        Date date = ScheduleFixtures.bookableDate();
+        Timeslot moved = Timeslot.getTimeslotByNumber(PATIENTS.length + 1);
+        ClinicScheduler scheduler = scheduler();
+        try (AppointmentJournal journal = open(scheduler)) {
+            book(scheduler, date, 0);
+            book(scheduler, date, 1);
+            book(scheduler, date, 2);
+            assertTrue(scheduler.cancel(PATIENTS[1], date, Timeslot.getTimeslotByNumber(2)).isSuccessful());
+            assertTrue(scheduler.reschedule(PATIENTS[2], date, Timeslot.getTimeslotByNumber(3), moved)
+                    .isSuccessful());
+            journal.sync();
+            assertNull(journal.getFailure());
+        }
+        ClinicScheduler recovered = scheduler();
+        try (AppointmentJournal journal = open(recovered)) {
+            assertEquals(5, journal.getReplayedRecords());
+            assertEquals(0, journal.getSkippedRecords());
+        }
+        assertEquals(2, recovered.getAppointmentStore().size());
+        assertTrue(isBooked(recovered, date, 0));
+        assertFalse(isBooked(recovered, date, 1));
+        assertFalse(isBooked(recovered, date, 2));
+        assertNotNull(recovered.findAppointment(PATIENTS[2], date, moved));
+    }
+
+    @Test
+    void tornLastRecordIsDropped() throws IOException {
+        Date date = ScheduleFixtures.bookableDate();
+        journalBookings(date, 3);
+        truncate(FIRST_SEGMENT, 3);
+        ClinicScheduler recovered = scheduler();
+        try (AppointmentJournal journal = open(recovered)) {
+            assertEquals(2, journal.getReplayedRecords());
+        }
+        assertEquals(2, recovered.getAppointmentStore().size());
+        assertTrue(isBooked(recovered, date, 0));
+        assertTrue(isBooked(recovered, date, 1));
+        assertFalse(isBooked(recovered, date, 2));
+    }
+
+    @Test
+    void lastRecordWithWrongChecksumIsDropped() throws IOException {
+        Date date = ScheduleFixtures.bookableDate();
+        journalBookings(date, 3);
+        Path segment = this.directory.resolve(FIRST_SEGMENT);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(segment, bytes);
+        ClinicScheduler recovered = scheduler();
+        try (AppointmentJournal journal = open(recovered)) {
+            assertEquals(2, journal.getReplayedRecords());
+        }
+        assertTrue(isBooked(recovered, date, 1));
+        assertFalse(isBooked(recovered, date, 2));
+    }
+
+    @Test
+    void recoveryReplaysEverySegment() throws IOException {
+        Date date = ScheduleFixtures.bookableDate();
+        journalBookings(date, 2);
+        ClinicScheduler scheduler = scheduler();
+        try (AppointmentJournal journal = open(scheduler)) {
+            assertEquals(2, journal.getReplayedRecords());
+            book(scheduler, date, 2);
+            book(scheduler, date, 3);
+        }
+        assertTrue(Files.exists(this.directory.resolve(FIRST_SEGMENT)));
+        assertTrue(Files.exists(this.directory.resolve(SECOND_SEGMENT)));
+        truncate(SECOND_SEGMENT, 1);
+        ClinicScheduler recovered = scheduler();
+        try (AppointmentJournal journal = open(recovered)) {
+            assertEquals(3, journal.getReplayedRecords());
+        }
+        assertTrue(isBooked(recovered, date, 0));
+        assertTrue(isBooked(recovered, date, 1));
+        assertTrue(isBooked(recovered, date, 2));
+        assertFalse(isBooked(recovered, date, 3));
+    }
+
+    @Test
+    void recoveryLoadsTheSnapshotAndReplaysTheTail() throws IOException {
+        Date date = ScheduleFixtures.bookableDate();
+        ClinicScheduler scheduler = scheduler();
+        try (AppointmentJournal journal = open(scheduler)) {
+            book(scheduler, date, 0);
+            book(scheduler, date, 1);
+            journal.snapshot();
+            book(scheduler, date, 2);
+            assertTrue(scheduler.cancel(PATIENTS[0], date, Timeslot.getTimeslotByNumber(1)).isSuccessful());
+        }
+        assertTrue(Files.exists(this.directory.resolve(FIRST_SNAPSHOT)));
+        assertFalse(Files.exists(this.directory.resolve(FIRST_SEGMENT)));
+        ClinicScheduler recovered = scheduler();
+        try (AppointmentJournal journal = open(recovered)) {
+            assertEquals(2, journal.getReplayedRecords());
+            assertEquals(0, journal.getSkippedRecords());
+        }
+        assertEquals(2, recovered.getAppointmentStore().size());
+        assertFalse(isBooked(recovered, date, 0));
+        assertTrue(isBooked(recovered, date, 1));
+        assertTrue(isBooked(recovered, date, 2));
+    }
+
+    @Test
+    void failedJournalStopsSaving() throws IOException {
+        Date date = ScheduleFixtures.bookableDate();
+        ClinicScheduler scheduler = scheduler();
+        Path blocked = this.directory.resolve(FIRST_SNAPSHOT);
+        AppointmentJournal journal = open(scheduler);
+        book(scheduler, date, 0);
+        Files.createDirectory(blocked);
+        journal.snapshot();
+        assertTimeoutPreemptively(FAILURE_TIMEOUT, () -> {
+            while (journal.getFailure() == null) {
+                Thread.sleep(1);
+            }
+        });
+        book(scheduler, date, 1);
+        IOException failure = journal.getFailure();
+        assertSame(failure, assertThrows(IOException.class, journal::sync));
+        assertSame(failure, assertThrows(IOException.class, journal::close));
+        Files.delete(blocked);
+        ClinicScheduler recovered = scheduler();
+        try (AppointmentJournal reopened = open(recovered)) {
+            assertEquals(1, reopened.getReplayedRecords());
+            assertNull(reopened.getFailure());
+        }
+        assertTrue(isBooked(recovered, date, 0));
+        assertFalse(isBooked(recovered, date, 1));
+    }
+}
@@ -0,0 +1,64 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+import util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the store keeps appointments in the order they were added
+ * when others are removed, and that its list is a copy
+ * @author Keshav Dave, Danny Watson
+ */
+class AppointmentStoreTest {
+    private static final Doctor DOCTOR = new Doctor(new Profile("Ann", "Lee", new Date(3, 4, 1975)),
+            Location.EDISON, Specialty.SPEC3, "01");
+    private static final Date DATE = new Date(10, 1, 2026);
+
+    private static Appointment appointment(int number) {
+        return new Appointment(DATE, Timeslot.getTimeslotByNumber(number),
+                new Patient(new Profile("P" + number, "Doe", new Date(1, 2, 1990))), DOCTOR);
+    }
+
+    @Test
+    void removingKeepsTheOrderOfTheRest() {
+        AppointmentStore store = new AppointmentStore();
+        Appointment[] booked = new Appointment[5];
+        for (int i = 0; i < booked.length; i++) {
+            booked[i] = appointment(i + 1);
+            assertTrue(store.add(booked[i]));
+        }
+        assertTrue(store.remove(booked[3]));
+        assertTrue(store.remove(booked[0]));
+        assertFalse(store.remove(booked[0]));
+        assertArrayEquals(new Appointment[]{booked[1], booked[2], booked[4]}, store.toArray());
+        assertEquals(3, store.size());
+        assertFalse(store.isDoctorBooked("01", DATE, booked[3].getTimeslot()));
+    }
+
+    @Test
+    void readdedAppointmentMovesToTheEnd() {
+        AppointmentStore store = new AppointmentStore();
+        Appointment first = appointment(1);
+        Appointment second = appointment(2);
+        store.add(first);
+        store.add(second);
+        store.remove(first);
+        store.add(first);
+        assertArrayEquals(new Appointment[]{second, first}, store.toArray());
+    }
+
+    @Test
+    void appointmentListIsACopy() {
+        AppointmentStore store = new AppointmentStore();
+        store.add(appointment(1));
+        List<Appointment> list = store.getAppointments();
+        list.removeAt(0);
+        assertEquals(1, store.size());
+        assertEquals(1, store.getAppointments().size());
+    }
+}
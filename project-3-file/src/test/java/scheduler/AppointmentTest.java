@@ -0,0 +1,91 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static scheduler.ContractAssertions.assertConsistentEqual;
+import static scheduler.ContractAssertions.assertOrdered;
+
+/**
+ * Tests that equals, hashCode and compareTo of Appointment and Imaging
+ * agree, including the ties broken by timeslot and patient
+ * @author Keshav Dave, Danny Watson
+ */
+class AppointmentTest {
+    private static final Date DATE = new Date(9, 30, 2026);
+    private static final Date DOB = new Date(12, 13, 1989);
+    private static final Doctor DOCTOR = new Doctor(new Profile("Ann", "Lee", new Date(1, 2, 1970)),
+            Location.EDISON, Specialty.SPEC1, "01");
+    private static final Doctor OTHER_DOCTOR = new Doctor(new Profile("Bob", "Ray", new Date(3, 4, 1975)),
+            Location.CLARK, Specialty.SPEC2, "02");
+
+    private static Appointment appointment(Date date, int timeslot, String lastName, Doctor doctor) {
+        return new Appointment(date, Timeslot.getTimeslotByNumber(timeslot),
+                new Patient(new Profile("John", lastName, DOB)), doctor);
+    }
+
+    @Test
+    void appointmentsOfTheSamePatientAndSlotAreEqual() {
+        assertConsistentEqual(appointment(DATE, 3, "Doe", DOCTOR),
+                new Appointment(new Date(9, 30, 2026), new Timeslot(10, 0),
+                        new Patient(new Profile("JOHN", "doe", DOB)), DOCTOR));
+    }
+
+    @Test
+    void providerIsNotPartOfEquality() {
+        assertConsistentEqual(appointment(DATE, 3, "Doe", DOCTOR), appointment(DATE, 3, "Doe", OTHER_DOCTOR));
+    }
+
+    @Test
+    void appointmentsAreOrderedByDateFirst() {
+        assertOrdered(appointment(DATE, 12, "Zed", DOCTOR), appointment(new Date(10, 1, 2026), 1, "Abe", DOCTOR));
+    }
+
+    @Test
+    void sameDateTiesAreBrokenByTimeslot() {
+        assertOrdered(appointment(DATE, 1, "Zed", DOCTOR), appointment(DATE, 2, "Abe", DOCTOR));
+    }
+
+    @Test
+    void sameSlotTiesAreBrokenByPatient() {
+        assertOrdered(appointment(DATE, 5, "Abe", DOCTOR), appointment(DATE, 5, "Zed", DOCTOR));
+        assertOrdered(appointment(DATE, 5, "Doe", DOCTOR), new Appointment(DATE,
+                Timeslot.getTimeslotByNumber(5), new Patient(new Profile("John", "Doe", new Date(12, 14, 1989))),
+                DOCTOR));
+    }
+
+    @Test
+    void imagingIsNotEqualToAnOfficeVisitOfTheSameSlot() {
+        Patient patient = new Patient(new Profile("John", "Doe", DOB));
+        Technician technician = new Technician(new Profile("Cat", "Kim", new Date(5, 6, 1980)),
+                Location.EDISON, 120);
+        Appointment office = new Appointment(DATE, Timeslot.getTimeslotByNumber(4), patient, DOCTOR);
+        Imaging imaging = new Imaging(DATE, Timeslot.getTimeslotByNumber(4), patient, technician, Radiology.XRAY);
+        assertFalse(office.equals(imaging));
+        assertFalse(imaging.equals(office));
+        assertConsistentEqual(imaging, new Imaging(DATE, Timeslot.getTimeslotByNumber(4),
+                new Patient(new Profile("john", "DOE", DOB)), technician, Radiology.CATSCAN));
+    }
+
+    @Test
+    void hashSetAndTreeSetAgree() {
+        HashSet<Appointment> hashed = new HashSet<>();
+        TreeSet<Appointment> sorted = new TreeSet<>();
+        String[] lastNames = {"Doe", "DOE", "Smith", "smith", "Abe"};
+        for (int timeslot = 1; timeslot <= 3; timeslot++) {
+            for (String lastName : lastNames) {
+                Appointment appointment = appointment(DATE, timeslot, lastName, DOCTOR);
+                hashed.add(appointment);
+                sorted.add(appointment);
+            }
+        }
+        assertEquals(9, hashed.size());
+        assertEquals(9, sorted.size());
+        assertEquals(hashed, new HashSet<>(sorted));
+    }
+}
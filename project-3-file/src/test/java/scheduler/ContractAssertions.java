@@ -0,0 +1,47 @@
+package scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions that equals, hashCode and compareTo of two objects agree, so
+ * the objects behave the same in hash maps, trees and sorted lists
+ * @author Keshav Dave, Danny Watson
+ */
+final class ContractAssertions {
+    /**
+     * Private constructor, the class only has static methods
+     */
+    private ContractAssertions() {
+    }
+
+    /**
+     * Asserts that two objects are equal both ways, hash alike and compare
+     * as equal both ways
+     * @param first the first object
+     * @param second the second object
+     * @param <T> the type of the objects
+     */
+    static <T extends Comparable<T>> void assertConsistentEqual(T first, T second) {
+        assertTrue(first.equals(second), first + " should equal " + second);
+        assertTrue(second.equals(first), second + " should equal " + first);
+        assertEquals(first.hashCode(), second.hashCode(), "equal objects must have equal hash codes");
+        assertEquals(0, first.compareTo(second), "equal objects must compare as 0");
+        assertEquals(0, second.compareTo(first), "equal objects must compare as 0");
+    }
+
+    /**
+     * Asserts that an object comes before another, is not equal to it
+     * either way, and that the order is reversed the other way
+     * @param lower the object that comes first
+     * @param higher the object that comes second
+     * @param <T> the type of the objects
+     */
+    static <T extends Comparable<T>> void assertOrdered(T lower, T higher) {
+        assertFalse(lower.equals(higher), lower + " should not equal " + higher);
+        assertFalse(higher.equals(lower), higher + " should not equal " + lower);
+        assertTrue(lower.compareTo(higher) < 0, lower + " should come before " + higher);
+        assertTrue(higher.compareTo(lower) > 0, higher + " should come after " + lower);
+    }
+}
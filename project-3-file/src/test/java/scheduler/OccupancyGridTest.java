@@ -0,0 +1,47 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the grid drops the days before today when it grows, and keeps
+ * every day from today on
+ * @author Keshav Dave, Danny Watson
+ */
+class OccupancyGridTest {
+    private static final Timeslot TIMESLOT = Timeslot.getTimeslotByNumber(4);
+    private static final int DAYS_AGO = 400;
+    private static final int DAYS_AHEAD = 150;
+    private static final int FAR_AHEAD = 2000;
+
+    @Test
+    void growingDropsThePastAndKeepsTheFuture() {
+        int today = Date.today().toEpochDay();
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.book(1, today, TIMESLOT);
+        grid.book(1, today + DAYS_AHEAD, TIMESLOT);
+        grid.book(0, today - DAYS_AGO, TIMESLOT);
+        assertTrue(grid.isBooked(0, today - DAYS_AGO, TIMESLOT));
+        grid.book(0, today + FAR_AHEAD, TIMESLOT);
+        assertFalse(grid.isBooked(0, today - DAYS_AGO, TIMESLOT));
+        assertTrue(grid.isBooked(1, today, TIMESLOT));
+        assertTrue(grid.isBooked(1, today + DAYS_AHEAD, TIMESLOT));
+        assertTrue(grid.isBooked(0, today + FAR_AHEAD, TIMESLOT));
+        assertFalse(grid.isBooked(1, today + FAR_AHEAD, TIMESLOT));
+    }
+
+    @Test
+    void pastDaysCanStillBeBookedBeforeTheGridGrows() {
+        int today = Date.today().toEpochDay();
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.book(2, today + 1, TIMESLOT);
+        grid.book(2, today - DAYS_AGO, TIMESLOT);
+        assertTrue(grid.isBooked(2, today - DAYS_AGO, TIMESLOT));
+        assertTrue(grid.isBooked(2, today + 1, TIMESLOT));
+        grid.release(2, today - DAYS_AGO, TIMESLOT);
+        assertFalse(grid.isBooked(2, today - DAYS_AGO, TIMESLOT));
+    }
+}
@@ -0,0 +1,43 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+import util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a patient is only registered by a booking that succeeds
+ * @author Keshav Dave, Danny Watson
+ */
+class PatientRegistrationTest {
+    private static final Profile PATIENT = new Profile("John", "Doe", new Date(12, 13, 1989));
+    private static final Timeslot TIMESLOT = Timeslot.getTimeslotByNumber(1);
+
+    @Test
+    void imagingWithoutATechnicianDoesNotRegisterThePatient() {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        List<Provider> providers = new List<>();
+        providers.addLast(new Doctor(new Profile("Ann", "Lee", new Date(3, 4, 1975)), Location.EDISON,
+                Specialty.SPEC3, "01"));
+        scheduler.setProviders(providers);
+        BookingResult result = scheduler.bookImaging(PATIENT, ScheduleFixtures.bookableDate(), TIMESLOT, Radiology.XRAY);
+        assertEquals(BookingStatus.PROVIDER_UNAVAILABLE, result.getStatus());
+        assertEquals(0, scheduler.getAppointmentStore().getPatientRegistry().size());
+    }
+
+    @Test
+    void officeBookingRegistersThePatientOnce() {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        List<Provider> providers = new List<>();
+        providers.addLast(new Doctor(new Profile("Ann", "Lee", new Date(3, 4, 1975)), Location.EDISON,
+                Specialty.SPEC3, "01"));
+        scheduler.setProviders(providers);
+        Date date = ScheduleFixtures.bookableDate();
+        assertTrue(scheduler.bookOffice(PATIENT, date, TIMESLOT, "01").isSuccessful());
+        assertFalse(scheduler.bookOffice(PATIENT, date, TIMESLOT, "01").isSuccessful());
+        assertEquals(1, scheduler.getAppointmentStore().getPatientRegistry().size());
+    }
+}
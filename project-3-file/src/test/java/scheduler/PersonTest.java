@@ -0,0 +1,51 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static scheduler.ContractAssertions.assertConsistentEqual;
+import static scheduler.ContractAssertions.assertOrdered;
+
+/**
+ * Tests that equals, hashCode and compareTo of Person, Patient and the
+ * providers agree with those of their profiles
+ * @author Keshav Dave, Danny Watson
+ */
+class PersonTest {
+    private static final Date DOB = new Date(12, 13, 1989);
+
+    @Test
+    void personsAreEqualWhenTheirProfilesAre() {
+        assertConsistentEqual(new Person(new Profile("John", "Doe", DOB)),
+                new Person(new Profile("john", "DOE", DOB)));
+        assertOrdered(new Person(new Profile("John", "Doe", DOB)),
+                new Person(new Profile("John", "Smith", DOB)));
+    }
+
+    @Test
+    void personHashesLikeItsProfile() {
+        Profile profile = new Profile("John", "Doe", DOB);
+        assertEquals(profile.hashCode(), new Person(profile).hashCode());
+        assertEquals(profile.hashCode(), new Patient(profile).hashCode());
+    }
+
+    @Test
+    void patientsAreEqualWhateverTheirVisits() {
+        Profile profile = new Profile("John", "Doe", DOB);
+        Patient visited = new Patient(profile);
+        Doctor doctor = new Doctor(new Profile("Ann", "Lee", new Date(1, 2, 1970)),
+                Location.EDISON, Specialty.SPEC1, "01");
+        visited.addVisit(new Appointment(new Date(9, 30, 2026), Timeslot.getTimeslotByNumber(1),
+                visited, doctor));
+        assertConsistentEqual(visited, new Patient(new Profile("JOHN", "doe", DOB)));
+    }
+
+    @Test
+    void patientIsNotEqualToAPersonOfTheSameProfile() {
+        Profile profile = new Profile("John", "Doe", DOB);
+        assertFalse(new Patient(profile).equals(new Person(profile)));
+        assertFalse(new Person(profile).equals(new Patient(profile)));
+    }
+}
@@ -0,0 +1,63 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static scheduler.ContractAssertions.assertConsistentEqual;
+import static scheduler.ContractAssertions.assertOrdered;
+
+/**
+ * Tests that equals, hashCode and compareTo of Profile agree
+ * @author Keshav Dave, Danny Watson
+ */
+class ProfileTest {
+    private static final Date DOB = new Date(12, 13, 1989);
+
+    @Test
+    void namesDifferingOnlyInCaseAreEqual() {
+        assertConsistentEqual(new Profile("John", "Doe", DOB), new Profile("JOHN", "doe", DOB));
+        assertConsistentEqual(new Profile("\u00c9MILE", "Zola", DOB), new Profile("\u00e9mile", "ZOLA", DOB));
+    }
+
+    @Test
+    void profilesAreOrderedByLastNameFirstNameAndDateOfBirth() {
+        assertOrdered(new Profile("Zoe", "Adams", DOB), new Profile("Adam", "Baker", DOB));
+        assertOrdered(new Profile("adam", "Baker", DOB), new Profile("Zoe", "baker", DOB));
+        assertOrdered(new Profile("John", "Doe", new Date(12, 13, 1989)),
+                new Profile("john", "DOE", new Date(12, 14, 1989)));
+    }
+
+    @Test
+    void cachedHashCodeStaysTheSame() {
+        Profile profile = new Profile("Mary", "Smith", DOB);
+        int hash = profile.hashCode();
+        assertEquals(hash, profile.hashCode());
+        assertEquals(hash, new Profile("MARY", "SMITH", new Date(12, 13, 1989)).hashCode());
+    }
+
+    @Test
+    void hashSetAndTreeSetAgree() {
+        HashSet<Profile> hashed = new HashSet<>();
+        TreeSet<Profile> sorted = new TreeSet<>();
+        for (String name : new String[] {"john", "John", "JOHN", "jane", "Jane"}) {
+            Profile profile = new Profile(name, "Doe", DOB);
+            hashed.add(profile);
+            sorted.add(profile);
+        }
+        assertEquals(2, hashed.size());
+        assertEquals(2, sorted.size());
+        assertEquals(hashed, new HashSet<>(sorted));
+    }
+
+    @Test
+    void profileIsNotEqualToOtherTypes() {
+        Profile profile = new Profile("John", "Doe", DOB);
+        assertFalse(profile.equals(null));
+        assertFalse(profile.equals(new Person(profile)));
+    }
+}
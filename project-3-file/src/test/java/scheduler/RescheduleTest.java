@@ -0,0 +1,144 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+import util.List;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a rescheduled imaging appointment keeps its room in every
+ * scheduling core, that the room is held at the new timeslot, and that a
+ * moved appointment keeps the shared patient of its profile
+ * A technician is only moved to a timeslot no other technician holds, even
+ * when two reschedules race for it
+ * @author Keshav Dave, Danny Watson
+ */
+class RescheduleTest {
+    private static final Profile PATIENT = new Profile("John", "Doe", new Date(12, 13, 1989));
+    private static final Profile OTHER_PATIENT = new Profile("Jane", "Roe", new Date(1, 2, 1990));
+    private static final Timeslot FROM = Timeslot.getTimeslotByNumber(1);
+    private static final Timeslot TO = Timeslot.getTimeslotByNumber(2);
+    private static final Timeslot LATER = Timeslot.getTimeslotByNumber(3);
+    private static final int RACES = 200;
+
+    /**
+     * Two technicians sharing the rooms of one location
+     * @return the providers
+     */
+    private static List<Provider> providers() {
+        List<Provider> providers = new List<>();
+        providers.addLast(new Technician(new Profile("Cat", "Kim", new Date(5, 6, 1980)), Location.EDISON, 120));
+        providers.addLast(new Technician(new Profile("Dan", "Fox", new Date(7, 8, 1982)), Location.EDISON, 100));
+        return providers;
+    }
+
+    private static void assertKeepsRoom(BookingResult result) {
+        assertEquals(BookingStatus.RESCHEDULED, result.getStatus(), result.getMessage());
+        assertTrue(result.getAppointment() instanceof Imaging);
+        assertEquals(Radiology.XRAY, ((Imaging) result.getAppointment()).getRoom());
+        assertEquals(TO, result.getAppointment().getTimeslot());
+    }
+
+    @Test
+    void clinicSchedulerKeepsTheRoom() {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        scheduler.setProviders(providers());
+        Date date = ScheduleFixtures.bookableDate();
+        assertTrue(scheduler.bookImaging(PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+        assertKeepsRoom(scheduler.reschedule(PATIENT, date, FROM, TO));
+        AppointmentStore store = scheduler.getAppointmentStore();
+        assertTrue(store.isRoomBooked(Location.EDISON, Radiology.XRAY, date, TO));
+        assertFalse(store.isRoomBooked(Location.EDISON, Radiology.XRAY, date, FROM));
+        assertFalse(scheduler.bookImaging(OTHER_PATIENT, date, TO, Radiology.XRAY).isSuccessful());
+    }
+
+    @Test
+    void clinicSchedulerKeepsTheSharedPatient() {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        scheduler.setProviders(providers());
+        Date date = ScheduleFixtures.bookableDate();
+        Timeslot later = Timeslot.getTimeslotByNumber(3);
+        assertTrue(scheduler.bookImaging(PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+        Appointment other = scheduler.bookImaging(PATIENT, date, later, Radiology.CATSCAN).getAppointment();
+        Appointment moved = scheduler.reschedule(PATIENT, date, FROM, TO).getAppointment();
+        assertSame(other.getPatient(), moved.getPatient());
+        assertSame(moved, scheduler.findAppointment(PATIENT, date, TO));
+    }
+
+    @Test
+    void concurrentSchedulerKeepsTheRoom() {
+        ConcurrentScheduler scheduler = new ConcurrentScheduler(providers());
+        Date date = ScheduleFixtures.bookableDate();
+        assertTrue(scheduler.bookImaging(PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+        assertKeepsRoom(scheduler.reschedule(PATIENT, date, FROM, TO));
+        assertFalse(scheduler.bookImaging(OTHER_PATIENT, date, TO, Radiology.XRAY).isSuccessful());
+        assertTrue(scheduler.bookImaging(OTHER_PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+    }
+
+    @Test
+    void optimisticSchedulerClaimsTheRoom() {
+        OptimisticScheduler scheduler = new OptimisticScheduler(providers());
+        Date date = ScheduleFixtures.bookableDate();
+        assertTrue(scheduler.bookImaging(PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+        assertKeepsRoom(scheduler.reschedule(PATIENT, date, FROM, TO));
+        assertFalse(scheduler.bookImaging(OTHER_PATIENT, date, TO, Radiology.XRAY).isSuccessful());
+        assertTrue(scheduler.bookImaging(OTHER_PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+    }
+
+    @Test
+    void optimisticSchedulerKeepsTechniciansOutOfABookedSlot() {
+        OptimisticScheduler scheduler = new OptimisticScheduler(providers());
+        Date date = ScheduleFixtures.bookableDate();
+        assertTrue(scheduler.bookImaging(PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+        assertTrue(scheduler.bookImaging(OTHER_PATIENT, date, TO, Radiology.CATSCAN).isSuccessful());
+        assertEquals(BookingStatus.PROVIDER_UNAVAILABLE, scheduler.reschedule(PATIENT, date, FROM, TO).getStatus());
+        assertTrue(scheduler.reschedule(OTHER_PATIENT, date, TO, LATER).isSuccessful());
+        assertKeepsRoom(scheduler.reschedule(PATIENT, date, FROM, TO));
+    }
+
+    @Test
+    void optimisticSchedulerMovesOneOfTwoRacingTechnicians() throws Exception {
+        ExecutorService desks = Executors.newFixedThreadPool(2);
+        try {
+            for (int race = 0; race < RACES; race++) {
+                OptimisticScheduler scheduler = new OptimisticScheduler(providers());
+                Date date = ScheduleFixtures.bookableDate();
+                assertTrue(scheduler.bookImaging(PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+                assertTrue(scheduler.bookImaging(OTHER_PATIENT, date, LATER, Radiology.CATSCAN).isSuccessful());
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<BookingResult> first = desks.submit(() -> {
+                    start.await();
+                    return scheduler.reschedule(PATIENT, date, FROM, TO);
+                });
+                Future<BookingResult> second = desks.submit(() -> {
+                    start.await();
+                    return scheduler.reschedule(OTHER_PATIENT, date, LATER, TO);
+                });
+                assertTrue(first.get().isSuccessful() != second.get().isSuccessful(),
+                        "exactly one technician may move to " + TO);
+            }
+        } finally {
+            desks.shutdownNow();
+        }
+    }
+
+    @Test
+    void optimisticSchedulerRefusesATakenRoom() {
+        OptimisticScheduler scheduler = new OptimisticScheduler(providers());
+        Date date = ScheduleFixtures.bookableDate();
+        assertTrue(scheduler.bookImaging(PATIENT, date, FROM, Radiology.XRAY).isSuccessful());
+        assertTrue(scheduler.bookImaging(OTHER_PATIENT, date, TO, Radiology.XRAY).isSuccessful());
+        assertEquals(BookingStatus.PROVIDER_UNAVAILABLE, scheduler.reschedule(PATIENT, date, FROM, TO).getStatus());
+        assertTrue(scheduler.cancel(OTHER_PATIENT, date, TO).isSuccessful());
+        assertKeepsRoom(scheduler.reschedule(PATIENT, date, FROM, TO));
+    }
+}
@@ -0,0 +1,33 @@
+package scheduler;
+
+import util.Date;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Dates shared by the scheduling tests, taken from the booking window of
+ * the scheduler so they stay bookable whatever day the tests run on
+ * @author Keshav Dave, Danny Watson
+ */
+final class ScheduleFixtures {
+    /**
+     * Private constructor, the class only has static methods
+     */
+    private ScheduleFixtures() {
+    }
+
+    /**
+     * Returns the first day after today that ClinicScheduler accepts as an
+     * appointment date, searching up to the six month limit of Date
+     * @return a date that can be booked
+     */
+    static Date bookableDate() {
+        for (int day = Date.today().toEpochDay() + 1; day < Date.sixMonthsEpochDay(); day++) {
+            Date date = Date.fromEpochDay(day);
+            if (ClinicScheduler.checkAppointmentDate(date) == null) {
+                return date;
+            }
+        }
+        return fail("No day of the booking window can be booked");
+    }
+}
@@ -0,0 +1,39 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static scheduler.ContractAssertions.assertConsistentEqual;
+import static scheduler.ContractAssertions.assertOrdered;
+
+/**
+ * Tests that equals, hashCode and compareTo of Timeslot agree
+ * @author Keshav Dave, Danny Watson
+ */
+class TimeslotTest {
+    @Test
+    void timeslotsOfTheSameTimeAreEqual() {
+        assertConsistentEqual(Timeslot.getTimeslotByNumber(1), new Timeslot(9, 0));
+        assertConsistentEqual(Timeslot.getTimeslotByNumber(12), new Timeslot(16, 30));
+    }
+
+    @Test
+    void numberedTimeslotsAreInOrderOfTime() {
+        for (int number = 1; number < Timeslot.NUMBER_OF_TIMESLOTS; number++) {
+            assertOrdered(Timeslot.getTimeslotByNumber(number), Timeslot.getTimeslotByNumber(number + 1));
+        }
+        assertOrdered(new Timeslot(9, 30), new Timeslot(10, 0));
+    }
+
+    @Test
+    void everyNumberedTimeslotHasItsOwnHashCode() {
+        for (int first = 1; first <= Timeslot.NUMBER_OF_TIMESLOTS; first++) {
+            for (int second = first + 1; second <= Timeslot.NUMBER_OF_TIMESLOTS; second++) {
+                assertFalse(Timeslot.getTimeslotByNumber(first).hashCode()
+                        == Timeslot.getTimeslotByNumber(second).hashCode());
+            }
+        }
+        assertEquals(Timeslot.getTimeslotByNumber(7).hashCode(), new Timeslot(14, 0).hashCode());
+    }
+}
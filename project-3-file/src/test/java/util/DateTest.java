@@ -0,0 +1,49 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that equals, hashCode and compareTo of Date agree, and that dates
+ * are ordered the way the calendar orders them
+ * @author Keshav Dave, Danny Watson
+ */
+class DateTest {
+    @Test
+    void sameDatesAreEqual() {
+        Date first = new Date(2, 29, 2024);
+        Date second = new Date(2, 29, 2024);
+        assertTrue(first.equals(second));
+        assertTrue(second.equals(first));
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(0, first.compareTo(second));
+        assertFalse(first.equals(null));
+        assertFalse(first.equals("2/29/2024"));
+    }
+
+    @Test
+    void datesAreOrderedLikeTheCalendar() {
+        LocalDate start = LocalDate.of(2023, 12, 25);
+        for (int i = 0; i < 400; i++) {
+            LocalDate day = start.plusDays(i);
+            LocalDate next = day.plusDays(1 + i % 40);
+            Date date = new Date(day.getMonthValue(), day.getDayOfMonth(), day.getYear());
+            Date later = new Date(next.getMonthValue(), next.getDayOfMonth(), next.getYear());
+            assertTrue(date.compareTo(later) < 0, date + " should come before " + later);
+            assertTrue(later.compareTo(date) > 0, later + " should come after " + date);
+            assertFalse(date.equals(later));
+            assertFalse(date.hashCode() == later.hashCode());
+        }
+    }
+
+    @Test
+    void monthAndYearOutrankDay() {
+        assertTrue(new Date(1, 31, 2026).compareTo(new Date(2, 1, 2026)) < 0);
+        assertTrue(new Date(12, 31, 2025).compareTo(new Date(1, 1, 2026)) < 0);
+    }
+}